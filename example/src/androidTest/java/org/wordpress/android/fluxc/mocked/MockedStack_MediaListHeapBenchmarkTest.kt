@@ -0,0 +1,88 @@
+package org.wordpress.android.fluxc.mocked
+
+import com.yarolegovich.wellsql.WellSql
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import org.wordpress.android.fluxc.model.MediaModel
+import org.wordpress.android.fluxc.model.SiteModel
+import org.wordpress.android.fluxc.persistence.MediaSqlUtils
+import org.wordpress.android.util.AppLog
+import org.wordpress.android.util.AppLog.T
+
+/**
+ * Measures the heap used to read every media of a site with 10k media: as the list of all models, and as a lazy
+ * list with and without recycled models. The peak heap while reading the list and the heap retained by the list
+ * afterwards are logged (tag WordPress-DB).
+ */
+class MockedStack_MediaListHeapBenchmarkTest : MockedStack_Base() {
+    companion object {
+        private const val MEDIA_COUNT = 10000
+        private const val SAMPLE_INTERVAL = 50
+    }
+
+    private val site = SiteModel().apply { id = 1 }
+
+    @Test
+    fun testMediaListHeap() {
+        insertMedia()
+
+        measureHeap("List of all media") { MediaSqlUtils.getAllSiteMedia(site) }
+        measureHeap("Lazy list") { MediaSqlUtils.getAllSiteMediaAsLazyList(site, false) }
+        measureHeap("Lazy list with recycled models") { MediaSqlUtils.getAllSiteMediaAsLazyList(site, true) }
+    }
+
+    private fun insertMedia() {
+        val db = WellSql.giveMeWritableDb()
+        db.beginTransaction()
+        try {
+            (1..MEDIA_COUNT).forEach {
+                WellSql.insert(MediaModel().apply {
+                    localSiteId = site.id
+                    mediaId = it.toLong()
+                    title = "Image $it"
+                    caption = "Caption of image $it"
+                    description = "A description long enough to be representative of a media item. ".repeat(3)
+                    fileName = "image-$it.jpg"
+                    url = "https://example.com/wp-content/uploads/2019/01/image-$it.jpg"
+                    thumbnailUrl = "https://example.com/wp-content/uploads/2019/01/image-$it-150x150.jpg"
+                    uploadDate = "2019-01-01T00:00:00+00:00"
+                }).execute()
+            }
+            db.setTransactionSuccessful()
+        } finally {
+            db.endTransaction()
+        }
+    }
+
+    private fun measureHeap(label: String, getMedia: () -> List<MediaModel>) {
+        val before = getUsedHeap(true)
+        var peak = before
+        val start = System.nanoTime()
+        val media = getMedia()
+        // Read every media, as an adapter scrolled to the end would
+        media.forEachIndexed { i, model ->
+            if (model.url.isNullOrEmpty()) {
+                throw AssertionError("Media without url at $i")
+            }
+            if (i % SAMPLE_INTERVAL == 0) {
+                peak = maxOf(peak, getUsedHeap(false))
+            }
+        }
+        val elapsedMs = (System.nanoTime() - start) / 1000000
+        val retained = getUsedHeap(true) - before
+        AppLog.i(T.DB, "$label of $MEDIA_COUNT media: read in ${elapsedMs}ms, peak heap " +
+                "${(peak - before) / 1024}KB, retained ${retained / 1024}KB")
+        // Also keeps the list reachable until the retained heap is measured
+        assertEquals(MEDIA_COUNT, media.size)
+    }
+
+    private fun getUsedHeap(collect: Boolean): Long {
+        val runtime = Runtime.getRuntime()
+        if (collect) {
+            runtime.gc()
+            runtime.runFinalization()
+            runtime.gc()
+        }
+        return runtime.totalMemory() - runtime.freeMemory()
+    }
+}
@@ -0,0 +1,101 @@
+package org.wordpress.android.fluxc.mocked
+
+import com.wellsql.generated.PostModelTable
+import com.yarolegovich.wellsql.SelectQuery
+import com.yarolegovich.wellsql.WellSql
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import org.wordpress.android.fluxc.model.LocalOrRemoteId.LocalId
+import org.wordpress.android.fluxc.model.PostModel
+import org.wordpress.android.fluxc.model.SiteModel
+import org.wordpress.android.fluxc.persistence.PostSqlUtils
+import org.wordpress.android.util.AppLog
+import org.wordpress.android.util.AppLog.T
+import kotlin.random.Random
+
+/**
+ * Compares the post search index with the LIKE queries it replaced, on a site with 10k local drafts.
+ * Timings are logged (tag WordPress-DB), both approaches must return the same posts.
+ */
+class MockedStack_PostSearchBenchmarkTest : MockedStack_Base() {
+    companion object {
+        private const val POST_COUNT = 10000
+        private const val WORDS_PER_POST = 200
+        private const val VOCABULARY_SIZE = 5000
+        private const val RUNS = 5
+        private val QUERIES = listOf("w1234", "w42", "w7 w99", "w4999")
+    }
+
+    private val postSqlUtils = PostSqlUtils()
+    private val site = SiteModel().apply { id = 1 }
+
+    @Test
+    fun testIndexedSearchMatchesLikeSearch() {
+        insertPosts()
+
+        QUERIES.forEach { query ->
+            val likeResult = measure("LIKE", query) { searchWithLike(query) }
+            val indexResult = measure("FTS", query) {
+                postSqlUtils.getLocalPostIdsForFilter(site, false, query, PostModelTable.ID,
+                        SelectQuery.ORDER_ASCENDING)
+            }
+            assertEquals(likeResult, indexResult)
+        }
+    }
+
+    private fun insertPosts() {
+        val random = Random(42)
+        val db = WellSql.giveMeWritableDb()
+        db.beginTransaction()
+        try {
+            repeat(POST_COUNT) {
+                val post = PostModel()
+                post.localSiteId = site.id
+                post.setIsLocalDraft(true)
+                post.title = words(random, 8)
+                post.content = words(random, WORDS_PER_POST)
+                WellSql.insert(post).execute()
+            }
+            db.setTransactionSuccessful()
+        } finally {
+            db.endTransaction()
+        }
+    }
+
+    private fun words(random: Random, count: Int) =
+            (1..count).joinToString(" ") { "w" + random.nextInt(VOCABULARY_SIZE) }
+
+    /**
+     * The query getLocalPostIdsForFilter made before the search index existed, run once per term so multi-term
+     * queries can be compared with the index (which requires every term to match).
+     */
+    private fun searchWithLike(query: String): List<LocalId> {
+        val results = query.split(" ").map { term ->
+            WellSql.select(PostModel::class.java)
+                    .columns(PostModelTable.ID)
+                    .where().beginGroup()
+                    .equals(PostModelTable.IS_LOCAL_DRAFT, true)
+                    .equals(PostModelTable.LOCAL_SITE_ID, site.id)
+                    .equals(PostModelTable.IS_PAGE, false)
+                    .endGroup()
+                    .beginGroup().contains(PostModelTable.TITLE, term).or()
+                    .contains(PostModelTable.CONTENT, term).endGroup()
+                    .endWhere()
+                    .orderBy(PostModelTable.ID, SelectQuery.ORDER_ASCENDING)
+                    .asModel
+                    .map { LocalId(it.id) }
+        }
+        return results.reduce { acc, ids -> acc.filter { ids.contains(it) } }
+    }
+
+    private fun measure(label: String, query: String, search: () -> List<LocalId>): List<LocalId> {
+        var result = emptyList<LocalId>()
+        val timings = (1..RUNS).map {
+            val start = System.nanoTime()
+            result = search()
+            (System.nanoTime() - start) / 1000000
+        }.sorted()
+        AppLog.i(T.DB, "$label search for '$query': ${result.size} results, median ${timings[RUNS / 2]}ms")
+        return result
+    }
+}
@@ -0,0 +1,100 @@
+package org.wordpress.android.fluxc.mocked
+
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import org.wordpress.android.fluxc.model.SiteModel
+import org.wordpress.android.fluxc.model.WCProductModel
+import org.wordpress.android.fluxc.persistence.ProductSqlUtils
+import org.wordpress.android.fluxc.store.WCProductStore
+import org.wordpress.android.fluxc.store.WCProductStore.ProductFilterOption
+import org.wordpress.android.fluxc.store.WCProductStore.ProductSorting
+import org.wordpress.android.util.AppLog
+import org.wordpress.android.util.AppLog.T
+import kotlin.random.Random
+
+/**
+ * Measures the product catalog sync on a site with 20k products: storing the pages with one upsert per product
+ * (as single product fetches are stored) and with the bulk upsert, the local queries, and the reconciliation of
+ * deleted products. Timings are logged (tag WordPress-DB).
+ */
+class MockedStack_ProductSyncBenchmarkTest : MockedStack_Base() {
+    companion object {
+        private const val PRODUCT_COUNT = 20000
+        private const val DELETED_COUNT = 500
+        private const val RUNS = 5
+        private val STATUSES = listOf("publish", "draft", "private")
+        private val STOCK_STATUSES = listOf("instock", "outofstock", "onbackorder")
+    }
+
+    private val site = SiteModel().apply { id = 1 }
+
+    @Test
+    fun testProductSync() {
+        val pages = generateProducts().chunked(WCProductStore.NUM_PRODUCTS_PER_FETCH)
+
+        measure("Upsert per product") {
+            pages.forEach { page -> page.forEach { ProductSqlUtils.insertOrUpdateProduct(it) } }
+        }
+        ProductSqlUtils.deleteProductsForSite(site)
+
+        measure("Bulk upsert of new products") {
+            pages.forEach { ProductSqlUtils.insertOrUpdateProducts(it) }
+        }
+        measure("Bulk upsert of stored products") {
+            pages.forEach { ProductSqlUtils.insertOrUpdateProducts(it) }
+        }
+        assertEquals(PRODUCT_COUNT.toLong(), ProductSqlUtils.getProductCountForSite(site))
+
+        measureQuery("Sorted by title") {
+            ProductSqlUtils.getProductsForSite(site, ProductSorting.TITLE_ASC)
+        }
+        measureQuery("Filtered by stock status, sorted by date") {
+            ProductSqlUtils.getProductsForSite(site, ProductSorting.DATE_DESC,
+                    mapOf(ProductFilterOption.STOCK_STATUS to "outofstock"))
+        }
+        measureQuery("Searched") {
+            ProductSqlUtils.getProductsForSite(site, searchQuery = "SKU-123")
+        }
+
+        val remainingIds = (1L..PRODUCT_COUNT.toLong()).shuffled(Random(42)).drop(DELETED_COUNT)
+        var deleted = 0
+        measure("Reconciliation of $DELETED_COUNT deleted products") {
+            deleted = ProductSqlUtils.deleteProductsAbsentFromRemoteIds(site, remainingIds)
+        }
+        assertEquals(DELETED_COUNT, deleted)
+        assertEquals((PRODUCT_COUNT - DELETED_COUNT).toLong(), ProductSqlUtils.getProductCountForSite(site))
+    }
+
+    private fun generateProducts(): List<WCProductModel> {
+        val random = Random(42)
+        return (1..PRODUCT_COUNT).map {
+            WCProductModel().apply {
+                localSiteId = site.id
+                remoteProductId = it.toLong()
+                name = "Product ${random.nextInt(PRODUCT_COUNT)}"
+                sku = "SKU-$it"
+                status = STATUSES[random.nextInt(STATUSES.size)]
+                stockStatus = STOCK_STATUSES[random.nextInt(STOCK_STATUSES.size)]
+                dateCreated = String.format("2019-%02d-%02dT10:00:00", random.nextInt(12) + 1, random.nextInt(28) + 1)
+                dateModified = dateCreated
+                description = "A description long enough to be representative of a product. ".repeat(5)
+            }
+        }
+    }
+
+    private fun measure(label: String, block: () -> Unit) {
+        val start = System.nanoTime()
+        block()
+        AppLog.i(T.DB, "$label of $PRODUCT_COUNT products: ${(System.nanoTime() - start) / 1000000}ms")
+    }
+
+    private fun measureQuery(label: String, query: () -> List<WCProductModel>) {
+        var result = emptyList<WCProductModel>()
+        val timings = (1..RUNS).map {
+            val start = System.nanoTime()
+            result = query()
+            (System.nanoTime() - start) / 1000000
+        }.sorted()
+        AppLog.i(T.DB, "$label: ${result.size} products, median ${timings[RUNS / 2]}ms")
+    }
+}
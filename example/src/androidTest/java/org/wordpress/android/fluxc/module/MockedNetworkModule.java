@@ -8,10 +8,14 @@ import com.android.volley.toolbox.Volley;
 import org.wordpress.android.fluxc.Dispatcher;
 import org.wordpress.android.fluxc.network.HTTPAuthManager;
 import org.wordpress.android.fluxc.network.OkHttpStack;
+import org.wordpress.android.fluxc.network.ResponseValidatorCache;
 import org.wordpress.android.fluxc.network.UserAgent;
 import org.wordpress.android.fluxc.network.discovery.DiscoveryWPAPIRestClient;
 import org.wordpress.android.fluxc.network.discovery.DiscoveryXMLRPCClient;
 import org.wordpress.android.fluxc.network.discovery.SelfHostedEndpointFinder;
+import org.wordpress.android.fluxc.network.rest.wpapi.BaseWPAPIRestClient;
+import org.wordpress.android.fluxc.network.rest.wpapi.post.PostWPAPIRestClient;
+import org.wordpress.android.fluxc.network.rest.wpcom.BaseWPComRestClient;
 import org.wordpress.android.fluxc.network.rest.wpcom.account.AccountRestClient;
 import org.wordpress.android.fluxc.network.rest.wpcom.auth.AccessToken;
 import org.wordpress.android.fluxc.network.rest.wpcom.auth.AppSecrets;
@@ -28,6 +32,7 @@ import org.wordpress.android.fluxc.network.xmlrpc.site.SiteXMLRPCClient;
 
 import javax.inject.Singleton;
 
+import dagger.MembersInjector;
 import dagger.Module;
 import dagger.Provides;
 import okhttp3.OkHttpClient;
@@ -71,8 +76,13 @@ public class MockedNetworkModule {
     @Provides
     public SiteRestClient provideSiteRestClient(Context appContext, Dispatcher dispatcher, RequestQueue requestQueue,
                                                 AppSecrets appSecrets,
-                                                AccessToken token, UserAgent userAgent) {
-        return new SiteRestClient(appContext, dispatcher, requestQueue, appSecrets, token, userAgent);
+                                                AccessToken token, UserAgent userAgent,
+                                                ResponseValidatorCache validatorCache,
+                                                MembersInjector<BaseWPComRestClient> injector) {
+        SiteRestClient client = new SiteRestClient(appContext, dispatcher, requestQueue, appSecrets, token, userAgent,
+                validatorCache);
+        injector.injectMembers(client);
+        return client;
     }
 
     @Singleton
@@ -80,8 +90,12 @@ public class MockedNetworkModule {
     public MediaRestClient provideMediaRestClient(Dispatcher dispatcher, Context appContext,
                                                   RequestQueue requestQueue,
                                                   OkHttpClient okHttpClient,
-                                                  AccessToken token, UserAgent userAgent) {
-        return new MediaRestClient(appContext, dispatcher, requestQueue, okHttpClient, token, userAgent);
+                                                  AccessToken token, UserAgent userAgent,
+                                                  MembersInjector<BaseWPComRestClient> injector) {
+        MediaRestClient client = new MediaRestClient(appContext, dispatcher, requestQueue, okHttpClient, token,
+                userAgent);
+        injector.injectMembers(client);
+        return client;
     }
 
     @Singleton
@@ -102,8 +116,11 @@ public class MockedNetworkModule {
     @Singleton
     @Provides
     public PostRestClient providePostRestClient(Context appContext, Dispatcher dispatcher, RequestQueue requestQueue,
-                                                AppSecrets appSecrets, AccessToken token, UserAgent userAgent) {
-        return new PostRestClient(appContext, dispatcher, requestQueue, token, userAgent);
+                                                AppSecrets appSecrets, AccessToken token, UserAgent userAgent,
+                                                MembersInjector<BaseWPComRestClient> injector) {
+        PostRestClient client = new PostRestClient(appContext, dispatcher, requestQueue, token, userAgent);
+        injector.injectMembers(client);
+        return client;
     }
 
     @Singleton
@@ -113,19 +130,37 @@ public class MockedNetworkModule {
         return new PostXMLRPCClient(dispatcher, requestQueue, userAgent, httpAuthManager);
     }
 
+    @Singleton
+    @Provides
+    public PostWPAPIRestClient providePostWPAPIRestClient(Dispatcher dispatcher, RequestQueue requestQueue,
+                                                          UserAgent userAgent,
+                                                          MembersInjector<BaseWPAPIRestClient> injector) {
+        PostWPAPIRestClient client = new PostWPAPIRestClient(dispatcher, requestQueue, userAgent);
+        injector.injectMembers(client);
+        return client;
+    }
+
     @Singleton
     @Provides
     public AccountRestClient provideAccountRestClient(Context appContext, Dispatcher dispatcher, RequestQueue
-            requestQueue, AppSecrets appSecrets, AccessToken token, UserAgent userAgent) {
-        return new AccountRestClient(appContext, dispatcher, requestQueue, appSecrets, token, userAgent);
+            requestQueue, AppSecrets appSecrets, AccessToken token, UserAgent userAgent,
+            MembersInjector<BaseWPComRestClient> injector) {
+        AccountRestClient client = new AccountRestClient(appContext, dispatcher, requestQueue, appSecrets, token,
+                userAgent);
+        injector.injectMembers(client);
+        return client;
     }
 
     @Singleton
     @Provides
     public NotificationRestClient provideNotificationRestClient(Context appContext, Dispatcher dispatcher,
                                                                 RequestQueue requestQueue,
-                                                                AccessToken token, UserAgent userAgent) {
-        return new NotificationRestClient(appContext, dispatcher, requestQueue, token, userAgent);
+                                                                AccessToken token, UserAgent userAgent,
+                                                                MembersInjector<BaseWPComRestClient> injector) {
+        NotificationRestClient client = new NotificationRestClient(appContext, dispatcher, requestQueue, token,
+                userAgent);
+        injector.injectMembers(client);
+        return client;
     }
 
     @Singleton
@@ -138,8 +173,11 @@ public class MockedNetworkModule {
     @Singleton
     @Provides
     public DiscoveryWPAPIRestClient provideDiscoveryWPAPIRestClient(Dispatcher dispatcher, RequestQueue requestQueue,
-                                                              UserAgent userAgent) {
-        return new DiscoveryWPAPIRestClient(dispatcher, requestQueue, userAgent);
+                                                              UserAgent userAgent,
+                                                              MembersInjector<BaseWPAPIRestClient> injector) {
+        DiscoveryWPAPIRestClient client = new DiscoveryWPAPIRestClient(dispatcher, requestQueue, userAgent);
+        injector.injectMembers(client);
+        return client;
     }
 
     @Singleton
@@ -154,8 +192,13 @@ public class MockedNetworkModule {
     @Provides
     public PluginRestClient providePluginRestClient(Context appContext, Dispatcher dispatcher,
                                                     RequestQueue requestQueue,
-                                                    AccessToken token, UserAgent userAgent) {
-        return new PluginRestClient(appContext, dispatcher, requestQueue, token, userAgent);
+                                                    AccessToken token, UserAgent userAgent,
+                                                    ResponseValidatorCache validatorCache,
+                                                    MembersInjector<BaseWPComRestClient> injector) {
+        PluginRestClient client = new PluginRestClient(appContext, dispatcher, requestQueue, token, userAgent,
+                validatorCache);
+        injector.injectMembers(client);
+        return client;
     }
 
     @Singleton
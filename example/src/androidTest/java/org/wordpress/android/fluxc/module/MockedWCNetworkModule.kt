@@ -2,10 +2,13 @@ package org.wordpress.android.fluxc.module
 
 import android.content.Context
 import com.android.volley.RequestQueue
+import dagger.MembersInjector
 import dagger.Module
 import dagger.Provides
 import org.wordpress.android.fluxc.Dispatcher
+import org.wordpress.android.fluxc.network.ResponseValidatorCache
 import org.wordpress.android.fluxc.network.UserAgent
+import org.wordpress.android.fluxc.network.rest.wpcom.BaseWPComRestClient
 import org.wordpress.android.fluxc.network.rest.wpcom.auth.AccessToken
 import org.wordpress.android.fluxc.network.rest.wpcom.wc.WooCommerceRestClient
 import org.wordpress.android.fluxc.network.rest.wpcom.wc.order.OrderRestClient
@@ -22,8 +25,11 @@ class MockedWCNetworkModule {
         dispatcher: Dispatcher,
         requestQueue: RequestQueue,
         token: AccessToken,
-        userAgent: UserAgent
-    ) = WooCommerceRestClient(appContext, dispatcher, requestQueue, token, userAgent)
+        userAgent: UserAgent,
+        injector: MembersInjector<BaseWPComRestClient>
+    ) = WooCommerceRestClient(appContext, dispatcher, requestQueue, token, userAgent).also {
+        injector.injectMembers(it)
+    }
 
     @Singleton
     @Provides
@@ -32,8 +38,11 @@ class MockedWCNetworkModule {
         dispatcher: Dispatcher,
         requestQueue: RequestQueue,
         token: AccessToken,
-        userAgent: UserAgent
-    ) = OrderRestClient(appContext, dispatcher, requestQueue, token, userAgent)
+        userAgent: UserAgent,
+        injector: MembersInjector<BaseWPComRestClient>
+    ) = OrderRestClient(appContext, dispatcher, requestQueue, token, userAgent).also {
+        injector.injectMembers(it)
+    }
 
     @Singleton
     @Provides
@@ -42,8 +51,11 @@ class MockedWCNetworkModule {
         dispatcher: Dispatcher,
         requestQueue: RequestQueue,
         token: AccessToken,
-        userAgent: UserAgent
-    ) = ProductRestClient(appContext, dispatcher, requestQueue, token, userAgent)
+        userAgent: UserAgent,
+        injector: MembersInjector<BaseWPComRestClient>
+    ) = ProductRestClient(appContext, dispatcher, requestQueue, token, userAgent).also {
+        injector.injectMembers(it)
+    }
 
     @Singleton
     @Provides
@@ -52,6 +64,10 @@ class MockedWCNetworkModule {
         dispatcher: Dispatcher,
         requestQueue: RequestQueue,
         token: AccessToken,
-        userAgent: UserAgent
-    ) = OrderStatsRestClient(appContext, dispatcher, requestQueue, token, userAgent)
+        userAgent: UserAgent,
+        validatorCache: ResponseValidatorCache,
+        injector: MembersInjector<BaseWPComRestClient>
+    ) = OrderStatsRestClient(appContext, dispatcher, requestQueue, token, userAgent, validatorCache).also {
+        injector.injectMembers(it)
+    }
 }
@@ -0,0 +1,106 @@
+package org.wordpress.android.fluxc.release;
+
+import org.junit.Test;
+import org.wordpress.android.fluxc.generated.endpoint.WPCOMREST;
+import org.wordpress.android.fluxc.network.rest.ResponseFields;
+import org.wordpress.android.fluxc.network.rest.wpcom.WPComGsonRequest;
+import org.wordpress.android.fluxc.network.rest.wpcom.comment.CommentWPComRestResponse;
+import org.wordpress.android.fluxc.network.rest.wpcom.media.MediaWPComRestResponse;
+import org.wordpress.android.fluxc.network.rest.wpcom.post.PostWPComRestResponse;
+import org.wordpress.android.fluxc.network.rest.wpcom.site.SiteWPComRestResponse;
+import org.wordpress.android.fluxc.network.rest.wpcom.theme.WPComThemeResponse;
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.AppLog.T;
+
+import java.io.IOException;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Measures the payload reduction of the {@link ResponseFields} projections: each list endpoint is fetched with and
+ * without its `fields` parameter, and both (uncompressed) response sizes are logged (tag WordPress-API).
+ */
+public class ReleaseStack_ResponseFieldsTestWPCom extends ReleaseStack_WPComBase {
+    private static final String LIST_SIZE = "20";
+
+    @Inject @Named("regular") OkHttpClient mOkHttpClient;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        mReleaseStackAppComponent.inject(this);
+        // Authenticate, fetch sites and initialize sSite
+        init();
+    }
+
+    @Test
+    public void testSitesPayloadReduction() throws IOException {
+        measure("/me/sites", HttpUrl.parse(WPCOMREST.me.sites.getUrlV1_1()).newBuilder(),
+                ResponseFields.of(SiteWPComRestResponse.class));
+    }
+
+    @Test
+    public void testPostsPayloadReduction() throws IOException {
+        HttpUrl.Builder url = HttpUrl.parse(WPCOMREST.sitesSitePosts(sSite.getSiteId()).getUrlV1_1()).newBuilder()
+                .addQueryParameter("context", "edit")
+                .addQueryParameter("number", LIST_SIZE);
+        measure("posts", url, ResponseFields.of(PostWPComRestResponse.class));
+    }
+
+    @Test
+    public void testMediaPayloadReduction() throws IOException {
+        HttpUrl.Builder url = HttpUrl.parse(WPCOMREST.sitesSiteMedia(sSite.getSiteId()).getUrlV1_1()).newBuilder()
+                .addQueryParameter("number", LIST_SIZE);
+        measure("media", url, ResponseFields.of(MediaWPComRestResponse.class));
+    }
+
+    @Test
+    public void testCommentsPayloadReduction() throws IOException {
+        HttpUrl.Builder url = HttpUrl.parse(WPCOMREST.sitesSiteComments(sSite.getSiteId()).getUrlV1_1())
+                .newBuilder()
+                .addQueryParameter("status", "all")
+                .addQueryParameter("number", LIST_SIZE)
+                .addQueryParameter("force", "wpcom");
+        measure("comments", url, ResponseFields.of(CommentWPComRestResponse.class));
+    }
+
+    @Test
+    public void testThemesPayloadReduction() throws IOException {
+        HttpUrl.Builder url = HttpUrl.parse(WPCOMREST.themes.getUrlV1_2()).newBuilder()
+                .addQueryParameter("number", "500");
+        measure("themes", url, ResponseFields.of(WPComThemeResponse.class));
+    }
+
+    private void measure(String endpoint, HttpUrl.Builder url, String fields) throws IOException {
+        int fullSize = fetchSize(url.build());
+        int projectedSize = fetchSize(url.addQueryParameter("fields", fields).build());
+        AppLog.i(T.API, endpoint + ": " + fullSize + " bytes, " + projectedSize + " bytes with the fields of the "
+                        + "response class (" + (100 - projectedSize * 100 / fullSize) + "% less)");
+        assertTrue(projectedSize <= fullSize);
+    }
+
+    private int fetchSize(HttpUrl url) throws IOException {
+        Request request = new Request.Builder()
+                .url(url)
+                .header(WPComGsonRequest.REST_AUTHORIZATION_HEADER,
+                        String.format(WPComGsonRequest.REST_AUTHORIZATION_FORMAT, mAccountStore.getAccessToken()))
+                .build();
+        Response response = mOkHttpClient.newCall(request).execute();
+        try {
+            assertTrue(url.encodedPath() + " failed with " + response.code(), response.isSuccessful());
+            assertNotNull(response.body());
+            return response.body().bytes().length;
+        } finally {
+            response.close();
+        }
+    }
+}
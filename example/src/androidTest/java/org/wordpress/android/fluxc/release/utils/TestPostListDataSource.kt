@@ -3,6 +3,7 @@ package org.wordpress.android.fluxc.release.utils
 import org.wordpress.android.fluxc.Dispatcher
 import org.wordpress.android.fluxc.generated.PostActionBuilder
 import org.wordpress.android.fluxc.model.LocalOrRemoteId.RemoteId
+import org.wordpress.android.fluxc.model.list.ListPageKey
 import org.wordpress.android.fluxc.model.list.PostListDescriptor
 import org.wordpress.android.fluxc.model.list.datasource.ListItemDataSourceInterface
 import org.wordpress.android.fluxc.store.PostStore.FetchPostListPayload
@@ -24,7 +25,11 @@ internal class TestPostListDataSource(
     ): List<RemoteId> = remoteItemIds
 
     override fun fetchList(listDescriptor: PostListDescriptor, offset: Long) {
-        val fetchPostListPayload = FetchPostListPayload(listDescriptor, offset)
+        fetchList(listDescriptor, offset, null)
+    }
+
+    override fun fetchList(listDescriptor: PostListDescriptor, offset: Long, pageKey: ListPageKey?) {
+        val fetchPostListPayload = FetchPostListPayload(listDescriptor, offset, pageKey)
         dispatcher.dispatch(PostActionBuilder.newFetchPostListAction(fetchPostListPayload))
     }
 }
@@ -4,6 +4,7 @@ import org.wordpress.android.fluxc.Dispatcher
 import org.wordpress.android.fluxc.generated.WCOrderActionBuilder
 import org.wordpress.android.fluxc.model.LocalOrRemoteId.RemoteId
 import org.wordpress.android.fluxc.model.WCOrderListDescriptor
+import org.wordpress.android.fluxc.model.list.ListPageKey
 import org.wordpress.android.fluxc.model.list.datasource.ListItemDataSourceInterface
 import org.wordpress.android.fluxc.store.WCOrderStore.FetchOrderListPayload
 
@@ -24,7 +25,11 @@ internal class TestWCOrderListDataSource(
     ): List<RemoteId> = remoteItemIds
 
     override fun fetchList(listDescriptor: WCOrderListDescriptor, offset: Long) {
-        val fetchOrderListPayload = FetchOrderListPayload(listDescriptor, offset)
+        fetchList(listDescriptor, offset, null)
+    }
+
+    override fun fetchList(listDescriptor: WCOrderListDescriptor, offset: Long, pageKey: ListPageKey?) {
+        val fetchOrderListPayload = FetchOrderListPayload(listDescriptor, offset, pageKey)
         dispatcher.dispatch(WCOrderActionBuilder.newFetchOrderListAction(fetchOrderListPayload))
     }
 }
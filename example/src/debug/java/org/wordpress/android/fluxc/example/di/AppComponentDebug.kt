@@ -7,7 +7,9 @@ import dagger.android.AndroidInjectionModule
 import org.wordpress.android.fluxc.module.DebugOkHttpClientModule
 import org.wordpress.android.fluxc.module.ReleaseBaseModule
 import org.wordpress.android.fluxc.module.ReleaseNetworkModule
+import org.wordpress.android.fluxc.module.ReleaseStoreModule
 import org.wordpress.android.fluxc.module.ReleaseWCNetworkModule
+import org.wordpress.android.fluxc.module.ReleaseWCStoreModule
 import javax.inject.Singleton
 
 @Singleton
@@ -20,6 +22,8 @@ import javax.inject.Singleton
         ReleaseBaseModule::class,
         ReleaseNetworkModule::class,
         ReleaseWCNetworkModule::class,
+        ReleaseStoreModule::class,
+        ReleaseWCStoreModule::class,
         MainActivityModule::class,
         WCOrderListActivityModule::class))
 interface AppComponentDebug : AppComponent {
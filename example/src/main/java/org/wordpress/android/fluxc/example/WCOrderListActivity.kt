@@ -30,6 +30,7 @@ import org.wordpress.android.fluxc.generated.WCOrderActionBuilder
 import org.wordpress.android.fluxc.model.LocalOrRemoteId.RemoteId
 import org.wordpress.android.fluxc.model.WCOrderListDescriptor
 import org.wordpress.android.fluxc.model.WCOrderSummaryModel
+import org.wordpress.android.fluxc.model.list.ListPageKey
 import org.wordpress.android.fluxc.model.list.PagedListWrapper
 import org.wordpress.android.fluxc.model.list.datasource.ListItemDataSourceInterface
 import org.wordpress.android.fluxc.store.ListStore
@@ -271,7 +272,11 @@ private class WCOrderListItemDataSource(
     }
 
     override fun fetchList(listDescriptor: WCOrderListDescriptor, offset: Long) {
-        val fetchOrderListPayload = FetchOrderListPayload(listDescriptor, offset)
+        fetchList(listDescriptor, offset, null)
+    }
+
+    override fun fetchList(listDescriptor: WCOrderListDescriptor, offset: Long, pageKey: ListPageKey?) {
+        val fetchOrderListPayload = FetchOrderListPayload(listDescriptor, offset, pageKey)
         dispatcher.dispatch(WCOrderActionBuilder.newFetchOrderListAction(fetchOrderListPayload))
     }
 }
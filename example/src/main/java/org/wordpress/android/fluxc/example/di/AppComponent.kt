@@ -9,7 +9,9 @@ import org.wordpress.android.fluxc.example.ExampleApp
 import org.wordpress.android.fluxc.module.ReleaseBaseModule
 import org.wordpress.android.fluxc.module.ReleaseNetworkModule
 import org.wordpress.android.fluxc.module.ReleaseOkHttpClientModule
+import org.wordpress.android.fluxc.module.ReleaseStoreModule
 import org.wordpress.android.fluxc.module.ReleaseWCNetworkModule
+import org.wordpress.android.fluxc.module.ReleaseWCStoreModule
 import javax.inject.Singleton
 
 @Singleton
@@ -21,6 +23,8 @@ import javax.inject.Singleton
         ReleaseBaseModule::class,
         ReleaseNetworkModule::class,
         ReleaseWCNetworkModule::class,
+        ReleaseStoreModule::class,
+        ReleaseWCStoreModule::class,
         MainActivityModule::class,
         WCOrderListActivityModule::class))
 interface AppComponent : AndroidInjector<ExampleApp> {
@@ -0,0 +1,153 @@
+package org.wordpress.android.fluxc
+
+import com.nhaarman.mockitokotlin2.after
+import com.nhaarman.mockitokotlin2.any
+import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.never
+import com.nhaarman.mockitokotlin2.timeout
+import com.nhaarman.mockitokotlin2.verify
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.wordpress.android.fluxc.action.PostAction
+import org.wordpress.android.fluxc.annotations.action.Action
+import org.wordpress.android.fluxc.generated.AuthenticationActionBuilder
+import org.wordpress.android.fluxc.generated.MediaActionBuilder
+import org.wordpress.android.fluxc.generated.PostActionBuilder
+import org.wordpress.android.fluxc.store.AccountStore
+import org.wordpress.android.fluxc.store.AccountStore.AuthenticatePayload
+import org.wordpress.android.fluxc.store.MediaStore
+import org.wordpress.android.fluxc.store.OtherModulePostStore
+import org.wordpress.android.fluxc.store.PostStore
+import org.wordpress.android.fluxc.store.SiteStore
+import org.wordpress.android.fluxc.store.Store
+import org.wordpress.android.fluxc.store.TestChangeEvent
+import org.wordpress.android.fluxc.store.UndeclaredActionsStore
+import org.wordpress.android.fluxc.store.UploadStore
+import java.util.concurrent.TimeUnit.MILLISECONDS
+import javax.inject.Provider
+import kotlin.test.assertEquals
+import kotlin.test.assertNull
+import kotlin.test.assertTrue
+
+@RunWith(RobolectricTestRunner::class)
+class DispatcherTest {
+    private val dispatcher = Dispatcher()
+    private val postStore = mock<PostStore>()
+    private val siteStore = mock<SiteStore>()
+
+    @Test
+    fun testGeneratedBuildersListTheHandlingStores() {
+        assertEquals(listOf(PostStore::class.java), PostActionBuilder.newRemoveAllPostsAction().handlers.toList())
+        assertEquals(listOf(AccountStore::class.java), AuthenticationActionBuilder
+                .newAuthenticateAction(AuthenticatePayload("username", "password")).handlers.toList())
+        // Sorted by priority
+        assertEquals(listOf(UploadStore::class.java, MediaStore::class.java),
+                MediaActionBuilder.newRemoveAllMediaAction().handlers.toList())
+    }
+
+    @Test
+    fun testActionIsOnlyDeliveredToItsStores() {
+        dispatcher.register(postStore)
+        dispatcher.register(siteStore)
+
+        val action = PostActionBuilder.newRemoveAllPostsAction()
+        dispatcher.dispatch(action)
+
+        verify(postStore, timeout(TIMEOUT_MS)).onAction(action)
+        verify(siteStore, after(TIMEOUT_MS).never()).onAction(any())
+    }
+
+    @Test
+    fun testActionWithoutHandlersIsDeliveredToAllStores() {
+        dispatcher.register(postStore)
+        dispatcher.register(siteStore)
+
+        val action = Action<Void>(PostAction.REMOVE_ALL_POSTS, null)
+        assertNull(action.handlers)
+        dispatcher.dispatch(action)
+
+        verify(postStore, timeout(TIMEOUT_MS)).onAction(action)
+        verify(siteStore, timeout(TIMEOUT_MS)).onAction(action)
+    }
+
+    @Test
+    fun testActionIsDeliveredToTheStoresOfOtherModules() {
+        dispatcher.register(postStore)
+        val otherModuleStore = OtherModulePostStore(dispatcher)
+
+        val action = PostActionBuilder.newRemoveAllPostsAction()
+        assertEquals(listOf(PostStore::class.java), action.handlers.toList())
+        dispatcher.dispatch(action)
+
+        verify(postStore, timeout(TIMEOUT_MS)).onAction(action)
+        assertTrue(otherModuleStore.actionReceived.await(TIMEOUT_MS, MILLISECONDS))
+    }
+
+    @Test
+    fun testStoreWithoutHandledActionsReceivesActionsThroughTheBus() {
+        val store = UndeclaredActionsStore(dispatcher)
+
+        dispatcher.dispatch(PostActionBuilder.newRemoveAllPostsAction())
+
+        assertTrue(store.actionReceived.await(TIMEOUT_MS, MILLISECONDS))
+    }
+
+    @Test
+    fun testStoreReceivesTheChangeEventsItSubscribesTo() {
+        val store = OtherModulePostStore(dispatcher)
+
+        dispatcher.emitChange(TestChangeEvent())
+
+        assertTrue(store.changeReceived.await(TIMEOUT_MS, MILLISECONDS))
+    }
+
+    @Test
+    fun testUnregisteredStoreDoesNotReceiveActions() {
+        dispatcher.register(postStore)
+        dispatcher.unregister(postStore)
+
+        dispatcher.dispatch(PostActionBuilder.newRemoveAllPostsAction())
+
+        verify(postStore, after(TIMEOUT_MS).never()).onAction(any())
+    }
+
+    @Test
+    fun testStoreIsCreatedOnItsFirstAction() {
+        var createdStores = 0
+        lateinit var lazyDispatcher: Dispatcher
+        val postStoreProvider = Provider<Store> {
+            createdStores++
+            // Like a store's constructor
+            postStore.also { lazyDispatcher.register(it) }
+        }
+        lazyDispatcher = Dispatcher(mapOf<Class<*>, Provider<Store>>(PostStore::class.java to postStoreProvider))
+
+        val firstAction = PostActionBuilder.newRemoveAllPostsAction()
+        lazyDispatcher.dispatch(firstAction)
+        verify(postStore, timeout(TIMEOUT_MS)).onAction(firstAction)
+
+        val secondAction = PostActionBuilder.newRemoveAllPostsAction()
+        lazyDispatcher.dispatch(secondAction)
+        verify(postStore, timeout(TIMEOUT_MS)).onAction(secondAction)
+        assertEquals(1, createdStores)
+    }
+
+    @Test
+    fun testStoreWithoutProviderIsNotCreated() {
+        var createdStores = 0
+        val lazyDispatcher = Dispatcher(mapOf<Class<*>, Provider<Store>>(SiteStore::class.java to Provider<Store> {
+            createdStores++
+            siteStore
+        }))
+
+        lazyDispatcher.dispatch(PostActionBuilder.newRemoveAllPostsAction())
+
+        verify(siteStore, after(TIMEOUT_MS).never()).onAction(any())
+        assertEquals(0, createdStores)
+    }
+
+    companion object {
+        private const val TIMEOUT_MS = 200L
+    }
+}
@@ -8,6 +8,12 @@ import com.yarolegovich.wellsql.WellTableManager;
 import com.yarolegovich.wellsql.core.Identifiable;
 import com.yarolegovich.wellsql.core.TableClass;
 
+import org.wordpress.android.fluxc.model.MediaModel;
+import org.wordpress.android.fluxc.model.PostModel;
+import org.wordpress.android.fluxc.model.WCOrderModel;
+import org.wordpress.android.fluxc.persistence.MediaSearchIndex;
+import org.wordpress.android.fluxc.persistence.OrderSearchIndex;
+import org.wordpress.android.fluxc.persistence.PostSearchIndex;
 import org.wordpress.android.fluxc.persistence.WellSqlConfig;
 
 import java.util.ArrayList;
@@ -45,6 +51,7 @@ public class SingleStoreWellSqlConfigForTests extends WellSqlConfig {
         for (Class<? extends Identifiable> clazz : mStoreClassList) {
             helper.createTable(clazz);
         }
+        recreateSearchIndexes(db);
     }
 
     /**
@@ -57,5 +64,18 @@ public class SingleStoreWellSqlConfigForTests extends WellSqlConfig {
             db.execSQL("DROP TABLE " + table.getTableName());
             db.execSQL(table.createStatement());
         }
+        recreateSearchIndexes(db);
+    }
+
+    private void recreateSearchIndexes(SQLiteDatabase db) {
+        if (mStoreClassList.contains(PostModel.class)) {
+            PostSearchIndex.recreate(db);
+        }
+        if (mStoreClassList.contains(MediaModel.class)) {
+            MediaSearchIndex.recreate(db);
+        }
+        if (mStoreClassList.contains(WCOrderModel.class)) {
+            OrderSearchIndex.recreate(db);
+        }
     }
 }
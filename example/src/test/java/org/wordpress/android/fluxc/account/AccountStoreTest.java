@@ -17,6 +17,8 @@ import org.wordpress.android.fluxc.SingleStoreWellSqlConfigForTests;
 import org.wordpress.android.fluxc.model.AccountModel;
 import org.wordpress.android.fluxc.network.BaseRequest.BaseNetworkError;
 import org.wordpress.android.fluxc.network.BaseRequest.GenericErrorType;
+import org.wordpress.android.fluxc.network.ResponseValidatorCache;
+import org.wordpress.android.fluxc.network.ResponseValidatorCache.Validators;
 import org.wordpress.android.fluxc.network.discovery.SelfHostedEndpointFinder;
 import org.wordpress.android.fluxc.network.rest.wpcom.account.AccountRestClient;
 import org.wordpress.android.fluxc.network.rest.wpcom.auth.AccessToken;
@@ -50,17 +52,20 @@ public class AccountStoreTest {
         testAccount.setAboutMe("testAboutMe");
         AccountSqlUtils.insertOrUpdateDefaultAccount(testAccount);
         AccountStore testStore = new AccountStore(new Dispatcher(), getMockRestClient(),
-                getMockSelfHostedEndpointFinder(), getMockAuthenticator(), getMockAccessToken(true));
+                getMockSelfHostedEndpointFinder(), getMockAuthenticator(), getMockAccessToken(true),
+                new ResponseValidatorCache());
         Assert.assertEquals(testAccount, testStore.getAccount());
     }
 
     @Test
     public void testHasAccessToken() {
         AccountStore testStore = new AccountStore(new Dispatcher(), getMockRestClient(),
-                getMockSelfHostedEndpointFinder(), getMockAuthenticator(), getMockAccessToken(true));
+                getMockSelfHostedEndpointFinder(), getMockAuthenticator(), getMockAccessToken(true),
+                new ResponseValidatorCache());
         Assert.assertTrue(testStore.hasAccessToken());
         testStore = new AccountStore(new Dispatcher(), getMockRestClient(), getMockSelfHostedEndpointFinder(),
-                getMockAuthenticator(), getMockAccessToken(false));
+                getMockAuthenticator(), getMockAccessToken(false),
+                new ResponseValidatorCache());
         Assert.assertFalse(testStore.hasAccessToken());
     }
 
@@ -70,12 +75,14 @@ public class AccountStoreTest {
         testAccount.setVisibleSiteCount(0);
         AccountSqlUtils.insertOrUpdateDefaultAccount(testAccount);
         AccountStore testStore = new AccountStore(new Dispatcher(), getMockRestClient(),
-                getMockSelfHostedEndpointFinder(), getMockAuthenticator(), getMockAccessToken(false));
+                getMockSelfHostedEndpointFinder(), getMockAuthenticator(), getMockAccessToken(false),
+                new ResponseValidatorCache());
         Assert.assertFalse(testStore.hasAccessToken());
         testAccount.setVisibleSiteCount(1);
         AccountSqlUtils.insertOrUpdateDefaultAccount(testAccount);
         testStore = new AccountStore(new Dispatcher(), getMockRestClient(), getMockSelfHostedEndpointFinder(),
-                getMockAuthenticator(), getMockAccessToken(true));
+                getMockAuthenticator(), getMockAccessToken(true),
+                new ResponseValidatorCache());
         Assert.assertTrue(testStore.hasAccessToken());
     }
 
@@ -86,8 +93,10 @@ public class AccountStoreTest {
         testToken.set("TESTTOKEN");
         testAccount.setUserId(24);
         AccountSqlUtils.insertOrUpdateDefaultAccount(testAccount);
+        ResponseValidatorCache validatorCache = new ResponseValidatorCache();
+        validatorCache.put("https://example.com", new Validators("\"etag\"", null));
         AccountStore testStore = new AccountStore(new Dispatcher(), getMockRestClient(),
-                getMockSelfHostedEndpointFinder(), getMockAuthenticator(), testToken);
+                getMockSelfHostedEndpointFinder(), getMockAuthenticator(), testToken, validatorCache);
         Assert.assertTrue(testStore.hasAccessToken());
         // Signout is private (and it should remain private)
         Method privateMethod = AccountStore.class.getDeclaredMethod("signOut");
@@ -95,6 +104,7 @@ public class AccountStoreTest {
         privateMethod.invoke(testStore);
         Assert.assertFalse(testStore.hasAccessToken());
         Assert.assertNull(AccountSqlUtils.getAccountByLocalId(testAccount.getId()));
+        Assert.assertNull(validatorCache.get("https://example.com"));
     }
 
     @Test
@@ -24,4 +24,11 @@ class WCWPAPIEndpointTest {
     fun testRevenueStatsUrl() {
         assertEquals("/wc/v4/reports/revenue/stats/", WOOCOMMERCE.reports.revenue.stats.pathV4)
     }
+
+    @Test
+    fun testFlatEndpoints() {
+        assertEquals(WOOCOMMERCE.orders.id(56).notes.pathV3, WOOCOMMERCE.ordersIdNotes(56).pathV3)
+        assertEquals(WOOCOMMERCE.orders.id(56).shipment_trackings.tracking("abc").pathV2,
+                WOOCOMMERCE.ordersIdShipmentTrackingsTracking(56, "abc").pathV2)
+    }
 }
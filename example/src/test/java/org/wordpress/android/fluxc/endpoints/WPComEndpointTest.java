@@ -73,6 +73,34 @@ public class WPComEndpointTest {
         assertEquals("/read/feed/somewhere.site/", WPCOMREST.read.feed.feed_url_or_id("somewhere.site").getEndpoint());
     }
 
+    @Test
+    public void testFlatEndpoints() {
+        assertEquals(WPCOMREST.sites.site(56).getEndpoint(), WPCOMREST.sitesSite(56).getEndpoint());
+        assertEquals(WPCOMREST.sites.site(56).posts.getEndpoint(), WPCOMREST.sitesSitePosts(56).getEndpoint());
+        assertEquals(WPCOMREST.sites.site(56).posts.post(78).delete.getEndpoint(),
+                WPCOMREST.sitesSitePostsPostDelete(56, 78).getEndpoint());
+        assertEquals(WPCOMREST.sites.site(56).posts.slug("fluxc").getEndpoint(),
+                WPCOMREST.sitesSitePostsSlug(56, "fluxc").getEndpoint());
+        assertEquals(WPCOMREST.sites.site(56).media.item(78).getEndpoint(),
+                WPCOMREST.sitesSiteMediaMedia(56, 78).getEndpoint());
+        assertEquals(WPCOMREST.sites.site(56).comments.comment(78).likes.mine.delete.getEndpoint(),
+                WPCOMREST.sitesSiteCommentsCommentLikesMineDelete(56, 78).getEndpoint());
+        assertEquals(WPCOMREST.sites.site(56).taxonomies.taxonomy("category").terms.slug("fluxc").getEndpoint(),
+                WPCOMREST.sitesSiteTaxonomiesTaxonomyTermsSlug(56, "category", "fluxc").getEndpoint());
+        assertEquals(WPCOMREST.sites.site(56).stats.visits.getEndpoint(),
+                WPCOMREST.sitesSiteStatsVisits(56).getEndpoint());
+        assertEquals(WPCOMREST.read.feed.feed_url_or_id(56).getEndpoint(),
+                WPCOMREST.readFeedFeedUrlOrId(56).getEndpoint());
+        assertEquals(WPCOMREST.read.feed.feed_url_or_id("somewhere.site").getEndpoint(),
+                WPCOMREST.readFeedFeedUrlOrId("somewhere.site").getEndpoint());
+
+        // The builder is reused, every call must start from an empty endpoint
+        assertEquals("/sites/1/posts/2/", WPCOMREST.sitesSitePostsPost(1, 2).getEndpoint());
+        assertEquals("/sites/3/media/", WPCOMREST.sitesSiteMedia(3).getEndpoint());
+        assertEquals("https://public-api.wordpress.com/rest/v1.1/sites/3/media/",
+                WPCOMREST.sitesSiteMedia(3).getUrlV1_1());
+    }
+
     @Test
     public void testUrls() {
         assertEquals("https://public-api.wordpress.com/rest/v1/sites/", WPCOMREST.sites.getUrlV1());
@@ -2,12 +2,15 @@ package org.wordpress.android.fluxc.list
 
 import org.junit.Test
 import org.wordpress.android.fluxc.model.list.ListOrder
+import org.wordpress.android.fluxc.model.list.ListPageKey
 import org.wordpress.android.fluxc.model.list.ListState
 import org.wordpress.android.fluxc.model.list.ListState.ERROR
 import org.wordpress.android.fluxc.model.list.ListState.FETCHED
 import org.wordpress.android.fluxc.model.list.ListState.NEEDS_REFRESH
+import org.wordpress.android.util.DateTimeUtils
 import kotlin.test.assertEquals
 import kotlin.test.assertFalse
+import kotlin.test.assertNull
 import kotlin.test.assertTrue
 
 class ListModelTest {
@@ -54,4 +57,37 @@ class ListModelTest {
             assertFalse(listState.canLoadMore())
         }
     }
+
+    /**
+     * Tests that [ListPageKey] excludes every fetched item sharing the date of the last one, even across pages, and
+     * compares the dates in UTC.
+     */
+    @Test
+    fun testListPageKeyAfterItems() {
+        // The same date, with different offsets
+        val firstPage = listOf(1L to "2019-03-02T10:00:00Z", 2L to "2019-03-01T10:00:00Z",
+                3L to "2019-03-01T11:00:00+01:00")
+        val firstKey = ListPageKey.afterItems(firstPage, null)
+        assertEquals(ListPageKey("2019-03-01T10:00:00+00:00", listOf(2L, 3L)), firstKey)
+
+        val secondPage = listOf(4L to "2019-03-01T05:00:00-05:00")
+        assertEquals(ListPageKey("2019-03-01T10:00:00+00:00", listOf(2L, 3L, 4L)),
+                ListPageKey.afterItems(secondPage, firstKey))
+        assertEquals(ListPageKey("2019-02-01T10:00:00+00:00", listOf(5L)),
+                ListPageKey.afterItems(listOf(5L to "2019-02-01T10:00:00Z"), firstKey))
+        assertNull(ListPageKey.afterItems(listOf(6L to null), firstKey))
+        assertNull(ListPageKey.afterItems(emptyList(), null))
+    }
+
+    @Test
+    fun testListPageKeyDbValueAndDateBound() {
+        val pageKey = ListPageKey("2019-03-01T10:00:00+00:00", listOf(2L, 3L))
+        assertEquals(pageKey, ListPageKey.fromDbValue(pageKey.toDbValue()))
+        assertNull(ListPageKey.fromDbValue(null))
+        assertNull(ListPageKey.fromDbValue(""))
+
+        val time = DateTimeUtils.dateUTCFromIso8601(pageKey.date).time
+        assertEquals(time + 1000, DateTimeUtils.dateUTCFromIso8601(pageKey.getDateBound(ListOrder.DESC)).time)
+        assertEquals(time - 1000, DateTimeUtils.dateUTCFromIso8601(pageKey.getDateBound(ListOrder.ASC)).time)
+    }
 }
@@ -10,9 +10,11 @@ import org.wordpress.android.fluxc.SingleStoreWellSqlConfigForTests
 import org.wordpress.android.fluxc.model.SiteModel
 import org.wordpress.android.fluxc.model.list.ListDescriptor
 import org.wordpress.android.fluxc.model.list.ListModel
+import org.wordpress.android.fluxc.model.list.ListPageKey
 import org.wordpress.android.fluxc.model.list.PostListDescriptor.PostListDescriptorForRestSite
 import org.wordpress.android.fluxc.model.list.PostListDescriptor.PostListDescriptorForXmlRpcSite
 import org.wordpress.android.fluxc.persistence.ListSqlUtils
+import kotlin.test.assertEquals
 import kotlin.test.assertNotEquals
 import kotlin.test.assertNotNull
 import kotlin.test.assertNull
@@ -104,6 +106,21 @@ class ListSqlUtilsTest {
         listDescriptors2.forEach { assertNotNull(listSqlUtils.getList(it)) }
     }
 
+    @Test
+    fun testNextPageKeyIsKeptUntilReplaced() {
+        val listDescriptor = PostListDescriptorForRestSite(testSite())
+        val pageKey = ListPageKey("2019-03-01T10:00:00+00:00", listOf(2L, 3L))
+
+        insertOrUpdateAndThenAssertList(listDescriptor)
+        listSqlUtils.updateNextPageKey(listDescriptor, pageKey)
+        // Updating the list's state doesn't clear the key
+        val updatedList = insertOrUpdateAndThenAssertList(listDescriptor)
+        assertEquals(pageKey, ListPageKey.fromDbValue(updatedList.nextPageKeyDbValue))
+
+        listSqlUtils.updateNextPageKey(listDescriptor, null)
+        assertNull(listSqlUtils.getList(listDescriptor)?.nextPageKeyDbValue)
+    }
+
     /**
      * Inserts or updates the list for the listDescriptor and asserts that it's inserted correctly
      */
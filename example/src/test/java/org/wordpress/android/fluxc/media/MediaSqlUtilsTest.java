@@ -22,7 +22,9 @@ import org.wordpress.android.fluxc.persistence.WellSqlConfig;
 import org.wordpress.android.fluxc.utils.MediaUtils;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 
 import static org.wordpress.android.fluxc.store.MediaStore.NOT_DELETED_STATES;
@@ -182,6 +184,90 @@ public class MediaSqlUtilsTest {
         }
     }
 
+    // Inserts media with the search term in different fields, verifies word prefixes are matched in all of them
+    @Test
+    public void testMediaSearchMatchesWordPrefixes() {
+        MediaModel titleMatch = getTestMedia(1, "Holidays in Lisbon", "", "");
+        MediaModel captionMatch = getTestMedia(2, "", "", "Sunset over lisbon");
+        MediaModel fileNameMatch = getTestMedia(3, "", "", "");
+        fileNameMatch.setFileName("lisbon_2019.jpg");
+        MediaModel noMatch = getTestMedia(4, "Porto", "Not in Lisbonia", "");
+        noMatch.setLocalSiteId(TEST_LOCAL_SITE_ID + 1);
+        for (MediaModel media : new MediaModel[]{titleMatch, captionMatch, fileNameMatch, noMatch}) {
+            Assert.assertEquals(1, MediaSqlUtils.insertOrUpdateMedia(media));
+        }
+
+        List<MediaModel> results = MediaSqlUtils.searchSiteMedia(getTestSiteWithLocalId(TEST_LOCAL_SITE_ID), "LISB");
+        Assert.assertEquals(3, results.size());
+        Assert.assertEquals(1, MediaSqlUtils.searchSiteMedia(getTestSiteWithLocalId(TEST_LOCAL_SITE_ID),
+                "lisbon 2019").size());
+        Assert.assertTrue(MediaSqlUtils.searchSiteMedia(getTestSiteWithLocalId(TEST_LOCAL_SITE_ID), "isbon")
+                                       .isEmpty());
+    }
+
+    // Updates and deletes media, verifies the search results follow
+    @Test
+    public void testMediaSearchFollowsUpdatesAndDeletes() {
+        MediaModel media = getTestMedia(1, "Lisbon", "", "");
+        Assert.assertEquals(1, MediaSqlUtils.insertOrUpdateMedia(media));
+        media = MediaSqlUtils.getSiteMediaWithId(getTestSiteWithLocalId(TEST_LOCAL_SITE_ID), 1).get(0);
+        media.setTitle("Porto");
+        Assert.assertEquals(1, MediaSqlUtils.insertOrUpdateMedia(media));
+
+        Assert.assertTrue(MediaSqlUtils.searchSiteMedia(getTestSiteWithLocalId(TEST_LOCAL_SITE_ID), "lisbon")
+                                       .isEmpty());
+        Assert.assertEquals(1, MediaSqlUtils.searchSiteMedia(getTestSiteWithLocalId(TEST_LOCAL_SITE_ID), "porto")
+                                            .size());
+
+        Assert.assertEquals(1, MediaSqlUtils.deleteMedia(media));
+        Assert.assertTrue(MediaSqlUtils.searchSiteMedia(getTestSiteWithLocalId(TEST_LOCAL_SITE_ID), "porto")
+                                       .isEmpty());
+    }
+
+    // Inserts more matching media than can be bound to a statement, verifies the search cursor has all of them
+    @Test
+    public void testMediaSearchCursorIsNotLimited() {
+        int count = 1000;
+        List<MediaModel> mediaList = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            mediaList.add(getTestMedia(i, "Lisbon " + i, "", ""));
+        }
+        MediaModel otherSiteMedia = getTestMedia(count + 1, "Lisbon", "", "");
+        otherSiteMedia.setLocalSiteId(TEST_LOCAL_SITE_ID + 1);
+        mediaList.add(otherSiteMedia);
+        WellSql.insert(mediaList).execute();
+
+        Cursor cursor = MediaSqlUtils.searchSiteMediaAsCursor(getTestSiteWithLocalId(TEST_LOCAL_SITE_ID), "lisbon");
+        try {
+            Assert.assertEquals(count, cursor.getCount());
+        } finally {
+            cursor.close();
+        }
+    }
+
+    // Inserts media of different types, verifies the number of search results per type
+    @Test
+    public void testMediaSearchCountsByMimeType() {
+        String[] mimeTypes = {"image/jpeg", "image/png", "video/mp4", "application/pdf", "text/plain"};
+        for (int i = 0; i < mimeTypes.length; i++) {
+            MediaModel media = getTestMedia(i + 1, "Lisbon " + i, "", "");
+            media.setMimeType(mimeTypes[i]);
+            Assert.assertEquals(1, MediaSqlUtils.insertOrUpdateMedia(media));
+        }
+
+        Map<String, Integer> counts = MediaSqlUtils
+                .getSiteMediaSearchCountsByMimeType(getTestSiteWithLocalId(TEST_LOCAL_SITE_ID), "lisbon");
+        Assert.assertEquals(2, counts.get(MediaUtils.MIME_TYPE_IMAGE).intValue());
+        Assert.assertEquals(1, counts.get(MediaUtils.MIME_TYPE_VIDEO).intValue());
+        Assert.assertEquals(0, counts.get(MediaUtils.MIME_TYPE_AUDIO).intValue());
+        Assert.assertEquals(1, counts.get(MediaUtils.MIME_TYPE_APPLICATION).intValue());
+        Assert.assertEquals(2, MediaSqlUtils.searchSiteImages(getTestSiteWithLocalId(TEST_LOCAL_SITE_ID), "lisbon")
+                                            .size());
+        // The MIME type is a filter, not a searched text
+        Assert.assertTrue(MediaSqlUtils.searchSiteMedia(getTestSiteWithLocalId(TEST_LOCAL_SITE_ID), "image")
+                                       .isEmpty());
+    }
+
     // Inserts many media with compounding titles, gets media with exact title and verifies
     @Test
     public void testMatchSiteMediaColumn() {
@@ -425,6 +511,103 @@ public class MediaSqlUtilsTest {
         Assert.assertEquals(mediaModel.getLocalSiteId(), finalMedia.getLocalSiteId());
     }
 
+    @Test
+    public void testUpdateFetchedFirstPageKeepsOlderMedia() {
+        SiteModel site = getTestSiteWithLocalId(TEST_LOCAL_SITE_ID);
+        for (int i = 1; i <= 5; i++) {
+            MediaSqlUtils.insertOrUpdateMedia(getUploadedTestMedia(i));
+        }
+
+        // Media 4 was deleted from the server, 5 was modified and 6 is new
+        List<MediaModel> firstPage = new ArrayList<>();
+        firstPage.add(getUploadedTestMedia(6));
+        MediaModel modifiedMedia = getUploadedTestMedia(5);
+        modifiedMedia.setTitle("Modified");
+        firstPage.add(modifiedMedia);
+        firstPage.add(getUploadedTestMedia(3));
+        List<MediaModel> updatedMedia = MediaSqlUtils.updateFetchedSiteMedia(site, firstPage, true, false, null);
+
+        Assert.assertEquals(2, updatedMedia.size());
+        Assert.assertEquals(5, updatedMedia.get(0).getMediaId());
+        Assert.assertEquals(6, updatedMedia.get(1).getMediaId());
+        List<Long> storedIds = new ArrayList<>();
+        for (MediaModel media : MediaSqlUtils.getAllSiteMedia(site)) {
+            storedIds.add(media.getMediaId());
+        }
+        Assert.assertEquals(Arrays.asList(6L, 5L, 3L, 2L, 1L), storedIds);
+        Assert.assertEquals("Modified", MediaSqlUtils.getSiteMediaWithId(site, 5).get(0).getTitle());
+    }
+
+    @Test
+    public void testUpdateFetchedLastPageRemovesAbsentMedia() {
+        SiteModel site = getTestSiteWithLocalId(TEST_LOCAL_SITE_ID);
+        for (int i = 1; i <= 3; i++) {
+            MediaSqlUtils.insertOrUpdateMedia(getUploadedTestMedia(i));
+        }
+
+        List<MediaModel> onlyPage = new ArrayList<>();
+        onlyPage.add(getUploadedTestMedia(3));
+        Assert.assertTrue(MediaSqlUtils.updateFetchedSiteMedia(site, onlyPage, true, true, null).isEmpty());
+
+        List<MediaModel> storedMedia = MediaSqlUtils.getAllSiteMedia(site);
+        Assert.assertEquals(1, storedMedia.size());
+        Assert.assertEquals(3, storedMedia.get(0).getMediaId());
+    }
+
+    @Test
+    public void testUpdateFetchedNextPageOnlyAddsMedia() {
+        SiteModel site = getTestSiteWithLocalId(TEST_LOCAL_SITE_ID);
+        for (int i = 3; i <= 5; i++) {
+            MediaSqlUtils.insertOrUpdateMedia(getUploadedTestMedia(i));
+        }
+
+        List<MediaModel> nextPage = new ArrayList<>();
+        nextPage.add(getUploadedTestMedia(2));
+        nextPage.add(getUploadedTestMedia(1));
+        Assert.assertEquals(2, MediaSqlUtils.updateFetchedSiteMedia(site, nextPage, false, true, null).size());
+
+        Assert.assertEquals(5, MediaSqlUtils.getAllSiteMedia(site).size());
+    }
+
+    @Test
+    public void testUpdateFetchedFirstPageKeepsMediaAsOldAsThePage() {
+        SiteModel site = getTestSiteWithLocalId(TEST_LOCAL_SITE_ID);
+        for (int i = 1; i <= 3; i++) {
+            MediaModel media = getUploadedTestMedia(i);
+            media.setUploadDate("2019-01-01T12:00:00+00:00");
+            MediaSqlUtils.insertOrUpdateMedia(media);
+        }
+
+        // Uploaded in the same second as the oldest media of the page, 1 and 2 can be on the next page
+        List<MediaModel> firstPage = new ArrayList<>();
+        firstPage.add(getUploadedTestMedia(4));
+        MediaModel oldestMedia = getUploadedTestMedia(3);
+        oldestMedia.setUploadDate("2019-01-01T12:00:00+00:00");
+        firstPage.add(oldestMedia);
+        MediaSqlUtils.updateFetchedSiteMedia(site, firstPage, true, false, null);
+
+        Assert.assertEquals(4, MediaSqlUtils.getAllSiteMedia(site).size());
+    }
+
+    @Test
+    public void testUpdateFetchedFirstPageComparesUploadDatesInUtc() {
+        SiteModel site = getTestSiteWithLocalId(TEST_LOCAL_SITE_ID);
+        // Uploaded after 3, and deleted from the server
+        MediaModel deletedMedia = getUploadedTestMedia(2);
+        deletedMedia.setUploadDate("2019-01-03T11:00:00+00:00");
+        MediaSqlUtils.insertOrUpdateMedia(deletedMedia);
+
+        List<MediaModel> firstPage = new ArrayList<>();
+        firstPage.add(getUploadedTestMedia(4));
+        MediaModel oldestMedia = getUploadedTestMedia(3);
+        oldestMedia.setUploadDate("2019-01-03T12:30:00+02:00");
+        firstPage.add(oldestMedia);
+        MediaSqlUtils.updateFetchedSiteMedia(site, firstPage, true, false, null);
+
+        Assert.assertTrue(MediaSqlUtils.getSiteMediaWithId(site, 2).isEmpty());
+        Assert.assertEquals(2, MediaSqlUtils.getAllSiteMedia(site).size());
+    }
+
     // Utilities
 
     private long[] insertBasicTestItems(int num) {
@@ -457,6 +640,13 @@ public class MediaSqlUtilsTest {
         return media;
     }
 
+    private MediaModel getUploadedTestMedia(long mediaId) {
+        MediaModel media = getTestMedia(mediaId);
+        media.setUploadState(MediaUploadState.UPLOADED);
+        media.setUploadDate("2019-01-0" + mediaId + "T12:00:00+00:00");
+        return media;
+    }
+
     private MediaModel getTestMedia(long mediaId, String title, String description, String caption) {
         MediaModel media = new MediaModel();
         media.setLocalSiteId(TEST_LOCAL_SITE_ID);
@@ -0,0 +1,65 @@
+package org.wordpress.android.fluxc.network.discovery
+
+import com.android.volley.Request
+import com.android.volley.RequestQueue
+import com.nhaarman.mockitokotlin2.any
+import com.nhaarman.mockitokotlin2.doAnswer
+import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.whenever
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.wordpress.android.fluxc.network.HTTPAuthManager
+import org.wordpress.android.fluxc.network.UserAgent
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import kotlin.test.assertFalse
+import kotlin.test.assertNull
+import kotlin.test.assertTrue
+
+@RunWith(RobolectricTestRunner::class)
+class DiscoveryXMLRPCClientTest {
+    private val requestQueue = mock<RequestQueue>()
+    private val userAgent = mock<UserAgent>()
+    private val client = DiscoveryXMLRPCClient(mock(), requestQueue, userAgent, mock<HTTPAuthManager>())
+
+    private val requestAdded = CountDownLatch(1)
+    private var request: Request<*>? = null
+
+    @Before
+    fun setUp() {
+        whenever(userAgent.userAgent).thenReturn("user-agent")
+        doAnswer {
+            request = it.arguments[0] as Request<*>
+            requestAdded.countDown()
+            request
+        }.whenever(requestQueue).add(any<Request<*>>())
+    }
+
+    @Test
+    fun testInterruptedCallCancelsItsRequest() {
+        var methods: Array<Any>? = emptyArray()
+        var interrupted = false
+        val call = Thread {
+            methods = client.listMethods("https://example.com/xmlrpc.php")
+            interrupted = Thread.currentThread().isInterrupted
+        }
+        call.start()
+        assertTrue(requestAdded.await(TIMEOUT_MS, TimeUnit.MILLISECONDS))
+        assertFalse(request!!.isCanceled)
+
+        // As when the discovery cancels a probe it doesn't need anymore
+        call.interrupt()
+        call.join(TIMEOUT_MS)
+
+        assertFalse(call.isAlive)
+        assertNull(methods)
+        assertTrue(request!!.isCanceled)
+        assertTrue(interrupted)
+    }
+
+    companion object {
+        private const val TIMEOUT_MS = 5000L
+    }
+}
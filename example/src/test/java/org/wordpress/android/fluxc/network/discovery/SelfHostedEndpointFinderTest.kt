@@ -0,0 +1,225 @@
+package org.wordpress.android.fluxc.network.discovery
+
+import com.nhaarman.mockitokotlin2.any
+import com.nhaarman.mockitokotlin2.doAnswer
+import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.never
+import com.nhaarman.mockitokotlin2.verify
+import com.nhaarman.mockitokotlin2.whenever
+import com.yarolegovich.wellsql.WellSql
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.RuntimeEnvironment
+import org.wordpress.android.fluxc.Dispatcher
+import org.wordpress.android.fluxc.SingleStoreWellSqlConfigForTests
+import org.wordpress.android.fluxc.annotations.action.Action
+import org.wordpress.android.fluxc.model.DiscoveryResultModel
+import org.wordpress.android.fluxc.network.discovery.SelfHostedEndpointFinder.DiscoveryError
+import org.wordpress.android.fluxc.network.discovery.SelfHostedEndpointFinder.DiscoveryException
+import org.wordpress.android.fluxc.network.discovery.SelfHostedEndpointFinder.DiscoveryResultPayload
+import org.wordpress.android.fluxc.persistence.DiscoveryResultSqlUtils
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import kotlin.test.assertEquals
+import kotlin.test.assertNotNull
+import kotlin.test.assertTrue
+
+@RunWith(RobolectricTestRunner::class)
+class SelfHostedEndpointFinderTest {
+    private val validMethods = arrayOf<Any>("wp.getProfile", "wp.getUsersBlogs", "wp.getPage",
+            "wp.getCommentStatusList", "wp.newComment", "wp.editComment", "wp.deleteComment", "wp.getComments",
+            "wp.getComment", "wp.getOptions", "wp.uploadFile", "wp.newCategory", "wp.getTags", "wp.getCategories",
+            "wp.editPage", "wp.deletePage", "wp.newPage", "wp.getPages")
+
+    private val dispatcher = mock<Dispatcher>()
+    private val xmlRpcClient = mock<DiscoveryXMLRPCClient>()
+    private val endpointFinder = SelfHostedEndpointFinder(dispatcher, xmlRpcClient, mock())
+
+    private val resultLatch = CountDownLatch(1)
+    private var result: DiscoveryResultPayload? = null
+
+    @Before
+    fun setUp() {
+        val config = SingleStoreWellSqlConfigForTests(RuntimeEnvironment.application.applicationContext,
+                DiscoveryResultModel::class.java)
+        WellSql.init(config)
+        config.reset()
+
+        doAnswer {
+            result = (it.arguments[0] as Action<*>).payload as DiscoveryResultPayload
+            resultLatch.countDown()
+        }.whenever(dispatcher).dispatch(any())
+    }
+
+    @Test
+    fun testUnreachableCandidateDoesNotHoldBackTheNextOne() {
+        respondTo("https://example.com/xmlrpc.php", delayMs = UNREACHABLE_MS, methods = validMethods)
+        respondTo("https://example.com", delayMs = 0, methods = validMethods)
+
+        val elapsedMs = findEndpoint("example.com")
+
+        assertEquals("https://example.com", result?.xmlRpcEndpoint)
+        // Sequential probing would wait for the first candidate to time out, while it's only given a bounded time
+        // once the second one is verified
+        val maxElapsedMs = SelfHostedEndpointFinder.PROBE_STAGGER_MS + SelfHostedEndpointFinder.PROBE_PRIORITY_WAIT_MS
+        assertTrue(elapsedMs < maxElapsedMs + SLACK_MS, "Took $elapsedMs ms")
+    }
+
+    @Test
+    fun testFailedCandidateStartsTheNextOneRightAway() {
+        respondTo("https://example.com/xmlrpc.php", delayMs = 0, methods = null)
+        respondTo("http://example.com/xmlrpc.php", delayMs = 0, methods = validMethods)
+
+        val elapsedMs = findEndpoint("example.com")
+
+        assertEquals("http://example.com/xmlrpc.php", result?.xmlRpcEndpoint)
+        assertTrue(elapsedMs < SelfHostedEndpointFinder.PROBE_STAGGER_MS, "Took $elapsedMs ms")
+    }
+
+    @Test
+    fun testCandidatesArePickedInPriorityOrder() {
+        respondTo("https://example.com/xmlrpc.php", delayMs = 1500, methods = validMethods)
+        respondTo("http://example.com/xmlrpc.php", delayMs = 0, methods = validMethods)
+
+        findEndpoint("example.com")
+
+        assertEquals("https://example.com/xmlrpc.php", result?.xmlRpcEndpoint)
+    }
+
+    @Test
+    fun testErrorRequiringUserInteractionStopsDiscovery() {
+        doAnswer {
+            throw DiscoveryException(DiscoveryError.HTTP_AUTH_REQUIRED, "https://example.com/xmlrpc.php")
+        }.whenever(xmlRpcClient).listMethods("https://example.com/xmlrpc.php")
+        respondTo("http://example.com/xmlrpc.php", delayMs = 0, methods = validMethods)
+
+        findEndpoint("example.com")
+
+        assertEquals(DiscoveryError.HTTP_AUTH_REQUIRED, result?.error)
+        // Neither the https candidates after it nor the http ones are probed
+        verify(xmlRpcClient, never()).listMethods("https://example.com")
+        verify(xmlRpcClient, never()).listMethods("http://example.com/xmlrpc.php")
+    }
+
+    @Test
+    fun testHttpCandidatesWaitForTheHttpsOnes() {
+        doAnswer {
+            Thread.sleep(1500)
+            throw DiscoveryException(DiscoveryError.ERRONEOUS_SSL_CERTIFICATE, "https://example.com")
+        }.whenever(xmlRpcClient).listMethods("https://example.com")
+        respondTo("http://example.com/xmlrpc.php", delayMs = 0, methods = validMethods)
+
+        findEndpoint("example.com")
+
+        // The http candidate would answer first, but isn't probed before the https ones completed
+        assertEquals(DiscoveryError.ERRONEOUS_SSL_CERTIFICATE, result?.error)
+        verify(xmlRpcClient, never()).listMethods("http://example.com/xmlrpc.php")
+    }
+
+    @Test
+    fun testDiscoveredEndpointsAreStored() {
+        respondTo("https://example.com/xmlrpc.php", delayMs = 0, methods = validMethods)
+
+        findEndpoint("https://example.com/wp-admin/")
+
+        val storedResult = DiscoveryResultSqlUtils.getDiscoveryResult("example.com")
+        assertEquals("https://example.com/xmlrpc.php", storedResult?.xmlRpcEndpoint)
+    }
+
+    @Test
+    fun testStoredEndpointsAreUsedWhileRevalidating() {
+        DiscoveryResultSqlUtils.insertOrReplaceDiscoveryResult(DiscoveryResultModel().apply {
+            siteUrl = "example.com"
+            xmlRpcEndpoint = "https://example.com/old/xmlrpc.php"
+            wpRestEndpoint = ""
+        })
+        respondTo("https://example.com/xmlrpc.php", delayMs = 500, methods = validMethods)
+
+        val elapsedMs = findEndpoint("https://Example.com/")
+
+        assertEquals("https://example.com/old/xmlrpc.php", result?.xmlRpcEndpoint)
+        assertTrue(elapsedMs < 500, "Took $elapsedMs ms")
+
+        // The endpoints found in the background are stored for the next time
+        val deadline = System.currentTimeMillis() + UNREACHABLE_MS
+        while (DiscoveryResultSqlUtils.getDiscoveryResult("example.com")?.xmlRpcEndpoint
+                != "https://example.com/xmlrpc.php" && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50)
+        }
+        assertEquals("https://example.com/xmlrpc.php",
+                DiscoveryResultSqlUtils.getDiscoveryResult("example.com")?.xmlRpcEndpoint)
+    }
+
+    @Test
+    fun testStoredErrorRequiringUserInteractionIsUsedWhileRevalidating() {
+        doAnswer {
+            throw DiscoveryException(DiscoveryError.HTTP_AUTH_REQUIRED, "https://example.com/xmlrpc.php")
+        }.whenever(xmlRpcClient).listMethods("https://example.com/xmlrpc.php")
+
+        findEndpoint("example.com")
+        assertEquals(DiscoveryError.HTTP_AUTH_REQUIRED,
+                DiscoveryResultSqlUtils.getDiscoveryResult("example.com")?.discoveryErrorType)
+
+        val cachedResultLatch = CountDownLatch(1)
+        doAnswer {
+            result = (it.arguments[0] as Action<*>).payload as DiscoveryResultPayload
+            cachedResultLatch.countDown()
+        }.whenever(dispatcher).dispatch(any())
+        respondTo("https://example.com/xmlrpc.php", delayMs = 500, methods = null)
+
+        endpointFinder.findEndpoint("example.com")
+
+        assertTrue(cachedResultLatch.await(400, TimeUnit.MILLISECONDS))
+        assertEquals(DiscoveryError.HTTP_AUTH_REQUIRED, result?.error)
+        assertEquals("https://example.com/xmlrpc.php", result?.failedEndpoint)
+    }
+
+    @Test
+    fun testChangedResultIsDispatchedAfterRevalidating() {
+        DiscoveryResultSqlUtils.insertOrReplaceDiscoveryResult(DiscoveryResultModel().apply {
+            siteUrl = "example.com"
+            xmlRpcEndpoint = "https://example.com/old/xmlrpc.php"
+            wpRestEndpoint = ""
+        })
+        respondTo("https://example.com/xmlrpc.php", delayMs = 0, methods = validMethods)
+        val results = mutableListOf<DiscoveryResultPayload>()
+        val resultsLatch = CountDownLatch(2)
+        doAnswer {
+            results.add((it.arguments[0] as Action<*>).payload as DiscoveryResultPayload)
+            resultsLatch.countDown()
+        }.whenever(dispatcher).dispatch(any())
+
+        endpointFinder.findEndpoint("example.com")
+
+        assertTrue(resultsLatch.await(UNREACHABLE_MS, TimeUnit.MILLISECONDS))
+        assertEquals(listOf("https://example.com/old/xmlrpc.php", "https://example.com/xmlrpc.php"),
+                results.map { it.xmlRpcEndpoint })
+    }
+
+    private fun respondTo(url: String, delayMs: Long, methods: Array<Any>?) {
+        doAnswer {
+            try {
+                Thread.sleep(delayMs)
+                methods
+            } catch (e: InterruptedException) {
+                // Cancelled, like a pending request
+                null
+            }
+        }.whenever(xmlRpcClient).listMethods(url)
+    }
+
+    private fun findEndpoint(url: String): Long {
+        val start = System.currentTimeMillis()
+        endpointFinder.findEndpoint(url)
+        assertTrue(resultLatch.await(UNREACHABLE_MS, TimeUnit.MILLISECONDS))
+        assertNotNull(result)
+        return System.currentTimeMillis() - start
+    }
+
+    companion object {
+        private const val UNREACHABLE_MS = 10000L
+        private const val SLACK_MS = 1000L
+    }
+}
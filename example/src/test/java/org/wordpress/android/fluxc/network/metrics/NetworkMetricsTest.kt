@@ -0,0 +1,118 @@
+package org.wordpress.android.fluxc.network.metrics
+
+import com.android.volley.DefaultRetryPolicy
+import com.android.volley.Response.Listener
+import com.android.volley.TimeoutError
+import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.whenever
+import okhttp3.Call
+import okhttp3.HttpUrl
+import okhttp3.Protocol
+import okhttp3.Request
+import okhttp3.Response
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.wordpress.android.fluxc.generated.endpoint.WPCOMREST
+import org.wordpress.android.fluxc.network.rest.wpcom.WPComGsonRequest
+import java.io.IOException
+import kotlin.test.assertEquals
+import kotlin.test.assertNull
+
+@RunWith(RobolectricTestRunner::class)
+class NetworkMetricsTest {
+    private val normalizer = EndpointNormalizer()
+
+    @Test
+    fun testEndpointTemplateMatching() {
+        val matcher = EndpointTemplateMatcher(arrayOf("/sites/\$site/posts/", "/sites/\$site/posts/\$post_ID/",
+                "/sites/\$site/posts/new/", "/sites/\$site/posts/slug:\$post_slug/"))
+
+        assertEquals("/sites/\$site/posts/", matcher.match("/sites/123/posts/"))
+        assertEquals("/sites/\$site/posts/\$post_ID/", matcher.match("/sites/123/posts/456"))
+        assertEquals("/sites/\$site/posts/new/", matcher.match("/sites/123/posts/new/"))
+        assertEquals("/sites/\$site/posts/slug:\$post_slug/", matcher.match("/sites/123/posts/slug:hello/"))
+        assertNull(matcher.match("/sites/123/comments/"))
+    }
+
+    @Test
+    fun testWPComUrlsAreNormalizedToGeneratedTemplates() {
+        assertEquals("/sites/\$site/posts/",
+                normalize(WPCOMREST.sites.site(123).posts.urlV1_1 + "?number=20"))
+        assertEquals("/sites/\$site/posts/\$post_ID/",
+                normalize(WPCOMREST.sites.site(123).posts.post(456).urlV1_2))
+        assertEquals("/me/settings/", normalize(WPCOMREST.me.settings.urlV1_1))
+    }
+
+    @Test
+    fun testJetpackTunnelUrlsKeepTunneledPath() {
+        val url = WPCOMREST.jetpack_blogs.site(123).rest_api.urlV1_1 +
+                "?path=%2Fwp%2Fv2%2Fposts%2F456%2F%26_method%3Dget&json=true"
+
+        assertEquals("/jetpack-blogs/\$site/rest-api/?path=/wp/v2/posts/<id>/", normalize(url))
+    }
+
+    @Test
+    fun testSelfHostedUrls() {
+        assertEquals("/xmlrpc.php", normalize("https://example.com/blog/xmlrpc.php"))
+        assertEquals("/wp-json/wp/v2/pages/<id>/", normalize("https://example.com/wp-json/wp/v2/pages/12/"))
+        assertEquals("/wp-json/wc/v3/orders/\$id/", normalize("https://example.com/wp-json/wc/v3/orders/42/"))
+
+        normalizer.addWPAPITemplates("/wc/v3", arrayOf("/orders/", "/orders/<order_id>/"))
+        assertEquals("/wp-json/wc/v3/orders/<order_id>/",
+                normalize("https://example.com/wp-json/wc/v3/orders/42/"))
+    }
+
+    @Test
+    fun testHistogram() {
+        val histogram = Histogram(longArrayOf(10, 100, 1000))
+        listOf(5L, 10L, 50L, 60L, 500L, 5000L).forEach { histogram.record(it) }
+
+        assertEquals(listOf(2L, 2L, 1L, 1L), histogram.bucketCounts.toList())
+        assertEquals(6L, histogram.count)
+        assertEquals(5L, histogram.min)
+        assertEquals(5000L, histogram.max)
+        assertEquals(100L, histogram.getPercentile(50.0))
+        assertEquals(5000L, histogram.getPercentile(100.0))
+    }
+
+    @Test
+    fun testEventListenerRecordsCallMetricsPerEndpoint() {
+        val networkMetrics = NetworkMetrics()
+        val volleyRequest = WPComGsonRequest.buildGetRequest(WPCOMREST.sites.site(123).posts.urlV1_1, null,
+                Any::class.java, mock<Listener<Any>>(), mock())
+        volleyRequest.setRetryPolicy(DefaultRetryPolicy())
+        val request = Request.Builder().url(volleyRequest.url).tag(volleyRequest).build()
+        val call = mock<Call>()
+        whenever(call.request()).thenReturn(request)
+
+        NetworkMetricsEventListener(networkMetrics).apply {
+            callStart(call)
+            responseHeadersStart(call)
+            responseHeadersEnd(call, Response.Builder().request(request).protocol(Protocol.HTTP_1_1).code(200)
+                    .message("OK").build())
+            responseBodyEnd(call, 2048)
+            callEnd(call)
+        }
+
+        // A retry of the same Volley request, which times out
+        volleyRequest.retryPolicy.retry(TimeoutError())
+        NetworkMetricsEventListener.newFactory(networkMetrics).create(call).apply {
+            callStart(call)
+            callFailed(call, IOException("timeout"))
+        }
+
+        val endpointMetrics = networkMetrics.endpointMetrics.single()
+        assertEquals("GET /sites/\$site/posts/", endpointMetrics.endpointKey)
+        assertEquals(2, endpointMetrics.callCount)
+        assertEquals(1, endpointMetrics.retryCount)
+        assertEquals(1, endpointMetrics.failureCount)
+        assertEquals(mapOf(200 to 1), endpointMetrics.statusCounts)
+        assertEquals(2L, endpointMetrics.totalMs.count)
+        assertEquals(1L, endpointMetrics.ttfbMs.count)
+        assertEquals(2048L, endpointMetrics.responseBytes.sum)
+        assertEquals(0L, endpointMetrics.dnsMs.count)
+    }
+
+    private fun normalize(url: String) = normalizer.normalize(HttpUrl.parse(url)!!)
+}
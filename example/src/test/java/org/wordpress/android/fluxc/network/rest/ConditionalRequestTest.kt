@@ -0,0 +1,85 @@
+package org.wordpress.android.fluxc.network.rest
+
+import com.android.volley.NetworkResponse
+import com.android.volley.Response.Listener
+import com.nhaarman.mockitokotlin2.any
+import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.never
+import com.nhaarman.mockitokotlin2.verify
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.wordpress.android.fluxc.generated.endpoint.WPCOMREST
+import org.wordpress.android.fluxc.network.BaseRequest.OnNotModifiedListener
+import org.wordpress.android.fluxc.network.ResponseValidatorCache
+import org.wordpress.android.fluxc.network.rest.wpcom.WPComGsonRequest
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertNull
+import kotlin.test.assertTrue
+
+@RunWith(RobolectricTestRunner::class)
+class ConditionalRequestTest {
+    private val url = WPCOMREST.sites.site(123).urlV1_1
+
+    @Test
+    fun testConditionalRequestSendsStoredValidators() {
+        val validatorCache = ResponseValidatorCache()
+
+        val firstRequest = buildConditionalRequest(validatorCache)
+        assertFalse(firstRequest.headers.containsKey("If-None-Match"))
+
+        // Simulate a network response with validators for this request
+        val headers = mapOf("ETag" to "\"abc\"", "Last-Modified" to "Wed, 21 Oct 2015 07:28:00 GMT")
+        val response = firstRequest.parseNetworkResponse(NetworkResponse(200, "{}".toByteArray(), headers, false))
+        assertTrue(response.isSuccess)
+
+        val secondRequest = buildConditionalRequest(validatorCache)
+        assertEquals("\"abc\"", secondRequest.headers["If-None-Match"])
+        assertEquals("Wed, 21 Oct 2015 07:28:00 GMT", secondRequest.headers["If-Modified-Since"])
+
+        // Forced updates always fetch the full response
+        val forcedRequest = buildConditionalRequest(validatorCache)
+        forcedRequest.setShouldForceUpdate()
+        assertFalse(forcedRequest.headers.containsKey("If-None-Match"))
+
+        // Validators are not shared across accounts
+        val otherAccountRequest = buildConditionalRequest(validatorCache)
+        otherAccountRequest.setAccessToken("other-token")
+        assertFalse(otherAccountRequest.headers.containsKey("If-None-Match"))
+    }
+
+    @Test
+    fun testNotModifiedResponseSkipsParsing() {
+        val validatorCache = ResponseValidatorCache()
+        val listener = mock<Listener<Any>>()
+        val notModifiedListener = mock<OnNotModifiedListener>()
+
+        val request = WPComGsonRequest.buildGetRequest(url, null, Any::class.java, listener, mock())
+        request.enableConditionalRequest(validatorCache, notModifiedListener)
+
+        val response = request.parseNetworkResponse(NetworkResponse(304, null, mapOf(), true))
+        assertTrue(response.isSuccess)
+        assertNull(response.result)
+
+        request.deliverResponse(response.result)
+        verify(notModifiedListener).onNotModified()
+        verify(listener, never()).onResponse(any())
+        assertEquals(1, validatorCache.notModifiedCount)
+    }
+
+    @Test
+    fun testNonConditionalRequestIgnoresValidators() {
+        val request = WPComGsonRequest.buildGetRequest(url, null, Any::class.java, mock<Listener<Any>>(), mock())
+        request.parseNetworkResponse(NetworkResponse(200, "{}".toByteArray(), mapOf("ETag" to "\"abc\""), false))
+
+        assertFalse(request.isConditionalRequest)
+        assertFalse(request.headers.containsKey("If-None-Match"))
+    }
+
+    private fun buildConditionalRequest(validatorCache: ResponseValidatorCache): WPComGsonRequest<Any> {
+        val request = WPComGsonRequest.buildGetRequest(url, null, Any::class.java, mock<Listener<Any>>(), mock())
+        request.enableConditionalRequest(validatorCache, mock())
+        return request
+    }
+}
@@ -0,0 +1,178 @@
+package org.wordpress.android.fluxc.network.rest
+
+import com.android.volley.NetworkResponse
+import com.android.volley.RequestQueue
+import com.android.volley.Response.Listener
+import com.android.volley.VolleyError
+import com.nhaarman.mockitokotlin2.any
+import com.nhaarman.mockitokotlin2.argumentCaptor
+import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.never
+import com.nhaarman.mockitokotlin2.verify
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.wordpress.android.fluxc.generated.endpoint.WPCOMREST
+import org.wordpress.android.fluxc.network.BaseRequest.OnAuthFailedListener
+import org.wordpress.android.fluxc.network.InFlightRequestDeduplicator
+import org.wordpress.android.fluxc.network.rest.wpcom.WPComGsonRequest
+import org.wordpress.android.fluxc.network.rest.wpcom.WPComGsonRequest.WPComErrorListener
+import org.wordpress.android.fluxc.network.rest.wpcom.WPComGsonRequest.WPComGsonNetworkError
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertNotSame
+import kotlin.test.assertNull
+import kotlin.test.assertTrue
+
+@RunWith(RobolectricTestRunner::class)
+class InFlightRequestDeduplicatorTest {
+    private val url = WPCOMREST.sites.site(123).urlV1_1
+    private val requestQueue = mock<RequestQueue>()
+    private val deduplicator = InFlightRequestDeduplicator()
+
+    @Test
+    fun testDuplicatesReceiveInFlightResponse() {
+        val firstListener = mock<Listener<Any>>()
+        val secondListener = mock<Listener<Any>>()
+        val firstRequest = WPComGsonRequest.buildGetRequest(url, null, Any::class.java, firstListener, mock())
+        val secondRequest = WPComGsonRequest.buildGetRequest(url, null, Any::class.java, secondListener, mock())
+
+        assertFalse(deduplicator.attachIfDuplicate(requestQueue, firstRequest))
+        assertTrue(deduplicator.attachIfDuplicate(requestQueue, secondRequest))
+        assertEquals(2, deduplicator.requestCount)
+        assertEquals(1, deduplicator.deduplicatedCount)
+
+        val response = firstRequest.parseNetworkResponse(NetworkResponse(200, "{}".toByteArray(), mapOf(), false))
+        firstRequest.deliverResponse(response.result)
+
+        verify(firstListener).onResponse(response.result)
+        val duplicateResponse = argumentCaptor<Any>()
+        verify(secondListener).onResponse(duplicateResponse.capture())
+        // Each listener gets its own copy of the response
+        assertEquals(response.result, duplicateResponse.firstValue)
+        assertNotSame(response.result, duplicateResponse.firstValue)
+
+        // Once delivered, an identical request goes to the network again
+        val thirdRequest = WPComGsonRequest.buildGetRequest(url, null, Any::class.java, mock<Listener<Any>>(), mock())
+        assertFalse(deduplicator.attachIfDuplicate(requestQueue, thirdRequest))
+    }
+
+    @Test
+    fun testDuplicatesReceiveInFlightError() {
+        val firstErrorListener = mock<WPComErrorListener>()
+        val secondErrorListener = mock<WPComErrorListener>()
+        val firstRequest = WPComGsonRequest.buildGetRequest(url, null, Any::class.java, mock<Listener<Any>>(),
+                firstErrorListener)
+        val secondRequest = WPComGsonRequest.buildGetRequest(url, null, Any::class.java, mock<Listener<Any>>(),
+                secondErrorListener)
+
+        deduplicator.attachIfDuplicate(requestQueue, firstRequest)
+        deduplicator.attachIfDuplicate(requestQueue, secondRequest)
+
+        firstRequest.deliverError(VolleyError(NetworkResponse(404, ByteArray(0), mapOf(), false)))
+
+        verify(firstErrorListener).onErrorResponse(any())
+        verify(secondErrorListener).onErrorResponse(any())
+    }
+
+    @Test
+    fun testDuplicatesWaitForRetry() {
+        val secondListener = mock<Listener<Any>>()
+        val secondErrorListener = mock<WPComErrorListener>()
+        lateinit var firstRequest: WPComGsonRequest<Any>
+        firstRequest = WPComGsonRequest.buildGetRequest(url, null, Any::class.java, mock<Listener<Any>>(),
+                WPComErrorListener { firstRequest.setRetryPending() })
+        val secondRequest = WPComGsonRequest.buildGetRequest(url, null, Any::class.java, secondListener,
+                secondErrorListener)
+
+        deduplicator.attachIfDuplicate(requestQueue, firstRequest)
+        deduplicator.attachIfDuplicate(requestQueue, secondRequest)
+
+        firstRequest.deliverError(VolleyError(NetworkResponse(500, ByteArray(0), mapOf(), false)))
+        verify(secondErrorListener, never()).onErrorResponse(any())
+
+        // The retry is sent, and the response is delivered to the attached request
+        assertFalse(deduplicator.attachIfDuplicate(requestQueue, firstRequest))
+        val response = firstRequest.parseNetworkResponse(NetworkResponse(200, "{}".toByteArray(), mapOf(), false))
+        firstRequest.deliverResponse(response.result)
+
+        verify(secondListener).onResponse(response.result)
+        verify(secondErrorListener, never()).onErrorResponse(any())
+        assertEquals(1, deduplicator.deduplicatedCount)
+    }
+
+    @Test
+    fun testErrorSideEffectsHappenOnce() {
+        val firstAuthFailedListener = mock<OnAuthFailedListener>()
+        val secondAuthFailedListener = mock<OnAuthFailedListener>()
+        val secondErrorListener = mock<WPComErrorListener>()
+        val firstRequest = WPComGsonRequest.buildGetRequest(url, null, Any::class.java, mock<Listener<Any>>(), mock())
+        firstRequest.setOnAuthFailedListener(firstAuthFailedListener)
+        val secondRequest = WPComGsonRequest.buildGetRequest(url, null, Any::class.java, mock<Listener<Any>>(),
+                secondErrorListener)
+        secondRequest.setOnAuthFailedListener(secondAuthFailedListener)
+
+        deduplicator.attachIfDuplicate(requestQueue, firstRequest)
+        deduplicator.attachIfDuplicate(requestQueue, secondRequest)
+
+        val body = "{\"error\":\"invalid_token\",\"message\":\"Invalid token\"}"
+        firstRequest.deliverError(VolleyError(NetworkResponse(403, body.toByteArray(), mapOf(), false)))
+
+        verify(firstAuthFailedListener).onAuthFailed(any())
+        verify(secondAuthFailedListener, never()).onAuthFailed(any())
+        val error = argumentCaptor<WPComGsonNetworkError>()
+        verify(secondErrorListener).onErrorResponse(error.capture())
+        assertEquals("invalid_token", error.firstValue.apiError)
+    }
+
+    @Test
+    fun testRequestsForDifferentAccountsOrTypesAreNotDeduplicated() {
+        val firstRequest = WPComGsonRequest.buildGetRequest(url, null, Any::class.java, mock<Listener<Any>>(), mock())
+        firstRequest.setAccessToken("first-token")
+        val otherTokenRequest = WPComGsonRequest.buildGetRequest(url, null, Any::class.java,
+                mock<Listener<Any>>(), mock())
+        otherTokenRequest.setAccessToken("second-token")
+        val otherTypeRequest = WPComGsonRequest.buildGetRequest(url, null, String::class.java,
+                mock<Listener<String>>(), mock())
+        otherTypeRequest.setAccessToken("first-token")
+
+        assertFalse(deduplicator.attachIfDuplicate(requestQueue, firstRequest))
+        assertFalse(deduplicator.attachIfDuplicate(requestQueue, otherTokenRequest))
+        assertFalse(deduplicator.attachIfDuplicate(requestQueue, otherTypeRequest))
+        assertEquals(0, deduplicator.deduplicatedCount)
+    }
+
+    @Test
+    fun testNonGetAndCachedRequestsAreNotDeduplicated() {
+        val postRequest = WPComGsonRequest.buildPostRequest(url, null, Any::class.java, mock<Listener<Any>>(), mock())
+        assertNull(postRequest.deduplicationKey)
+
+        val cachedRequest = WPComGsonRequest.buildGetRequest(url, null, Any::class.java,
+                mock<Listener<Any>>(), mock())
+        cachedRequest.enableCaching(1000)
+        assertNull(cachedRequest.deduplicationKey)
+    }
+
+    @Test
+    fun testCancelingInFlightRequestSendsDuplicate() {
+        val secondListener = mock<Listener<Any>>()
+        val thirdListener = mock<Listener<Any>>()
+        val firstRequest = WPComGsonRequest.buildGetRequest(url, null, Any::class.java, mock<Listener<Any>>(), mock())
+        val secondRequest = WPComGsonRequest.buildGetRequest(url, null, Any::class.java, secondListener, mock())
+        val thirdRequest = WPComGsonRequest.buildGetRequest(url, null, Any::class.java, thirdListener, mock())
+
+        deduplicator.attachIfDuplicate(requestQueue, firstRequest)
+        deduplicator.attachIfDuplicate(requestQueue, secondRequest)
+        deduplicator.attachIfDuplicate(requestQueue, thirdRequest)
+
+        firstRequest.cancel()
+        verify(requestQueue).add(secondRequest)
+        verify(requestQueue, never()).add(thirdRequest)
+
+        val response = secondRequest.parseNetworkResponse(NetworkResponse(200, "{}".toByteArray(), mapOf(), false))
+        secondRequest.deliverResponse(response.result)
+
+        verify(secondListener).onResponse(response.result)
+        verify(thirdListener).onResponse(response.result)
+    }
+}
@@ -0,0 +1,70 @@
+package org.wordpress.android.fluxc.network.rest
+
+import com.google.gson.annotations.SerializedName
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.wordpress.android.fluxc.network.rest.wpcom.media.MediaWPComRestResponse
+import org.wordpress.android.fluxc.network.rest.wpcom.post.PostWPComRestResponse
+import org.wordpress.android.fluxc.network.rest.wpcom.site.PlansResponse
+import org.wordpress.android.fluxc.network.rest.wpcom.site.SiteWPComRestResponse
+import org.wordpress.android.fluxc.network.rest.wpcom.theme.WPComThemeResponse
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import kotlin.test.assertFalse
+import kotlin.test.assertTrue
+
+@RunWith(RobolectricTestRunner::class)
+class ResponseFieldsTest {
+    @Test
+    fun testFieldsOfJavaResponseClass() {
+        val fields = ResponseFields.of(SiteWPComRestResponse::class.java).split(",")
+
+        assertEquals(setOf("ID", "URL", "name", "description", "jetpack", "visible", "is_private", "options",
+                "capabilities", "plan", "icon", "meta", "quota"), fields.toSet())
+        assertEquals(fields.size, fields.toSet().size)
+    }
+
+    @Test
+    fun testSerializedNamesAreUsed() {
+        val fields = ResponseFields.of(PostWPComRestResponse::class.java).split(",")
+
+        assertTrue(fields.containsAll(listOf("ID", "site_ID", "short_URL", "post_thumbnail", "author")))
+        assertFalse(fields.contains("remotePostId"))
+    }
+
+    @Test
+    fun testConstantsAreNotRequested() {
+        val fields = ResponseFields.of(MediaWPComRestResponse::class.java).split(",")
+
+        assertFalse(fields.contains("DELETED_STATUS"))
+        assertTrue(fields.containsAll(listOf("ID", "thumbnails", "videopress_guid")))
+    }
+
+    @Test
+    fun testFieldsAreCached() {
+        val fields = ResponseFields.of(WPComThemeResponse::class.java)
+
+        assertTrue(fields === ResponseFields.of(WPComThemeResponse::class.java))
+    }
+
+    @Test
+    fun testAlternateNamesAreRequested() {
+        val fields = ResponseFields.of(AlternateNamesResponse::class.java).split(",")
+
+        assertEquals(listOf("ID", "id", "post_ID", "title"), fields)
+    }
+
+    @Test
+    fun testFieldsOfClassWithCustomDeserializerHaveToBeListed() {
+        assertFailsWith<IllegalArgumentException> { ResponseFields.of(PlansResponse::class.java) }
+
+        assertEquals("plans,product_id", ResponseFields.of(PlansResponse::class.java, "plans", "product_id"))
+        assertEquals("plans,product_id", ResponseFields.of(PlansResponse::class.java))
+    }
+
+    private class AlternateNamesResponse(
+        @SerializedName(value = "ID", alternate = ["id", "post_ID"]) val remoteId: Long,
+        val title: String?
+    )
+}
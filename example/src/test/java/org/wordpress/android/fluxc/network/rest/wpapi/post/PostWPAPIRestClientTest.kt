@@ -0,0 +1,331 @@
+package org.wordpress.android.fluxc.network.rest.wpapi.post
+
+import android.util.Xml
+import com.android.volley.AuthFailureError
+import com.android.volley.NetworkResponse
+import com.android.volley.Request
+import com.android.volley.RequestQueue
+import com.google.gson.Gson
+import com.google.gson.GsonBuilder
+import com.nhaarman.mockitokotlin2.any
+import com.nhaarman.mockitokotlin2.argumentCaptor
+import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.never
+import com.nhaarman.mockitokotlin2.verify
+import com.nhaarman.mockitokotlin2.whenever
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.wordpress.android.fluxc.Dispatcher
+import org.wordpress.android.fluxc.action.SiteAction
+import org.wordpress.android.fluxc.annotations.action.Action
+import org.wordpress.android.fluxc.model.PostModel
+import org.wordpress.android.fluxc.model.SiteModel
+import org.wordpress.android.fluxc.network.BaseRequest
+import org.wordpress.android.fluxc.network.UserAgent
+import org.wordpress.android.fluxc.network.xmlrpc.XMLRPCSerializer
+import org.wordpress.android.fluxc.network.xmlrpc.XMLSerializerUtils
+import org.wordpress.android.fluxc.network.xmlrpc.post.PostXMLRPCClient
+import org.wordpress.android.fluxc.store.PostStore
+import org.wordpress.android.util.AppLog
+import org.wordpress.android.util.AppLog.T
+import java.io.ByteArrayInputStream
+import java.io.StringWriter
+import java.text.SimpleDateFormat
+import java.util.Date
+import java.util.Locale
+import java.util.TimeZone
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertTrue
+
+@RunWith(RobolectricTestRunner::class)
+class PostWPAPIRestClientTest {
+    companion object {
+        private const val PARSE_RUNS = 10
+        private const val PARAGRAPHS_PER_POST = 10
+        private const val HOUR_MS = 60 * 60 * 1000L
+        private const val POSTS_START_MS = 1551434400000L
+        private const val SITE_URL = "https://example.com"
+        private const val API_URL = "$SITE_URL/wp-json/wp/v2"
+        private val CURIE = linkedMapOf("name" to "wp", "href" to "https://api.w.org/{rel}", "templated" to true)
+    }
+
+    private val site = SiteModel().apply { id = 5 }
+    private val dispatcher = mock<Dispatcher>()
+    private val requestQueue = mock<RequestQueue>()
+    private val userAgent = mock<UserAgent>().apply { whenever(this.userAgent).thenReturn("user-agent") }
+    private val client = PostWPAPIRestClient(dispatcher, requestQueue, userAgent)
+
+    @Test
+    fun testPostResponseIsMappedToPostModel() {
+        val json = """{"id": 42, "date_gmt": "2019-03-01T10:00:00", "modified_gmt": "2019-03-02T11:30:00",
+            "status": "draft", "type": "post", "link": "https://example.com/?p=42", "title": {"raw": "Title"},
+            "content": {"raw": "<p>Content</p>"}, "excerpt": {"raw": ""}, "featured_media": 7, "format": "standard",
+            "categories": [1, 3], "_embedded": {"wp:term": [[{"id": 1, "name": "Uncategorized",
+            "taxonomy": "category"}], [{"id": 9, "name": "travel", "taxonomy": "post_tag"}]]}}"""
+        val response = Gson().fromJson(json, PostWPAPIRestResponse::class.java)
+
+        val post = PostWPAPIRestClient.postResponseToPostModel(response, site)
+
+        assertEquals(5, post.localSiteId)
+        assertEquals(42L, post.remotePostId)
+        assertFalse(post.isPage)
+        assertEquals("Title", post.title)
+        assertEquals("<p>Content</p>", post.content)
+        assertEquals("draft", post.status)
+        assertEquals("2019-03-01T10:00:00+00:00", post.dateCreated)
+        assertEquals("2019-03-02T11:30:00+00:00", post.remoteLastModified)
+        assertEquals(7L, post.featuredImageId)
+        assertEquals(listOf(1L, 3L), post.categoryIdList)
+        assertEquals(listOf("travel"), post.tagNameList)
+    }
+
+    @Test
+    fun testPageResponseIsMappedToPage() {
+        val json = """{"id": 12, "type": "page", "status": "publish", "slug": "about", "parent": 3,
+            "title": {"raw": "About"}}"""
+        val response = Gson().fromJson(json, PostWPAPIRestResponse::class.java)
+
+        val page = PostWPAPIRestClient.postResponseToPostModel(response, site)
+
+        assertTrue(page.isPage)
+        assertEquals(3L, page.parentId)
+        assertEquals("about", page.slug)
+        assertEquals("About", page.title)
+    }
+
+    @Test
+    fun testCredentialsAreNotSentWithoutHttps() {
+        val site = SiteModel().apply {
+            id = 5
+            wpApiRestUrl = "http://example.com/wp-json/"
+            setIsWpApiAuthenticated(true)
+        }
+        var fellBack = false
+
+        client.fetchPosts(site, false, null, 0) { fellBack = true }
+        client.checkAuthentication(site)
+
+        assertTrue(fellBack)
+        verify(requestQueue, never()).add(any<Request<*>>())
+    }
+
+    @Test
+    fun testRefusedCredentialsFallBackToXmlRpc() {
+        val site = SiteModel().apply {
+            id = 5
+            wpApiRestUrl = "https://example.com/wp-json/"
+            setIsWpApiAuthenticated(true)
+        }
+        var fellBack = false
+
+        client.fetchPosts(site, false, null, 0) { fellBack = true }
+        val request = argumentCaptor<Request<*>>().apply { verify(requestQueue).add(capture()) }.firstValue
+        assertTrue(request.headers["Authorization"]!!.startsWith("Basic "))
+        (request as BaseRequest<*>).deliverError(AuthFailureError(NetworkResponse(401, ByteArray(0),
+                emptyMap(), false)))
+
+        assertTrue(fellBack)
+        assertFalse(site.isWpApiAuthenticated)
+        val action = argumentCaptor<Action<*>>().apply { verify(dispatcher).dispatch(capture()) }.firstValue
+        assertEquals(SiteAction.UPDATE_SITE, action.type)
+    }
+
+    /**
+     * Compares the size and parse time of a page of posts fetched through XML-RPC (`wp.getPosts` without a field
+     * list, as [PostXMLRPCClient.fetchPosts] calls it) and through the WP REST API (with the `_fields` and `_embed`
+     * of [PostWPAPIRestClient.fetchPosts]), for the same posts. The sizes and timings are logged (tag WordPress-API),
+     * both must map to the same models.
+     */
+    @Test
+    fun testPageOfPostsComparedToXmlRpc() {
+        val xmlRpcPayload = xmlRpcPostsPayload()
+        val restPayload = restPostsPayload()
+        var xmlRpcPosts = emptyList<PostModel>()
+        var restPosts = emptyList<PostModel>()
+
+        val xmlRpcMs = measureParse { xmlRpcPosts = parseXmlRpcPosts(xmlRpcPayload) }
+        val restMs = measureParse { restPosts = parseRestPosts(restPayload) }
+
+        AppLog.i(T.API, "Page of ${PostStore.NUM_POSTS_PER_FETCH} posts: XML-RPC ${xmlRpcPayload.size} bytes " +
+                "parsed in ${xmlRpcMs}ms, WP REST API ${restPayload.size} bytes parsed in ${restMs}ms")
+        assertEquals(PostStore.NUM_POSTS_PER_FETCH, restPosts.size)
+        assertEquals(xmlRpcPosts.map { it.comparedFields() }, restPosts.map { it.comparedFields() })
+    }
+
+    private fun measureParse(parse: () -> Unit): Long {
+        // Warm up the parsers first
+        repeat(PARSE_RUNS) { parse() }
+        val start = System.nanoTime()
+        repeat(PARSE_RUNS) { parse() }
+        return (System.nanoTime() - start) / PARSE_RUNS / 1000000
+    }
+
+    private fun parseXmlRpcPosts(payload: ByteArray): List<PostModel> {
+        val response = XMLSerializerUtils.deserialize(ByteArrayInputStream(payload)) as Array<*>
+        val toPostModel = PostXMLRPCClient::class.java.getDeclaredMethod("postResponseObjectToPostModel",
+                Map::class.java, SiteModel::class.java).apply { isAccessible = true }
+        return response.map { toPostModel.invoke(null, it, site) as PostModel }
+    }
+
+    private fun parseRestPosts(payload: ByteArray): List<PostModel> {
+        val response = Gson().fromJson(String(payload), Array<PostWPAPIRestResponse>::class.java)
+        return response.map { PostWPAPIRestClient.postResponseToPostModel(it, site) }
+    }
+
+    // Custom fields and the location are only fetched through XML-RPC
+    private fun PostModel.comparedFields() = listOf(remotePostId, title, content, excerpt, status, dateCreated,
+            remoteLastModified, link, featuredImageId, postFormat, categoryIdList, tagNameList)
+
+    private fun xmlRpcPostsPayload(): ByteArray {
+        val posts = (1..PostStore.NUM_POSTS_PER_FETCH).map { i ->
+            linkedMapOf(
+                    "post_id" to "$i",
+                    "post_title" to "Post $i",
+                    "post_date" to Date(postDate(i)),
+                    "post_date_gmt" to Date(postDate(i)),
+                    "post_modified" to Date(postDate(i) + HOUR_MS),
+                    "post_modified_gmt" to Date(postDate(i) + HOUR_MS),
+                    "post_status" to "publish",
+                    "post_type" to "post",
+                    "post_name" to "post-$i",
+                    "post_author" to "1",
+                    "post_password" to "",
+                    "post_excerpt" to "Excerpt of post $i",
+                    "post_content" to postContent(i),
+                    "post_parent" to "0",
+                    "post_mime_type" to "",
+                    "link" to "$SITE_URL/post-$i/",
+                    "guid" to "$SITE_URL/?p=$i",
+                    "menu_order" to 0,
+                    "comment_status" to "open",
+                    "ping_status" to "open",
+                    "sticky" to false,
+                    "post_thumbnail" to linkedMapOf(
+                            "attachment_id" to "${1000 + i}",
+                            "date_created_gmt" to Date(postDate(i)),
+                            "parent" to i,
+                            "link" to "$SITE_URL/wp-content/uploads/2019/03/image-$i.jpg",
+                            "title" to "image-$i",
+                            "caption" to "",
+                            "description" to "",
+                            "metadata" to linkedMapOf("width" to 1200, "height" to 800,
+                                    "file" to "2019/03/image-$i.jpg"),
+                            "type" to "image/jpeg",
+                            "thumbnail" to "$SITE_URL/wp-content/uploads/2019/03/image-$i-150x150.jpg",
+                            "id" to "${1000 + i}",
+                            "file" to "image-$i.jpg"
+                    ),
+                    "post_format" to "standard",
+                    "terms" to terms(i).map { term ->
+                        linkedMapOf(
+                                "term_id" to "${term.id}",
+                                "name" to term.name,
+                                "slug" to term.name,
+                                "term_group" to "0",
+                                "term_taxonomy_id" to "${term.id}",
+                                "taxonomy" to term.taxonomy,
+                                "description" to "",
+                                "parent" to "0",
+                                "count" to 10,
+                                "filter" to "raw"
+                        )
+                    },
+                    "custom_fields" to listOf(linkedMapOf("id" to "${i * 10}", "key" to "views", "value" to "$i"))
+            )
+        }
+        val writer = StringWriter()
+        val serializer = Xml.newSerializer()
+        serializer.setOutput(writer)
+        XMLRPCSerializer.serialize(serializer, posts)
+        serializer.flush()
+        return ("<?xml version=\"1.0\" encoding=\"UTF-8\"?><methodResponse><params><param><value>$writer" +
+                "</value></param></params></methodResponse>").toByteArray()
+    }
+
+    private fun restPostsPayload(): ByteArray {
+        val posts = (1..PostStore.NUM_POSTS_PER_FETCH).map { i ->
+            linkedMapOf(
+                    "id" to i,
+                    "date_gmt" to restDate(postDate(i)),
+                    "modified_gmt" to restDate(postDate(i) + HOUR_MS),
+                    "slug" to "post-$i",
+                    "status" to "publish",
+                    "type" to "post",
+                    "link" to "$SITE_URL/post-$i/",
+                    // The edit context returns the rendered text with the raw one
+                    "title" to linkedMapOf("raw" to "Post $i", "rendered" to "Post $i"),
+                    "content" to linkedMapOf("raw" to postContent(i), "rendered" to renderedContent(i),
+                            "protected" to false, "block_version" to 1),
+                    "excerpt" to linkedMapOf("raw" to "Excerpt of post $i",
+                            "rendered" to "<p>Excerpt of post $i</p>\n", "protected" to false),
+                    "password" to "",
+                    "featured_media" to 1000 + i,
+                    "format" to "standard",
+                    "categories" to terms(i).filter { it.taxonomy == "category" }.map { it.id },
+                    "_links" to restLinks(i),
+                    "_embedded" to linkedMapOf("wp:term" to listOf("category", "post_tag").map { taxonomy ->
+                        terms(i).filter { it.taxonomy == taxonomy }.map { term ->
+                            linkedMapOf(
+                                    "id" to term.id,
+                                    "link" to "$SITE_URL/${term.taxonomy}/${term.name}/",
+                                    "name" to term.name,
+                                    "slug" to term.name,
+                                    "taxonomy" to term.taxonomy,
+                                    "_links" to linkedMapOf(
+                                            "self" to listOf(linkedMapOf("href" to
+                                                    "$API_URL/${term.taxonomy}/${term.id}")),
+                                            "collection" to listOf(linkedMapOf("href" to "$API_URL/${term.taxonomy}")),
+                                            "about" to listOf(linkedMapOf("href" to
+                                                    "$API_URL/taxonomies/${term.taxonomy}")),
+                                            "wp:post_type" to listOf(linkedMapOf("href" to
+                                                    "$API_URL/posts?${term.taxonomy}=${term.id}")),
+                                            "curies" to listOf(CURIE)
+                                    )
+                            )
+                        }
+                    })
+            )
+        }
+        return GsonBuilder().disableHtmlEscaping().create().toJson(posts).toByteArray()
+    }
+
+    private fun restLinks(i: Int) = linkedMapOf(
+            "self" to listOf(linkedMapOf("href" to "$API_URL/posts/$i")),
+            "collection" to listOf(linkedMapOf("href" to "$API_URL/posts")),
+            "about" to listOf(linkedMapOf("href" to "$API_URL/types/post")),
+            "author" to listOf(linkedMapOf("embeddable" to true, "href" to "$API_URL/users/1")),
+            "replies" to listOf(linkedMapOf("embeddable" to true, "href" to "$API_URL/comments?post=$i")),
+            "version-history" to listOf(linkedMapOf("count" to 2, "href" to "$API_URL/posts/$i/revisions")),
+            "wp:featuredmedia" to listOf(linkedMapOf("embeddable" to true, "href" to "$API_URL/media/${1000 + i}")),
+            "wp:attachment" to listOf(linkedMapOf("href" to "$API_URL/media?parent=$i")),
+            "wp:term" to listOf("category", "post_tag").map { taxonomy ->
+                linkedMapOf("taxonomy" to taxonomy, "embeddable" to true, "href" to "$API_URL/$taxonomy?post=$i")
+            },
+            "curies" to listOf(CURIE)
+    )
+
+    private fun terms(i: Int) = listOf(
+            PostWPAPIRestResponse.Term(1, "uncategorized", "category"),
+            PostWPAPIRestResponse.Term(100L + i % 5, "tag${i % 5}", "post_tag"),
+            PostWPAPIRestResponse.Term(200L + i % 7, "topic${i % 7}", "post_tag")
+    )
+
+    private fun postDate(i: Int) = POSTS_START_MS + i * HOUR_MS * 24
+
+    private fun restDate(timeMs: Long) = SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss", Locale.US)
+            .apply { timeZone = TimeZone.getTimeZone("UTC") }.format(Date(timeMs))
+
+    private fun postContent(i: Int) = (1..PARAGRAPHS_PER_POST).joinToString("\n\n") {
+        "<!-- wp:paragraph -->\n<p>Paragraph $it of post $i, long enough to be representative of the text of " +
+                "a post, with <a href=\"$SITE_URL/post-${it + i}/\">a link</a> and <strong>some</strong> " +
+                "<em>formatting</em>.</p>\n<!-- /wp:paragraph -->"
+    }
+
+    private fun renderedContent(i: Int) = (1..PARAGRAPHS_PER_POST).joinToString("\n\n\n\n") {
+        "<p>Paragraph $it of post $i, long enough to be representative of the text of a post, with " +
+                "<a href=\"$SITE_URL/post-${it + i}/\">a link</a> and <strong>some</strong> " +
+                "<em>formatting</em>.</p>"
+    }
+}
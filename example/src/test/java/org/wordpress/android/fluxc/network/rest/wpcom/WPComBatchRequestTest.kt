@@ -0,0 +1,152 @@
+package org.wordpress.android.fluxc.network.rest.wpcom
+
+import com.android.volley.NetworkResponse
+import com.android.volley.Response.Listener
+import com.nhaarman.mockitokotlin2.any
+import com.nhaarman.mockitokotlin2.argumentCaptor
+import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.never
+import com.nhaarman.mockitokotlin2.verify
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.wordpress.android.fluxc.generated.endpoint.WPCOMREST
+import org.wordpress.android.fluxc.generated.endpoint.WPCOMV2
+import org.wordpress.android.fluxc.network.rest.wpcom.WPComGsonRequest.WPComErrorListener
+import org.wordpress.android.fluxc.network.rest.wpcom.WPComGsonRequest.WPComGsonNetworkError
+import kotlin.test.assertEquals
+import kotlin.test.assertNotNull
+import kotlin.test.assertNull
+import kotlin.test.assertTrue
+
+@RunWith(RobolectricTestRunner::class)
+class WPComBatchRequestTest {
+    private val formatsUrl = WPCOMREST.sites.site(123).post_formats.urlV1_1
+    private val rolesUrl = WPCOMREST.sites.site(123).roles.urlV1_1
+    private val plansUrl = WPCOMREST.sites.site(123).plans.urlV1_1
+
+    @Test
+    fun testSubResponsesAreDeliveredToOriginalListeners() {
+        val formatsListener = mock<Listener<FormatsResponse>>()
+        val rolesErrorListener = mock<WPComErrorListener>()
+        val formatsRequest = WPComGsonRequest.buildGetRequest(formatsUrl, null, FormatsResponse::class.java,
+                formatsListener, mock())
+        val rolesRequest = WPComGsonRequest.buildGetRequest(rolesUrl, null, Any::class.java,
+                mock<Listener<Any>>(), rolesErrorListener)
+        val fallbackListener = mock<WPComBatchRequest.BatchFallbackListener>()
+
+        val batchRequest = WPComBatchRequest(WPCOMREST.batch.urlV1_1, listOf(formatsRequest, rolesRequest),
+                listOf("/sites/123/post-formats/", "/sites/123/roles"), fallbackListener)
+
+        val responseJson = "{\"/sites/123/post-formats/\":{\"formats\":{\"aside\":\"Aside\"}}," +
+                "\"/sites/123/roles\":{\"error\":\"unauthorized\",\"message\":\"Not allowed\"}}"
+        val response = batchRequest.parseNetworkResponse(NetworkResponse(200, responseJson.toByteArray(),
+                mapOf(), false))
+        assertTrue(response.isSuccess)
+
+        batchRequest.deliverResponse(response.result)
+
+        val formatsCaptor = argumentCaptor<FormatsResponse>()
+        verify(formatsListener).onResponse(formatsCaptor.capture())
+        assertEquals("Aside", formatsCaptor.firstValue.formats["aside"])
+
+        val errorCaptor = argumentCaptor<WPComGsonNetworkError>()
+        verify(rolesErrorListener).onErrorResponse(errorCaptor.capture())
+        assertEquals("unauthorized", errorCaptor.firstValue.apiError)
+        assertEquals("Not allowed", errorCaptor.firstValue.message)
+
+        verify(fallbackListener, never()).onBatchFallback(any())
+    }
+
+    @Test
+    fun testMissingSubResponsesFallBackToIndividualRequests() {
+        val formatsRequest = WPComGsonRequest.buildGetRequest(formatsUrl, null, FormatsResponse::class.java,
+                mock<Listener<FormatsResponse>>(), mock())
+        val rolesRequest = WPComGsonRequest.buildGetRequest(rolesUrl, null, Any::class.java,
+                mock<Listener<Any>>(), mock())
+        val fallbackListener = mock<WPComBatchRequest.BatchFallbackListener>()
+
+        val batchRequest = WPComBatchRequest(WPCOMREST.batch.urlV1_1, listOf(formatsRequest, rolesRequest),
+                listOf("/sites/123/post-formats/", "/sites/123/roles"), fallbackListener)
+
+        val responseJson = "{\"/sites/123/post-formats/\":{\"formats\":{}}}"
+        val response = batchRequest.parseNetworkResponse(NetworkResponse(200, responseJson.toByteArray(),
+                mapOf(), false))
+        batchRequest.deliverResponse(response.result)
+
+        verify(fallbackListener).onBatchFallback(listOf(rolesRequest))
+    }
+
+    @Test
+    fun testInvalidBatchResponseIsAnError() {
+        val formatsRequest = WPComGsonRequest.buildGetRequest(formatsUrl, null, FormatsResponse::class.java,
+                mock<Listener<FormatsResponse>>(), mock())
+        val rolesRequest = WPComGsonRequest.buildGetRequest(rolesUrl, null, Any::class.java,
+                mock<Listener<Any>>(), mock())
+
+        val batchRequest = WPComBatchRequest(WPCOMREST.batch.urlV1_1, listOf(formatsRequest, rolesRequest),
+                listOf("/sites/123/post-formats/", "/sites/123/roles"), mock())
+
+        val response = batchRequest.parseNetworkResponse(NetworkResponse(200, "[]".toByteArray(), mapOf(), false))
+        assertTrue(!response.isSuccess)
+    }
+
+    @Test
+    fun testBatchUrlContainsRelativeSubRequestUrls() {
+        val formatsRequest = WPComGsonRequest.buildGetRequest(formatsUrl, null, FormatsResponse::class.java,
+                mock<Listener<FormatsResponse>>(), mock())
+        val plansRequest = WPComGsonRequest.buildGetRequest(plansUrl, null, Any::class.java,
+                mock<Listener<Any>>(), mock())
+
+        val batchRequest = WPComBatchRequest(WPCOMREST.batch.urlV1_1, listOf(formatsRequest, plansRequest),
+                listOf("/sites/123/post-formats/", "/sites/123/plans/"), mock())
+
+        assertEquals(listOf("/sites/123/post-formats/", "/sites/123/plans/"),
+                batchRequest.mUri.getQueryParameters(WPComBatchRequest.URLS_PARAM))
+    }
+
+    @Test
+    fun testBatchEligibility() {
+        val getRequest = WPComGsonRequest.buildGetRequest(formatsUrl, null, Any::class.java,
+                mock<Listener<Any>>(), mock())
+        assertNotNull(WPComBatchRequestCombiner.getBatchKey(getRequest))
+
+        val postRequest = WPComGsonRequest.buildPostRequest(formatsUrl, null, Any::class.java,
+                mock<Listener<Any>>(), mock())
+        assertNull(WPComBatchRequestCombiner.getBatchKey(postRequest))
+
+        val cachedRequest = WPComGsonRequest.buildGetRequest(formatsUrl, null, Any::class.java,
+                mock<Listener<Any>>(), mock())
+        cachedRequest.enableCaching(1000)
+        assertNull(WPComBatchRequestCombiner.getBatchKey(cachedRequest))
+
+        val v2Request = WPComGsonRequest.buildGetRequest(WPCOMV2.users.username.suggestions.url, null,
+                Any::class.java, mock<Listener<Any>>(), mock())
+        assertNull(WPComBatchRequestCombiner.getBatchKey(v2Request))
+
+        val tunnelRequest = WPComGsonRequest.buildGetRequest(WPCOMREST.jetpack_blogs.site(123).rest_api.urlV1_1,
+                null, Any::class.java, mock<Listener<Any>>(), mock())
+        assertNull(WPComBatchRequestCombiner.getBatchKey(tunnelRequest))
+    }
+
+    @Test
+    fun testRequestsWithDifferentTokensAreNotBatchedTogether() {
+        val firstRequest = WPComGsonRequest.buildGetRequest(formatsUrl, null, Any::class.java,
+                mock<Listener<Any>>(), mock())
+        firstRequest.setAccessToken("first-token")
+        val secondRequest = WPComGsonRequest.buildGetRequest(rolesUrl, null, Any::class.java,
+                mock<Listener<Any>>(), mock())
+        secondRequest.setAccessToken("second-token")
+        val thirdRequest = WPComGsonRequest.buildGetRequest(plansUrl, null, Any::class.java,
+                mock<Listener<Any>>(), mock())
+        thirdRequest.setAccessToken("first-token")
+
+        val firstKey = WPComBatchRequestCombiner.getBatchKey(firstRequest)
+        assertTrue(firstKey != WPComBatchRequestCombiner.getBatchKey(secondRequest))
+        assertEquals(firstKey, WPComBatchRequestCombiner.getBatchKey(thirdRequest))
+    }
+
+    class FormatsResponse {
+        val formats: Map<String, String> = emptyMap()
+    }
+}
@@ -0,0 +1,179 @@
+package org.wordpress.android.fluxc.network.rest.wpcom.jetpacktunnel
+
+import com.android.volley.NoConnectionError
+import com.android.volley.Request
+import com.android.volley.RequestQueue
+import com.android.volley.Response.Listener
+import com.nhaarman.mockitokotlin2.mock
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.RuntimeEnvironment
+import org.wordpress.android.fluxc.Dispatcher
+import org.wordpress.android.fluxc.network.rest.wpcom.BaseWPComRestClient
+import org.wordpress.android.fluxc.network.rest.wpcom.WPComGsonRequest
+import org.wordpress.android.fluxc.network.rest.wpcom.jetpacktunnel.JetpackSiteHealthTracker.CircuitState
+import kotlin.random.Random
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertNull
+import kotlin.test.assertTrue
+
+@RunWith(RobolectricTestRunner::class)
+class JetpackSiteHealthTrackerTest {
+    private val siteUrl = "https://public-api.wordpress.com/rest/v1.1/jetpack-blogs/123/rest-api/?path=/wc/v3/orders"
+    private val otherSiteUrl = "https://public-api.wordpress.com/rest/v1.1/jetpack-blogs/456/rest-api/"
+    private var now = 0L
+    private val tracker = JetpackSiteHealthTracker(failureThreshold = 3, baseCooldownMs = 1000,
+            maxCooldownMs = 3000, random = Random(42), currentTimeMs = { now })
+
+    @Test
+    fun testCircuitOpensAfterConsecutiveTimeouts() {
+        repeat(2) { tracker.onTimeout(siteUrl) }
+        assertTrue(tracker.allowRequest(siteUrl))
+        assertFalse(tracker.isCircuitOpen(siteUrl))
+
+        tracker.onTimeout(siteUrl)
+        assertTrue(tracker.isCircuitOpen(siteUrl))
+        assertFalse(tracker.allowRequest(siteUrl))
+
+        // Other sites are not affected
+        assertTrue(tracker.allowRequest(otherSiteUrl))
+
+        val health = tracker.getSiteHealth(123)!!
+        assertEquals(CircuitState.OPEN, health.state)
+        assertEquals(3, health.totalTimeouts)
+        assertEquals(1, health.failedFastCount)
+        assertEquals(1, health.timesOpened)
+    }
+
+    @Test
+    fun testResponseResetsConsecutiveTimeouts() {
+        repeat(2) { tracker.onTimeout(siteUrl) }
+        tracker.onResponse(siteUrl)
+        repeat(2) { tracker.onTimeout(siteUrl) }
+
+        assertTrue(tracker.allowRequest(siteUrl))
+        assertEquals(2, tracker.getSiteHealth(123)!!.consecutiveTimeouts)
+    }
+
+    @Test
+    fun testHalfOpenProbeClosesCircuitOnResponse() {
+        repeat(3) { tracker.onTimeout(siteUrl) }
+
+        now = 1000
+        // Only a single probe is let through once the cooldown expires
+        assertTrue(tracker.allowRequest(siteUrl))
+        assertEquals(CircuitState.HALF_OPEN, tracker.getSiteHealth(123)!!.state)
+        assertFalse(tracker.allowRequest(siteUrl))
+
+        tracker.onResponse(siteUrl)
+        assertEquals(CircuitState.CLOSED, tracker.getSiteHealth(123)!!.state)
+        assertTrue(tracker.allowRequest(siteUrl))
+        assertTrue(tracker.allowRequest(siteUrl))
+    }
+
+    @Test
+    fun testHalfOpenProbeTimeoutDoublesCooldown() {
+        repeat(3) { tracker.onTimeout(siteUrl) }
+
+        now = 1000
+        assertTrue(tracker.allowRequest(siteUrl))
+        tracker.onTimeout(siteUrl)
+        assertEquals(CircuitState.OPEN, tracker.getSiteHealth(123)!!.state)
+        assertEquals(2000, tracker.getSiteHealth(123)!!.cooldownMs)
+
+        now = 2999
+        assertFalse(tracker.allowRequest(siteUrl))
+
+        now = 3000
+        assertTrue(tracker.allowRequest(siteUrl))
+        tracker.onTimeout(siteUrl)
+        // Capped at the max cooldown
+        assertEquals(3000, tracker.getSiteHealth(123)!!.cooldownMs)
+    }
+
+    @Test
+    fun testHalfOpenProbeFailureReopensCircuit() {
+        repeat(3) { tracker.onTimeout(siteUrl) }
+
+        now = 1000
+        assertTrue(tracker.allowRequest(siteUrl))
+        tracker.onFailure(siteUrl)
+        val health = tracker.getSiteHealth(123)!!
+        assertEquals(CircuitState.OPEN, health.state)
+        assertEquals(2000, health.cooldownMs)
+        assertEquals(1, health.totalFailures)
+
+        // Another probe is let through after the cooldown
+        now = 3000
+        assertTrue(tracker.allowRequest(siteUrl))
+    }
+
+    @Test
+    fun testFailuresDoNotOpenCircuit() {
+        repeat(5) { tracker.onFailure(siteUrl) }
+
+        assertTrue(tracker.allowRequest(siteUrl))
+        assertEquals(5, tracker.getSiteHealth(123)!!.totalFailures)
+    }
+
+    @Test
+    fun testProbeFailingWithoutNetworkResponseReopensCircuit() {
+        repeat(3) { tracker.onTimeout(siteUrl) }
+
+        now = 1000
+        val probe = WPComGsonRequest.buildGetRequest(siteUrl, null, Any::class.java, mock<Listener<Any>>(), mock())
+        TestRestClient().add(probe)
+        assertEquals(CircuitState.HALF_OPEN, tracker.getSiteHealth(123)!!.state)
+
+        probe.deliverError(NoConnectionError())
+        assertEquals(CircuitState.OPEN, tracker.getSiteHealth(123)!!.state)
+        assertEquals(2000, tracker.getSiteHealth(123)!!.cooldownMs)
+    }
+
+    @Test
+    fun testCanceledProbeReopensCircuit() {
+        repeat(3) { tracker.onTimeout(siteUrl) }
+
+        now = 1000
+        val probe = WPComGsonRequest.buildGetRequest(siteUrl, null, Any::class.java, mock<Listener<Any>>(), mock())
+        TestRestClient().add(probe)
+        probe.cancel()
+        assertEquals(CircuitState.OPEN, tracker.getSiteHealth(123)!!.state)
+
+        now = 3000
+        assertTrue(tracker.allowRequest(siteUrl))
+    }
+
+    @Test
+    fun testNonTunnelRequestsAreIgnored() {
+        val url = "https://public-api.wordpress.com/rest/v1.1/sites/123/posts/"
+        repeat(5) { tracker.onTimeout(url) }
+
+        assertTrue(tracker.allowRequest(url))
+        assertNull(JetpackSiteHealthTracker.getTunnelSiteId(url))
+        assertTrue(tracker.getAllSiteHealth().isEmpty())
+    }
+
+    @Test
+    fun testRetryDelayBackoffWithJitter() {
+        val tracker = JetpackSiteHealthTracker(baseRetryDelayMs = 1000, maxRetryDelayMs = 4000)
+        repeat(20) {
+            assertTrue(tracker.getRetryDelayMs(0) in 500..1000)
+            assertTrue(tracker.getRetryDelayMs(1) in 1000..2000)
+            assertTrue(tracker.getRetryDelayMs(2) in 2000..4000)
+            assertTrue(tracker.getRetryDelayMs(10) in 2000..4000)
+            assertTrue(tracker.getRetryDelayMs(100) in 2000..4000)
+        }
+    }
+
+    private inner class TestRestClient : BaseWPComRestClient(RuntimeEnvironment.application, Dispatcher(),
+            mock<RequestQueue>(), mock(), mock()) {
+        init {
+            setSiteHealthTracker(tracker)
+        }
+
+        public override fun add(request: WPComGsonRequest<*>): Request<*> = super.add(request)
+    }
+}
@@ -0,0 +1,92 @@
+package org.wordpress.android.fluxc.page
+
+import com.nhaarman.mockitokotlin2.doAnswer
+import com.nhaarman.mockitokotlin2.mock
+import com.yarolegovich.wellsql.WellSql
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.runBlocking
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.RuntimeEnvironment
+import org.wordpress.android.fluxc.SingleStoreWellSqlConfigForTests
+import org.wordpress.android.fluxc.model.PostModel
+import org.wordpress.android.fluxc.model.SiteModel
+import org.wordpress.android.fluxc.persistence.PostSqlUtils
+import org.wordpress.android.fluxc.store.PageStore
+import org.wordpress.android.fluxc.store.PostStore
+
+@RunWith(RobolectricTestRunner::class)
+class PageStoreSearchTest {
+    private val postSqlUtils = PostSqlUtils()
+    private val site = SiteModel().apply { id = 3_000 }
+    private val postStore = mock<PostStore> {
+        on { getPagesForSite(site) } doAnswer { postSqlUtils.getPostsForSite(site, true) }
+    }
+    private val pageStore = PageStore(
+            postStore = postStore,
+            dispatcher = mock(),
+            coroutineContext = Dispatchers.Unconfined,
+            postSqlUtils = postSqlUtils
+    )
+
+    private val query = "que"
+
+    @Before
+    fun setUp() {
+        val appContext = RuntimeEnvironment.application.applicationContext
+        val config = SingleStoreWellSqlConfigForTests(appContext, listOf(PostModel::class.java), "")
+        WellSql.init(config)
+        config.reset()
+
+        insertPage(1, "page 1")
+        insertPage(2, "page2 start $query end ")
+        insertPage(3, null)
+    }
+
+    @After
+    fun tearDown() {
+        WellSql.closeDb()
+    }
+
+    @Test
+    fun searchFindsAllResultsContainingText() {
+        val result = runBlocking { pageStore.search(site, query) }
+
+        assertThat(result).hasSize(1)
+        assertThat(result[0].title).isEqualTo("page2 start $query end ")
+    }
+
+    @Test
+    fun emptySearchResultWhenNothingContainsQuery() {
+        val result = runBlocking { pageStore.search(site, "foo") }
+
+        assertThat(result).isEmpty()
+    }
+
+    @Test
+    fun searchMatchesWordPrefixesInTitleAndContent() {
+        val contentMatch = insertPage(4, "Notes", "Some text about a question")
+        // Not the start of a word
+        insertPage(5, "Unique")
+
+        val result = runBlocking { pageStore.search(site, query) }
+
+        // Title matches rank before content matches
+        assertThat(result.map { it.remoteId }).containsExactly(2L, contentMatch.remotePostId)
+    }
+
+    private fun insertPage(remoteId: Long, title: String?, content: String = ""): PostModel {
+        val page = PostModel()
+        page.localSiteId = site.id
+        page.remotePostId = remoteId
+        title?.let { page.title = it }
+        page.content = content
+        page.status = "draft"
+        page.setIsPage(true)
+        return postSqlUtils.insertPostForResult(page)
+    }
+}
@@ -10,7 +10,6 @@ import com.nhaarman.mockitokotlin2.whenever
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.delay
 import kotlinx.coroutines.launch
-import kotlinx.coroutines.runBlocking
 import org.assertj.core.api.Assertions.assertThat
 import org.junit.Before
 import org.junit.Test
@@ -85,27 +84,12 @@ class PageStoreTest {
         store = PageStore(postStore, PostSqlUtils(), dispatcher, Dispatchers.Unconfined)
     }
 
-    @Test
-    fun searchFindsAllResultsContainingText() {
-        val result = runBlocking { store.search(site, query) }
-
-        assertThat(result).hasSize(1)
-        assertThat(result[0].title).isEqualTo(pageWithQuery.title)
-    }
-
     private fun assertPage(map: Map<PageStatus, List<PageModel>>, position: Int, status: PageStatus) {
         val page = map[status]?.get(position)
         assertThat(page).isNotNull()
         assertThat(page!!.status).isEqualTo(status)
     }
 
-    @Test
-    fun emptySearchResultWhenNothingContainsQuery() {
-        val result = runBlocking { store.search(site, "foo") }
-
-        assertThat(result).isEmpty()
-    }
-
     @Test
     fun requestPagesFetchesFromServerAndReturnsEvent() = test {
         val expected = OnPostChanged(CauseOfOnPostChanged.FetchPages, 5, false)
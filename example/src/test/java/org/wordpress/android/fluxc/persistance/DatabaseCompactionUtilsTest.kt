@@ -0,0 +1,78 @@
+package org.wordpress.android.fluxc.persistance
+
+import android.database.DatabaseUtils
+import com.yarolegovich.wellsql.WellSql
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.RuntimeEnvironment
+import org.wordpress.android.fluxc.SingleStoreWellSqlConfigForTests
+import org.wordpress.android.fluxc.model.MediaModel
+import org.wordpress.android.fluxc.persistence.DatabaseCompactionUtils
+import kotlin.test.assertEquals
+import kotlin.test.assertTrue
+
+@RunWith(RobolectricTestRunner::class)
+class DatabaseCompactionUtilsTest {
+    @Before
+    fun setUp() {
+        val config = SingleStoreWellSqlConfigForTests(RuntimeEnvironment.application.applicationContext,
+                MediaModel::class.java)
+        WellSql.init(config)
+        config.reset()
+    }
+
+    @Test
+    fun testNewDatabasesUseIncrementalVacuum() {
+        assertEquals(AUTO_VACUUM_INCREMENTAL, pragma("auto_vacuum"))
+    }
+
+    @Test
+    fun testCompactReleasesFreePagesByBoundedSteps() {
+        insertAndDeleteMedia()
+        val pageSize = pragma("page_size")
+        val freePages = pragma("freelist_count")
+        assertTrue(freePages > 1)
+
+        assertTrue(DatabaseCompactionUtils.compact(1) >= pageSize)
+        assertEquals(freePages - 1, pragma("freelist_count"))
+
+        assertTrue(DatabaseCompactionUtils.compact() >= (freePages - 1) * pageSize)
+        assertEquals(0L, pragma("freelist_count"))
+    }
+
+    @Test
+    fun testIncrementalVacuumIsOnlyEnabledBelowTheSizeLimit() {
+        val db = WellSql.giveMeWritableDb()
+        db.execSQL("PRAGMA auto_vacuum = NONE")
+        db.execSQL("VACUUM")
+        insertAndDeleteMedia()
+
+        // Too large to be rewritten: nothing is reclaimed, and the database is left as is
+        assertEquals(0L, DatabaseCompactionUtils.compact(maxFullVacuumSize = 0))
+        assertEquals(AUTO_VACUUM_NONE, pragma("auto_vacuum"))
+
+        assertTrue(DatabaseCompactionUtils.enableIncrementalVacuum())
+        assertEquals(AUTO_VACUUM_INCREMENTAL, pragma("auto_vacuum"))
+        assertEquals(0L, pragma("freelist_count"))
+    }
+
+    private fun insertAndDeleteMedia() {
+        WellSql.insert((1..MEDIA_COUNT).map {
+            MediaModel().apply {
+                mediaId = it.toLong()
+                description = "A description long enough to fill a few pages of the database. ".repeat(10)
+            }
+        }).execute()
+        WellSql.delete(MediaModel::class.java).execute()
+    }
+
+    private fun pragma(name: String) = DatabaseUtils.longForQuery(WellSql.giveMeWritableDb(), "PRAGMA $name", null)
+
+    companion object {
+        private const val AUTO_VACUUM_NONE = 0L
+        private const val AUTO_VACUUM_INCREMENTAL = 2L
+        private const val MEDIA_COUNT = 200
+    }
+}
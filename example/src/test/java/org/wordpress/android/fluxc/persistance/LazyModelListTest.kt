@@ -0,0 +1,132 @@
+package org.wordpress.android.fluxc.persistance
+
+import com.wellsql.generated.MediaModelTable
+import com.wellsql.generated.SiteModelTable
+import com.yarolegovich.wellsql.SelectQuery
+import com.yarolegovich.wellsql.WellSql
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.RuntimeEnvironment
+import org.wordpress.android.fluxc.SingleStoreWellSqlConfigForTests
+import org.wordpress.android.fluxc.model.MediaModel
+import org.wordpress.android.fluxc.model.SiteModel
+import org.wordpress.android.fluxc.persistence.LazyModelList
+import org.wordpress.android.fluxc.persistence.MediaSqlUtils
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import kotlin.test.assertTrue
+
+@RunWith(RobolectricTestRunner::class)
+class LazyModelListTest {
+    private val site = SiteModel().apply { id = SITE_ID }
+
+    @Before
+    fun setUp() {
+        val config = SingleStoreWellSqlConfigForTests(RuntimeEnvironment.application.applicationContext,
+                listOf(MediaModel::class.java, SiteModel::class.java))
+        WellSql.init(config)
+        config.reset()
+
+        WellSql.insert((1..MEDIA_COUNT).map {
+            MediaModel().apply {
+                localSiteId = SITE_ID
+                mediaId = it.toLong()
+                uploadDate = String.format("2019-01-01 00:%02d:%02d", it / 60, it % 60)
+            }
+        }).execute()
+    }
+
+    @Test
+    fun testListHasTheRowsOfTheQueryInOrder() {
+        val media = MediaSqlUtils.getAllSiteMediaAsLazyList(site, false)
+
+        assertEquals(MEDIA_COUNT, media.size)
+        assertEquals(MediaSqlUtils.getAllSiteMedia(site).map { it.mediaId }, media.map { it.mediaId })
+    }
+
+    @Test
+    fun testModelsAreLoadedByWindows() {
+        val media = LazyModelList(MediaModel::class.java, WellSql.select(MediaModel::class.java)
+                .orderBy(MediaModelTable.MEDIA_ID, SelectQuery.ORDER_ASCENDING), MediaModelTable.ID, 10)
+        val first = media[0]
+
+        // Same instance while its window is cached
+        assertTrue(first === media[0])
+        assertEquals(10L, media[9].mediaId)
+        assertEquals(MEDIA_COUNT.toLong(), media[MEDIA_COUNT - 1].mediaId)
+        assertFailsWith<IndexOutOfBoundsException> { media[MEDIA_COUNT] }
+    }
+
+    @Test
+    fun testDeletedRowsAreSkipped() {
+        val media = LazyModelList(MediaModel::class.java, WellSql.select(MediaModel::class.java)
+                .orderBy(MediaModelTable.MEDIA_ID, SelectQuery.ORDER_ASCENDING), MediaModelTable.ID, 10)
+        assertEquals(5L, media[4].mediaId)
+
+        WellSql.delete(MediaModel::class.java).where().isIn(MediaModelTable.MEDIA_ID, listOf(1, 2, 25)).endWhere()
+                .execute()
+
+        // Cached window, still the models read before the deletion
+        assertEquals(1L, media[0].mediaId)
+        assertEquals(MEDIA_COUNT, media.size)
+        // Loaded after the deletion
+        assertEquals(26L, media[24].mediaId)
+        assertEquals(MEDIA_COUNT - 1, media.size)
+        assertEquals(MEDIA_COUNT.toLong(), media[MEDIA_COUNT - 2].mediaId)
+        assertFailsWith<IndexOutOfBoundsException> { media[MEDIA_COUNT - 1] }
+    }
+
+    @Test
+    fun testDeletedRowsAreSkippedWhenIterating() {
+        val media = MediaSqlUtils.getAllSiteMediaAsLazyList(site, false)
+
+        WellSql.delete(MediaModel::class.java).where().isIn(MediaModelTable.MEDIA_ID, listOf(1, 150)).endWhere()
+                .execute()
+
+        assertEquals(MediaSqlUtils.getAllSiteMedia(site).map { it.mediaId }, media.map { it.mediaId })
+        assertEquals(MEDIA_COUNT - 2, media.size)
+    }
+
+    @Test
+    fun testRecycledModelsAreRefilled() {
+        val media = LazyModelList(MediaModel::class.java, WellSql.select(MediaModel::class.java)
+                .orderBy(MediaModelTable.MEDIA_ID, SelectQuery.ORDER_ASCENDING), MediaModelTable.ID, 10, true)
+        val first = media[0]
+
+        val expected = MediaSqlUtils.getAllSiteMedia(site).sortedBy { it.mediaId }
+        media.forEachIndexed { i, model ->
+            assertEquals(expected[i], model)
+        }
+
+        // The models of the first window were reused for a later one
+        assertTrue((10 until MEDIA_COUNT).any { media[it] === first })
+        assertTrue(first.mediaId > 10)
+    }
+
+    @Test
+    fun testColumnsNamedDifferentlyFromTheirFieldAreRefilled() {
+        WellSql.insert((1..30).map {
+            SiteModel().apply {
+                siteId = it.toLong()
+                url = "https://site$it.example.com"
+                // XMLRPC_URL column
+                xmlRpcUrl = "https://site$it.example.com/xmlrpc.php"
+            }
+        }).execute()
+        val sites = LazyModelList(SiteModel::class.java, WellSql.select(SiteModel::class.java)
+                .orderBy(SiteModelTable.SITE_ID, SelectQuery.ORDER_ASCENDING), SiteModelTable.ID, 10, true)
+        val first = sites[0]
+
+        sites.forEachIndexed { i, site ->
+            assertEquals("https://site${i + 1}.example.com/xmlrpc.php", site.xmlRpcUrl)
+        }
+        assertTrue((10 until 30).any { sites[it] === first })
+    }
+
+    companion object {
+        private const val SITE_ID = 7
+        private const val MEDIA_COUNT = 250
+    }
+}
@@ -0,0 +1,181 @@
+package org.wordpress.android.fluxc.persistance
+
+import android.database.DatabaseUtils
+import android.database.sqlite.SQLiteDatabase
+import com.yarolegovich.wellsql.WellSql
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.RuntimeEnvironment
+import org.wordpress.android.fluxc.model.MediaModel
+import org.wordpress.android.fluxc.model.PostModel
+import org.wordpress.android.fluxc.model.SiteModel
+import org.wordpress.android.fluxc.model.WCOrderModel
+import org.wordpress.android.fluxc.persistence.MediaSearchIndex
+import org.wordpress.android.fluxc.persistence.OrderSearchIndex
+import org.wordpress.android.fluxc.persistence.PostSearchIndex
+import org.wordpress.android.fluxc.persistence.WellSqlConfig
+import org.wordpress.android.util.AppLog
+import org.wordpress.android.util.AppLog.T
+import kotlin.test.assertEquals
+
+/**
+ * Opens databases left at older versions, filled with a realistic number of rows, and checks that the upgrade ends
+ * with the schema of a fresh install. The time taken to open each database is printed, as a benchmark of the upgrade.
+ *
+ * The older databases are made by undoing the last upgrade steps on a fresh database.
+ */
+@RunWith(RobolectricTestRunner::class)
+class WellSqlConfigUpgradeTest {
+    private val config = WellSqlConfig(RuntimeEnvironment.application.applicationContext,
+            WellSqlConfig.ADDON_WOOCOMMERCE)
+
+    @Test
+    fun testUpgradeFromVersion91() {
+        assertUpgradeFrom(91)
+    }
+
+    @Test
+    fun testUpgradeFromVersion89() {
+        assertUpgradeFrom(89)
+    }
+
+    @Test
+    fun testUpgradeFromVersionWithoutSearchIndexes() {
+        assertUpgradeFrom(82)
+    }
+
+    @Test
+    fun testUpgradeFromVersion77() {
+        assertUpgradeFrom(77)
+    }
+
+    private fun assertUpgradeFrom(version: Int) {
+        WellSql.init(config)
+        val db = WellSql.giveMeWritableDb()
+        val freshSchema = getSchema(db)
+        val freshIndexes = getIndexes(db)
+        insertRows()
+        downgradeTo(db, version)
+        db.close()
+
+        val start = System.currentTimeMillis()
+        WellSql.init(config)
+        val upgradedDb = WellSql.giveMeWritableDb()
+        AppLog.i(T.DB, "Opened database at version $version with $ROW_COUNT posts, media and orders in " +
+                "${System.currentTimeMillis() - start} ms")
+
+        assertEquals(config.dbVersion, upgradedDb.version)
+        assertEquals(freshSchema, getSchema(upgradedDb))
+        assertEquals(freshIndexes, getIndexes(upgradedDb))
+        assertEquals(ROW_COUNT, count(upgradedDb, PostSearchIndex.TABLE_NAME))
+        assertEquals(ROW_COUNT, count(upgradedDb, MediaSearchIndex.TABLE_NAME))
+        assertEquals(ROW_COUNT.toLong(), DatabaseUtils.queryNumEntries(upgradedDb, "MediaModel", "UPLOAD_DATE = ?",
+                arrayOf("2019-01-01T10:00:00+00:00")))
+        if (version < 85) {
+            // Created by the upgrade from the existing orders, the SqlUtils fill it afterwards
+            assertEquals(ROW_COUNT, count(upgradedDb, OrderSearchIndex.TABLE_NAME))
+        }
+    }
+
+    private fun insertRows() {
+        WellSql.insert(SiteModel().apply { siteId = 1 }).execute()
+        WellSql.insert((1..ROW_COUNT).map {
+            PostModel().apply {
+                localSiteId = 1
+                remotePostId = it.toLong()
+                title = "Post $it"
+                content = "<p>Some content for post number $it, long enough to be indexed as a few words.</p>"
+            }
+        }).execute()
+        WellSql.insert((1..ROW_COUNT).map {
+            MediaModel().apply {
+                localSiteId = 1
+                mediaId = it.toLong()
+                title = "Image $it"
+                caption = "Caption $it"
+                fileName = "image-$it.jpg"
+                uploadDate = "2019-01-01T12:00:00+02:00"
+            }
+        }).execute()
+        WellSql.insert((1..ROW_COUNT).map {
+            WCOrderModel().apply {
+                localSiteId = 1
+                remoteOrderId = it.toLong()
+                number = it.toString()
+                billingFirstName = "First$it"
+                billingLastName = "Last$it"
+                billingEmail = "customer$it@example.com"
+            }
+        }).execute()
+    }
+
+    /**
+     * Undoes the upgrade steps made after [version], in reverse order.
+     */
+    private fun downgradeTo(db: SQLiteDatabase, version: Int) {
+        db.execSQL("PRAGMA foreign_keys = OFF")
+        if (version < 98) dropColumns(db, "DiscoveryResultModel", "DISCOVERY_ERROR", "FAILED_ENDPOINT")
+        if (version < 97) {
+            listOf("REMOTE_PRODUCT_ID", "STATUS", "STOCK_STATUS").forEach {
+                db.execSQL("DROP INDEX WCProductModel_$it")
+            }
+        }
+        if (version < 94) dropColumns(db, "SiteModel", "IS_WP_API_AUTHENTICATED")
+        if (version < 93) dropColumns(db, "WCRevenueStatsDayModel", "FETCHED_AT")
+        if (version < 92) dropColumns(db, "SiteModel", "WP_API_REST_URL")
+        if (version < 91) db.execSQL("DROP TABLE DiscoveryResultModel")
+        if (version < 90) db.execSQL("DROP TABLE WCStatsIntervalModel")
+        if (version < 89) db.execSQL("DROP TABLE WCRevenueStatsDayModel")
+        if (version < 88) dropColumns(db, "ListModel", "NEXT_PAGE_KEY_DB_VALUE")
+        if (version < 87) dropColumns(db, "WCOrderSummaryModel", "DATE_MODIFIED")
+        if (version < 86) dropColumns(db, "WCOrderModel", "LINE_ITEMS_SUBTOTAL", "LINE_ITEMS_COUNT", "LINE_ITEMS_HASH")
+        if (version < 85) OrderSearchIndex.drop(db)
+        if (version < 84) MediaSearchIndex.drop(db)
+        if (version < 83) PostSearchIndex.drop(db)
+        if (version < 82) db.execSQL("DROP TABLE WCProductReviewModel")
+        if (version < 81) db.execSQL("DROP TABLE WCNewVisitorStatsModel")
+        if (version < 80) dropColumns(db, "PostModel", "CHANGES_CONFIRMED_CONTENT_HASHCODE")
+        if (version < 79) db.execSQL("DROP TABLE WCVisitorStatsModel")
+        if (version < 78) dropColumns(db, "PostModel", "AUTHOR_ID", "AUTHOR_DISPLAY_NAME")
+        db.version = version
+    }
+
+    private fun dropColumns(db: SQLiteDatabase, table: String, vararg columns: String) {
+        val keptColumns = getColumns(db, table).filter { it !in columns }.joinToString(",")
+        db.execSQL("CREATE TABLE ${table}Old AS SELECT $keptColumns FROM $table")
+        db.execSQL("DROP TABLE $table")
+        db.execSQL("ALTER TABLE ${table}Old RENAME TO $table")
+    }
+
+    private fun getSchema(db: SQLiteDatabase): Map<String, Set<String>> {
+        val tables = db.rawQuery("SELECT name FROM sqlite_master WHERE type = 'table'", null).use { cursor ->
+            generateSequence { if (cursor.moveToNext()) cursor.getString(0) else null }.toList()
+        }
+        return tables.filter { it != "android_metadata" && it != "sqlite_sequence" }
+                .associateWith { getColumns(db, it).toSet() }
+    }
+
+    private fun getIndexes(db: SQLiteDatabase): Set<String> {
+        // Indexes without SQL are the ones SQLite creates for UNIQUE constraints
+        return db.rawQuery("SELECT name FROM sqlite_master WHERE type = 'index' AND sql IS NOT NULL", null)
+                .use { cursor -> generateSequence { if (cursor.moveToNext()) cursor.getString(0) else null }.toSet() }
+    }
+
+    private fun getColumns(db: SQLiteDatabase, table: String): List<String> {
+        return db.rawQuery("PRAGMA table_info($table)", null).use { cursor ->
+            generateSequence { if (cursor.moveToNext()) cursor.getString(1) else null }.toList()
+        }
+    }
+
+    private fun count(db: SQLiteDatabase, table: String): Int {
+        return db.rawQuery("SELECT COUNT(*) FROM $table", null).use { cursor ->
+            cursor.moveToFirst()
+            cursor.getInt(0)
+        }
+    }
+
+    companion object {
+        private const val ROW_COUNT = 2000
+    }
+}
@@ -0,0 +1,107 @@
+package org.wordpress.android.fluxc.post
+
+import com.wellsql.generated.PostModelTable
+import com.yarolegovich.wellsql.SelectQuery
+import com.yarolegovich.wellsql.WellSql
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.RuntimeEnvironment
+import org.wordpress.android.fluxc.SingleStoreWellSqlConfigForTests
+import org.wordpress.android.fluxc.model.LocalOrRemoteId.LocalId
+import org.wordpress.android.fluxc.model.PostModel
+import org.wordpress.android.fluxc.model.SiteModel
+import org.wordpress.android.fluxc.persistence.FullTextSearchUtils
+import org.wordpress.android.fluxc.persistence.PostSqlUtils
+import kotlin.test.assertEquals
+import kotlin.test.assertNull
+
+@RunWith(RobolectricTestRunner::class)
+class PostSearchIndexTest {
+    private val postSqlUtils = PostSqlUtils()
+    private val site = SiteModel().apply { id = PostTestUtils.DEFAULT_LOCAL_SITE_ID }
+
+    @Before
+    fun setUp() {
+        val config = SingleStoreWellSqlConfigForTests(RuntimeEnvironment.application.applicationContext,
+                PostModel::class.java)
+        WellSql.init(config)
+        config.reset()
+    }
+
+    @Test
+    fun testBuildPrefixMatchQuery() {
+        assertEquals("word* pres*", FullTextSearchUtils.buildPrefixMatchQuery("Word  PRES"))
+        assertEquals("don* t* or*", FullTextSearchUtils.buildPrefixMatchQuery("\"don't\" OR -*"))
+        assertEquals("café*", FullTextSearchUtils.buildPrefixMatchQuery("café"))
+        assertNull(FullTextSearchUtils.buildPrefixMatchQuery("!?"))
+        assertNull(FullTextSearchUtils.buildPrefixMatchQuery(null))
+    }
+
+    @Test
+    fun testSearchMatchesWordPrefixesInTitleAndContent() {
+        val titleMatch = insertPost("Travelling to Lisbon", "Some notes")
+        val contentMatch = insertPost("Notes", "We travelled by train")
+        insertPost("Unrelated", "Nothing to see here, untravelled")
+
+        assertEquals(listOf(titleMatch, contentMatch).map { LocalId(it.id) },
+                postSqlUtils.searchLocalPostIds(site, false, "TRAVEL"))
+        assertEquals(listOf(LocalId(contentMatch.id)), postSqlUtils.searchLocalPostIds(site, false, "trav train"))
+    }
+
+    @Test
+    fun testSearchIsScopedToSiteAndPostType() {
+        insertPost("Lisbon", "", isPage = true)
+        insertPost("Lisbon", "", localSiteId = site.id + 1)
+        val post = insertPost("Lisbon", "")
+
+        assertEquals(listOf(LocalId(post.id)), postSqlUtils.searchLocalPostIds(site, false, "lisbon"))
+    }
+
+    @Test
+    fun testIndexFollowsUpdatesAndDeletes() {
+        val post = insertPost("Lisbon", "")
+        post.title = "Porto"
+        postSqlUtils.insertOrUpdatePostOverwritingLocalChanges(post)
+
+        assertEquals(emptyList(), postSqlUtils.searchLocalPostIds(site, false, "lisbon"))
+        assertEquals(listOf(LocalId(post.id)), postSqlUtils.searchLocalPostIds(site, false, "porto"))
+
+        postSqlUtils.deletePost(post)
+        assertEquals(emptyList(), postSqlUtils.searchLocalPostIds(site, false, "porto"))
+    }
+
+    @Test
+    fun testLocalDraftFilterUsesIndex() {
+        val olderDraft = insertPost("Lisbon trip", "", isLocalDraft = true, dateCreated = "2019-01-01T00:00:00Z")
+        val newerDraft = insertPost("Notes", "Back from Lisbon", isLocalDraft = true,
+                dateCreated = "2019-02-01T00:00:00Z")
+        insertPost("Lisbon", "")
+
+        assertEquals(listOf(newerDraft, olderDraft).map { LocalId(it.id) },
+                postSqlUtils.getLocalPostIdsForFilter(site, false, "lisb", PostModelTable.DATE_CREATED,
+                        SelectQuery.ORDER_DESCENDING))
+        // Queries without searchable terms fall back to matching the raw text
+        assertEquals(emptyList(), postSqlUtils.getLocalPostIdsForFilter(site, false, "!!",
+                PostModelTable.DATE_CREATED, SelectQuery.ORDER_DESCENDING))
+    }
+
+    private fun insertPost(
+        title: String,
+        content: String,
+        isPage: Boolean = false,
+        isLocalDraft: Boolean = false,
+        localSiteId: Int = site.id,
+        dateCreated: String = "2019-01-01T00:00:00Z"
+    ): PostModel {
+        val post = PostModel()
+        post.localSiteId = localSiteId
+        post.title = title
+        post.content = content
+        post.setIsPage(isPage)
+        post.setIsLocalDraft(isLocalDraft)
+        post.dateCreated = dateCreated
+        return postSqlUtils.insertPostForResult(post)
+    }
+}
@@ -38,7 +38,7 @@ class PostStoreTest {
 
     @Before
     fun setUp() {
-        store = PostStore(dispatcher, mock(), mock(), postSqlUtils)
+        store = PostStore(dispatcher, mock(), mock(), mock(), postSqlUtils)
         whenever(mockedListDescriptor.site).thenReturn(mock())
         // verify "register" so we can use verifyNoMoreInteractions in all the test methods
         verify(dispatcher).register(any())
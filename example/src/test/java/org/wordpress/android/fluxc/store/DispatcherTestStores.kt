@@ -0,0 +1,45 @@
+package org.wordpress.android.fluxc.store
+
+import org.greenrobot.eventbus.Subscribe
+import org.greenrobot.eventbus.ThreadMode
+import org.wordpress.android.fluxc.Dispatcher
+import org.wordpress.android.fluxc.action.PostAction
+import org.wordpress.android.fluxc.annotations.HandlesActions
+import org.wordpress.android.fluxc.annotations.action.Action
+import java.util.concurrent.CountDownLatch
+
+class TestChangeEvent
+
+/**
+ * Handles post actions like a store of another module: the generated PostActionBuilder doesn't list it.
+ */
+@HandlesActions(PostAction::class)
+class OtherModulePostStore(dispatcher: Dispatcher) : Store(dispatcher) {
+    val actionReceived = CountDownLatch(1)
+    val changeReceived = CountDownLatch(1)
+
+    override fun onAction(action: Action<*>) {
+        actionReceived.countDown()
+    }
+
+    override fun onRegister() {}
+
+    @Subscribe(threadMode = ThreadMode.ASYNC)
+    fun onTestChange(event: TestChangeEvent) {
+        changeReceived.countDown()
+    }
+}
+
+/**
+ * Doesn't declare the actions it handles, so it receives every action through the event bus.
+ */
+class UndeclaredActionsStore(dispatcher: Dispatcher) : Store(dispatcher) {
+    val actionReceived = CountDownLatch(1)
+
+    @Subscribe(threadMode = ThreadMode.ASYNC)
+    override fun onAction(action: Action<*>) {
+        actionReceived.countDown()
+    }
+
+    override fun onRegister() {}
+}
@@ -11,6 +11,7 @@ import org.mockito.Mockito;
 import org.robolectric.RobolectricTestRunner;
 import org.robolectric.RuntimeEnvironment;
 import org.wordpress.android.fluxc.Dispatcher;
+import org.wordpress.android.fluxc.generated.ThemeActionBuilder;
 import org.wordpress.android.fluxc.model.SiteModel;
 import org.wordpress.android.fluxc.model.ThemeModel;
 import org.wordpress.android.fluxc.network.rest.wpcom.theme.ThemeRestClient;
@@ -19,6 +20,7 @@ import org.wordpress.android.fluxc.persistence.ThemeSqlUtils;
 import org.wordpress.android.fluxc.persistence.WellSqlConfig;
 import org.wordpress.android.fluxc.site.SiteUtils;
 import org.wordpress.android.fluxc.store.ThemeStore;
+import org.wordpress.android.fluxc.store.ThemeStore.FetchedWpComThemesPayload;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -30,7 +32,8 @@ import static org.junit.Assert.assertTrue;
 
 @RunWith(RobolectricTestRunner.class)
 public class ThemeStoreUnitTest {
-    private ThemeStore mThemeStore = new ThemeStore(new Dispatcher(), Mockito.mock(ThemeRestClient.class));
+    private ThemeRestClient mThemeRestClient = Mockito.mock(ThemeRestClient.class);
+    private ThemeStore mThemeStore = new ThemeStore(new Dispatcher(), mThemeRestClient);
 
     @Before
     public void setUp() {
@@ -116,6 +119,27 @@ public class ThemeStoreUnitTest {
         assertEquals(10, mThemeStore.getWpComThemes().size());
     }
 
+    @Test
+    public void testNotModifiedWpComThemesAreKept() {
+        ThemeSqlUtils.insertOrReplaceWpComThemes(generateThemesTestList(20));
+
+        FetchedWpComThemesPayload payload = new FetchedWpComThemesPayload(new ArrayList<ThemeModel>());
+        payload.notModified = true;
+        mThemeStore.onAction(ThemeActionBuilder.newFetchedWpComThemesAction(payload));
+
+        assertEquals(20, mThemeStore.getWpComThemes().size());
+        Mockito.verify(mThemeRestClient, Mockito.never()).fetchWpComThemes(true);
+    }
+
+    @Test
+    public void testNotModifiedWpComThemesAreFetchedAgainIfMissing() {
+        FetchedWpComThemesPayload payload = new FetchedWpComThemesPayload(new ArrayList<ThemeModel>());
+        payload.notModified = true;
+        mThemeStore.onAction(ThemeActionBuilder.newFetchedWpComThemesAction(payload));
+
+        Mockito.verify(mThemeRestClient).fetchWpComThemes(true);
+    }
+
     @Test
     public void testInsertOrReplaceInstalledThemes() throws SiteSqlUtils.DuplicateSiteException {
         final SiteModel site = SiteUtils.generateJetpackSiteOverRestOnly();
@@ -5,6 +5,14 @@ import junit.framework.Assert;
 import org.junit.Test;
 
 public class MediaUtilsTest {
+    @Test
+    public void testUploadDatesAreConvertedToUtc() {
+        Assert.assertEquals("2019-01-02T10:30:00+00:00", MediaUtils.getUtcUploadDate("2019-01-02T12:30:00+02:00"));
+        Assert.assertEquals("2019-01-02T03:30:00+00:00", MediaUtils.getUtcUploadDate("2019-01-01T22:30:00-05:00"));
+        Assert.assertEquals("2019-01-02T10:30:00+00:00", MediaUtils.getUtcUploadDate("2019-01-02T10:30:00+00:00"));
+        Assert.assertNull(MediaUtils.getUtcUploadDate(null));
+    }
+
     @Test
     public void testImageMimeTypeRecognition() {
         final String[] validImageMimeTypes = {
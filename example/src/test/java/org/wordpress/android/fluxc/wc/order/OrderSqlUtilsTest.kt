@@ -11,16 +11,22 @@ import org.wordpress.android.fluxc.SingleStoreWellSqlConfigForTests
 import org.wordpress.android.fluxc.UnitTestUtils
 import org.wordpress.android.fluxc.model.LocalOrRemoteId.RemoteId
 import org.wordpress.android.fluxc.model.SiteModel
+import org.wordpress.android.fluxc.model.WCOrderListDescriptor
 import org.wordpress.android.fluxc.model.WCOrderModel
 import org.wordpress.android.fluxc.model.WCOrderNoteModel
 import org.wordpress.android.fluxc.model.WCOrderShipmentProviderModel
 import org.wordpress.android.fluxc.model.WCOrderShipmentTrackingModel
 import org.wordpress.android.fluxc.model.WCOrderStatusModel
 import org.wordpress.android.fluxc.model.WCOrderSummaryModel
+import org.wordpress.android.fluxc.model.list.ListItemModel
+import org.wordpress.android.fluxc.model.list.ListModel
 import org.wordpress.android.fluxc.network.rest.wpcom.wc.order.CoreOrderStatus
+import org.wordpress.android.fluxc.persistence.ListItemSqlUtils
+import org.wordpress.android.fluxc.persistence.ListSqlUtils
 import org.wordpress.android.fluxc.persistence.OrderSqlUtils
 import org.wordpress.android.fluxc.persistence.SiteSqlUtils
 import org.wordpress.android.fluxc.persistence.WellSqlConfig
+import java.util.Date
 import kotlin.test.assertEquals
 import kotlin.test.assertFalse
 import kotlin.test.assertNotNull
@@ -41,7 +47,9 @@ class OrderSqlUtilsTest {
                         WCOrderShipmentTrackingModel::class.java,
                         WCOrderShipmentProviderModel::class.java,
                         WCOrderSummaryModel::class.java,
-                        SiteModel::class.java),
+                        SiteModel::class.java,
+                        ListModel::class.java,
+                        ListItemModel::class.java),
                 WellSqlConfig.ADDON_WOOCOMMERCE)
         WellSql.init(config)
         config.reset()
@@ -473,4 +481,131 @@ class OrderSqlUtilsTest {
                 .getOrderSummariesForRemoteIds(site, summaryList.map { RemoteId(it.remoteOrderId) })
         assertEquals(0, summariesDb.size)
     }
+
+    @Test
+    fun testSearchOrdersForSite() {
+        val site = SiteModel().apply { id = 6 }
+        val customerMatch = OrderTestUtils.generateSampleOrder(1).apply {
+            billingFirstName = "Jane"
+            billingLastName = "Doe"
+            billingEmail = "jane.doe@example.com"
+        }
+        val productMatch = OrderTestUtils.generateSampleOrder(2).apply {
+            number = "1002"
+            dateCreated = "1955-11-06T14:15:00Z"
+            lineItems = "[{\"id\":1,\"name\":\"Janelle Monae Vinyl\",\"quantity\":1}]"
+        }
+        val otherSite = OrderTestUtils.generateSampleOrder(3, siteId = 7).apply { billingFirstName = "Jane" }
+        listOf(customerMatch, productMatch, otherSite).forEach { OrderSqlUtils.insertOrUpdateOrder(it) }
+
+        assertEquals(listOf(2L, 1L), OrderSqlUtils.searchOrdersForSite(site, "jane", 25).map { it.remoteOrderId })
+        assertEquals(listOf(1L), OrderSqlUtils.searchOrdersForSite(site, "doe@exam", 25).map { it.remoteOrderId })
+        assertEquals(listOf(2L), OrderSqlUtils.searchOrdersForSite(site, "#1002", 25).map { it.remoteOrderId })
+        assertEquals(1, OrderSqlUtils.searchOrdersForSite(site, "jane", 1).size)
+
+        // Updating the order replaces its indexed text, deleting it removes it from the index
+        customerMatch.billingFirstName = "Joan"
+        customerMatch.billingEmail = "joan.doe@example.com"
+        OrderSqlUtils.insertOrUpdateOrder(customerMatch)
+        assertEquals(listOf(2L), OrderSqlUtils.searchOrdersForSite(site, "jane", 25).map { it.remoteOrderId })
+        OrderSqlUtils.deleteOrdersForSite(site)
+        assertEquals(emptyList(), OrderSqlUtils.searchOrdersForSite(site, "joan", 25))
+    }
+
+    @Test
+    fun testGetOutdatedOrderRemoteIds() {
+        val site = OrderTestUtils.getAndSaveTestSite()
+        val dateModified = "2019-05-01T10:00:00Z"
+        val upToDate = OrderTestUtils.generateSampleOrder(1, siteId = site.id).apply {
+            this.dateModified = dateModified
+        }
+        val outdated = OrderTestUtils.generateSampleOrder(2, siteId = site.id).apply {
+            this.dateModified = "2019-04-01T10:00:00Z"
+        }
+        listOf(upToDate, outdated).forEach { OrderSqlUtils.insertOrUpdateOrder(it) }
+        // Order 3 isn't stored locally
+        val summaries = listOf(1L, 2L, 3L).map { remoteId ->
+            WCOrderSummaryModel().apply {
+                localSiteId = site.id
+                remoteOrderId = remoteId
+                this.dateModified = dateModified
+            }
+        }
+        OrderSqlUtils.insertOrUpdateOrderSummaries(summaries)
+
+        val remoteIds = summaries.map { RemoteId(it.remoteOrderId) }
+        assertEquals(listOf(RemoteId(2)), OrderSqlUtils.getOutdatedOrderRemoteIds(site, remoteIds))
+        assertEquals(emptyList(), OrderSqlUtils.getOutdatedOrderRemoteIds(site, emptyList()))
+        // More ids than SQLite variables, the outdated order in the last chunk
+        val manyRemoteIds = (1000L..2999L).map { RemoteId(it) } + remoteIds
+        assertEquals(listOf(RemoteId(2)), OrderSqlUtils.getOutdatedOrderRemoteIds(site, manyRemoteIds))
+    }
+
+    @Test
+    fun testDeleteUnlistedOrdersForSite() {
+        val site = OrderTestUtils.getAndSaveTestSite()
+        val listDescriptor = WCOrderListDescriptor(site)
+        val listSqlUtils = ListSqlUtils()
+        listSqlUtils.insertOrUpdateList(listDescriptor)
+        val listId = listSqlUtils.getList(listDescriptor)!!.id
+        ListItemSqlUtils().insertItemList(listOf(ListItemModel(listId, 1), ListItemModel(listId, 3)))
+
+        // Orders 1 and 3 are listed, orders 2 and 3 are recent
+        val orders = listOf(1L to "2019-01-01T10:00:00Z", 2L to "2019-06-01T10:00:00Z",
+                3L to "2019-06-01T10:00:00Z", 4L to "2019-01-01T10:00:00Z").map { (remoteId, date) ->
+            OrderSqlUtils.insertOrUpdateOrder(OrderTestUtils.generateSampleOrder(remoteId, siteId = site.id).apply {
+                dateCreated = date
+            })
+            OrderSqlUtils.getOrdersForSiteByRemoteIds(site, listOf(RemoteId(remoteId))).first()
+        }
+        orders.forEach { order ->
+            OrderSqlUtils.insertOrIgnoreOrderNote(OrderTestUtils.generateSampleNote(order.remoteOrderId, site.id,
+                    order.id))
+            OrderSqlUtils.insertOrIgnoreOrderShipmentTracking(OrderTestUtils.generateOrderShipmentTracking(site.id,
+                    order.id))
+        }
+        OrderSqlUtils.insertOrUpdateOrderSummaries(listOf(1L, 2L).map { remoteId ->
+            WCOrderSummaryModel().apply {
+                localSiteId = site.id
+                remoteOrderId = remoteId
+            }
+        })
+
+        val deletedRows = OrderSqlUtils.deleteUnlistedOrdersForSite(site, listDescriptor.typeIdentifier,
+                "2019-03-01T00:00:00Z")
+
+        assertEquals(mapOf("WCOrderModel" to 1, "WCOrderSummaryModel" to 1, "WCOrderNoteModel" to 1,
+                "WCOrderShipmentTrackingModel" to 1), deletedRows)
+        assertEquals(listOf(1L, 2L, 3L), OrderSqlUtils.getOrdersForSite(site).map { it.remoteOrderId }.sorted())
+        assertEquals(emptyList(), OrderSqlUtils.getOrderNotesForOrder(orders[3].id))
+        assertEquals(1, OrderSqlUtils.getOrderNotesForOrder(orders[1].id).size)
+        assertEquals(listOf(RemoteId(1)), OrderSqlUtils.getOrderSummariesForRemoteIds(site,
+                listOf(RemoteId(1), RemoteId(2))).map { RemoteId(it.remoteOrderId) })
+    }
+
+    @Test
+    fun testDeleteUnlistedOrdersForSiteDeletesExpiredListsFirst() {
+        val site = OrderTestUtils.getAndSaveTestSite()
+        val listDescriptor = WCOrderListDescriptor(site)
+        val listSqlUtils = ListSqlUtils()
+        listSqlUtils.insertOrUpdateList(listDescriptor)
+        val listId = listSqlUtils.getList(listDescriptor)!!.id
+        ListItemSqlUtils().insertItemList(listOf(ListItemModel(listId, 1)))
+        OrderSqlUtils.insertOrUpdateOrder(OrderTestUtils.generateSampleOrder(1, siteId = site.id).apply {
+            dateCreated = "2019-01-01T10:00:00Z"
+        })
+
+        // The list was updated after the cut off date, so it keeps its order
+        val keptRows = OrderSqlUtils.deleteUnlistedOrdersForSite(site, listDescriptor.typeIdentifier,
+                "2019-03-01T00:00:00Z", Date(System.currentTimeMillis() - 60_000))
+        assertEquals(0, keptRows["ListModel"])
+        assertEquals(0, keptRows["WCOrderModel"])
+
+        val deletedRows = OrderSqlUtils.deleteUnlistedOrdersForSite(site, listDescriptor.typeIdentifier,
+                "2019-03-01T00:00:00Z", Date(System.currentTimeMillis() + 60_000))
+        assertEquals(1, deletedRows["ListModel"])
+        assertEquals(1, deletedRows["ListItemModel"])
+        assertEquals(1, deletedRows["WCOrderModel"])
+        assertNull(listSqlUtils.getList(listDescriptor))
+    }
 }
@@ -3,7 +3,9 @@ package org.wordpress.android.fluxc.wc.order
 import org.junit.Test
 import org.wordpress.android.fluxc.UnitTestUtils
 import kotlin.test.assertEquals
+import kotlin.test.assertNotEquals
 import kotlin.test.assertNull
+import kotlin.test.assertSame
 import kotlin.test.assertTrue
 
 class WCOrderModelTest {
@@ -70,4 +72,59 @@ class WCOrderModelTest {
         model.lineItems = "[{\"total\": \"12.26\"},{\"total\": \"15.39\"}]"
         assertEquals(0.0, model.getOrderSubtotal())
     }
+
+    @Test
+    fun testLineItemsAreParsedOnce() {
+        val model = OrderTestUtils.generateSampleOrder(61).apply {
+            lineItems = "[{\"subtotal\": \"12.26\"},{\"subtotal\": \"15.39\"}]"
+        }
+
+        assertSame(model.getLineItemList(), model.getLineItemList())
+        assertEquals(2, model.getLineItemCount())
+
+        model.lineItems = "[]"
+        assertEquals(0, model.getLineItemList().size)
+    }
+
+    @Test
+    fun testLineItemsSummary() {
+        val model = OrderTestUtils.generateSampleOrder(61).apply {
+            lineItems = "[{\"subtotal\": \"12.26\"},{\"subtotal\": \"15.39\"}]"
+        }
+        model.updateLineItemsSummary()
+        assertEquals(27.65, model.lineItemsSubtotal)
+        assertEquals(2, model.lineItemsCount)
+
+        // A stored summary matching the line items is used as is
+        val storedModel = OrderTestUtils.generateSampleOrder(61).apply {
+            lineItems = model.lineItems
+            lineItemsSubtotal = 10.0
+            lineItemsCount = 1
+            lineItemsHash = model.lineItemsHash
+        }
+        assertEquals(10.0, storedModel.getOrderSubtotal())
+        assertEquals(1, storedModel.getLineItemCount())
+
+        // Once the line items change, the summary is ignored
+        storedModel.lineItems = "[{\"subtotal\": \"5.00\"}]"
+        assertEquals(5.0, storedModel.getOrderSubtotal())
+        assertEquals(1, storedModel.getLineItemCount())
+    }
+
+    @Test
+    fun testLineItemsSummaryIsUpdatedWhenLineItemsChange() {
+        val model = OrderTestUtils.generateSampleOrder(61).apply {
+            lineItems = "[{\"subtotal\": \"12.26\"}]"
+        }
+        model.updateLineItemsSummary()
+        val firstHash = model.lineItemsHash
+
+        model.lineItems = "[{\"subtotal\": \"12.26\"},{\"subtotal\": \"15.39\"}]"
+        assertEquals(0L, model.lineItemsHash)
+        model.updateLineItemsSummary()
+
+        assertEquals(27.65, model.lineItemsSubtotal)
+        assertEquals(2, model.lineItemsCount)
+        assertNotEquals(firstHash, model.lineItemsHash)
+    }
 }
@@ -1,6 +1,9 @@
 package org.wordpress.android.fluxc.wc.order
 
+import com.nhaarman.mockitokotlin2.argumentCaptor
 import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.times
+import com.nhaarman.mockitokotlin2.verify
 import com.yarolegovich.wellsql.WellSql
 import org.junit.Before
 import org.junit.Test
@@ -20,8 +23,10 @@ import org.wordpress.android.fluxc.network.rest.wpcom.wc.order.CoreOrderStatus
 import org.wordpress.android.fluxc.persistence.OrderSqlUtils
 import org.wordpress.android.fluxc.persistence.WellSqlConfig
 import org.wordpress.android.fluxc.store.WCOrderStore
+import org.wordpress.android.fluxc.store.WCOrderStore.OnOrdersSearched
 import org.wordpress.android.fluxc.store.WCOrderStore.OrderErrorType
 import org.wordpress.android.fluxc.store.WCOrderStore.RemoteOrderPayload
+import org.wordpress.android.fluxc.store.WCOrderStore.SearchOrdersResponsePayload
 import kotlin.test.assertEquals
 import kotlin.test.assertNull
 import kotlin.test.assertTrue
@@ -186,4 +191,24 @@ class WCOrderStoreTest {
             assertEquals(duplicateRemoteOrder.apply { id = 1 }, orderStore.getOrderByIdentifier(packagedOrder))
         }
     }
+
+    @Test
+    fun testOnlyTheFirstPageOfSearchResultsIncludesLocalMatches() {
+        val dispatcher: Dispatcher = mock()
+        val store = WCOrderStore(dispatcher, mock())
+        val localOrder = OrderTestUtils.generateSampleOrder(42).apply { billingFirstName = "Marty" }
+        val site = SiteModel().apply { id = localOrder.localSiteId }
+        OrderSqlUtils.insertOrUpdateOrder(localOrder)
+
+        store.onAction(WCOrderActionBuilder.newSearchedOrdersAction(
+                SearchOrdersResponsePayload(site, "Marty", offset = 0, requestedOffset = 0)))
+        store.onAction(WCOrderActionBuilder.newSearchedOrdersAction(
+                SearchOrdersResponsePayload(site, "Marty", offset = 25, requestedOffset = 25)))
+
+        argumentCaptor<OnOrdersSearched>().apply {
+            verify(dispatcher, times(2)).emitChange(capture())
+            assertEquals(listOf(42L), firstValue.searchResults.map { it.remoteOrderId })
+            assertTrue(secondValue.searchResults.isEmpty())
+        }
+    }
 }
@@ -12,11 +12,15 @@ import org.wordpress.android.fluxc.UnitTestUtils
 import org.wordpress.android.fluxc.model.SiteModel
 import org.wordpress.android.fluxc.model.WCProductModel
 import org.wordpress.android.fluxc.model.WCProductReviewModel
+import org.wordpress.android.fluxc.model.WCProductVariationModel
 import org.wordpress.android.fluxc.persistence.ProductSqlUtils
 import org.wordpress.android.fluxc.persistence.SiteSqlUtils
 import org.wordpress.android.fluxc.persistence.WellSqlConfig
+import org.wordpress.android.fluxc.store.WCProductStore.ProductFilterOption
+import org.wordpress.android.fluxc.store.WCProductStore.ProductSorting
 import kotlin.test.assertEquals
 import kotlin.test.assertNotNull
+import kotlin.test.assertNull
 import kotlin.test.assertTrue
 
 @Config(manifest = Config.NONE)
@@ -36,6 +40,7 @@ class ProductSqlUtilsTest {
                 listOf(
                         WCProductModel::class.java,
                         WCProductReviewModel::class.java,
+                        WCProductVariationModel::class.java,
                         SiteModel::class.java),
                 WellSqlConfig.ADDON_WOOCOMMERCE)
         WellSql.init(config)
@@ -146,6 +151,86 @@ class ProductSqlUtilsTest {
         assertEquals(3, differentSiteProducts.size)
     }
 
+    @Test
+    fun testInsertOrUpdateProducts() {
+        val site = SiteModel().apply { id = 6 }
+        val firstPage = (1L..100L).map { ProductTestUtils.generateSampleProduct(it, name = "Product $it") }
+        assertEquals(100, ProductSqlUtils.insertOrUpdateProducts(firstPage))
+        assertEquals(100, ProductSqlUtils.getProductCountForSite(site))
+
+        // An incremental sync returns a mix of stored and new products
+        val secondPage = listOf(
+                ProductTestUtils.generateSampleProduct(50, name = "Renamed"),
+                ProductTestUtils.generateSampleProduct(101, name = "Product 101"))
+        assertEquals(2, ProductSqlUtils.insertOrUpdateProducts(secondPage))
+        assertEquals(101, ProductSqlUtils.getProductCountForSite(site))
+        assertEquals("Renamed", ProductSqlUtils.getProductByRemoteId(site, 50)?.name)
+    }
+
+    @Test
+    fun testGetProductsForSiteWithQuery() {
+        val site = SiteModel().apply { id = 6 }
+        val products = listOf(
+                ProductTestUtils.generateSampleProduct(1, name = "Blue shirt").apply {
+                    sku = "SH-1"
+                    stockStatus = "instock"
+                    dateCreated = "2019-01-02T10:00:00"
+                    dateModified = "2019-03-01T10:00:00"
+                },
+                ProductTestUtils.generateSampleProduct(2, name = "album").apply {
+                    sku = "AL-1"
+                    stockStatus = "outofstock"
+                    dateCreated = "2019-01-03T10:00:00"
+                    dateModified = "2019-02-01T10:00:00"
+                },
+                ProductTestUtils.generateSampleProduct(3, name = "Cap").apply {
+                    sku = "SH-2"
+                    stockStatus = "instock"
+                    dateCreated = "2019-01-01T10:00:00"
+                    dateModified = "2019-01-01T10:00:00"
+                })
+        ProductSqlUtils.insertOrUpdateProducts(products)
+
+        // Names are sorted regardless of their case
+        val byTitle = ProductSqlUtils.getProductsForSite(site, ProductSorting.TITLE_ASC)
+        assertEquals(listOf(2L, 1L, 3L), byTitle.map { it.remoteProductId })
+
+        val byDate = ProductSqlUtils.getProductsForSite(site, ProductSorting.DATE_DESC)
+        assertEquals(listOf(2L, 1L, 3L), byDate.map { it.remoteProductId })
+
+        val inStock = ProductSqlUtils.getProductsForSite(site, ProductSorting.DATE_ASC,
+                mapOf(ProductFilterOption.STOCK_STATUS to "instock"))
+        assertEquals(listOf(3L, 1L), inStock.map { it.remoteProductId })
+
+        // The search matches the name or the SKU
+        val searched = ProductSqlUtils.getProductsForSite(site, searchQuery = "sh")
+        assertEquals(listOf(1L, 3L), searched.map { it.remoteProductId })
+
+        assertEquals("2019-03-01T10:00:00", ProductSqlUtils.getLastProductModifiedDate(site))
+        assertNull(ProductSqlUtils.getLastProductModifiedDate(SiteModel().apply { id = 7 }))
+    }
+
+    @Test
+    fun testDeleteProductsAbsentFromRemoteIds() {
+        val site = SiteModel().apply { id = 6 }
+        val otherSite = SiteModel().apply { id = 7 }
+        ProductSqlUtils.insertOrUpdateProducts((1L..2000L).map { ProductTestUtils.generateSampleProduct(it) })
+        ProductSqlUtils.insertOrUpdateProducts(listOf(ProductTestUtils.generateSampleProduct(1500, siteId = 7)))
+        ProductSqlUtils.insertOrUpdateProductVariation(WCProductVariationModel().apply {
+            localSiteId = site.id
+            remoteProductId = 1500
+            remoteVariationId = 1
+        })
+
+        // Products 1001 to 2000 were deleted or trashed on the site
+        assertEquals(1000, ProductSqlUtils.deleteProductsAbsentFromRemoteIds(site, (1L..1000L).toList()))
+
+        assertEquals(1000, ProductSqlUtils.getProductCountForSite(site))
+        assertNull(ProductSqlUtils.getProductByRemoteId(site, 1500))
+        assertTrue(ProductSqlUtils.getVariationsForProduct(site, 1500).isEmpty())
+        assertNotNull(ProductSqlUtils.getProductByRemoteId(otherSite, 1500))
+    }
+
     @Test
     fun testInsertOrUpdateProductReview() {
         val review = getProductReviews(site.id)[0]
@@ -9,12 +9,15 @@ import org.robolectric.RobolectricTestRunner
 import org.robolectric.RuntimeEnvironment
 import org.robolectric.annotation.Config
 import org.wordpress.android.fluxc.Dispatcher
+import org.wordpress.android.fluxc.generated.WCProductActionBuilder
 import org.wordpress.android.fluxc.SingleStoreWellSqlConfigForTests
 import org.wordpress.android.fluxc.model.SiteModel
 import org.wordpress.android.fluxc.model.WCProductModel
+import org.wordpress.android.fluxc.model.WCProductVariationModel
 import org.wordpress.android.fluxc.persistence.ProductSqlUtils
 import org.wordpress.android.fluxc.persistence.WellSqlConfig
 import org.wordpress.android.fluxc.store.WCProductStore
+import org.wordpress.android.fluxc.store.WCProductStore.RemoteProductIdsPayload
 import kotlin.test.assertEquals
 
 @Config(manifest = Config.NONE)
@@ -27,7 +30,7 @@ class WCProductStoreTest {
         val appContext = RuntimeEnvironment.application.applicationContext
         val config = SingleStoreWellSqlConfigForTests(
                 appContext,
-                listOf(WCProductModel::class.java),
+                listOf(WCProductModel::class.java, WCProductVariationModel::class.java),
                 WellSqlConfig.ADDON_WOOCOMMERCE
         )
         WellSql.init(config)
@@ -82,4 +85,20 @@ class WCProductStoreTest {
         assertEquals(differentSiteProduct2.remoteProductId, differentSiteProducts[1].remoteProductId)
         assertEquals(differentSiteProduct3.remoteProductId, differentSiteProducts[2].remoteProductId)
     }
+
+    @Test
+    fun testFetchedProductIdsDeletesAbsentProductsUnlessTheListChanged() {
+        listOf(1L, 2L, 3L).forEach { ProductSqlUtils.insertOrUpdateProduct(ProductTestUtils.generateSampleProduct(it)) }
+        val site = SiteModel().apply { id = ProductTestUtils.generateSampleProduct(1).localSiteId }
+
+        // Pages shifted while listing: the list may be missing products which still exist
+        productStore.onAction(WCProductActionBuilder.newFetchedProductIdsAction(
+                RemoteProductIdsPayload(site, listOf(1L), listChanged = true)))
+        assertEquals(3, productStore.getProductsByRemoteIds(site, listOf(1L, 2L, 3L)).size)
+
+        productStore.onAction(WCProductActionBuilder.newFetchedProductIdsAction(
+                RemoteProductIdsPayload(site, listOf(1L, 3L))))
+        assertEquals(listOf(1L, 3L), productStore.getProductsByRemoteIds(site, listOf(1L, 2L, 3L))
+                .map { it.remoteProductId })
+    }
 }
@@ -9,7 +9,9 @@ import org.robolectric.RuntimeEnvironment
 import org.robolectric.annotation.Config
 import org.wordpress.android.fluxc.SingleStoreWellSqlConfigForTests
 import org.wordpress.android.fluxc.model.SiteModel
+import org.wordpress.android.fluxc.model.WCRevenueStatsDayModel
 import org.wordpress.android.fluxc.model.WCRevenueStatsModel
+import org.wordpress.android.fluxc.model.WCStatsIntervalModel
 import org.wordpress.android.fluxc.persistence.WCStatsSqlUtils
 import org.wordpress.android.fluxc.persistence.WellSqlConfig
 import org.wordpress.android.fluxc.store.WCStatsStore.StatsGranularity
@@ -25,7 +27,8 @@ class WCStatsSqlUtilsTest {
         val appContext = RuntimeEnvironment.application.applicationContext
         val config = SingleStoreWellSqlConfigForTests(
                 appContext,
-                listOf(WCRevenueStatsModel::class.java),
+                listOf(WCRevenueStatsModel::class.java, WCRevenueStatsDayModel::class.java,
+                        WCStatsIntervalModel::class.java),
                 WellSqlConfig.ADDON_WOOCOMMERCE)
         WellSql.init(config)
         config.reset()
@@ -204,4 +207,62 @@ class WCStatsSqlUtilsTest {
                 site, StatsGranularity.YEARS, currentDayStatsModel.startDate, currentDayStatsModel.endDate)
         assertNull(missingData)
     }
+
+    @Test
+    fun testRevenueStatsRollups() {
+        val site = SiteModel().apply { id = 6 }
+        val days = listOf(
+                "2019-06-29" to 1L, // Saturday
+                "2019-06-30" to 2L, // Sunday
+                "2019-07-01" to 3L,
+                "2019-07-06" to 4L // Saturday
+        ).map { (day, orders) ->
+            WCRevenueStatsDayModel().apply {
+                localSiteId = site.id
+                this.day = day
+                ordersCount = orders
+                grossRevenue = orders * 10.0
+                fetchedAt = "2019-07-01T12:00:00"
+            }
+        }
+        assertEquals(4, WCStatsSqlUtils.insertOrReplaceRevenueStatsDays(days))
+
+        // Storing a day again replaces it
+        val updatedDay = WCRevenueStatsDayModel().apply {
+            localSiteId = site.id
+            day = "2019-06-29"
+            ordersCount = 5L
+            grossRevenue = 50.0
+        }
+        WCStatsSqlUtils.insertOrReplaceRevenueStatsDays(listOf(updatedDay))
+        assertEquals(4, WellSql.select(WCRevenueStatsDayModel::class.java).asModel.size)
+
+        // Only the days which had ended when they were fetched are complete
+        assertEquals(listOf("2019-06-30"),
+                WCStatsSqlUtils.getCompleteRevenueStatsDaysForSite(site, "2019-06-30", "2019-07-05"))
+
+        with(WCStatsSqlUtils.getRevenueStatsRollupsForSite(site, StatsGranularity.WEEKS, "2019-06-01", "2019-07-31")) {
+            assertEquals(listOf("2019-06-23", "2019-06-30"), map { it.period })
+            assertEquals(5L, get(0).ordersCount)
+            assertEquals(9L, get(1).ordersCount)
+            assertEquals(90.0, get(1).grossRevenue)
+            assertEquals(3, get(1).days)
+        }
+
+        with(WCStatsSqlUtils.getRevenueStatsRollupsForSite(site, StatsGranularity.MONTHS, "2019-06-30", "2019-07-31")) {
+            assertEquals(listOf("2019-06", "2019-07"), map { it.period })
+            assertEquals(2L, get(0).ordersCount)
+            assertEquals(7L, get(1).ordersCount)
+        }
+
+        val total = WCStatsSqlUtils.getRevenueStatsTotalForSite(site, "2019-06-01", "2019-06-30")
+        assertNotNull(total)
+        with(total) {
+            assertEquals("2019-06-01", period)
+            assertEquals(7L, ordersCount)
+            assertEquals(2, this.days)
+        }
+
+        assertNull(WCStatsSqlUtils.getRevenueStatsTotalForSite(site, "2019-08-01", "2019-08-31"))
+    }
 }
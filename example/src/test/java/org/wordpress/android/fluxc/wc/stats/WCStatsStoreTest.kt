@@ -3,9 +3,11 @@ package org.wordpress.android.fluxc.wc.stats
 import com.nhaarman.mockitokotlin2.any
 import com.nhaarman.mockitokotlin2.anyOrNull
 import com.nhaarman.mockitokotlin2.argumentCaptor
+import com.nhaarman.mockitokotlin2.eq
 import com.nhaarman.mockitokotlin2.mock
 import com.nhaarman.mockitokotlin2.reset
 import com.nhaarman.mockitokotlin2.verify
+import com.wellsql.generated.WCStatsIntervalModelTable
 import com.yarolegovich.wellsql.WellSql
 import org.hamcrest.CoreMatchers.anyOf
 import org.hamcrest.CoreMatchers.not
@@ -22,7 +24,10 @@ import org.wordpress.android.fluxc.generated.WCStatsActionBuilder
 import org.wordpress.android.fluxc.model.SiteModel
 import org.wordpress.android.fluxc.model.WCNewVisitorStatsModel
 import org.wordpress.android.fluxc.model.WCOrderStatsModel
+import org.wordpress.android.fluxc.model.WCOrderStatsModel.OrderStatsField
+import org.wordpress.android.fluxc.model.WCRevenueStatsDayModel
 import org.wordpress.android.fluxc.model.WCRevenueStatsModel
+import org.wordpress.android.fluxc.model.WCStatsIntervalModel
 import org.wordpress.android.fluxc.model.WCVisitorStatsModel
 import org.wordpress.android.fluxc.network.rest.wpcom.wc.orderstats.OrderStatsRestClient
 import org.wordpress.android.fluxc.network.rest.wpcom.wc.orderstats.OrderStatsRestClient.OrderStatsApiUnit
@@ -31,6 +36,7 @@ import org.wordpress.android.fluxc.persistence.WCVisitorStatsSqlUtils
 import org.wordpress.android.fluxc.persistence.WellSqlConfig
 import org.wordpress.android.fluxc.store.WCStatsStore
 import org.wordpress.android.fluxc.store.WCStatsStore.FetchOrderStatsPayload
+import org.wordpress.android.fluxc.store.WCStatsStore.FetchRevenueStatsDaysResponsePayload
 import org.wordpress.android.fluxc.store.WCStatsStore.FetchRevenueStatsPayload
 import org.wordpress.android.fluxc.store.WCStatsStore.FetchRevenueStatsResponsePayload
 import org.wordpress.android.fluxc.store.WCStatsStore.StatsGranularity
@@ -40,6 +46,7 @@ import org.wordpress.android.fluxc.utils.DateUtils
 import org.wordpress.android.fluxc.utils.SiteUtils.getCurrentDateTimeForSite
 import java.text.SimpleDateFormat
 import java.util.Date
+import java.util.Locale
 import kotlin.test.assertEquals
 import kotlin.test.assertNotNull
 import kotlin.test.assertNull
@@ -58,6 +65,8 @@ class WCStatsStoreTest {
         val config = SingleStoreWellSqlConfigForTests(
                 appContext, listOf(WCOrderStatsModel::class.java,
                 WCRevenueStatsModel::class.java,
+                WCRevenueStatsDayModel::class.java,
+                WCStatsIntervalModel::class.java,
                 WCVisitorStatsModel::class.java,
                 WCNewVisitorStatsModel::class.java),
                 WellSqlConfig.ADDON_WOOCOMMERCE
@@ -219,6 +228,49 @@ class WCStatsStoreTest {
         assertEquals(revenueStats.keys, orderStats.keys)
     }
 
+    @Test
+    fun testGetOrderStatsSeries() {
+        val orderStatsModel = WCStatsTestUtils.generateSampleStatsModel()
+        val site = SiteModel().apply { id = orderStatsModel.localSiteId }
+
+        WCStatsSqlUtils.insertOrUpdateStats(orderStatsModel)
+
+        with(wcStatsStore.getOrderStatsSeries(site, OrderStatsField.ORDERS, StatsGranularity.DAYS)) {
+            assertEquals(7, size)
+            assertEquals("2018-04-14", periods.first())
+            assertEquals(2.0, values[2])
+        }
+        assertEquals(2, wcStatsStore.getOrderStats(site, StatsGranularity.DAYS)["2018-04-16"])
+
+        // Non-numeric fields aren't stored as intervals
+        assertTrue(wcStatsStore.getOrderStatsSeries(site, OrderStatsField.CURRENCY, StatsGranularity.DAYS).isEmpty())
+
+        // Reading only queries the intervals, it never rebuilds them
+        WellSql.delete(WCStatsIntervalModel::class.java).execute()
+        assertTrue(wcStatsStore.getOrderStatsSeries(site, OrderStatsField.ORDERS, StatsGranularity.DAYS).isEmpty())
+        assertEquals(0, WellSql.select(WCStatsIntervalModel::class.java).count())
+    }
+
+    @Test
+    fun testDeleteStatsForSiteDeletesTheirIntervals() {
+        val orderStatsModel = WCStatsTestUtils.generateSampleStatsModel()
+        val site = SiteModel().apply { id = orderStatsModel.localSiteId }
+        val otherSiteStats = WCStatsTestUtils.generateSampleStatsModel(localSiteId = site.id + 1)
+        val otherSite = SiteModel().apply { id = otherSiteStats.localSiteId }
+
+        WCStatsSqlUtils.insertOrUpdateStats(orderStatsModel)
+        WCStatsSqlUtils.insertOrUpdateStats(otherSiteStats)
+        WCVisitorStatsSqlUtils.insertOrUpdateVisitorStats(WCStatsTestUtils.generateSampleVisitorStatsModel())
+
+        assertTrue(wcStatsStore.deleteStatsForSite(site) >= 2)
+
+        assertNull(WCStatsSqlUtils.getFirstRawStatsForSite(site))
+        assertTrue(wcStatsStore.getVisitorStatsSeries(site, StatsGranularity.DAYS).isEmpty())
+        assertEquals(0, WellSql.select(WCStatsIntervalModel::class.java)
+                .where().equals(WCStatsIntervalModelTable.LOCAL_SITE_ID, site.id).endWhere().count())
+        assertEquals(7, wcStatsStore.getOrderStats(otherSite, StatsGranularity.DAYS).size)
+    }
+
     @Test
     fun testGetStatsCurrencyForSite() {
         val orderStatsModel = WCStatsTestUtils.generateSampleStatsModel()
@@ -1409,6 +1461,32 @@ class WCStatsStoreTest {
         assertTrue(missingOrderStats.isEmpty())
     }
 
+    @Test
+    fun testNotModifiedRevenueStatsAreFetchedAgainIfMissing() {
+        val site = SiteModel().apply { id = 8 }
+        val payload = FetchRevenueStatsResponsePayload(site, StatsGranularity.DAYS, null, "2019-07-07", "2019-07-08",
+                notModified = true)
+        wcStatsStore.onAction(WCStatsActionBuilder.newFetchedRevenueStatsAction(payload))
+
+        verify(mockOrderStatsRestClient).fetchRevenueStats(eq(site), eq(StatsGranularity.DAYS), eq("2019-07-07"),
+                eq("2019-07-08"), any(), eq(true))
+    }
+
+    @Test
+    fun testRevenueStatsDaysFetchedBeforeTheyEndedAreMissing() {
+        val site = SiteModel().apply { id = 8 }
+        val stats = WCStatsTestUtils.generateSampleRevenueStatsModel(localSiteId = site.id,
+                data = "[{\"interval\": \"2019-07-01\"}, {\"interval\": \"2019-07-02\"}]")
+        val fetchedAt = SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ssZ", Locale.US).parse("2019-07-02T10:00:00+0000")
+        val payload = FetchRevenueStatsDaysResponsePayload(site, "2019-07-01T00:00:00", "2019-07-02T23:59:59",
+                stats, fetchedAt)
+        wcStatsStore.onAction(WCStatsActionBuilder.newFetchedRevenueStatsDaysAction(payload))
+
+        // The second day was fetched before it ended, and the third one hadn't started
+        assertEquals(listOf("2019-07-02", "2019-07-03"),
+                wcStatsStore.getMissingRevenueStatsDays(site, "2019-07-01", "2019-07-03"))
+    }
+
     @Test
     fun testGetVisitorStatsForDaysGranularity() {
         // Test Scenario - 1: Generate default visitor stats i.e. isCustomField - false
@@ -0,0 +1,22 @@
+package org.wordpress.android.fluxc.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares the {@link ActionEnum}s a store handles in its onAction method. The generated action builders list the
+ * stores of their module handling their actions, so the dispatcher only delivers an action to those stores. The
+ * annotation is also read at runtime, for the stores handling the actions of another module.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(value = ElementType.TYPE)
+public @interface HandlesActions {
+    Class<?>[] value() default {};
+
+    /**
+     * Stores with a higher priority receive the actions first.
+     */
+    int priority() default 0;
+}
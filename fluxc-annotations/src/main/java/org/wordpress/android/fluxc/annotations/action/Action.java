@@ -3,10 +3,16 @@ package org.wordpress.android.fluxc.annotations.action;
 public class Action<T> {
     private final IAction mActionType;
     private final T mPayload;
+    private final Class<?>[] mHandlers;
 
     public Action(IAction actionType, T payload) {
+        this(actionType, payload, null);
+    }
+
+    public Action(IAction actionType, T payload, Class<?>[] handlers) {
         mActionType = actionType;
         mPayload = payload;
+        mHandlers = handlers;
     }
 
     public IAction getType() {
@@ -16,4 +22,12 @@ public class Action<T> {
     public T getPayload() {
         return mPayload;
     }
+
+    /**
+     * Returns the classes of the stores handling this action, in order of priority, or null if they're unknown
+     * (i.e. the action wasn't created by a generated action builder).
+     */
+    public Class<?>[] getHandlers() {
+        return mHandlers;
+    }
 }
@@ -4,4 +4,8 @@ public abstract class ActionBuilder {
     public static Action<Void> generateNoPayloadAction(IAction actionType) {
         return new Action<>(actionType, null);
     }
+
+    public static Action<Void> generateNoPayloadAction(IAction actionType, Class<?>[] handlers) {
+        return new Action<>(actionType, null, handlers);
+    }
 }
@@ -1,20 +1,33 @@
 package org.wordpress.android.fluxc.processor;
 
 import com.google.auto.service.AutoService;
+import com.squareup.javapoet.ArrayTypeName;
 import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
 import com.squareup.javapoet.JavaFile;
 import com.squareup.javapoet.MethodSpec;
 import com.squareup.javapoet.ParameterizedTypeName;
 import com.squareup.javapoet.TypeName;
 import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.WildcardTypeName;
 
 import org.wordpress.android.fluxc.annotations.ActionEnum;
 import org.wordpress.android.fluxc.annotations.AnnotationConfig;
+import org.wordpress.android.fluxc.annotations.HandlesActions;
 import org.wordpress.android.fluxc.annotations.action.Action;
 import org.wordpress.android.fluxc.annotations.action.ActionBuilder;
 import org.wordpress.android.fluxc.annotations.action.NoPayload;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import javax.annotation.processing.AbstractProcessor;
@@ -26,30 +39,39 @@ import javax.annotation.processing.RoundEnvironment;
 import javax.annotation.processing.SupportedAnnotationTypes;
 import javax.lang.model.SourceVersion;
 import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
 import javax.lang.model.element.Modifier;
 import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.MirroredTypesException;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Types;
 import javax.tools.Diagnostic;
 
-import static java.util.Collections.singleton;
 import static javax.lang.model.SourceVersion.latestSupported;
 
 @SuppressWarnings("unused")
-@SupportedAnnotationTypes("org.wordpress.android.fluxc.annotations.ActionEnum")
+@SupportedAnnotationTypes({"org.wordpress.android.fluxc.annotations.ActionEnum",
+        "org.wordpress.android.fluxc.annotations.HandlesActions"})
 @AutoService(Processor.class)
 public class ActionProcessor extends AbstractProcessor {
+    private static final String STORE_CLASS = "org.wordpress.android.fluxc.store.Store";
+
     private Filer mFiler;
     private Messager mMessager;
+    private Types mTypes;
 
     @Override
     public void init(ProcessingEnvironment processingEnv) {
         super.init(processingEnv);
         mFiler = processingEnv.getFiler();
         mMessager = processingEnv.getMessager();
+        mTypes = processingEnv.getTypeUtils();
     }
 
     @Override
     public Set<String> getSupportedAnnotationTypes() {
-        return singleton(ActionEnum.class.getCanonicalName());
+        return new HashSet<>(Arrays.asList(ActionEnum.class.getCanonicalName(),
+                HandlesActions.class.getCanonicalName()));
     }
 
     @Override
@@ -59,20 +81,129 @@ public class ActionProcessor extends AbstractProcessor {
 
     @Override
     public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        validateStores(roundEnv);
+        Map<String, List<TypeElement>> handlersByActionEnum = getHandlersByActionEnum(roundEnv);
+
         for (Element actionElement : roundEnv.getElementsAnnotatedWith(ActionEnum.class)) {
+            List<TypeElement> handlers = handlersByActionEnum.get(getQualifiedName(actionElement));
+            if (handlers == null) {
+                // The actions can still be handled by the stores of another module, or through the event bus
+                mMessager.printMessage(Diagnostic.Kind.WARNING, "No store of this module is annotated with "
+                        + "@HandlesActions for " + actionElement.getSimpleName(), actionElement);
+                handlers = Collections.emptyList();
+            }
             AnnotatedActionEnum annotatedActionEnum = new AnnotatedActionEnum(actionElement);
-            createActionBuilderClass(actionElement, annotatedActionEnum);
+            createActionBuilderClass(actionElement, annotatedActionEnum, handlers);
         }
 
         return true;
     }
 
-    private String createActionBuilderClass(Element tableElement, AnnotatedActionEnum annotatedActionEnum) {
+    /**
+     * Warns about the stores of the module which don't declare the actions they handle: the dispatcher only
+     * delivers them actions through the event bus, like before the action builders listed the stores.
+     */
+    private void validateStores(RoundEnvironment roundEnv) {
+        TypeElement storeElement = processingEnv.getElementUtils().getTypeElement(STORE_CLASS);
+        if (storeElement == null) {
+            return;
+        }
+        TypeMirror storeType = mTypes.erasure(storeElement.asType());
+
+        for (Element element : roundEnv.getRootElements()) {
+            if (element.getKind() != ElementKind.CLASS || element.getModifiers().contains(Modifier.ABSTRACT)
+                || !mTypes.isSubtype(mTypes.erasure(element.asType()), storeType)) {
+                continue;
+            }
+            if (element.getAnnotation(HandlesActions.class) == null) {
+                mMessager.printMessage(Diagnostic.Kind.WARNING, element.getSimpleName()
+                        + " doesn't declare the actions it handles with @HandlesActions, its onAction has to "
+                        + "@Subscribe to receive every action through the event bus", element);
+            }
+        }
+
+        for (Element element : roundEnv.getElementsAnnotatedWith(HandlesActions.class)) {
+            if (!mTypes.isSubtype(mTypes.erasure(element.asType()), storeType)) {
+                mMessager.printMessage(Diagnostic.Kind.ERROR, "@HandlesActions can only be used on stores", element);
+            }
+        }
+    }
+
+    /**
+     * Returns the stores annotated with {@link HandlesActions} for each action enum, sorted by priority.
+     */
+    private Map<String, List<TypeElement>> getHandlersByActionEnum(RoundEnvironment roundEnv) {
+        Map<String, List<TypeElement>> handlersByActionEnum = new HashMap<>();
+
+        for (Element element : roundEnv.getElementsAnnotatedWith(HandlesActions.class)) {
+            for (TypeMirror actionEnumType : getHandledActionEnums(element.getAnnotation(HandlesActions.class))) {
+                Element actionEnumElement = mTypes.asElement(actionEnumType);
+                if (actionEnumElement == null || actionEnumElement.getKind() != ElementKind.ENUM
+                    || actionEnumElement.getAnnotation(ActionEnum.class) == null) {
+                    mMessager.printMessage(Diagnostic.Kind.ERROR, actionEnumType
+                            + " is not an enum annotated with @ActionEnum", element);
+                    continue;
+                }
+                String actionEnumName = getQualifiedName(actionEnumElement);
+                if (!handlersByActionEnum.containsKey(actionEnumName)) {
+                    handlersByActionEnum.put(actionEnumName, new ArrayList<TypeElement>());
+                }
+                handlersByActionEnum.get(actionEnumName).add((TypeElement) element);
+            }
+        }
+
+        Comparator<TypeElement> byPriority = new Comparator<TypeElement>() {
+            @Override
+            public int compare(TypeElement store1, TypeElement store2) {
+                int priority1 = store1.getAnnotation(HandlesActions.class).priority();
+                int priority2 = store2.getAnnotation(HandlesActions.class).priority();
+                if (priority1 != priority2) {
+                    return priority2 > priority1 ? 1 : -1;
+                }
+                return store1.getQualifiedName().toString().compareTo(store2.getQualifiedName().toString());
+            }
+        };
+        for (List<TypeElement> handlers : handlersByActionEnum.values()) {
+            Collections.sort(handlers, byPriority);
+        }
+
+        return handlersByActionEnum;
+    }
+
+    private static List<? extends TypeMirror> getHandledActionEnums(HandlesActions handlesActions) {
+        try {
+            // Only returns without throwing if there's no class to load
+            handlesActions.value();
+        } catch (MirroredTypesException e) {
+            return e.getTypeMirrors();
+        }
+        return Collections.emptyList();
+    }
+
+    private static String getQualifiedName(Element element) {
+        return ((TypeElement) element).getQualifiedName().toString();
+    }
+
+    private String createActionBuilderClass(Element tableElement, AnnotatedActionEnum annotatedActionEnum,
+                                            List<TypeElement> handlers) {
         String genClassName = annotatedActionEnum.getBuilderName() + "Builder";
 
+        // The dispatch table of the actions: the classes of the stores handling them, in order of priority
+        CodeBlock.Builder handlersInitializer = CodeBlock.builder().add("{");
+        for (int i = 0; i < handlers.size(); i++) {
+            handlersInitializer.add(i == 0 ? "$T.class" : ", $T.class", ClassName.get(handlers.get(i)));
+        }
+        handlersInitializer.add("}");
+        FieldSpec handlersField = FieldSpec.builder(ArrayTypeName.of(ParameterizedTypeName.get(
+                ClassName.get(Class.class), WildcardTypeName.subtypeOf(Object.class))), "HANDLERS")
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .initializer(handlersInitializer.build())
+                .build();
+
         TypeSpec.Builder builderClassBuilder = TypeSpec.classBuilder(genClassName)
                 .addModifiers(Modifier.FINAL, Modifier.PUBLIC)
-                .superclass(ActionBuilder.class);
+                .superclass(ActionBuilder.class)
+                .addField(handlersField);
 
         for (AnnotatedAction annotatedAction : annotatedActionEnum.getActions()) {
             MethodSpec method;
@@ -89,8 +220,8 @@ public class ActionProcessor extends AbstractProcessor {
                         .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
                         .returns(returnType)
                         .addParameter(TypeName.get(annotatedAction.getPayloadType()), "payload")
-                        .addStatement("return new $T<>($T.$L, $N)", Action.class, tableElement.asType(),
-                                annotatedAction.getActionName(), "payload")
+                        .addStatement("return new $T<>($T.$L, $N, $N)", Action.class, tableElement.asType(),
+                                annotatedAction.getActionName(), "payload", handlersField)
                         .build();
             } else {
                 // Create builder method for Action with no payload
@@ -99,8 +230,8 @@ public class ActionProcessor extends AbstractProcessor {
                 method = MethodSpec.methodBuilder(CodeGenerationUtils.getActionBuilderMethodName(annotatedAction))
                         .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
                         .returns(returnType)
-                        .addStatement("return $L($T.$L)", "generateNoPayloadAction", tableElement.asType(),
-                                annotatedAction.getActionName())
+                        .addStatement("return $L($T.$L, $N)", "generateNoPayloadAction", tableElement.asType(),
+                                annotatedAction.getActionName(), handlersField)
                         .build();
             }
             builderClassBuilder.addMethod(method);
@@ -1,9 +1,13 @@
 package org.wordpress.android.fluxc.processor;
 
 import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ArrayTypeName;
 import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
 import com.squareup.javapoet.FieldSpec;
 import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
 import com.squareup.javapoet.TypeName;
 import com.squareup.javapoet.TypeSpec;
 
@@ -11,8 +15,10 @@ import org.wordpress.android.fluxc.annotations.Endpoint;
 import org.wordpress.android.fluxc.annotations.endpoint.EndpointNode;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -31,6 +37,10 @@ public class RESTPoet {
             "try", "void", "volatile", "while"
     };
 
+    private static final int PATH_BUILDER_INITIAL_CAPACITY = 128;
+    private static final int MAX_LONG_LENGTH = 20;
+    private static final int STRING_VARIABLE_LENGTH = 32;
+
     private static TypeName sBaseEndpointClass;
     private static Pattern sVariableEndpointPattern;
 
@@ -46,9 +56,190 @@ public class RESTPoet {
             addEndpointToBuilder(endpoint, wpcomRestBuilder);
         }
 
+        wpcomRestBuilder.addField(generateEndpointTemplatesField(rootNode));
+
+        addPathBuilderToBuilder(wpcomRestBuilder);
+        List<EndpointNode> endpointPath = new ArrayList<>();
+        Set<String> flatMethodSignatures = new HashSet<>();
+        for (EndpointNode endpoint : rootNode.getChildren()) {
+            addFlatEndpointMethodsToBuilder(endpoint, endpointPath, flatMethodSignatures, wpcomRestBuilder);
+        }
+
         return wpcomRestBuilder.build();
     }
 
+    /**
+     * Builds a constant array listing the full endpoint of every node in the tree, with its variables left as is
+     * (e.g. '/sites/$site/posts/'), so URLs can be mapped back to the endpoint they were built from at runtime.
+     */
+    private static FieldSpec generateEndpointTemplatesField(EndpointNode rootNode) {
+        List<String> templates = new ArrayList<>();
+        collectEndpointTemplates(rootNode, templates);
+
+        CodeBlock.Builder initializerBuilder = CodeBlock.builder().add("{\n").indent();
+        for (int i = 0; i < templates.size(); i++) {
+            initializerBuilder.add(i < templates.size() - 1 ? "$S,\n" : "$S\n", templates.get(i));
+        }
+        initializerBuilder.unindent().add("}");
+
+        return FieldSpec.builder(ArrayTypeName.of(String.class), "ENDPOINT_TEMPLATES")
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+                .initializer(initializerBuilder.build())
+                .build();
+    }
+
+    private static void collectEndpointTemplates(EndpointNode endpointNode, List<String> templates) {
+        if (!endpointNode.isRoot()) {
+            templates.add(endpointNode.getFullEndpoint());
+        }
+        if (endpointNode.hasChildren()) {
+            for (EndpointNode childEndpoint : endpointNode.getChildren()) {
+                collectEndpointTemplates(childEndpoint, templates);
+            }
+        }
+    }
+
+    /**
+     * Adds a per-thread {@link StringBuilder}, reused by the flat endpoint methods to write their endpoint.
+     */
+    private static void addPathBuilderToBuilder(TypeSpec.Builder classBuilder) {
+        TypeName threadLocalType = ParameterizedTypeName.get(ThreadLocal.class, StringBuilder.class);
+        TypeSpec threadLocalInitializer = TypeSpec.anonymousClassBuilder("")
+                .superclass(threadLocalType)
+                .addMethod(MethodSpec.methodBuilder("initialValue")
+                        .addAnnotation(Override.class)
+                        .addModifiers(Modifier.PROTECTED)
+                        .returns(StringBuilder.class)
+                        .addStatement("return new $T($L)", StringBuilder.class, PATH_BUILDER_INITIAL_CAPACITY)
+                        .build())
+                .build();
+
+        classBuilder.addField(FieldSpec.builder(threadLocalType, "PATH_BUILDER")
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .initializer("$L", threadLocalInitializer)
+                .build());
+
+        classBuilder.addMethod(MethodSpec.methodBuilder("pathBuilder")
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                .returns(StringBuilder.class)
+                .addParameter(int.class, "capacity")
+                .addStatement("$T builder = PATH_BUILDER.get()", StringBuilder.class)
+                .addStatement("builder.setLength(0)")
+                .addStatement("builder.ensureCapacity(capacity)")
+                .addStatement("return builder")
+                .build());
+    }
+
+    /**
+     * Adds a flat static method for every endpoint with variables below the first level, e.g.
+     * '/sites/$site/posts/$post_ID/' becomes {@code sitesSitePostsPost(long siteId, long postId)}. The method writes
+     * the whole endpoint in one pass, where going through the tree allocates an endpoint object (and all of its
+     * static children) and concatenates the endpoint again at every level.
+     */
+    private static void addFlatEndpointMethodsToBuilder(EndpointNode endpointNode, List<EndpointNode> endpointPath,
+                                                        Set<String> methodSignatures, TypeSpec.Builder classBuilder) {
+        endpointPath.add(endpointNode);
+
+        boolean hasVariables = false;
+        for (EndpointNode pathNode : endpointPath) {
+            hasVariables |= isVariableEndpoint(pathNode);
+        }
+        if (endpointPath.size() > 1 && hasVariables) {
+            for (List<Class> variableTypes : getVariableTypeCombinations(endpointPath)) {
+                MethodSpec method = generateFlatEndpointMethod(endpointNode, endpointPath, variableTypes);
+                // The tree accessors stay available if two endpoints ever end up with the same flat method
+                if (methodSignatures.add(method.name + method.parameters.toString())) {
+                    classBuilder.addMethod(method);
+                }
+            }
+        }
+
+        if (endpointNode.hasChildren()) {
+            for (EndpointNode childEndpoint : endpointNode.getChildren()) {
+                addFlatEndpointMethodsToBuilder(childEndpoint, endpointPath, methodSignatures, classBuilder);
+            }
+        }
+
+        endpointPath.remove(endpointPath.size() - 1);
+    }
+
+    private static MethodSpec generateFlatEndpointMethod(EndpointNode endpointNode, List<EndpointNode> endpointPath,
+                                                         List<Class> variableTypes) {
+        StringBuilder methodName = new StringBuilder();
+        List<ParameterSpec> parameters = new ArrayList<>();
+        Set<String> variableNames = new HashSet<>();
+        CodeBlock.Builder appendsBuilder = CodeBlock.builder();
+        StringBuilder literal = new StringBuilder("/");
+        int capacity = 0;
+
+        for (EndpointNode pathNode : endpointPath) {
+            String endpointName = pathNode.getCleanEndpointName();
+            String camelCaseName = toCamelCase(endpointName);
+            methodName.append(methodName.length() == 0 ? camelCaseName : capitalize(camelCaseName));
+
+            if (!isVariableEndpoint(pathNode)) {
+                literal.append(pathNode.getLocalEndpoint());
+                continue;
+            }
+
+            Class variableType = variableTypes.get(parameters.size());
+            String variableName = camelCaseName;
+            if (variableType.equals(long.class) && !endpointName.toLowerCase(Locale.US).endsWith("id")) {
+                variableName = camelCaseName + "Id";
+            }
+            while (!variableNames.add(variableName)) {
+                variableName = variableName + parameters.size();
+            }
+            parameters.add(ParameterSpec.builder(variableType, variableName).build());
+
+            if (pathNode.getLocalEndpoint().contains(":")) {
+                // Special case for endpoints of type '/item:$item/'
+                literal.append(endpointName).append(":");
+            }
+            appendsBuilder.add(".append($S).append($L)", literal, variableName);
+            capacity += literal.length() + (variableType.equals(long.class) ? MAX_LONG_LENGTH : STRING_VARIABLE_LENGTH);
+            literal.setLength(0);
+            literal.append("/");
+        }
+        appendsBuilder.add(".append($S)", literal);
+        capacity += literal.length();
+
+        return MethodSpec.methodBuilder(underscoreIfJavaKeyword(methodName.toString()))
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                .returns(sBaseEndpointClass)
+                .addParameters(parameters)
+                .addAnnotation(AnnotationSpec.builder(Endpoint.class)
+                        .addMember("value", "$S", endpointNode.getFullEndpoint())
+                        .build())
+                .addStatement("return new $T(pathBuilder($L)$L.toString())", sBaseEndpointClass, capacity,
+                        appendsBuilder.build())
+                .build();
+    }
+
+    private static List<List<Class>> getVariableTypeCombinations(List<EndpointNode> endpointPath) {
+        List<List<Class>> combinations = new ArrayList<>();
+        combinations.add(new ArrayList<Class>());
+        for (EndpointNode pathNode : endpointPath) {
+            if (!isVariableEndpoint(pathNode)) {
+                continue;
+            }
+            List<List<Class>> nextCombinations = new ArrayList<>();
+            for (List<Class> combination : combinations) {
+                for (Class endpointType : getVariableEndpointTypes(pathNode)) {
+                    List<Class> nextCombination = new ArrayList<>(combination);
+                    nextCombination.add(endpointType);
+                    nextCombinations.add(nextCombination);
+                }
+            }
+            combinations = nextCombinations;
+        }
+        return combinations;
+    }
+
+    private static boolean isVariableEndpoint(EndpointNode endpointNode) {
+        return sVariableEndpointPattern.matcher(endpointNode.getLocalEndpoint()).find();
+    }
+
     private static void addEndpointToBuilder(EndpointNode endpointNode, TypeSpec.Builder classBuilder) {
         Matcher variableEndpointMatcher = sVariableEndpointPattern.matcher(endpointNode.getLocalEndpoint());
 
@@ -245,6 +436,16 @@ public class RESTPoet {
         return endpoint.substring(0, 1).toUpperCase(Locale.US) + endpoint.substring(1);
     }
 
+    private static String toCamelCase(String endpointName) {
+        StringBuilder camelCase = new StringBuilder();
+        for (String part : endpointName.split("_")) {
+            if (!part.isEmpty()) {
+                camelCase.append(camelCase.length() == 0 ? part : capitalize(part));
+            }
+        }
+        return camelCase.toString();
+    }
+
     private static String underscoreIfJavaKeyword(String string) {
         for (String keyword : JAVA_KEYWORDS) {
             if (string.equals(keyword)) {
@@ -1,46 +1,251 @@
 package org.wordpress.android.fluxc;
 
+import androidx.core.os.TraceCompat;
+
 import org.greenrobot.eventbus.EventBus;
+import org.greenrobot.eventbus.Subscribe;
+import org.wordpress.android.fluxc.annotations.HandlesActions;
 import org.wordpress.android.fluxc.annotations.action.Action;
+import org.wordpress.android.fluxc.annotations.action.IAction;
 import org.wordpress.android.fluxc.store.Store;
 import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.AppLog.T;
 
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.inject.Provider;
 import javax.inject.Singleton;
 
+/**
+ * Delivers actions to the stores handling them, and change events to their subscribers.
+ *
+ * Actions built by the generated action builders carry the classes of the stores declaring them with
+ * {@link HandlesActions}, so they're only delivered to those stores instead of every registered store. The builders
+ * only list the stores of their own module: stores of other modules declaring the action are added from their
+ * annotation, when they're registered or have a provider.
+ *
+ * Stores are also registered on the event bus, for the change events they subscribe to. Stores without
+ * {@link HandlesActions} keep receiving every action through the bus, with an onAction method annotated with
+ * {@link Subscribe}: actions are posted on the bus when something subscribes to them.
+ *
+ * Stores with a provider are created on the first action they handle, if nothing injected them before. They don't
+ * need to be instantiated at startup to receive their actions.
+ *
+ * Store registrations and lazy creations are traced (sections prefixed with {@value #TRACE_PREFIX}), so their cost
+ * at launch and at first use shows up in systrace / Perfetto captures.
+ */
 @Singleton
 public class Dispatcher {
+    private static final String TRACE_PREFIX = "FluxC ";
+
     private final EventBus mBus;
+    private final ExecutorService mExecutor = Executors.newCachedThreadPool();
+    private final ConcurrentHashMap<Class<?>, List<Store>> mStoresByClass = new ConcurrentHashMap<>();
+    private final List<Store> mStores = new CopyOnWriteArrayList<>();
+    private final ConcurrentHashMap<Class<?>, CopyOnWriteArrayList<Class<?>>> mStoreClassesByActionEnum =
+            new ConcurrentHashMap<>();
+    private final Map<Class<?>, Provider<Store>> mStoreProviders;
 
     public Dispatcher() {
+        this(Collections.<Class<?>, Provider<Store>>emptyMap());
+    }
+
+    /**
+     * @param storeProviders providers of the stores to create on their first action, by store class
+     */
+    public Dispatcher(Map<Class<?>, Provider<Store>> storeProviders) {
+        mStoreProviders = storeProviders;
         mBus = EventBus.builder()
                 .logNoSubscriberMessages(true)
                 .sendNoSubscriberEvent(true)
                 .throwSubscriberException(true)
+                .executorService(mExecutor)
                 .build();
+        for (Class<?> storeClass : storeProviders.keySet()) {
+            addHandledActionEnums(storeClass);
+        }
     }
 
     public void register(final Object object) {
-        mBus.register(object);
         if (object instanceof Store) {
-            ((Store) object).onRegister();
+            Store store = (Store) object;
+            Class<?> annotatedClass = getAnnotatedStoreClass(store.getClass());
+            if (annotatedClass != null) {
+                mStores.add(store);
+                // Also indexed by superclasses, for subclasses of the stores (e.g. in tests)
+                for (Class<?> clazz = store.getClass(); clazz != Store.class; clazz = clazz.getSuperclass()) {
+                    getStores(clazz).add(store);
+                }
+                addHandledActionEnums(annotatedClass);
+            }
+            if (hasSubscriberMethods(store.getClass())) {
+                mBus.register(store);
+            }
+            TraceCompat.beginSection(TRACE_PREFIX + "register " + store.getClass().getSimpleName());
+            try {
+                store.onRegister();
+            } finally {
+                TraceCompat.endSection();
+            }
+        } else {
+            mBus.register(object);
         }
     }
 
     public void unregister(final Object object) {
-        mBus.unregister(object);
+        if (object instanceof Store) {
+            mStores.remove(object);
+            for (Class<?> clazz = object.getClass(); clazz != Store.class; clazz = clazz.getSuperclass()) {
+                getStores(clazz).remove(object);
+            }
+            if (mBus.isRegistered(object)) {
+                mBus.unregister(object);
+            }
+        } else {
+            mBus.unregister(object);
+        }
     }
 
     public void dispatch(Action action) {
         AppLog.d(T.API, "Dispatching action: " + action.getType().getClass().getSimpleName()
                 + "-" + action.getType().toString());
-        post(action);
+        Class<?>[] handlers = action.getHandlers();
+        if (handlers != null) {
+            for (Class<?> handler : handlers) {
+                deliverToHandler(action, handler);
+            }
+            // Stores of other modules, which aren't in the table of the action builder
+            List<Class<?>> storeClasses = mStoreClassesByActionEnum.get(getActionEnum(action.getType()));
+            if (storeClasses != null) {
+                for (Class<?> storeClass : storeClasses) {
+                    if (!contains(handlers, storeClass)) {
+                        deliverToHandler(action, storeClass);
+                    }
+                }
+            }
+        } else {
+            // Not built by a generated action builder, any store could handle it
+            deliver(action, mStores);
+        }
+        if (mBus.hasSubscriberForEvent(Action.class)) {
+            post(action);
+        }
     }
 
     public void emitChange(final Object changeEvent) {
         mBus.post(changeEvent);
     }
 
+    private void deliverToHandler(Action action, Class<?> handler) {
+        List<Store> stores = mStoresByClass.get(handler);
+        if ((stores == null || stores.isEmpty()) && mStoreProviders.containsKey(handler)) {
+            createAndDeliver(action, handler);
+        } else {
+            deliver(action, stores);
+        }
+    }
+
+    private void addHandledActionEnums(Class<?> storeClass) {
+        HandlesActions handlesActions = storeClass.getAnnotation(HandlesActions.class);
+        if (handlesActions == null) {
+            return;
+        }
+        for (Class<?> actionEnum : handlesActions.value()) {
+            CopyOnWriteArrayList<Class<?>> storeClasses = mStoreClassesByActionEnum.get(actionEnum);
+            if (storeClasses == null) {
+                mStoreClassesByActionEnum.putIfAbsent(actionEnum, new CopyOnWriteArrayList<Class<?>>());
+                storeClasses = mStoreClassesByActionEnum.get(actionEnum);
+            }
+            storeClasses.addIfAbsent(storeClass);
+        }
+    }
+
+    /**
+     * Returns the class declaring the actions of the store with {@link HandlesActions}, i.e. the store class itself
+     * or, for subclasses of the stores (e.g. mocks), the closest annotated superclass.
+     */
+    private static Class<?> getAnnotatedStoreClass(Class<?> storeClass) {
+        for (Class<?> clazz = storeClass; clazz != Store.class; clazz = clazz.getSuperclass()) {
+            if (clazz.isAnnotationPresent(HandlesActions.class)) {
+                return clazz;
+            }
+        }
+        return null;
+    }
+
+    private static boolean hasSubscriberMethods(Class<?> clazz) {
+        for (Method method : clazz.getMethods()) {
+            if (method.isAnnotationPresent(Subscribe.class)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Class<?> getActionEnum(IAction actionType) {
+        return actionType instanceof Enum ? ((Enum<?>) actionType).getDeclaringClass() : actionType.getClass();
+    }
+
+    private static boolean contains(Class<?>[] classes, Class<?> clazz) {
+        for (Class<?> element : classes) {
+            if (element == clazz) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<Store> getStores(Class<?> storeClass) {
+        List<Store> stores = mStoresByClass.get(storeClass);
+        if (stores == null) {
+            mStoresByClass.putIfAbsent(storeClass, new CopyOnWriteArrayList<Store>());
+            stores = mStoresByClass.get(storeClass);
+        }
+        return stores;
+    }
+
+    private void deliver(final Action action, List<Store> stores) {
+        if (stores == null) {
+            return;
+        }
+        for (final Store store : stores) {
+            mExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    store.onAction(action);
+                }
+            });
+        }
+    }
+
+    private void createAndDeliver(final Action action, final Class<?> storeClass) {
+        final Provider<Store> provider = mStoreProviders.get(storeClass);
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                long start = System.currentTimeMillis();
+                // The store registers itself when it's created, the next actions are delivered to it directly
+                Store store;
+                TraceCompat.beginSection(TRACE_PREFIX + "create " + storeClass.getSimpleName());
+                try {
+                    store = provider.get();
+                } finally {
+                    TraceCompat.endSection();
+                }
+                AppLog.d(T.API, "Created " + storeClass.getSimpleName() + " for its first action in "
+                                + (System.currentTimeMillis() - start) + " ms");
+                store.onAction(action);
+            }
+        });
+    }
+
     private void post(final Object event) {
         mBus.post(event);
     }
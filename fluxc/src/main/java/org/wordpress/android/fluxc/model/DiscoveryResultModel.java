@@ -0,0 +1,95 @@
+package org.wordpress.android.fluxc.model;
+
+import androidx.annotation.Nullable;
+
+import com.yarolegovich.wellsql.core.Identifiable;
+import com.yarolegovich.wellsql.core.annotation.Column;
+import com.yarolegovich.wellsql.core.annotation.PrimaryKey;
+import com.yarolegovich.wellsql.core.annotation.RawConstraints;
+import com.yarolegovich.wellsql.core.annotation.Table;
+
+import org.wordpress.android.fluxc.network.discovery.SelfHostedEndpointFinder;
+import org.wordpress.android.fluxc.network.discovery.SelfHostedEndpointFinder.DiscoveryError;
+
+/**
+ * The endpoints found by {@link SelfHostedEndpointFinder} for a self-hosted site, keyed by the site URL without its
+ * scheme, so logging into the same site again doesn't have to wait for discovery.
+ *
+ * When the site requires the user to enter HTTP auth credentials or to accept its certificate, the error and the
+ * endpoint which failed are kept instead of the endpoints.
+ */
+@Table
+@RawConstraints({"UNIQUE (SITE_URL) ON CONFLICT REPLACE"})
+public class DiscoveryResultModel implements Identifiable {
+    @PrimaryKey
+    @Column private int mId;
+    @Column private String mSiteUrl;
+    @Column private String mXmlRpcEndpoint;
+    @Column private String mWpRestEndpoint;
+    @Column private String mDiscoveryError;
+    @Column private String mFailedEndpoint;
+
+    @Override
+    public int getId() {
+        return mId;
+    }
+
+    @Override
+    public void setId(int id) {
+        mId = id;
+    }
+
+    public DiscoveryResultModel() {
+    }
+
+    public String getSiteUrl() {
+        return mSiteUrl;
+    }
+
+    public void setSiteUrl(String siteUrl) {
+        mSiteUrl = siteUrl;
+    }
+
+    public String getXmlRpcEndpoint() {
+        return mXmlRpcEndpoint;
+    }
+
+    public void setXmlRpcEndpoint(String xmlRpcEndpoint) {
+        mXmlRpcEndpoint = xmlRpcEndpoint;
+    }
+
+    public String getWpRestEndpoint() {
+        return mWpRestEndpoint;
+    }
+
+    public void setWpRestEndpoint(String wpRestEndpoint) {
+        mWpRestEndpoint = wpRestEndpoint;
+    }
+
+    public String getDiscoveryError() {
+        return mDiscoveryError;
+    }
+
+    public void setDiscoveryError(String discoveryError) {
+        mDiscoveryError = discoveryError;
+    }
+
+    public String getFailedEndpoint() {
+        return mFailedEndpoint;
+    }
+
+    public void setFailedEndpoint(String failedEndpoint) {
+        mFailedEndpoint = failedEndpoint;
+    }
+
+    public @Nullable DiscoveryError getDiscoveryErrorType() {
+        if (mDiscoveryError == null) {
+            return null;
+        }
+        try {
+            return DiscoveryError.valueOf(mDiscoveryError);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -57,6 +57,8 @@ public class SiteModel extends Payload<BaseNetworkError> implements Identifiable
     @Column private String mUsername;
     @Column private String mPassword;
     @Column(name = "XMLRPC_URL") private String mXmlRpcUrl;
+    @Column(name = "WP_API_REST_URL") private String mWpApiRestUrl; // Root of the WP REST API, if it was discovered
+    @Column private boolean mIsWpApiAuthenticated; // Whether the WP REST API accepted the site credentials
     @Column private String mSoftwareVersion;
     @Column private boolean mIsSelfHostedAdmin;
 
@@ -203,6 +205,22 @@ public class SiteModel extends Payload<BaseNetworkError> implements Identifiable
         mXmlRpcUrl = xmlRpcUrl;
     }
 
+    public String getWpApiRestUrl() {
+        return mWpApiRestUrl;
+    }
+
+    public void setWpApiRestUrl(String wpApiRestUrl) {
+        mWpApiRestUrl = wpApiRestUrl;
+    }
+
+    public boolean isWpApiAuthenticated() {
+        return mIsWpApiAuthenticated;
+    }
+
+    public void setIsWpApiAuthenticated(boolean wpApiAuthenticated) {
+        mIsWpApiAuthenticated = wpApiAuthenticated;
+    }
+
     public long getSelfHostedSiteId() {
         return mSelfHostedSiteId;
     }
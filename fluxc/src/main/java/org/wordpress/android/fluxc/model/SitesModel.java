@@ -10,6 +10,7 @@ import java.util.List;
 
 public class SitesModel extends Payload<BaseNetworkError> {
     private List<SiteModel> mSites;
+    private boolean mNotModified;
 
     public SitesModel() {
         mSites = new ArrayList<>();
@@ -26,4 +27,15 @@ public class SitesModel extends Payload<BaseNetworkError> {
     public void setSites(List<SiteModel> sites) {
         this.mSites = sites;
     }
+
+    /**
+     * @return true if the sites didn't change since they were last fetched, {@link #getSites()} is then empty
+     */
+    public boolean isNotModified() {
+        return mNotModified;
+    }
+
+    public void setNotModified(boolean notModified) {
+        mNotModified = notModified;
+    }
 }
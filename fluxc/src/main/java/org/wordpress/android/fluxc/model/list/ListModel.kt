@@ -15,6 +15,7 @@ class ListModel(@PrimaryKey @Column private var id: Int = 0) : Identifiable {
     @Column var descriptorUniqueIdentifierDbValue: Int? = null
     @Column var descriptorTypeIdentifierDbValue: Int? = null
     @Column var stateDbValue: Int = ListState.defaultState.value
+    @Column var nextPageKeyDbValue: String? = null // See `ListPageKey.toDbValue`
 
     override fun getId(): Int = id
 
@@ -0,0 +1,69 @@
+package org.wordpress.android.fluxc.model.list
+
+import org.wordpress.android.fluxc.model.list.ListOrder.ASC
+import org.wordpress.android.util.DateTimeUtils
+import java.util.Date
+
+private const val DB_VALUE_SEPARATOR = "|"
+private const val DATE_BOUND_MARGIN = 1000L
+
+/**
+ * Identifies where the next page of a list starts, so it can be requested relative to the last fetched item (keyset
+ * pagination) instead of by offset. Unlike an offset, which the server has to skip through and which shifts when
+ * items are added or removed while the list is being scrolled, the key costs the same for every page and doesn't
+ * repeat or skip items.
+ *
+ * `ListStore` saves the key of the next page with the `ListModel` and passes it back to the data source when more
+ * items are needed.
+ *
+ * @property date The sort date of the last fetched item, ISO 8601-formatted in UTC, e.g. 1955-11-05T14:15:00+00:00
+ * @property remoteItemIds The fetched items sharing that [date], which need to be excluded from the next page
+ */
+data class ListPageKey(val date: String, val remoteItemIds: List<Long>) {
+    /**
+     * Returns the date to request the next page before (or after, for lists in [ASC] order) from APIs whose date
+     * bounds are exclusive and precise to the second. It's a second past [date], so the items that share the date
+     * with the last fetched one are requested again, and [remoteItemIds] should be excluded from the request.
+     */
+    fun getDateBound(order: ListOrder): String {
+        val margin = if (order == ASC) -DATE_BOUND_MARGIN else DATE_BOUND_MARGIN
+        return DateTimeUtils.iso8601UTCFromDate(Date(DateTimeUtils.dateUTCFromIso8601(date).time + margin))
+    }
+
+    fun toDbValue(): String = date + DB_VALUE_SEPARATOR + remoteItemIds.joinToString(",")
+
+    companion object {
+        @JvmStatic
+        fun fromDbValue(value: String?): ListPageKey? {
+            val separatorIndex = value?.indexOf(DB_VALUE_SEPARATOR) ?: -1
+            if (value == null || separatorIndex <= 0) {
+                return null
+            }
+            val ids = value.substring(separatorIndex + 1).split(",").mapNotNull { it.toLongOrNull() }
+            return ListPageKey(value.substring(0, separatorIndex), ids)
+        }
+
+        /**
+         * Returns the key of the page following the fetched [items], given as remote id and sort date pairs in the
+         * order of the list, or null if the key can't be built and the next page has to be fetched by offset.
+         *
+         * The dates are ISO 8601-formatted, with any offset: the key holds them converted to UTC.
+         *
+         * @param previousKey The key the items were fetched with, if any. If the page ends with the same date, the
+         * items it excluded are still excluded from the next page.
+         */
+        @JvmStatic
+        fun afterItems(items: List<Pair<Long, String?>>, previousKey: ListPageKey?): ListPageKey? {
+            val utcItems = items.map { it.first to toUtcDate(it.second) }
+            val lastDate = utcItems.lastOrNull()?.second ?: return null
+            val previousIds = previousKey?.takeIf { it.date == lastDate }?.remoteItemIds.orEmpty()
+            val ids = utcItems.filter { it.second == lastDate }.map { it.first }
+            return ListPageKey(lastDate, (previousIds + ids).distinct())
+        }
+
+        private fun toUtcDate(date: String?): String? {
+            val parsed = date?.takeIf { it.isNotEmpty() }?.let { DateTimeUtils.dateUTCFromIso8601(it) }
+            return parsed?.let { DateTimeUtils.iso8601UTCFromDate(it) }
+        }
+    }
+}
@@ -2,6 +2,7 @@ package org.wordpress.android.fluxc.model.list.datasource
 
 import org.wordpress.android.fluxc.model.LocalOrRemoteId.RemoteId
 import org.wordpress.android.fluxc.model.list.ListDescriptor
+import org.wordpress.android.fluxc.model.list.ListPageKey
 
 /**
  * An interface used to tell how to take certain actions to manage a `PagedList`.
@@ -38,4 +39,13 @@ interface ListItemDataSourceInterface<LIST_DESCRIPTOR : ListDescriptor, ITEM_IDE
      * Should fetch the list for the given [LIST_DESCRIPTOR] and an offset.
      */
     fun fetchList(listDescriptor: LIST_DESCRIPTOR, offset: Long)
+
+    /**
+     * Should fetch the list for the given [LIST_DESCRIPTOR], starting after the [pageKey] if there is one and at the
+     * offset otherwise. Lists that support keyset pagination should override this function and pass the [pageKey] on
+     * to the fetch, see [ListPageKey].
+     */
+    fun fetchList(listDescriptor: LIST_DESCRIPTOR, offset: Long, pageKey: ListPageKey?) {
+        fetchList(listDescriptor, offset)
+    }
 }
@@ -2,6 +2,8 @@ package org.wordpress.android.fluxc.module;
 
 import org.wordpress.android.fluxc.network.BaseRequest;
 import org.wordpress.android.fluxc.network.MemorizingTrustManager;
+import org.wordpress.android.fluxc.network.metrics.NetworkMetrics;
+import org.wordpress.android.fluxc.network.metrics.NetworkMetricsEventListener;
 import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.AppLog.T;
 
@@ -33,8 +35,10 @@ public abstract class DebugOkHttpClientModule {
     @Named("regular")
     public static OkHttpClient.Builder provideOkHttpClientBuilder(
             @Named("interceptors") Set<Interceptor> interceptors,
-            @Named("network-interceptors") Set<Interceptor> networkInterceptors) {
-        OkHttpClient.Builder builder = new OkHttpClient.Builder();
+            @Named("network-interceptors") Set<Interceptor> networkInterceptors,
+            NetworkMetrics networkMetrics) {
+        OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                .eventListenerFactory(NetworkMetricsEventListener.newFactory(networkMetrics));
         for (Interceptor interceptor : interceptors) {
             builder.addInterceptor(interceptor);
         }
@@ -49,8 +53,10 @@ public abstract class DebugOkHttpClientModule {
     public static OkHttpClient.Builder provideOkHttpClientBuilderCustomSSL(
             MemorizingTrustManager memorizingTrustManager,
             @Named("interceptors") Set<Interceptor> interceptors,
-            @Named("network-interceptors") Set<Interceptor> networkInterceptors) {
-        OkHttpClient.Builder builder = new OkHttpClient.Builder();
+            @Named("network-interceptors") Set<Interceptor> networkInterceptors,
+            NetworkMetrics networkMetrics) {
+        OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                .eventListenerFactory(NetworkMetricsEventListener.newFactory(networkMetrics));
         try {
             final SSLContext sslContext = SSLContext.getInstance("TLS");
             sslContext.init(null, new TrustManager[]{memorizingTrustManager}, new SecureRandom());
@@ -1,17 +1,31 @@
 package org.wordpress.android.fluxc.module;
 
 import org.wordpress.android.fluxc.Dispatcher;
+import org.wordpress.android.fluxc.store.Store;
 
+import java.util.Map;
+
+import javax.inject.Provider;
 import javax.inject.Singleton;
 
 import dagger.Module;
 import dagger.Provides;
+import dagger.multibindings.Multibinds;
 
-@Module
+@Module(includes = ReleaseBaseModule.StoreDeclarations.class)
 public class ReleaseBaseModule {
+    /**
+     * The stores are bound by {@link ReleaseStoreModule} (and the plugins' store modules) in lazy-store mode.
+     * Without them, the map is empty and stores only receive actions once something injected them.
+     */
+    @Module
+    public interface StoreDeclarations {
+        @Multibinds Map<Class<?>, Store> stores();
+    }
+
     @Singleton
     @Provides
-    public Dispatcher provideDispatcher() {
-        return new Dispatcher();
+    public Dispatcher provideDispatcher(Map<Class<?>, Provider<Store>> storeProviders) {
+        return new Dispatcher(storeProviders);
     }
 }
@@ -13,6 +13,7 @@ import org.wordpress.android.fluxc.Dispatcher;
 import org.wordpress.android.fluxc.network.HTTPAuthManager;
 import org.wordpress.android.fluxc.network.MemorizingTrustManager;
 import org.wordpress.android.fluxc.network.OkHttpStack;
+import org.wordpress.android.fluxc.network.ResponseValidatorCache;
 import org.wordpress.android.fluxc.network.UserAgent;
 import org.wordpress.android.fluxc.network.discovery.DiscoveryWPAPIRestClient;
 import org.wordpress.android.fluxc.network.discovery.DiscoveryXMLRPCClient;
@@ -21,6 +22,9 @@ import org.wordpress.android.fluxc.network.rest.JsonObjectOrEmptyArray;
 import org.wordpress.android.fluxc.network.rest.JsonObjectOrEmptyArrayDeserializer;
 import org.wordpress.android.fluxc.network.rest.JsonObjectOrFalse;
 import org.wordpress.android.fluxc.network.rest.JsonObjectOrFalseDeserializer;
+import org.wordpress.android.fluxc.network.rest.wpapi.BaseWPAPIRestClient;
+import org.wordpress.android.fluxc.network.rest.wpapi.post.PostWPAPIRestClient;
+import org.wordpress.android.fluxc.network.rest.wpcom.BaseWPComRestClient;
 import org.wordpress.android.fluxc.network.rest.wpcom.WPComGsonRequestBuilder;
 import org.wordpress.android.fluxc.network.rest.wpcom.account.AccountRestClient;
 import org.wordpress.android.fluxc.network.rest.wpcom.activity.ActivityLogRestClient;
@@ -62,6 +66,7 @@ import java.io.File;
 import javax.inject.Named;
 import javax.inject.Singleton;
 
+import dagger.MembersInjector;
 import dagger.Module;
 import dagger.Provides;
 import kotlin.coroutines.CoroutineContext;
@@ -109,8 +114,13 @@ public class ReleaseNetworkModule {
     public SiteRestClient provideSiteRestClient(Context appContext, Dispatcher dispatcher,
                                                 @Named("regular") RequestQueue requestQueue,
                                                 AppSecrets appSecrets,
-                                                AccessToken token, UserAgent userAgent) {
-        return new SiteRestClient(appContext, dispatcher, requestQueue, appSecrets, token, userAgent);
+                                                AccessToken token, UserAgent userAgent,
+                                                ResponseValidatorCache validatorCache,
+                                                MembersInjector<BaseWPComRestClient> injector) {
+        SiteRestClient client = new SiteRestClient(appContext, dispatcher, requestQueue, appSecrets, token, userAgent,
+                validatorCache);
+        injector.injectMembers(client);
+        return client;
     }
 
     @Singleton
@@ -126,8 +136,12 @@ public class ReleaseNetworkModule {
     public MediaRestClient provideMediaRestClient(Context appContext, Dispatcher dispatcher,
                                                   @Named("regular") RequestQueue requestQueue,
                                                   @Named("regular") OkHttpClient okHttpClient,
-                                                  AccessToken token, UserAgent userAgent) {
-        return new MediaRestClient(appContext, dispatcher, requestQueue, okHttpClient, token, userAgent);
+                                                  AccessToken token, UserAgent userAgent,
+                                                  MembersInjector<BaseWPComRestClient> injector) {
+        MediaRestClient client = new MediaRestClient(appContext, dispatcher, requestQueue, okHttpClient, token,
+                userAgent);
+        injector.injectMembers(client);
+        return client;
     }
 
     @Singleton
@@ -143,8 +157,11 @@ public class ReleaseNetworkModule {
     @Provides
     public StockMediaRestClient provideStockMediaRestClient(Context appContext, Dispatcher dispatcher,
                                                             @Named("regular") RequestQueue requestQueue,
-                                                            AccessToken token, UserAgent userAgent) {
-        return new StockMediaRestClient(appContext, dispatcher, requestQueue, token, userAgent);
+                                                            AccessToken token, UserAgent userAgent,
+                                                            MembersInjector<BaseWPComRestClient> injector) {
+        StockMediaRestClient client = new StockMediaRestClient(appContext, dispatcher, requestQueue, token, userAgent);
+        injector.injectMembers(client);
+        return client;
     }
 
     @Singleton
@@ -152,24 +169,35 @@ public class ReleaseNetworkModule {
     public AccountRestClient provideAccountRestClient(Context appContext, Dispatcher dispatcher,
                                                       @Named("regular") RequestQueue requestQueue,
                                                       AppSecrets appSecrets,
-                                                      AccessToken token, UserAgent userAgent) {
-        return new AccountRestClient(appContext, dispatcher, requestQueue, appSecrets, token, userAgent);
+                                                      AccessToken token, UserAgent userAgent,
+                                                      MembersInjector<BaseWPComRestClient> injector) {
+        AccountRestClient client = new AccountRestClient(appContext, dispatcher, requestQueue, appSecrets, token,
+                userAgent);
+        injector.injectMembers(client);
+        return client;
     }
 
     @Singleton
     @Provides
     public NotificationRestClient provideNotificationRestClient(Context appContext, Dispatcher dispatcher,
                                                         @Named("regular") RequestQueue requestQueue,
-                                                        AccessToken token, UserAgent userAgent) {
-        return new NotificationRestClient(appContext, dispatcher, requestQueue, token, userAgent);
+                                                        AccessToken token, UserAgent userAgent,
+                                                        MembersInjector<BaseWPComRestClient> injector) {
+        NotificationRestClient client = new NotificationRestClient(appContext, dispatcher, requestQueue, token,
+                userAgent);
+        injector.injectMembers(client);
+        return client;
     }
 
     @Singleton
     @Provides
     public PostRestClient providePostRestClient(Context appContext, Dispatcher dispatcher,
                                                 @Named("regular") RequestQueue requestQueue,
-                                                AccessToken token, UserAgent userAgent) {
-        return new PostRestClient(appContext, dispatcher, requestQueue, token, userAgent);
+                                                AccessToken token, UserAgent userAgent,
+                                                MembersInjector<BaseWPComRestClient> injector) {
+        PostRestClient client = new PostRestClient(appContext, dispatcher, requestQueue, token, userAgent);
+        injector.injectMembers(client);
+        return client;
     }
 
     @Singleton
@@ -184,8 +212,11 @@ public class ReleaseNetworkModule {
     @Provides
     public CommentRestClient provideCommentRestClient(Context appContext, Dispatcher dispatcher,
                                                       @Named("regular") RequestQueue requestQueue,
-                                                      AccessToken token, UserAgent userAgent) {
-        return new CommentRestClient(appContext, dispatcher, requestQueue, token, userAgent);
+                                                      AccessToken token, UserAgent userAgent,
+                                                      MembersInjector<BaseWPComRestClient> injector) {
+        CommentRestClient client = new CommentRestClient(appContext, dispatcher, requestQueue, token, userAgent);
+        injector.injectMembers(client);
+        return client;
     }
 
     @Singleton
@@ -193,9 +224,12 @@ public class ReleaseNetworkModule {
     public ActivityLogRestClient provideActivityLogRestClient(Context appContext, Dispatcher dispatcher,
                                                               @Named("regular") RequestQueue requestQueue,
                                                               AccessToken token, UserAgent userAgent,
-                                                              WPComGsonRequestBuilder wpComGsonRequestBuilder) {
-        return new ActivityLogRestClient(dispatcher, wpComGsonRequestBuilder, appContext, requestQueue, token,
-                userAgent);
+                                                              WPComGsonRequestBuilder wpComGsonRequestBuilder,
+                                                              MembersInjector<BaseWPComRestClient> injector) {
+        ActivityLogRestClient client = new ActivityLogRestClient(dispatcher, wpComGsonRequestBuilder, appContext,
+                requestQueue, token, userAgent);
+        injector.injectMembers(client);
+        return client;
     }
 
     @Singleton
@@ -204,9 +238,12 @@ public class ReleaseNetworkModule {
                                                                       @Named("regular") RequestQueue requestQueue,
                                                                       AccessToken token, UserAgent userAgent,
                                                                       WPComGsonRequestBuilder wpComGsonRequestBuilder,
-                                                                      StatsUtils statsUtils) {
-        return new AllTimeInsightsRestClient(dispatcher, wpComGsonRequestBuilder, appContext, requestQueue, token,
-                userAgent, statsUtils);
+                                                                      StatsUtils statsUtils,
+                                                                      MembersInjector<BaseWPComRestClient> injector) {
+        AllTimeInsightsRestClient client = new AllTimeInsightsRestClient(dispatcher, wpComGsonRequestBuilder,
+                appContext, requestQueue, token, userAgent, statsUtils);
+        injector.injectMembers(client);
+        return client;
     }
 
     @Singleton
@@ -215,9 +252,12 @@ public class ReleaseNetworkModule {
                                                                 @Named("regular") RequestQueue requestQueue,
                                                                 AccessToken token, UserAgent userAgent,
                                                                 WPComGsonRequestBuilder wpComGsonRequestBuilder,
-                                                                StatsUtils statsUtils) {
-        return new CommentsRestClient(dispatcher, wpComGsonRequestBuilder, appContext, requestQueue, token,
-                userAgent, statsUtils);
+                                                                StatsUtils statsUtils,
+                                                                MembersInjector<BaseWPComRestClient> injector) {
+        CommentsRestClient client = new CommentsRestClient(dispatcher, wpComGsonRequestBuilder, appContext,
+                requestQueue, token, userAgent, statsUtils);
+        injector.injectMembers(client);
+        return client;
     }
 
     @Singleton
@@ -226,9 +266,12 @@ public class ReleaseNetworkModule {
                                                                   @Named("regular") RequestQueue requestQueue,
                                                                   AccessToken token, UserAgent userAgent,
                                                                   WPComGsonRequestBuilder wpComGsonRequestBuilder,
-                                                                  StatsUtils statsUtils) {
-        return new FollowersRestClient(dispatcher, wpComGsonRequestBuilder, appContext, requestQueue, token,
-                userAgent, statsUtils);
+                                                                  StatsUtils statsUtils,
+                                                                  MembersInjector<BaseWPComRestClient> injector) {
+        FollowersRestClient client = new FollowersRestClient(dispatcher, wpComGsonRequestBuilder, appContext,
+                requestQueue, token, userAgent, statsUtils);
+        injector.injectMembers(client);
+        return client;
     }
 
     @Singleton
@@ -237,9 +280,12 @@ public class ReleaseNetworkModule {
                                                                      @Named("regular") RequestQueue requestQueue,
                                                                      AccessToken token, UserAgent userAgent,
                                                                      WPComGsonRequestBuilder wpComGsonRequestBuilder,
-                                                                     StatsUtils statsUtils) {
-        return new LatestPostInsightsRestClient(dispatcher, wpComGsonRequestBuilder, appContext, requestQueue, token,
-                userAgent, statsUtils);
+                                                                     StatsUtils statsUtils,
+                                                                     MembersInjector<BaseWPComRestClient> injector) {
+        LatestPostInsightsRestClient client = new LatestPostInsightsRestClient(dispatcher, wpComGsonRequestBuilder,
+                appContext, requestQueue, token, userAgent, statsUtils);
+        injector.injectMembers(client);
+        return client;
     }
 
     @Singleton
@@ -247,9 +293,12 @@ public class ReleaseNetworkModule {
     public MostPopularRestClient provideMostPopularInsightsRestClient(Context appContext, Dispatcher dispatcher,
                                                                       @Named("regular") RequestQueue requestQueue,
                                                                       AccessToken token, UserAgent userAgent,
-                                                                      WPComGsonRequestBuilder wpComGsonRequestBuilder) {
-        return new MostPopularRestClient(dispatcher, wpComGsonRequestBuilder, appContext, requestQueue, token,
-                userAgent);
+                                                                      WPComGsonRequestBuilder wpComGsonRequestBuilder,
+                                                                      MembersInjector<BaseWPComRestClient> injector) {
+        MostPopularRestClient client = new MostPopularRestClient(dispatcher, wpComGsonRequestBuilder, appContext,
+                requestQueue, token, userAgent);
+        injector.injectMembers(client);
+        return client;
     }
 
     @Singleton
@@ -258,9 +307,12 @@ public class ReleaseNetworkModule {
                                                                   @Named("regular") RequestQueue requestQueue,
                                                                   AccessToken token, UserAgent userAgent,
                                                                   WPComGsonRequestBuilder wpComGsonRequestBuilder,
-                                                                  StatsUtils statsUtils) {
-        return new PublicizeRestClient(dispatcher, wpComGsonRequestBuilder, appContext, requestQueue, token,
-                userAgent, statsUtils);
+                                                                  StatsUtils statsUtils,
+                                                                  MembersInjector<BaseWPComRestClient> injector) {
+        PublicizeRestClient client = new PublicizeRestClient(dispatcher, wpComGsonRequestBuilder, appContext,
+                requestQueue, token, userAgent, statsUtils);
+        injector.injectMembers(client);
+        return client;
     }
 
     @Singleton
@@ -269,9 +321,12 @@ public class ReleaseNetworkModule {
                                                         @Named("regular") RequestQueue requestQueue,
                                                         AccessToken token, UserAgent userAgent,
                                                         WPComGsonRequestBuilder wpComGsonRequestBuilder,
-                                                        StatsUtils statsUtils) {
-        return new TagsRestClient(dispatcher, wpComGsonRequestBuilder, appContext, requestQueue, token,
+                                                        StatsUtils statsUtils,
+                                                        MembersInjector<BaseWPComRestClient> injector) {
+        TagsRestClient client = new TagsRestClient(dispatcher, wpComGsonRequestBuilder, appContext, requestQueue, token,
                 userAgent, statsUtils);
+        injector.injectMembers(client);
+        return client;
     }
 
     @Singleton
@@ -280,9 +335,12 @@ public class ReleaseNetworkModule {
                                                              @Named("regular") RequestQueue requestQueue,
                                                              AccessToken token, UserAgent userAgent,
                                                              WPComGsonRequestBuilder wpComGsonRequestBuilder,
-                                                             StatsUtils statsUtils) {
-        return new TodayInsightsRestClient(dispatcher, wpComGsonRequestBuilder, appContext, requestQueue, token,
-                userAgent, statsUtils);
+                                                             StatsUtils statsUtils,
+                                                             MembersInjector<BaseWPComRestClient> injector) {
+        TodayInsightsRestClient client = new TodayInsightsRestClient(dispatcher, wpComGsonRequestBuilder, appContext,
+                requestQueue, token, userAgent, statsUtils);
+        injector.injectMembers(client);
+        return client;
     }
 
     @Singleton
@@ -290,9 +348,12 @@ public class ReleaseNetworkModule {
     public JetpackRestClient provideJetpackRestClient(Context appContext, Dispatcher dispatcher,
                                                       @Named("regular") RequestQueue requestQueue,
                                                       AccessToken token, UserAgent userAgent,
-                                                      WPComGsonRequestBuilder wpComGsonRequestBuilder) {
-        return new JetpackRestClient(dispatcher, wpComGsonRequestBuilder, appContext, requestQueue, token,
-                userAgent);
+                                                      WPComGsonRequestBuilder wpComGsonRequestBuilder,
+                                                      MembersInjector<BaseWPComRestClient> injector) {
+        JetpackRestClient client = new JetpackRestClient(dispatcher, wpComGsonRequestBuilder, appContext, requestQueue,
+                token, userAgent);
+        injector.injectMembers(client);
+        return client;
     }
 
     @Singleton
@@ -313,8 +374,11 @@ public class ReleaseNetworkModule {
     @Provides
     public TaxonomyRestClient provideTaxonomyRestClient(Context appContext, Dispatcher dispatcher,
                                                         @Named("regular") RequestQueue requestQueue,
-                                                        AccessToken token, UserAgent userAgent) {
-        return new TaxonomyRestClient(appContext, dispatcher, requestQueue, token, userAgent);
+                                                        AccessToken token, UserAgent userAgent,
+                                                        MembersInjector<BaseWPComRestClient> injector) {
+        TaxonomyRestClient client = new TaxonomyRestClient(appContext, dispatcher, requestQueue, token, userAgent);
+        injector.injectMembers(client);
+        return client;
     }
 
     @Singleton
@@ -337,24 +401,48 @@ public class ReleaseNetworkModule {
     @Provides
     public DiscoveryWPAPIRestClient provideDiscoveryWPAPIRestClient(Dispatcher dispatcher,
                                                                     @Named("custom-ssl") RequestQueue requestQueue,
-                                                                    UserAgent userAgent) {
-        return new DiscoveryWPAPIRestClient(dispatcher, requestQueue, userAgent);
+                                                                    UserAgent userAgent,
+                                                                    MembersInjector<BaseWPAPIRestClient> injector) {
+        DiscoveryWPAPIRestClient client = new DiscoveryWPAPIRestClient(dispatcher, requestQueue, userAgent);
+        injector.injectMembers(client);
+        return client;
+    }
+
+    @Singleton
+    @Provides
+    public PostWPAPIRestClient providePostWPAPIRestClient(Dispatcher dispatcher,
+                                                          @Named("custom-ssl") RequestQueue requestQueue,
+                                                          UserAgent userAgent,
+                                                          MembersInjector<BaseWPAPIRestClient> injector) {
+        PostWPAPIRestClient client = new PostWPAPIRestClient(dispatcher, requestQueue, userAgent);
+        injector.injectMembers(client);
+        return client;
     }
 
     @Singleton
     @Provides
     public ThemeRestClient provideThemeRestClient(Context appContext, Dispatcher dispatcher,
                                                   @Named("regular") RequestQueue requestQueue,
-                                                  AccessToken token, UserAgent userAgent) {
-        return new ThemeRestClient(appContext, dispatcher, requestQueue, token, userAgent);
+                                                  AccessToken token, UserAgent userAgent,
+                                                  ResponseValidatorCache validatorCache,
+                                                  MembersInjector<BaseWPComRestClient> injector) {
+        ThemeRestClient client = new ThemeRestClient(appContext, dispatcher, requestQueue, token, userAgent,
+                validatorCache);
+        injector.injectMembers(client);
+        return client;
     }
 
     @Singleton
     @Provides
     public PluginRestClient providePluginRestClient(Context appContext, Dispatcher dispatcher,
                                                     @Named("regular") RequestQueue requestQueue,
-                                                    AccessToken token, UserAgent userAgent) {
-        return new PluginRestClient(appContext, dispatcher, requestQueue, token, userAgent);
+                                                    AccessToken token, UserAgent userAgent,
+                                                    ResponseValidatorCache validatorCache,
+                                                    MembersInjector<BaseWPComRestClient> injector) {
+        PluginRestClient client = new PluginRestClient(appContext, dispatcher, requestQueue, token, userAgent,
+                validatorCache);
+        injector.injectMembers(client);
+        return client;
     }
 
     @Singleton
@@ -395,8 +483,11 @@ public class ReleaseNetworkModule {
     @Provides
     public ReaderRestClient provideReaderRestClient(Context appContext, Dispatcher dispatcher,
                                                      @Named("regular") RequestQueue requestQueue,
-                                                     AccessToken token, UserAgent userAgent) {
-        return new ReaderRestClient(appContext, dispatcher, requestQueue, token, userAgent);
+                                                     AccessToken token, UserAgent userAgent,
+                                                     MembersInjector<BaseWPComRestClient> injector) {
+        ReaderRestClient client = new ReaderRestClient(appContext, dispatcher, requestQueue, token, userAgent);
+        injector.injectMembers(client);
+        return client;
     }
 
     @Singleton
@@ -404,9 +495,12 @@ public class ReleaseNetworkModule {
     public VerticalRestClient provideVerticalRestClient(Context appContext, Dispatcher dispatcher,
                                                         @Named("regular") RequestQueue requestQueue,
                                                         AccessToken token, UserAgent userAgent,
-                                                        WPComGsonRequestBuilder wpComGsonRequestBuilder) {
-        return new VerticalRestClient(dispatcher, wpComGsonRequestBuilder, appContext, requestQueue, token,
-                userAgent);
+                                                        WPComGsonRequestBuilder wpComGsonRequestBuilder,
+                                                        MembersInjector<BaseWPComRestClient> injector) {
+        VerticalRestClient client = new VerticalRestClient(dispatcher, wpComGsonRequestBuilder, appContext,
+                requestQueue, token, userAgent);
+        injector.injectMembers(client);
+        return client;
     }
 
     @Singleton
@@ -414,9 +508,12 @@ public class ReleaseNetworkModule {
     public PlanOffersRestClient providePlansRestClient(Context appContext, Dispatcher dispatcher,
                                                        @Named("regular") RequestQueue requestQueue,
                                                        AccessToken token, UserAgent userAgent,
-                                                       WPComGsonRequestBuilder wpComGsonRequestBuilder) {
-        return new PlanOffersRestClient(dispatcher, wpComGsonRequestBuilder, appContext, requestQueue, token,
-                userAgent);
+                                                       WPComGsonRequestBuilder wpComGsonRequestBuilder,
+                                                       MembersInjector<BaseWPComRestClient> injector) {
+        PlanOffersRestClient client = new PlanOffersRestClient(dispatcher, wpComGsonRequestBuilder, appContext,
+                requestQueue, token, userAgent);
+        injector.injectMembers(client);
+        return client;
     }
 
     @Singleton
@@ -424,9 +521,12 @@ public class ReleaseNetworkModule {
     public TransactionsRestClient provideTransactionsRestClient(Context appContext, Dispatcher dispatcher,
                                                          @Named("regular") RequestQueue requestQueue,
                                                          AccessToken token, UserAgent userAgent,
-                                                         WPComGsonRequestBuilder wpComGsonRequestBuilder) {
-        return new TransactionsRestClient(dispatcher, wpComGsonRequestBuilder, appContext, requestQueue, token,
-                userAgent);
+                                                         WPComGsonRequestBuilder wpComGsonRequestBuilder,
+                                                         MembersInjector<BaseWPComRestClient> injector) {
+        TransactionsRestClient client = new TransactionsRestClient(dispatcher, wpComGsonRequestBuilder, appContext,
+                requestQueue, token, userAgent);
+        injector.injectMembers(client);
+        return client;
     }
 
     @Singleton
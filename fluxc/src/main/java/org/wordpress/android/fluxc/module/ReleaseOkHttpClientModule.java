@@ -2,6 +2,8 @@ package org.wordpress.android.fluxc.module;
 
 import org.wordpress.android.fluxc.network.BaseRequest;
 import org.wordpress.android.fluxc.network.MemorizingTrustManager;
+import org.wordpress.android.fluxc.network.metrics.NetworkMetrics;
+import org.wordpress.android.fluxc.network.metrics.NetworkMetricsEventListener;
 import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.AppLog.T;
 
@@ -24,14 +26,17 @@ import okhttp3.OkHttpClient;
 public class ReleaseOkHttpClientModule {
     @Provides
     @Named("regular")
-    public OkHttpClient.Builder provideOkHttpClientBuilder() {
-        return new OkHttpClient.Builder();
+    public OkHttpClient.Builder provideOkHttpClientBuilder(NetworkMetrics networkMetrics) {
+        return new OkHttpClient.Builder()
+                .eventListenerFactory(NetworkMetricsEventListener.newFactory(networkMetrics));
     }
 
     @Provides
     @Named("custom-ssl")
-    public OkHttpClient.Builder provideOkHttpClientBuilderCustomSSL(MemorizingTrustManager memorizingTrustManager) {
-        OkHttpClient.Builder builder = new OkHttpClient.Builder();
+    public OkHttpClient.Builder provideOkHttpClientBuilderCustomSSL(MemorizingTrustManager memorizingTrustManager,
+                                                                    NetworkMetrics networkMetrics) {
+        OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                .eventListenerFactory(NetworkMetricsEventListener.newFactory(networkMetrics));
         try {
             final SSLContext sslContext = SSLContext.getInstance("TLS");
             sslContext.init(null, new TrustManager[]{memorizingTrustManager}, new SecureRandom());
@@ -0,0 +1,92 @@
+package org.wordpress.android.fluxc.module;
+
+import org.wordpress.android.fluxc.store.AccountStore;
+import org.wordpress.android.fluxc.store.ActivityLogStore;
+import org.wordpress.android.fluxc.store.CommentStore;
+import org.wordpress.android.fluxc.store.JetpackStore;
+import org.wordpress.android.fluxc.store.ListStore;
+import org.wordpress.android.fluxc.store.MediaStore;
+import org.wordpress.android.fluxc.store.NotificationStore;
+import org.wordpress.android.fluxc.store.PlanOffersStore;
+import org.wordpress.android.fluxc.store.PluginStore;
+import org.wordpress.android.fluxc.store.PostStore;
+import org.wordpress.android.fluxc.store.QuickStartStore;
+import org.wordpress.android.fluxc.store.ReaderStore;
+import org.wordpress.android.fluxc.store.SiteStore;
+import org.wordpress.android.fluxc.store.StockMediaStore;
+import org.wordpress.android.fluxc.store.Store;
+import org.wordpress.android.fluxc.store.TaxonomyStore;
+import org.wordpress.android.fluxc.store.ThemeStore;
+import org.wordpress.android.fluxc.store.TransactionsStore;
+import org.wordpress.android.fluxc.store.UploadStore;
+import org.wordpress.android.fluxc.store.VerticalStore;
+
+import dagger.Binds;
+import dagger.Module;
+import dagger.multibindings.ClassKey;
+import dagger.multibindings.IntoMap;
+
+/**
+ * Enables the lazy-store mode: the stores are created by the {@link org.wordpress.android.fluxc.Dispatcher} on the
+ * first action they handle, or by Dagger when they're first injected, instead of being injected at startup to make
+ * sure they receive their actions.
+ */
+@Module
+public abstract class ReleaseStoreModule {
+    @Binds @IntoMap @ClassKey(AccountStore.class)
+    public abstract Store bindAccountStore(AccountStore store);
+
+    @Binds @IntoMap @ClassKey(ActivityLogStore.class)
+    public abstract Store bindActivityLogStore(ActivityLogStore store);
+
+    @Binds @IntoMap @ClassKey(CommentStore.class)
+    public abstract Store bindCommentStore(CommentStore store);
+
+    @Binds @IntoMap @ClassKey(JetpackStore.class)
+    public abstract Store bindJetpackStore(JetpackStore store);
+
+    @Binds @IntoMap @ClassKey(ListStore.class)
+    public abstract Store bindListStore(ListStore store);
+
+    @Binds @IntoMap @ClassKey(MediaStore.class)
+    public abstract Store bindMediaStore(MediaStore store);
+
+    @Binds @IntoMap @ClassKey(NotificationStore.class)
+    public abstract Store bindNotificationStore(NotificationStore store);
+
+    @Binds @IntoMap @ClassKey(PlanOffersStore.class)
+    public abstract Store bindPlanOffersStore(PlanOffersStore store);
+
+    @Binds @IntoMap @ClassKey(PluginStore.class)
+    public abstract Store bindPluginStore(PluginStore store);
+
+    @Binds @IntoMap @ClassKey(PostStore.class)
+    public abstract Store bindPostStore(PostStore store);
+
+    @Binds @IntoMap @ClassKey(QuickStartStore.class)
+    public abstract Store bindQuickStartStore(QuickStartStore store);
+
+    @Binds @IntoMap @ClassKey(ReaderStore.class)
+    public abstract Store bindReaderStore(ReaderStore store);
+
+    @Binds @IntoMap @ClassKey(SiteStore.class)
+    public abstract Store bindSiteStore(SiteStore store);
+
+    @Binds @IntoMap @ClassKey(StockMediaStore.class)
+    public abstract Store bindStockMediaStore(StockMediaStore store);
+
+    @Binds @IntoMap @ClassKey(TaxonomyStore.class)
+    public abstract Store bindTaxonomyStore(TaxonomyStore store);
+
+    @Binds @IntoMap @ClassKey(ThemeStore.class)
+    public abstract Store bindThemeStore(ThemeStore store);
+
+    @Binds @IntoMap @ClassKey(TransactionsStore.class)
+    public abstract Store bindTransactionsStore(TransactionsStore store);
+
+    @Binds @IntoMap @ClassKey(UploadStore.class)
+    public abstract Store bindUploadStore(UploadStore store);
+
+    @Binds @IntoMap @ClassKey(VerticalStore.class)
+    public abstract Store bindVerticalStore(VerticalStore store);
+}
@@ -5,6 +5,7 @@ import android.net.Uri.Builder;
 import android.util.Base64;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import com.android.volley.AuthFailureError;
 import com.android.volley.Cache;
@@ -21,9 +22,13 @@ import com.android.volley.toolbox.HttpHeaderParser;
 import org.wordpress.android.fluxc.FluxCError;
 import org.wordpress.android.fluxc.store.AccountStore.AuthenticateErrorPayload;
 import org.wordpress.android.fluxc.utils.ErrorUtils.OnUnexpectedError;
+import org.wordpress.android.fluxc.network.ResponseValidatorCache.Validators;
 import org.wordpress.android.util.AppLog;
 
+import java.net.HttpURLConnection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import javax.net.ssl.SSLHandshakeException;
@@ -46,8 +51,16 @@ public abstract class BaseRequest<T> extends Request<T> {
     public interface OnParseErrorListener {
         void onParseError(OnUnexpectedError event);
     }
+    public interface OnNotModifiedListener {
+        void onNotModified();
+    }
 
     private static final String USER_AGENT_HEADER = "User-Agent";
+    private static final String AUTHORIZATION_HEADER = "Authorization";
+    private static final String IF_NONE_MATCH_HEADER = "If-None-Match";
+    private static final String IF_MODIFIED_SINCE_HEADER = "If-Modified-Since";
+    private static final String ETAG_HEADER = "ETag";
+    private static final String LAST_MODIFIED_HEADER = "Last-Modified";
 
     protected OnAuthFailedListener mOnAuthFailedListener;
     protected OnParseErrorListener mOnParseErrorListener;
@@ -58,6 +71,13 @@ public abstract class BaseRequest<T> extends Request<T> {
     private int mCacheTtl;
     private int mCacheSoftTtl;
 
+    private ResponseValidatorCache mValidatorCache;
+    private OnNotModifiedListener mOnNotModifiedListener;
+
+    private InFlightRequestDeduplicator mDeduplicator;
+    private String mDeduplicationKey;
+    private boolean mRetryPending;
+
     public static class BaseNetworkError implements FluxCError {
         public GenericErrorType type;
         public String message;
@@ -178,6 +198,87 @@ public abstract class BaseRequest<T> extends Request<T> {
         mCacheSoftTtl = softTimeToLive;
     }
 
+    /**
+     * Make this a conditional request: the validators received with the last successful response to the same URL
+     * (with the same credentials) are sent as {@code If-None-Match} and {@code If-Modified-Since} headers. If the
+     * server answers with 304 Not Modified, the response isn't parsed, and {@code onNotModifiedListener} is called
+     * instead of the success listener, so callers can skip persisting data that hasn't changed.
+     *
+     * Unlike {@link #enableCaching(int)}, response bodies aren't stored: callers are expected to already have the
+     * data from the previous response, and to force an update if that data was deleted since. Validators are ignored
+     * if {@link #setShouldForceUpdate()} is called.
+     *
+     * Only applies to GET requests.
+     *
+     * @param validatorCache the validators of the previous responses, usually the injected singleton
+     */
+    public void enableConditionalRequest(@NonNull ResponseValidatorCache validatorCache,
+                                         @NonNull OnNotModifiedListener onNotModifiedListener) {
+        if (getMethod() != Method.GET) {
+            return;
+        }
+        mValidatorCache = validatorCache;
+        mOnNotModifiedListener = onNotModifiedListener;
+    }
+
+    public boolean isConditionalRequest() {
+        return mValidatorCache != null;
+    }
+
+    /**
+     * Returns a key identifying requests that can share a single network call and its response, or null if this
+     * request can't be deduplicated (see {@link InFlightRequestDeduplicator}).
+     *
+     * Only uncached, unconditional GET requests can be deduplicated. The key includes the request class, since
+     * requests of the same class deliver the same error types to their listeners.
+     */
+    @Nullable
+    public String getDeduplicationKey() {
+        if (getMethod() != Method.GET || shouldCache() || isConditionalRequest()) {
+            return null;
+        }
+        String authorization = mHeaders.get(AUTHORIZATION_HEADER);
+        return getClass().getName() + " " + getMethod() + " " + getUrl()
+               + (authorization == null ? "" : "#" + authorization.hashCode());
+    }
+
+    void setInFlightRequestDeduplicator(@NonNull InFlightRequestDeduplicator deduplicator, @NonNull String key) {
+        mDeduplicator = deduplicator;
+        mDeduplicationKey = key;
+    }
+
+    /**
+     * Returns the requests that were attached to this one while it was in flight, and should receive the same
+     * response. Must be called once, when this request is delivered.
+     */
+    @NonNull
+    protected List<BaseRequest<?>> takeDuplicateRequests() {
+        if (mDeduplicator == null) {
+            return Collections.emptyList();
+        }
+        List<BaseRequest<?>> duplicates = mDeduplicator.onDelivered(this, mDeduplicationKey);
+        mDeduplicator = null;
+        return duplicates;
+    }
+
+    /**
+     * Must be called by an error listener which is going to send this request again. The requests attached to this
+     * one (see {@link InFlightRequestDeduplicator}) then wait for the result of the retry, instead of getting the
+     * error being delivered.
+     */
+    public void setRetryPending() {
+        mRetryPending = true;
+    }
+
+    @Override
+    public void cancel() {
+        super.cancel();
+        if (mDeduplicator != null) {
+            mDeduplicator.onCanceled(this, mDeduplicationKey);
+            mDeduplicator = null;
+        }
+    }
+
     /**
      * Reset the cache for this request, to force an update over the network.
      */
@@ -194,15 +295,64 @@ public abstract class BaseRequest<T> extends Request<T> {
 
     @Override
     public Map<String, String> getHeaders() {
+        if (isConditionalRequest() && !shouldForceUpdate()) {
+            addValidatorHeaders();
+        }
         return mHeaders;
     }
 
+    private void addValidatorHeaders() {
+        Validators validators = mValidatorCache.get(getValidatorKey());
+        if (validators == null) {
+            return;
+        }
+        if (validators.eTag != null) {
+            mHeaders.put(IF_NONE_MATCH_HEADER, validators.eTag);
+        }
+        if (validators.lastModified != null) {
+            mHeaders.put(IF_MODIFIED_SINCE_HEADER, validators.lastModified);
+        }
+    }
+
+    private String getValidatorKey() {
+        // Include the credentials, so validators from one account are never used for another
+        String authorization = mHeaders.get(AUTHORIZATION_HEADER);
+        return authorization == null ? getUrl() : getUrl() + "#" + authorization.hashCode();
+    }
+
+    /**
+     * Returns true if the response is a 304 Not Modified answering this conditional request, in which case
+     * the response should not be parsed, and {@link #deliverNotModified()} should be called instead of
+     * {@link #deliverResponse(Object)}.
+     */
+    protected boolean isNotModifiedResponse(NetworkResponse response) {
+        return isConditionalRequest() && response.statusCode == HttpURLConnection.HTTP_NOT_MODIFIED;
+    }
+
+    /**
+     * Stores the validators of a successfully parsed response, to be sent with the next conditional request
+     * to the same URL.
+     */
+    protected void storeResponseValidators(NetworkResponse response) {
+        if (!isConditionalRequest() || response.headers == null) {
+            return;
+        }
+        mValidatorCache.put(getValidatorKey(),
+                new Validators(response.headers.get(ETAG_HEADER), response.headers.get(LAST_MODIFIED_HEADER)));
+    }
+
+    protected void deliverNotModified() {
+        AppLog.d(AppLog.T.API, "Not modified: " + getUrl());
+        mValidatorCache.onNotModified();
+        mOnNotModifiedListener.onNotModified();
+    }
+
     public void setHTTPAuthHeaderOnMatchingURL(HTTPAuthManager httpAuthManager) {
         HTTPAuthModel httpAuthModel = httpAuthManager.getHTTPAuthModel(getUrl());
         if (httpAuthModel != null) {
             String creds = String.format("%s:%s", httpAuthModel.getUsername(), httpAuthModel.getPassword());
             String auth = "Basic " + Base64.encodeToString(creds.getBytes(), Base64.NO_WRAP);
-            mHeaders.put("Authorization", auth);
+            mHeaders.put(AUTHORIZATION_HEADER, auth);
         }
     }
 
@@ -331,8 +481,24 @@ public abstract class BaseRequest<T> extends Request<T> {
             error.addExtra(OnUnexpectedError.KEY_URL, getUrl());
             mOnParseErrorListener.onParseError(error);
         }
+        if (mDeduplicator != null) {
+            mDeduplicator.onDeliveringError(this, mDeduplicationKey);
+        }
+        mRetryPending = false;
         BaseNetworkError baseNetworkError = getBaseNetworkError(volleyError);
         BaseNetworkError modifiedBaseNetworkError = deliverBaseNetworkError(baseNetworkError);
         mErrorListener.onErrorResponse(modifiedBaseNetworkError);
+        if (mRetryPending && mDeduplicator != null) {
+            // Still in flight, the duplicates will get the response or the final error of the retry
+            mDeduplicator.onRetryPending(this, mDeduplicationKey);
+            return;
+        }
+        List<BaseRequest<?>> duplicates = takeDuplicateRequests();
+        for (BaseRequest<?> duplicate : duplicates) {
+            if (!duplicate.isCanceled()) {
+                // The side effects of the error already happened for this request, only notify the duplicates
+                duplicate.mErrorListener.onErrorResponse(modifiedBaseNetworkError);
+            }
+        }
     }
 }
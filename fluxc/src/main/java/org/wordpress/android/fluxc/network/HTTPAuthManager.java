@@ -5,6 +5,7 @@ import androidx.annotation.Nullable;
 
 import com.yarolegovich.wellsql.WellSql;
 
+import org.wordpress.android.fluxc.persistence.DiscoveryResultSqlUtils;
 import org.wordpress.android.fluxc.persistence.HTTPAuthSqlUtils;
 
 import java.net.URI;
@@ -49,6 +50,8 @@ public class HTTPAuthManager {
         httpAuthModel.setRealm(realm);
         // Replace old username / password / realm - URL used as key
         HTTPAuthSqlUtils.insertOrUpdateModel(httpAuthModel);
+        // The stored discovery errors may not apply with the credentials
+        DiscoveryResultSqlUtils.deleteDiscoveryErrors();
     }
 
     private String normalizeURL(String url) {
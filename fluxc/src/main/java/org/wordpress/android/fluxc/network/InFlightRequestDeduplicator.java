@@ -0,0 +1,181 @@
+package org.wordpress.android.fluxc.network;
+
+import androidx.annotation.NonNull;
+
+import com.android.volley.RequestQueue;
+
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.AppLog.T;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Prevents identical GET requests from hitting the network concurrently.
+ *
+ * A request submitted while an identical one (same {@link BaseRequest#getDeduplicationKey()}: method, URL,
+ * credentials and response type) is in flight isn't sent: it's attached to the in-flight request instead, and
+ * receives its own copy of the parsed response, or the same error, when it's delivered.
+ *
+ * Side effects of the response or error (e.g. auth failures, Jetpack timeouts) only happen once, for the in-flight
+ * request. The attached requests only get their listener called. If the in-flight request is going to be sent again
+ * after an error (see {@link BaseRequest#setRetryPending()}), it stays in flight: the attached requests get the
+ * result of the retry instead.
+ *
+ * Cached requests are not handled here, since Volley already holds back duplicates of an in-flight cacheable request.
+ */
+@Singleton
+public class InFlightRequestDeduplicator {
+    private static class InFlightRequest {
+        private final BaseRequest<?> mRequest;
+        private final RequestQueue mRequestQueue;
+        private final List<BaseRequest<?>> mDuplicates = new ArrayList<>();
+        private boolean mDeliveringError;
+
+        InFlightRequest(BaseRequest<?> request, RequestQueue requestQueue) {
+            mRequest = request;
+            mRequestQueue = requestQueue;
+        }
+    }
+
+    private final Map<String, InFlightRequest> mInFlightRequests = new HashMap<>();
+
+    private int mRequestCount;
+    private int mDeduplicatedCount;
+
+    @Inject
+    public InFlightRequestDeduplicator() {
+    }
+
+    /**
+     * If an identical request is already in flight, attaches the given request to it.
+     * Otherwise, tracks the given request as in flight, so identical requests submitted later can be attached to it.
+     *
+     * @return true if the request was attached to an in-flight one and must not be sent, false if it should be sent
+     */
+    public boolean attachIfDuplicate(@NonNull RequestQueue requestQueue, @NonNull BaseRequest<?> request) {
+        String key = request.getDeduplicationKey();
+        if (key == null) {
+            return false;
+        }
+
+        synchronized (mInFlightRequests) {
+            InFlightRequest inFlightRequest = mInFlightRequests.get(key);
+            if (inFlightRequest != null && inFlightRequest.mRequest == request) {
+                // A retry, the request is still in flight along with its attached requests
+                return false;
+            }
+            mRequestCount++;
+            if (inFlightRequest != null && inFlightRequest.mDeliveringError) {
+                // The error being delivered may not apply to a request sent after it, and may be followed by a retry
+                return false;
+            }
+            if (inFlightRequest != null && !inFlightRequest.mRequest.isCanceled()) {
+                inFlightRequest.mDuplicates.add(request);
+                mDeduplicatedCount++;
+                AppLog.d(T.API, "Request already in flight, attaching to it: " + request.getUrl());
+                return true;
+            }
+            mInFlightRequests.put(key, new InFlightRequest(request, requestQueue));
+            request.setInFlightRequestDeduplicator(this, key);
+            return false;
+        }
+    }
+
+    /**
+     * Called before the error of an in-flight request is delivered: no request is attached to it until it's known
+     * whether it's going to be retried (see {@link #onRetryPending(BaseRequest, String)}) or not
+     * (see {@link #onDelivered(BaseRequest, String)}).
+     */
+    void onDeliveringError(@NonNull BaseRequest<?> request, @NonNull String key) {
+        synchronized (mInFlightRequests) {
+            InFlightRequest inFlightRequest = mInFlightRequests.get(key);
+            if (inFlightRequest != null && inFlightRequest.mRequest == request) {
+                inFlightRequest.mDeliveringError = true;
+            }
+        }
+    }
+
+    /**
+     * Called when the error listener of an in-flight request is going to send it again: it stays in flight, and the
+     * requests attached to it will receive the result of the retry.
+     */
+    void onRetryPending(@NonNull BaseRequest<?> request, @NonNull String key) {
+        synchronized (mInFlightRequests) {
+            InFlightRequest inFlightRequest = mInFlightRequests.get(key);
+            if (inFlightRequest != null && inFlightRequest.mRequest == request) {
+                inFlightRequest.mDeliveringError = false;
+            }
+        }
+    }
+
+    /**
+     * Called when an in-flight request is delivered: stops tracking it, and returns the requests that were
+     * attached to it, which should receive the same response.
+     */
+    @NonNull
+    List<BaseRequest<?>> onDelivered(@NonNull BaseRequest<?> request, @NonNull String key) {
+        synchronized (mInFlightRequests) {
+            InFlightRequest inFlightRequest = mInFlightRequests.get(key);
+            if (inFlightRequest == null || inFlightRequest.mRequest != request) {
+                return Collections.emptyList();
+            }
+            mInFlightRequests.remove(key);
+            return inFlightRequest.mDuplicates;
+        }
+    }
+
+    /**
+     * Called when an in-flight request is canceled: the first of the requests attached to it (if any) is sent in its
+     * place, and the others are attached to that one.
+     */
+    void onCanceled(@NonNull BaseRequest<?> request, @NonNull String key) {
+        InFlightRequest replacement = null;
+        synchronized (mInFlightRequests) {
+            InFlightRequest inFlightRequest = mInFlightRequests.get(key);
+            if (inFlightRequest == null || inFlightRequest.mRequest != request) {
+                return;
+            }
+            mInFlightRequests.remove(key);
+            for (BaseRequest<?> duplicate : inFlightRequest.mDuplicates) {
+                if (duplicate.isCanceled()) {
+                    continue;
+                }
+                if (replacement == null) {
+                    replacement = new InFlightRequest(duplicate, inFlightRequest.mRequestQueue);
+                    mInFlightRequests.put(key, replacement);
+                    duplicate.setInFlightRequestDeduplicator(this, key);
+                } else {
+                    replacement.mDuplicates.add(duplicate);
+                }
+            }
+        }
+        if (replacement != null) {
+            replacement.mRequestQueue.add(replacement.mRequest);
+        }
+    }
+
+    /**
+     * Returns the number of requests submitted for deduplication (i.e. eligible GET requests).
+     */
+    public int getRequestCount() {
+        synchronized (mInFlightRequests) {
+            return mRequestCount;
+        }
+    }
+
+    /**
+     * Returns the number of network calls saved, by attaching requests to identical in-flight ones.
+     */
+    public int getDeduplicatedCount() {
+        synchronized (mInFlightRequests) {
+            return mDeduplicatedCount;
+        }
+    }
+}
@@ -5,6 +5,7 @@ import android.content.Context;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import org.wordpress.android.fluxc.persistence.DiscoveryResultSqlUtils;
 import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.AppLog.T;
 
@@ -120,6 +121,8 @@ public class MemorizingTrustManager implements X509TrustManager {
     public void storeCert(X509Certificate cert) {
         try {
             getLocalKeyStore().setCertificateEntry(cert.getSubjectDN().toString(), cert);
+            // The stored discovery errors may not apply with the certificate
+            DiscoveryResultSqlUtils.deleteDiscoveryErrors();
         } catch (KeyStoreException e) {
             AppLog.e(T.API, "Unable to store the certificate: " + cert);
         }
@@ -49,6 +49,8 @@ public class OkHttpStack implements HttpStack {
 
         Builder okHttpRequestBuilder = new okhttp3.Request.Builder();
         okHttpRequestBuilder.url(request.getUrl());
+        // Lets NetworkMetricsEventListener know which retry attempt of the Volley request this call is
+        okHttpRequestBuilder.tag(request);
 
         Map<String, String> headers = request.getHeaders();
         for (final String name : headers.keySet()) {
@@ -0,0 +1,95 @@
+package org.wordpress.android.fluxc.network;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Stores HTTP validators ({@code ETag} and {@code Last-Modified} response headers) per request, to be sent back as
+ * {@code If-None-Match} and {@code If-Modified-Since} by conditional requests
+ * (see {@link BaseRequest#enableConditionalRequest(ResponseValidatorCache, BaseRequest.OnNotModifiedListener)}).
+ *
+ * Only the validators are kept, not the response bodies: a 304 response means the data already persisted locally
+ * is still current, so the validators must be cleared along with that data (the account store clears them on sign
+ * out). Least recently used entries are evicted once {@code maxEntries} is reached.
+ */
+@Singleton
+public class ResponseValidatorCache {
+    public static final int DEFAULT_MAX_ENTRIES = 500;
+
+    public static class Validators {
+        @Nullable public final String eTag;
+        @Nullable public final String lastModified;
+
+        public Validators(@Nullable String eTag, @Nullable String lastModified) {
+            this.eTag = eTag;
+            this.lastModified = lastModified;
+        }
+
+        public boolean isEmpty() {
+            return eTag == null && lastModified == null;
+        }
+    }
+
+    private final Map<String, Validators> mValidators;
+
+    private int mNotModifiedCount;
+
+    @Inject
+    public ResponseValidatorCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    public ResponseValidatorCache(final int maxEntries) {
+        mValidators = new LinkedHashMap<String, Validators>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Entry<String, Validators> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Nullable
+    public synchronized Validators get(@NonNull String key) {
+        return mValidators.get(key);
+    }
+
+    public synchronized void put(@NonNull String key, @NonNull Validators validators) {
+        if (validators.isEmpty()) {
+            mValidators.remove(key);
+        } else {
+            mValidators.put(key, validators);
+        }
+    }
+
+    /**
+     * Forgets the validators for the given key, forcing the next conditional request to fetch the full response.
+     * Should be called whenever the locally persisted data for the request is deleted or invalidated.
+     */
+    public synchronized void remove(@NonNull String key) {
+        mValidators.remove(key);
+    }
+
+    /**
+     * Forgets all validators, e.g. when signing out or clearing the local database.
+     */
+    public synchronized void clear() {
+        mValidators.clear();
+    }
+
+    synchronized void onNotModified() {
+        mNotModifiedCount++;
+    }
+
+    /**
+     * Returns the number of responses that were short-circuited by a 304 Not Modified.
+     */
+    public synchronized int getNotModifiedCount() {
+        return mNotModifiedCount;
+    }
+}
@@ -8,6 +8,7 @@ import com.android.volley.ServerError;
 
 import org.wordpress.android.fluxc.Dispatcher;
 import org.wordpress.android.fluxc.generated.endpoint.XMLRPC;
+import org.wordpress.android.fluxc.network.BaseRequest;
 import org.wordpress.android.fluxc.network.BaseRequestFuture;
 import org.wordpress.android.fluxc.network.HTTPAuthManager;
 import org.wordpress.android.fluxc.network.UserAgent;
@@ -44,8 +45,11 @@ public class DiscoveryXMLRPCClient extends BaseXMLRPCClient {
 
         try {
             return future.get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
-        } catch (InterruptedException | TimeoutException e) {
+        } catch (InterruptedException e) {
+            cancelRequest(request);
+        } catch (TimeoutException e) {
             AppLog.e(AppLog.T.API, "Couldn't get XML-RPC response");
+            request.cancel();
         } catch (ExecutionException e) {
             if (e.getCause() instanceof AuthFailureError) {
                 NetworkResponse networkResponse = ((AuthFailureError) e.getCause()).networkResponse;
@@ -85,8 +89,11 @@ public class DiscoveryXMLRPCClient extends BaseXMLRPCClient {
 
         try {
             return future.get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
-        } catch (InterruptedException | TimeoutException e) {
+        } catch (InterruptedException e) {
+            cancelRequest(request);
+        } catch (TimeoutException e) {
             AppLog.e(AppLog.T.API, "Couldn't get XML-RPC response.");
+            request.cancel();
         } catch (ExecutionException e) {
             if (e.getCause() instanceof AuthFailureError) {
                 NetworkResponse networkResponse = ((AuthFailureError) e.getCause()).networkResponse;
@@ -121,4 +128,14 @@ public class DiscoveryXMLRPCClient extends BaseXMLRPCClient {
         }
         return null;
     }
+
+    /**
+     * Cancels the request of a call whose thread was interrupted, as when the discovery doesn't need its result
+     * anymore, so it doesn't keep using the network. The interrupted status is restored for the caller.
+     */
+    private static void cancelRequest(BaseRequest<?> request) {
+        AppLog.i(AppLog.T.API, "Discovery request cancelled: " + request.getUrl());
+        request.cancel();
+        Thread.currentThread().interrupt();
+    }
 }
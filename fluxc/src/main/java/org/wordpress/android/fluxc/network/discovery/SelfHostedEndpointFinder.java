@@ -4,25 +4,55 @@ import android.text.TextUtils;
 import android.webkit.URLUtil;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import org.wordpress.android.fluxc.BuildConfig;
 import org.wordpress.android.fluxc.Dispatcher;
 import org.wordpress.android.fluxc.Payload;
 import org.wordpress.android.fluxc.generated.AuthenticationActionBuilder;
+import org.wordpress.android.fluxc.model.DiscoveryResultModel;
+import org.wordpress.android.fluxc.persistence.DiscoveryResultSqlUtils;
 import org.wordpress.android.fluxc.store.Store.OnChangedError;
 import org.wordpress.android.fluxc.utils.WPUrlUtils;
 import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.AppLog.T;
+import org.wordpress.android.util.StringUtils;
 import org.wordpress.android.util.UrlUtils;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public class SelfHostedEndpointFinder {
     public static final int TIMEOUT_MS = 60000;
+    /**
+     * Delay before a candidate URL is probed if the previous candidate hasn't answered yet.
+     */
+    public static final int PROBE_STAGGER_MS = 1000;
+    /**
+     * How long a candidate URL is still waited for once a candidate of lower priority has been verified.
+     */
+    public static final int PROBE_PRIORITY_WAIT_MS = 2000;
+    private static final int PROBE_POLL_MS = 100;
 
+    private final ExecutorService mExecutor = Executors.newCachedThreadPool();
     private final Dispatcher mDispatcher;
     private final DiscoveryXMLRPCClient mDiscoveryXMLRPCClient;
     private final DiscoveryWPAPIRestClient mDiscoveryWPAPIRestClient;
@@ -72,30 +102,127 @@ public class SelfHostedEndpointFinder {
         mDiscoveryWPAPIRestClient = discoveryWPAPIRestClient;
     }
 
+    /**
+     * Finds the XML-RPC and WP-API endpoints of the site at the given URL, and dispatches the result.
+     *
+     * The endpoints found for a site are stored, and so are the errors requiring user interaction (HTTP auth or an
+     * untrusted certificate). When logging into the same site again, the stored result is dispatched right away, and
+     * the discovery runs in the background to update it: if it finds a different result, that one is dispatched too.
+     */
     public void findEndpoint(final String url) {
-        new Thread(new Runnable() {
+        mExecutor.execute(new Runnable() {
             @Override
             public void run() {
-                try {
-                    String wpRestEndpoint = "";
-                    if (BuildConfig.ENABLE_WPAPI) {
-                        wpRestEndpoint = discoverWPRESTEndpoint(url);
+                String cacheKey = getDiscoveryCacheKey(url);
+                DiscoveryResultPayload cachedPayload = null;
+                if (cacheKey != null) {
+                    DiscoveryResultModel cachedResult = DiscoveryResultSqlUtils.getDiscoveryResult(cacheKey);
+                    cachedPayload = cachedResult != null ? toPayload(cachedResult) : null;
+                }
+                if (cachedPayload != null) {
+                    AppLog.i(T.NUX, "Using the stored discovery result of " + cacheKey + ", revalidating it");
+                    mDispatcher.dispatch(AuthenticationActionBuilder.newDiscoveryResultAction(cachedPayload));
+                }
+
+                DiscoveryResultPayload payload = discoverEndpoints(url);
+                boolean isStoredResult = !payload.isError() || isStopError(payload.error);
+
+                if (cacheKey != null) {
+                    if (isStoredResult) {
+                        DiscoveryResultSqlUtils.insertOrReplaceDiscoveryResult(toModel(cacheKey, payload));
+                    } else {
+                        // Other errors, e.g. network ones, aren't a property of the site
+                        DiscoveryResultSqlUtils.deleteDiscoveryResult(cacheKey);
                     }
-                    // TODO: Eventually make the XML-RPC discovery only run if WP-API discovery fails
-                    String xmlRpcEndpoint = verifyOrDiscoverXMLRPCEndpoint(url);
-                    DiscoveryResultPayload payload = new DiscoveryResultPayload(xmlRpcEndpoint, wpRestEndpoint);
+                }
+
+                if (cachedPayload == null) {
                     mDispatcher.dispatch(AuthenticationActionBuilder.newDiscoveryResultAction(payload));
-                } catch (DiscoveryException e) {
-                    // TODO: Handle tracking of XMLRPCDiscoveryException
-                    // If a DiscoveryException is caught this high up, it means that either:
-                    // 1. The discovery process has completed, and did not turn up a valid WordPress.com site
-                    // 2. Discovery was halted early because the given site requires SSL validation, or HTTP AUTH login,
-                    // or is a WordPress.com site, or is a completely invalid URL
-                    DiscoveryResultPayload payload = new DiscoveryResultPayload(e.discoveryError, e.failedUrl);
+                } else if (isStoredResult && !isSameResult(cachedPayload, payload)) {
+                    AppLog.i(T.NUX, "The discovery result of " + cacheKey + " changed, dispatching it");
                     mDispatcher.dispatch(AuthenticationActionBuilder.newDiscoveryResultAction(payload));
                 }
             }
-        }).start();
+        });
+    }
+
+    private static @Nullable DiscoveryResultPayload toPayload(@NonNull DiscoveryResultModel result) {
+        if (result.getDiscoveryError() == null) {
+            return new DiscoveryResultPayload(result.getXmlRpcEndpoint(), result.getWpRestEndpoint());
+        }
+        DiscoveryError error = result.getDiscoveryErrorType();
+        return error != null ? new DiscoveryResultPayload(error, result.getFailedEndpoint()) : null;
+    }
+
+    private static DiscoveryResultModel toModel(String cacheKey, DiscoveryResultPayload payload) {
+        DiscoveryResultModel result = new DiscoveryResultModel();
+        result.setSiteUrl(cacheKey);
+        if (payload.isError()) {
+            result.setDiscoveryError(payload.error.name());
+            result.setFailedEndpoint(payload.failedEndpoint);
+        } else {
+            result.setXmlRpcEndpoint(payload.xmlRpcEndpoint);
+            result.setWpRestEndpoint(payload.wpRestEndpoint);
+        }
+        return result;
+    }
+
+    private static boolean isSameResult(DiscoveryResultPayload first, DiscoveryResultPayload second) {
+        return first.error == second.error
+               && StringUtils.equals(first.failedEndpoint, second.failedEndpoint)
+               && StringUtils.equals(first.xmlRpcEndpoint, second.xmlRpcEndpoint)
+               && StringUtils.equals(first.wpRestEndpoint, second.wpRestEndpoint);
+    }
+
+    private DiscoveryResultPayload discoverEndpoints(final String url) {
+        // WP-API and XML-RPC discovery are independent, run them side by side
+        Future<String> wpRestFuture = null;
+        if (BuildConfig.ENABLE_WPAPI) {
+            wpRestFuture = mExecutor.submit(new Callable<String>() {
+                @Override
+                public String call() throws DiscoveryException {
+                    return discoverWPRESTEndpoint(url);
+                }
+            });
+        }
+        try {
+            // TODO: Eventually make the XML-RPC discovery only run if WP-API discovery fails
+            String xmlRpcEndpoint = verifyOrDiscoverXMLRPCEndpoint(url);
+            String wpRestEndpoint = wpRestFuture != null ? awaitProbe(wpRestFuture) : "";
+            return new DiscoveryResultPayload(xmlRpcEndpoint, wpRestEndpoint);
+        } catch (DiscoveryException e) {
+            // TODO: Handle tracking of XMLRPCDiscoveryException
+            // If a DiscoveryException is caught this high up, it means that either:
+            // 1. The discovery process has completed, and did not turn up a valid WordPress.com site
+            // 2. Discovery was halted early because the given site requires SSL validation, or HTTP AUTH login,
+            // or is a WordPress.com site, or is a completely invalid URL
+            DiscoveryException error = e;
+            if (wpRestFuture != null) {
+                // WP-API discovery ran first before, keep reporting its errors first
+                try {
+                    awaitProbe(wpRestFuture);
+                } catch (DiscoveryException wpRestError) {
+                    error = wpRestError;
+                } catch (RuntimeException ignored) {
+                }
+            }
+            return new DiscoveryResultPayload(error.discoveryError, error.failedUrl);
+        }
+    }
+
+    /**
+     * Returns the site URL without its scheme, known trailing paths and trailing slashes, in lower case, or null if
+     * it's not a valid URL.
+     */
+    private String getDiscoveryCacheKey(String siteUrl) {
+        if (TextUtils.isEmpty(siteUrl)) {
+            return null;
+        }
+        try {
+            return UrlUtils.removeScheme(sanitizeSiteUrl(siteUrl, false)).toLowerCase(Locale.ROOT);
+        } catch (DiscoveryException | RuntimeException e) {
+            return null;
+        }
     }
 
     private String verifyOrDiscoverXMLRPCEndpoint(final String siteUrl) throws DiscoveryException {
@@ -155,29 +282,57 @@ public class SelfHostedEndpointFinder {
     }
 
     private String verifyXMLRPCUrl(@NonNull final String siteUrl) throws DiscoveryException {
-        // Ordered set of Strings that contains the URLs we want to try
-        final LinkedHashSet<String> urlsToTry = getOrderedVerifyUrlsToTry(siteUrl);
+        // Ordered list of Strings that contains the URLs we want to try
+        final List<String> urlsToTry = new ArrayList<>(getOrderedVerifyUrlsToTry(siteUrl));
 
         AppLog.i(T.NUX, "Calling system.listMethods on the following URLs: " + urlsToTry);
-        for (String url : urlsToTry) {
-            try {
-                if (checkXMLRPCEndpointValidity(url)) {
-                    // Endpoint found and works fine.
-                    return url;
-                }
-            } catch (DiscoveryException e) {
-                // Stop execution for errors requiring user interaction
-                if (e.discoveryError == DiscoveryError.ERRONEOUS_SSL_CERTIFICATE
-                    || e.discoveryError == DiscoveryError.HTTP_AUTH_REQUIRED
-                    || e.discoveryError == DiscoveryError.MISSING_XMLRPC_METHOD
-                    || e.discoveryError == DiscoveryError.XMLRPC_BLOCKED) {
-                    throw e;
+        // The URLs are probed concurrently, but their results are still checked in order: a URL is only picked if
+        // all the URLs before it failed, or didn't answer within PROBE_PRIORITY_WAIT_MS of a later URL being verified
+        final List<Future<Boolean>> probes = startProbes(urlsToTry, new Probe<Boolean>() {
+            @Override
+            public Boolean run(String url) throws DiscoveryException {
+                return checkXMLRPCEndpointValidity(url);
+            }
+        });
+        try {
+            long priorityDeadline = Long.MAX_VALUE;
+            for (int i = 0; i < urlsToTry.size(); i++) {
+                try {
+                    Boolean verified = null;
+                    while (verified == null) {
+                        try {
+                            verified = awaitProbe(probes.get(i), PROBE_POLL_MS);
+                        } catch (TimeoutException e) {
+                            List<Future<Boolean>> laterProbes = probes.subList(i + 1, probes.size());
+                            if (priorityDeadline == Long.MAX_VALUE && isAnyProbeVerified(laterProbes)) {
+                                priorityDeadline = System.currentTimeMillis() + PROBE_PRIORITY_WAIT_MS;
+                            }
+                            if (System.currentTimeMillis() >= priorityDeadline) {
+                                AppLog.i(T.NUX, "No answer from " + urlsToTry.get(i) + ", trying the next URLs");
+                                verified = false;
+                            }
+                        }
+                    }
+                    if (verified) {
+                        // Endpoint found and works fine.
+                        return urlsToTry.get(i);
+                    }
+                } catch (DiscoveryException e) {
+                    // Stop execution for errors requiring user interaction
+                    if (e.discoveryError == DiscoveryError.ERRONEOUS_SSL_CERTIFICATE
+                        || e.discoveryError == DiscoveryError.HTTP_AUTH_REQUIRED
+                        || e.discoveryError == DiscoveryError.MISSING_XMLRPC_METHOD
+                        || e.discoveryError == DiscoveryError.XMLRPC_BLOCKED) {
+                        throw e;
+                    }
+                    // Otherwise. swallow the error since we are just verifying various URLs
+                } catch (RuntimeException re) {
+                    // Depending how corrupt the user entered URL is, it can generate several kinds of runtime
+                    // exceptions, ignore them
                 }
-                // Otherwise. swallow the error since we are just verifying various URLs
-            } catch (RuntimeException re) {
-                // Depending how corrupt the user entered URL is, it can generate several kinds of runtime exceptions,
-                // ignore them
             }
+        } finally {
+            cancelProbes(probes);
         }
         // Input url was not verified to be working
         return null;
@@ -204,15 +359,39 @@ public class SelfHostedEndpointFinder {
 
         AppLog.i(AppLog.T.NUX, "Running RSD discovery process on the following URLs: " + urlsToTry);
 
+        final List<String> validUrls = new ArrayList<>();
+        for (String currentURL : urlsToTry) {
+            if (URLUtil.isValidUrl(currentURL)) {
+                validUrls.add(currentURL);
+            }
+        }
+
+        // Download the HTML content of all the URLs concurrently, and process it in order
+        final List<Future<String>> htmlDownloads = startProbes(validUrls, new Probe<String>() {
+            @Override
+            public String run(String currentURL) throws DiscoveryException {
+                AppLog.i(AppLog.T.NUX, "Downloading the HTML content at the following URL: " + currentURL);
+                return mDiscoveryXMLRPCClient.getResponse(currentURL);
+            }
+        });
+        try {
+            return findXMLRPCEndpointInHtml(htmlDownloads);
+        } finally {
+            cancelProbes(htmlDownloads);
+        }
+    }
+
+    private String findXMLRPCEndpointInHtml(List<Future<String>> htmlDownloads) throws DiscoveryException {
         String xmlrpcUrl = null;
         boolean isWpSite = false;
-        for (String currentURL : urlsToTry) {
-            if (!URLUtil.isValidUrl(currentURL)) {
+        for (Future<String> htmlDownload : htmlDownloads) {
+            String responseHTML;
+            try {
+                responseHTML = awaitProbe(htmlDownload);
+            } catch (CancellationException e) {
+                // Not downloaded because of an error requiring user interaction, which a later download failed with
                 continue;
             }
-            // Download the HTML content
-            AppLog.i(AppLog.T.NUX, "Downloading the HTML content at the following URL: " + currentURL);
-            String responseHTML = mDiscoveryXMLRPCClient.getResponse(currentURL);
             if (TextUtils.isEmpty(responseHTML)) {
                 AppLog.w(AppLog.T.NUX, "Content downloaded but it's empty or null. Skipping this URL");
                 continue;
@@ -267,6 +446,184 @@ public class SelfHostedEndpointFinder {
         }
     }
 
+    private interface Probe<T> {
+        T run(String url) throws DiscoveryException;
+    }
+
+    /**
+     * Starts running the probe on each of the URLs, in order, https URLs first. Each probe starts when the previous
+     * one completes, or after {@link #PROBE_STAGGER_MS} if the previous one is still waiting for an answer, so a slow
+     * or unreachable URL doesn't hold back the next ones. Plain http URLs are only probed once all the https ones
+     * completed, so the site isn't reached over http when https fails with an error requiring user interaction.
+     *
+     * Once a probe fails with such an error (see {@link #isStopError}), the probes of the URLs after it, and of the
+     * plain http URLs if it was an https one, are cancelled or don't start: their results can't be used anymore.
+     * Their futures then fail with a {@link CancellationException}.
+     *
+     * @return the probes, in the order of {@code urls}
+     */
+    private <T> List<Future<T>> startProbes(final List<String> urls, final Probe<T> probe) {
+        final AtomicReferenceArray<Future<T>> probes = new AtomicReferenceArray<>(urls.size());
+        final AtomicInteger firstStopIndex = new AtomicInteger(Integer.MAX_VALUE);
+        final AtomicBoolean secureProbeStopped = new AtomicBoolean();
+
+        List<Integer> startOrder = new ArrayList<>(urls.size());
+        for (int i = 0; i < urls.size(); i++) {
+            if (!isPlainHttpUrl(urls.get(i))) {
+                startOrder.add(i);
+            }
+        }
+        for (int i = 0; i < urls.size(); i++) {
+            if (isPlainHttpUrl(urls.get(i))) {
+                startOrder.add(i);
+            }
+        }
+
+        final List<CountDownLatch> secureProbesCompleted = new ArrayList<>();
+        CountDownLatch previousStarted = null;
+        CountDownLatch previousCompleted = null;
+        for (final int index : startOrder) {
+            final String url = urls.get(index);
+            final boolean isPlainHttp = isPlainHttpUrl(url);
+            final List<CountDownLatch> waitForSecureProbes = isPlainHttp
+                    ? new ArrayList<>(secureProbesCompleted) : Collections.<CountDownLatch>emptyList();
+            final CountDownLatch waitForStart = previousStarted;
+            final CountDownLatch waitForCompletion = previousCompleted;
+            final CountDownLatch started = new CountDownLatch(1);
+            final CountDownLatch completed = new CountDownLatch(1);
+            probes.set(index, mExecutor.submit(new Callable<T>() {
+                @Override
+                public T call() throws Exception {
+                    try {
+                        if (waitForStart != null) {
+                            waitForStart.await();
+                            waitForCompletion.await(PROBE_STAGGER_MS, TimeUnit.MILLISECONDS);
+                        }
+                        for (CountDownLatch secureProbeCompleted : waitForSecureProbes) {
+                            secureProbeCompleted.await();
+                        }
+                        if (index > firstStopIndex.get() || (isPlainHttp && secureProbeStopped.get())) {
+                            throw new CancellationException("Not probing " + url + " after an error requiring "
+                                                            + "user interaction");
+                        }
+                        started.countDown();
+                        return probe.run(url);
+                    } catch (DiscoveryException e) {
+                        if (isStopError(e.discoveryError)) {
+                            stopProbes(index, isPlainHttp);
+                        }
+                        throw e;
+                    } finally {
+                        // Let the next probe start right away if this one was cancelled or failed early
+                        started.countDown();
+                        completed.countDown();
+                    }
+                }
+
+                private void stopProbes(int stopIndex, boolean isPlainHttpStop) {
+                    int first;
+                    do {
+                        first = firstStopIndex.get();
+                    } while (stopIndex < first && !firstStopIndex.compareAndSet(first, stopIndex));
+                    if (!isPlainHttpStop) {
+                        secureProbeStopped.set(true);
+                    }
+                    for (int i = 0; i < probes.length(); i++) {
+                        Future<T> other = probes.get(i);
+                        boolean isStopped = i > stopIndex || (!isPlainHttpStop && isPlainHttpUrl(urls.get(i)));
+                        if (other != null && i != stopIndex && isStopped) {
+                            other.cancel(true);
+                        }
+                    }
+                }
+            }));
+            if (!isPlainHttp) {
+                secureProbesCompleted.add(completed);
+            }
+            previousStarted = started;
+            previousCompleted = completed;
+        }
+
+        List<Future<T>> orderedProbes = new ArrayList<>(urls.size());
+        for (int i = 0; i < urls.size(); i++) {
+            orderedProbes.add(probes.get(i));
+        }
+        return orderedProbes;
+    }
+
+    private static boolean isPlainHttpUrl(String url) {
+        return url.toLowerCase(Locale.ROOT).startsWith("http://");
+    }
+
+    /**
+     * Errors requiring user interaction, e.g. accepting the certificate or entering HTTP auth credentials, after
+     * which the discovery stops.
+     */
+    private static boolean isStopError(DiscoveryError error) {
+        return error == DiscoveryError.ERRONEOUS_SSL_CERTIFICATE || error == DiscoveryError.HTTP_AUTH_REQUIRED;
+    }
+
+    /**
+     * Waits for the result of a probe started with {@link #startProbes}, rethrowing the exception it failed with.
+     */
+    private static <T> T awaitProbe(Future<T> probe) throws DiscoveryException {
+        try {
+            return probe.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DiscoveryException(DiscoveryError.GENERIC_ERROR, null);
+        } catch (ExecutionException e) {
+            throw getProbeFailure(e);
+        }
+    }
+
+    /**
+     * Waits at most {@code timeoutMs} for the result of a probe started with {@link #startProbes}, rethrowing the
+     * exception it failed with.
+     */
+    private static <T> T awaitProbe(Future<T> probe, long timeoutMs) throws DiscoveryException, TimeoutException {
+        try {
+            return probe.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DiscoveryException(DiscoveryError.GENERIC_ERROR, null);
+        } catch (ExecutionException e) {
+            throw getProbeFailure(e);
+        }
+    }
+
+    private static DiscoveryException getProbeFailure(ExecutionException e) {
+        if (e.getCause() instanceof DiscoveryException) {
+            return (DiscoveryException) e.getCause();
+        } else if (e.getCause() instanceof RuntimeException) {
+            throw (RuntimeException) e.getCause();
+        }
+        return new DiscoveryException(DiscoveryError.GENERIC_ERROR, null);
+    }
+
+    private static boolean isAnyProbeVerified(List<Future<Boolean>> probes) {
+        for (Future<Boolean> probe : probes) {
+            try {
+                if (probe.isDone() && !probe.isCancelled() && Boolean.TRUE.equals(probe.get())) {
+                    return true;
+                }
+            } catch (InterruptedException | ExecutionException e) {
+                // Failed probes don't count
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Cancels the probes whose results aren't needed anymore, interrupting their pending requests, which are
+     * cancelled by {@link DiscoveryXMLRPCClient}.
+     */
+    private static <T> void cancelProbes(List<Future<T>> probes) {
+        for (Future<T> probe : probes) {
+            probe.cancel(true);
+        }
+    }
+
     /**
      * Regex pattern for matching the RSD link found in most WordPress sites.
      */
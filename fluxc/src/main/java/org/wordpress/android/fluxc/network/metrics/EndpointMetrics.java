@@ -0,0 +1,153 @@
+package org.wordpress.android.fluxc.network.metrics;
+
+import androidx.annotation.NonNull;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Metrics aggregated for all calls to an endpoint (see {@link RequestMetrics#getEndpointKey()}).
+ *
+ * Instances returned by {@link NetworkMetrics#getEndpointMetrics()} are snapshots, and won't change afterwards.
+ */
+public class EndpointMetrics {
+    @NonNull private final String mEndpointKey;
+    private final Histogram mDnsMs;
+    private final Histogram mConnectMs;
+    private final Histogram mTlsMs;
+    private final Histogram mTtfbMs;
+    private final Histogram mTotalMs;
+    private final Histogram mRequestBytes;
+    private final Histogram mResponseBytes;
+    private final Map<Integer, Integer> mStatusCounts;
+    private int mCallCount;
+    private int mRetryCount;
+    private int mFailureCount;
+
+    EndpointMetrics(@NonNull String endpointKey) {
+        mEndpointKey = endpointKey;
+        mDnsMs = new Histogram(Histogram.LATENCY_BUCKETS_MS);
+        mConnectMs = new Histogram(Histogram.LATENCY_BUCKETS_MS);
+        mTlsMs = new Histogram(Histogram.LATENCY_BUCKETS_MS);
+        mTtfbMs = new Histogram(Histogram.LATENCY_BUCKETS_MS);
+        mTotalMs = new Histogram(Histogram.LATENCY_BUCKETS_MS);
+        mRequestBytes = new Histogram(Histogram.SIZE_BUCKETS_BYTES);
+        mResponseBytes = new Histogram(Histogram.SIZE_BUCKETS_BYTES);
+        mStatusCounts = new HashMap<>();
+    }
+
+    private EndpointMetrics(EndpointMetrics other) {
+        mEndpointKey = other.mEndpointKey;
+        mDnsMs = other.mDnsMs.copy();
+        mConnectMs = other.mConnectMs.copy();
+        mTlsMs = other.mTlsMs.copy();
+        mTtfbMs = other.mTtfbMs.copy();
+        mTotalMs = other.mTotalMs.copy();
+        mRequestBytes = other.mRequestBytes.copy();
+        mResponseBytes = other.mResponseBytes.copy();
+        mStatusCounts = new HashMap<>(other.mStatusCounts);
+        mCallCount = other.mCallCount;
+        mRetryCount = other.mRetryCount;
+        mFailureCount = other.mFailureCount;
+    }
+
+    void record(@NonNull RequestMetrics metrics) {
+        mCallCount++;
+        if (metrics.attempt > 0) {
+            mRetryCount++;
+        }
+        if (metrics.statusCode == RequestMetrics.NO_STATUS) {
+            mFailureCount++;
+        } else {
+            Integer count = mStatusCounts.get(metrics.statusCode);
+            mStatusCounts.put(metrics.statusCode, count == null ? 1 : count + 1);
+        }
+        recordIfMeasured(mDnsMs, metrics.dnsMs);
+        recordIfMeasured(mConnectMs, metrics.connectMs);
+        recordIfMeasured(mTlsMs, metrics.tlsMs);
+        recordIfMeasured(mTtfbMs, metrics.ttfbMs);
+        recordIfMeasured(mTotalMs, metrics.totalMs);
+        recordIfMeasured(mRequestBytes, metrics.requestBytes);
+        recordIfMeasured(mResponseBytes, metrics.responseBytes);
+    }
+
+    @NonNull
+    EndpointMetrics copy() {
+        return new EndpointMetrics(this);
+    }
+
+    private static void recordIfMeasured(Histogram histogram, long value) {
+        if (value != RequestMetrics.NOT_MEASURED) {
+            histogram.record(value);
+        }
+    }
+
+    @NonNull
+    public String getEndpointKey() {
+        return mEndpointKey;
+    }
+
+    /**
+     * Returns the number of HTTP calls made to this endpoint, retries included.
+     */
+    public int getCallCount() {
+        return mCallCount;
+    }
+
+    /**
+     * Returns the number of calls that were retries of a previous call (see {@link RequestMetrics#attempt}).
+     */
+    public int getRetryCount() {
+        return mRetryCount;
+    }
+
+    /**
+     * Returns the number of calls that failed without a response (e.g. timeouts, connection errors).
+     */
+    public int getFailureCount() {
+        return mFailureCount;
+    }
+
+    /**
+     * Returns the number of responses received, by HTTP status code.
+     */
+    @NonNull
+    public Map<Integer, Integer> getStatusCounts() {
+        return new HashMap<>(mStatusCounts);
+    }
+
+    @NonNull
+    public Histogram getDnsMs() {
+        return mDnsMs;
+    }
+
+    @NonNull
+    public Histogram getConnectMs() {
+        return mConnectMs;
+    }
+
+    @NonNull
+    public Histogram getTlsMs() {
+        return mTlsMs;
+    }
+
+    @NonNull
+    public Histogram getTtfbMs() {
+        return mTtfbMs;
+    }
+
+    @NonNull
+    public Histogram getTotalMs() {
+        return mTotalMs;
+    }
+
+    @NonNull
+    public Histogram getRequestBytes() {
+        return mRequestBytes;
+    }
+
+    @NonNull
+    public Histogram getResponseBytes() {
+        return mResponseBytes;
+    }
+}
@@ -0,0 +1,132 @@
+package org.wordpress.android.fluxc.network.metrics;
+
+import androidx.annotation.NonNull;
+
+import org.wordpress.android.fluxc.generated.endpoint.WPAPI;
+import org.wordpress.android.fluxc.generated.endpoint.WPCOMREST;
+import org.wordpress.android.fluxc.generated.endpoint.WPCOMV2;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import okhttp3.HttpUrl;
+
+/**
+ * Reduces request URLs to endpoint templates (e.g. 'https://public-api.wordpress.com/rest/v1.1/sites/123/posts/'
+ * to '/sites/$site/posts/'), so metrics can be aggregated per endpoint rather than per URL.
+ *
+ * - WordPress.com v1.x and v2 URLs are matched against the generated {@link WPCOMREST} and {@link WPCOMV2} templates.
+ * - Jetpack tunnel URLs also keep the (normalized) WP-API path they target, e.g.
+ * '/jetpack-blogs/$site/rest-api/?path=/wp/v2/posts/&lt;id&gt;/'.
+ * - Self-hosted WP-API URLs are matched against the generated {@link WPAPI} templates, and XML-RPC calls all map to
+ * '/xmlrpc.php'.
+ *
+ * Paths that don't match any template have their numeric segments replaced by '$id'.
+ */
+public class EndpointNormalizer {
+    private static final String WPCOM_API_HOST = "public-api.wordpress.com";
+    private static final String WPCOM_V2_PREFIX = "/wpcom/v2";
+    private static final String WPAPI_V2_PREFIX = "/wp/v2";
+    private static final String WP_JSON_SEGMENT = "/wp-json";
+    private static final String XMLRPC_PATH = "/xmlrpc.php";
+    private static final String JETPACK_TUNNEL_TEMPLATE = "/jetpack-blogs/$site/rest-api/";
+    private static final String JETPACK_TUNNEL_PATH_PARAM = "path";
+    private static final String ID_PLACEHOLDER = "$id";
+
+    private static final Pattern WPCOM_V1_PREFIX_PATTERN = Pattern.compile("^/rest/v1(?:\\.\\d)?(/.*)$");
+    private static final Pattern NUMERIC_SEGMENT_PATTERN = Pattern.compile("(?<=/)\\d+(?=/|$)");
+
+    private final EndpointTemplateMatcher mWPComMatcher;
+    private final EndpointTemplateMatcher mWPComV2Matcher;
+    private final EndpointTemplateMatcher mWPAPIMatcher;
+
+    public EndpointNormalizer() {
+        this(new EndpointTemplateMatcher(WPCOMREST.ENDPOINT_TEMPLATES),
+                new EndpointTemplateMatcher(WPCOMV2.ENDPOINT_TEMPLATES),
+                new EndpointTemplateMatcher(WPAPI.ENDPOINT_TEMPLATES));
+    }
+
+    public EndpointNormalizer(@NonNull EndpointTemplateMatcher wpComMatcher,
+                              @NonNull EndpointTemplateMatcher wpComV2Matcher,
+                              @NonNull EndpointTemplateMatcher wpApiMatcher) {
+        mWPComMatcher = wpComMatcher;
+        mWPComV2Matcher = wpComV2Matcher;
+        mWPAPIMatcher = wpApiMatcher;
+    }
+
+    /**
+     * Registers additional WP-API templates (relative to '/wp-json'), e.g. plugin endpoints like
+     * {@code WOOCOMMERCE.ENDPOINT_TEMPLATES}, prefixed with their namespace.
+     */
+    public void addWPAPITemplates(@NonNull String namespace, @NonNull String[] templates) {
+        String[] prefixedTemplates = new String[templates.length];
+        for (int i = 0; i < templates.length; i++) {
+            prefixedTemplates[i] = namespace + templates[i];
+        }
+        mWPAPIMatcher.addTemplates(prefixedTemplates);
+    }
+
+    @NonNull
+    public String normalize(@NonNull HttpUrl url) {
+        String path = url.encodedPath();
+
+        if (WPCOM_API_HOST.equals(url.host())) {
+            Matcher v1Matcher = WPCOM_V1_PREFIX_PATTERN.matcher(path);
+            if (v1Matcher.matches()) {
+                String template = matchOrGeneralize(mWPComMatcher, v1Matcher.group(1));
+                if (JETPACK_TUNNEL_TEMPLATE.equals(template)) {
+                    String tunneledPath = url.queryParameter(JETPACK_TUNNEL_PATH_PARAM);
+                    if (tunneledPath != null) {
+                        return template + "?path=" + normalizeWPAPIPath(stripQuery(tunneledPath));
+                    }
+                }
+                return template;
+            }
+            if (path.startsWith(WPCOM_V2_PREFIX + "/")) {
+                return WPCOM_V2_PREFIX + matchOrGeneralize(mWPComV2Matcher,
+                        path.substring(WPCOM_V2_PREFIX.length()));
+            }
+            return generalize(path);
+        }
+
+        if (path.endsWith(XMLRPC_PATH)) {
+            return XMLRPC_PATH;
+        }
+
+        int wpJsonIndex = path.indexOf(WP_JSON_SEGMENT + "/");
+        if (wpJsonIndex >= 0) {
+            return WP_JSON_SEGMENT + normalizeWPAPIPath(path.substring(wpJsonIndex + WP_JSON_SEGMENT.length()));
+        }
+
+        return generalize(path);
+    }
+
+    private String normalizeWPAPIPath(String path) {
+        if (path.startsWith(WPAPI_V2_PREFIX + "/")) {
+            String template = mWPAPIMatcher.match(path.substring(WPAPI_V2_PREFIX.length()));
+            if (template != null) {
+                return WPAPI_V2_PREFIX + template;
+            }
+        }
+        return matchOrGeneralize(mWPAPIMatcher, path);
+    }
+
+    private static String matchOrGeneralize(EndpointTemplateMatcher matcher, String path) {
+        String template = matcher.match(path);
+        return template != null ? template : generalize(path);
+    }
+
+    private static String generalize(String path) {
+        return NUMERIC_SEGMENT_PATTERN.matcher(path).replaceAll(Matcher.quoteReplacement(ID_PLACEHOLDER));
+    }
+
+    private static String stripQuery(String path) {
+        // Tunneled paths carry their own arguments, e.g. '/wp/v2/posts/&_method=get&status=draft'
+        int end = path.length();
+        int ampersandIndex = path.indexOf('&');
+        int questionMarkIndex = path.indexOf('?');
+        if (ampersandIndex >= 0) end = ampersandIndex;
+        if (questionMarkIndex >= 0) end = Math.min(end, questionMarkIndex);
+        return path.substring(0, end);
+    }
+}
@@ -0,0 +1,131 @@
+package org.wordpress.android.fluxc.network.metrics;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps request paths back to the endpoint templates they were built from, e.g. '/sites/123/posts/' to
+ * '/sites/$site/posts/'.
+ *
+ * Templates are the ones listed in the generated endpoint classes (e.g. {@code WPCOMREST.ENDPOINT_TEMPLATES}), where
+ * variable segments are written as '$name', '&lt;name&gt;' or '{name}', optionally preceded by a label
+ * ('item:$item'). Literal segments take precedence over variable ones.
+ */
+public class EndpointTemplateMatcher {
+    private static class Node {
+        private final Map<String, Node> mLiteralChildren = new HashMap<>();
+        private final List<Node> mVariableChildren = new ArrayList<>();
+        // For variable nodes, the label preceding the variable (often empty)
+        private final String mVariablePrefix;
+        private String mTemplate;
+
+        Node(String variablePrefix) {
+            mVariablePrefix = variablePrefix;
+        }
+    }
+
+    private final Node mRoot = new Node("");
+
+    public EndpointTemplateMatcher(@NonNull String[]... templateLists) {
+        for (String[] templates : templateLists) {
+            addTemplates(templates);
+        }
+    }
+
+    public synchronized void addTemplates(@NonNull String[] templates) {
+        for (String template : templates) {
+            addTemplate(template);
+        }
+    }
+
+    /**
+     * Returns the template matching the given path (query excluded), or null if none does.
+     */
+    @Nullable
+    public synchronized String match(@NonNull String path) {
+        return match(mRoot, splitPath(path), 0);
+    }
+
+    private void addTemplate(String template) {
+        Node node = mRoot;
+        for (String segment : splitPath(template)) {
+            int variableStart = getVariableStart(segment);
+            if (variableStart < 0) {
+                Node child = node.mLiteralChildren.get(segment);
+                if (child == null) {
+                    child = new Node("");
+                    node.mLiteralChildren.put(segment, child);
+                }
+                node = child;
+            } else {
+                String prefix = segment.substring(0, variableStart);
+                Node child = null;
+                for (Node variableChild : node.mVariableChildren) {
+                    if (variableChild.mVariablePrefix.equals(prefix)) {
+                        child = variableChild;
+                        break;
+                    }
+                }
+                if (child == null) {
+                    child = new Node(prefix);
+                    // Labelled variables ('item:$item') are more specific, try them first
+                    node.mVariableChildren.add(prefix.isEmpty() ? node.mVariableChildren.size() : 0, child);
+                }
+                node = child;
+            }
+        }
+        if (node.mTemplate == null) {
+            node.mTemplate = template;
+        }
+    }
+
+    @Nullable
+    private static String match(Node node, List<String> segments, int index) {
+        if (index == segments.size()) {
+            return node.mTemplate;
+        }
+        String segment = segments.get(index);
+        Node literalChild = node.mLiteralChildren.get(segment);
+        if (literalChild != null) {
+            String template = match(literalChild, segments, index + 1);
+            if (template != null) {
+                return template;
+            }
+        }
+        for (Node variableChild : node.mVariableChildren) {
+            if (segment.length() > variableChild.mVariablePrefix.length()
+                && segment.startsWith(variableChild.mVariablePrefix)) {
+                String template = match(variableChild, segments, index + 1);
+                if (template != null) {
+                    return template;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static int getVariableStart(String segment) {
+        for (int i = 0; i < segment.length(); i++) {
+            char c = segment.charAt(i);
+            if (c == '$' || c == '<' || c == '{') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static List<String> splitPath(String path) {
+        List<String> segments = new ArrayList<>();
+        for (String segment : path.split("/")) {
+            if (!segment.isEmpty()) {
+                segments.add(segment);
+            }
+        }
+        return segments;
+    }
+}
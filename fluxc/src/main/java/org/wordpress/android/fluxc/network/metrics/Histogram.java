@@ -0,0 +1,114 @@
+package org.wordpress.android.fluxc.network.metrics;
+
+import androidx.annotation.NonNull;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-bucket histogram of non-negative values (latencies, byte counts), cheap enough to update for every request.
+ *
+ * Bucket i counts values up to (and including) {@code getBucketBounds()[i]}, and the last bucket counts values
+ * greater than all bounds. Not thread safe: {@link NetworkMetrics} guards all access.
+ */
+public class Histogram {
+    /**
+     * Bucket bounds for durations, in milliseconds.
+     */
+    public static final long[] LATENCY_BUCKETS_MS = {
+            10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000
+    };
+
+    /**
+     * Bucket bounds for payload sizes, in bytes.
+     */
+    public static final long[] SIZE_BUCKETS_BYTES = {
+            256, 1024, 4 * 1024, 16 * 1024, 64 * 1024, 256 * 1024, 1024 * 1024, 4 * 1024 * 1024
+    };
+
+    private final long[] mBucketBounds;
+    private final long[] mBucketCounts;
+    private long mCount;
+    private long mSum;
+    private long mMin = Long.MAX_VALUE;
+    private long mMax = Long.MIN_VALUE;
+
+    public Histogram(@NonNull long[] bucketBounds) {
+        mBucketBounds = bucketBounds;
+        mBucketCounts = new long[bucketBounds.length + 1];
+    }
+
+    private Histogram(Histogram other) {
+        mBucketBounds = other.mBucketBounds;
+        mBucketCounts = Arrays.copyOf(other.mBucketCounts, other.mBucketCounts.length);
+        mCount = other.mCount;
+        mSum = other.mSum;
+        mMin = other.mMin;
+        mMax = other.mMax;
+    }
+
+    public void record(long value) {
+        int index = Arrays.binarySearch(mBucketBounds, value);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        mBucketCounts[index]++;
+        mCount++;
+        mSum += value;
+        mMin = Math.min(mMin, value);
+        mMax = Math.max(mMax, value);
+    }
+
+    @NonNull
+    public Histogram copy() {
+        return new Histogram(this);
+    }
+
+    @NonNull
+    public long[] getBucketBounds() {
+        return Arrays.copyOf(mBucketBounds, mBucketBounds.length);
+    }
+
+    @NonNull
+    public long[] getBucketCounts() {
+        return Arrays.copyOf(mBucketCounts, mBucketCounts.length);
+    }
+
+    public long getCount() {
+        return mCount;
+    }
+
+    public long getSum() {
+        return mSum;
+    }
+
+    public long getMin() {
+        return mCount > 0 ? mMin : 0;
+    }
+
+    public long getMax() {
+        return mCount > 0 ? mMax : 0;
+    }
+
+    public long getMean() {
+        return mCount > 0 ? mSum / mCount : 0;
+    }
+
+    /**
+     * Returns an estimate of the given percentile (0-100): the upper bound of the bucket containing it, or the max
+     * recorded value for the overflow bucket.
+     */
+    public long getPercentile(double percentile) {
+        if (mCount == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(percentile / 100 * mCount);
+        long seen = 0;
+        for (int i = 0; i < mBucketCounts.length; i++) {
+            seen += mBucketCounts[i];
+            if (seen >= rank && mBucketCounts[i] > 0) {
+                return i < mBucketBounds.length ? Math.min(mBucketBounds[i], mMax) : mMax;
+            }
+        }
+        return mMax;
+    }
+}
@@ -0,0 +1,122 @@
+package org.wordpress.android.fluxc.network.metrics;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.AppLog.T;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Collects {@link RequestMetrics} for every HTTP call made through FluxC's OkHttp clients (Volley requests and media
+ * uploads/downloads alike, see {@link NetworkMetricsEventListener}), and aggregates them per endpoint.
+ *
+ * The host app can either pull aggregated histograms with {@link #getEndpointMetrics()}, e.g. to report them
+ * periodically, or receive each call's metrics as they're recorded through an {@link OnRequestMetricsListener}.
+ * The instance collecting FluxC's calls is provided by Dagger.
+ */
+@Singleton
+public class NetworkMetrics {
+    public interface OnRequestMetricsListener {
+        /**
+         * Called on the thread that made the HTTP call (never the main thread).
+         */
+        void onRequestMetrics(@NonNull RequestMetrics metrics);
+    }
+
+    private final Map<String, EndpointMetrics> mEndpointMetrics = new HashMap<>();
+    private final EndpointNormalizer mEndpointNormalizer;
+
+    private volatile boolean mEnabled = true;
+    @Nullable private volatile OnRequestMetricsListener mListener;
+
+    @Inject
+    public NetworkMetrics() {
+        this(new EndpointNormalizer());
+    }
+
+    public NetworkMetrics(@NonNull EndpointNormalizer endpointNormalizer) {
+        mEndpointNormalizer = endpointNormalizer;
+    }
+
+    @NonNull
+    public EndpointNormalizer getEndpointNormalizer() {
+        return mEndpointNormalizer;
+    }
+
+    public boolean isEnabled() {
+        return mEnabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        mEnabled = enabled;
+    }
+
+    public void setOnRequestMetricsListener(@Nullable OnRequestMetricsListener listener) {
+        mListener = listener;
+    }
+
+    public void record(@NonNull RequestMetrics metrics) {
+        if (!mEnabled) {
+            return;
+        }
+
+        synchronized (mEndpointMetrics) {
+            String key = metrics.getEndpointKey();
+            EndpointMetrics endpointMetrics = mEndpointMetrics.get(key);
+            if (endpointMetrics == null) {
+                endpointMetrics = new EndpointMetrics(key);
+                mEndpointMetrics.put(key, endpointMetrics);
+            }
+            endpointMetrics.record(metrics);
+        }
+
+        OnRequestMetricsListener listener = mListener;
+        if (listener != null) {
+            try {
+                listener.onRequestMetrics(metrics);
+            } catch (RuntimeException e) {
+                // A faulty listener shouldn't break the HTTP call it's observing
+                AppLog.e(T.API, "Error in network metrics listener: " + e);
+            }
+        }
+    }
+
+    /**
+     * Returns a snapshot of the metrics aggregated so far, one entry per endpoint, busiest endpoints first.
+     */
+    @NonNull
+    public List<EndpointMetrics> getEndpointMetrics() {
+        List<EndpointMetrics> snapshot = new ArrayList<>();
+        synchronized (mEndpointMetrics) {
+            for (EndpointMetrics endpointMetrics : mEndpointMetrics.values()) {
+                snapshot.add(endpointMetrics.copy());
+            }
+        }
+        Collections.sort(snapshot, new Comparator<EndpointMetrics>() {
+            @Override
+            public int compare(EndpointMetrics first, EndpointMetrics second) {
+                return second.getCallCount() - first.getCallCount();
+            }
+        });
+        return snapshot;
+    }
+
+    /**
+     * Clears the aggregated metrics, e.g. after reporting them.
+     */
+    public void reset() {
+        synchronized (mEndpointMetrics) {
+            mEndpointMetrics.clear();
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package org.wordpress.android.fluxc.network.metrics;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.android.volley.RetryPolicy;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * OkHttp {@link EventListener} measuring each call's phases and sizes, and reporting them to {@link NetworkMetrics}
+ * when the call ends.
+ *
+ * Calls made by Volley requests are tagged with the Volley request (see
+ * {@link org.wordpress.android.fluxc.network.OkHttpStack}), which gives the retry attempt of the call.
+ */
+public class NetworkMetricsEventListener extends EventListener {
+    /**
+     * Returns a factory creating a listener for each call, reporting to the given {@link NetworkMetrics}.
+     */
+    @NonNull
+    public static EventListener.Factory newFactory(@NonNull final NetworkMetrics networkMetrics) {
+        return new EventListener.Factory() {
+            @Override
+            public EventListener create(@NonNull Call call) {
+                return new NetworkMetricsEventListener(networkMetrics);
+            }
+        };
+    }
+
+    private final NetworkMetrics mNetworkMetrics;
+
+    private long mCallStartNs;
+    private long mDnsStartNs;
+    private long mConnectStartNs;
+    private long mSecureConnectStartNs;
+    private long mDnsMs = RequestMetrics.NOT_MEASURED;
+    private long mConnectMs = RequestMetrics.NOT_MEASURED;
+    private long mTlsMs = RequestMetrics.NOT_MEASURED;
+    private long mTtfbMs = RequestMetrics.NOT_MEASURED;
+    private long mRequestBytes = RequestMetrics.NOT_MEASURED;
+    private long mResponseBytes = RequestMetrics.NOT_MEASURED;
+    private int mStatusCode = RequestMetrics.NO_STATUS;
+
+    public NetworkMetricsEventListener(@NonNull NetworkMetrics networkMetrics) {
+        mNetworkMetrics = networkMetrics;
+    }
+
+    @Override
+    public void callStart(Call call) {
+        mCallStartNs = System.nanoTime();
+    }
+
+    @Override
+    public void dnsStart(Call call, String domainName) {
+        mDnsStartNs = System.nanoTime();
+    }
+
+    @Override
+    public void dnsEnd(Call call, String domainName, @Nullable List<InetAddress> inetAddressList) {
+        mDnsMs = elapsedMsSince(mDnsStartNs);
+    }
+
+    @Override
+    public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+        mConnectStartNs = System.nanoTime();
+    }
+
+    @Override
+    public void secureConnectStart(Call call) {
+        mSecureConnectStartNs = System.nanoTime();
+    }
+
+    @Override
+    public void secureConnectEnd(Call call, @Nullable Handshake handshake) {
+        mTlsMs = elapsedMsSince(mSecureConnectStartNs);
+    }
+
+    @Override
+    public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy,
+                           @Nullable Protocol protocol) {
+        mConnectMs = elapsedMsSince(mConnectStartNs);
+    }
+
+    @Override
+    public void connectFailed(Call call, InetSocketAddress inetSocketAddress, Proxy proxy,
+                              @Nullable Protocol protocol, IOException ioe) {
+        mConnectMs = elapsedMsSince(mConnectStartNs);
+    }
+
+    @Override
+    public void requestBodyEnd(Call call, long byteCount) {
+        mRequestBytes = byteCount;
+    }
+
+    @Override
+    public void responseHeadersStart(Call call) {
+        if (mTtfbMs == RequestMetrics.NOT_MEASURED) {
+            mTtfbMs = elapsedMsSince(mCallStartNs);
+        }
+    }
+
+    @Override
+    public void responseHeadersEnd(Call call, Response response) {
+        mStatusCode = response.code();
+    }
+
+    @Override
+    public void responseBodyEnd(Call call, long byteCount) {
+        mResponseBytes = byteCount;
+    }
+
+    @Override
+    public void callEnd(Call call) {
+        report(call, null);
+    }
+
+    @Override
+    public void callFailed(Call call, IOException ioe) {
+        report(call, ioe);
+    }
+
+    private void report(Call call, @Nullable IOException ioe) {
+        if (!mNetworkMetrics.isEnabled()) {
+            return;
+        }
+        Request request = call.request();
+        String endpoint = mNetworkMetrics.getEndpointNormalizer().normalize(request.url());
+        // A failed call may still have received a status code (e.g. the response body couldn't be read)
+        String error = ioe != null ? ioe.getClass().getSimpleName() : null;
+        mNetworkMetrics.record(new RequestMetrics(request.method(), endpoint, mStatusCode, error,
+                getAttempt(request), mDnsMs, mConnectMs, mTlsMs, mTtfbMs, elapsedMsSince(mCallStartNs),
+                mRequestBytes, mResponseBytes));
+    }
+
+    private static int getAttempt(Request request) {
+        Object tag = request.tag();
+        if (tag instanceof com.android.volley.Request) {
+            RetryPolicy retryPolicy = ((com.android.volley.Request<?>) tag).getRetryPolicy();
+            if (retryPolicy != null) {
+                return retryPolicy.getCurrentRetryCount();
+            }
+        }
+        return 0;
+    }
+
+    private static long elapsedMsSince(long startNs) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNs);
+    }
+}
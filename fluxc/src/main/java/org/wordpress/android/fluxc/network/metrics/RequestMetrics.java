@@ -0,0 +1,65 @@
+package org.wordpress.android.fluxc.network.metrics;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Timings and sizes measured for a single HTTP call.
+ *
+ * Durations are in milliseconds, and are {@link #NOT_MEASURED} when the phase didn't happen (e.g. no DNS lookup or
+ * connection setup for a call reusing a pooled connection, no TLS handshake for plain HTTP).
+ */
+public class RequestMetrics {
+    public static final long NOT_MEASURED = -1;
+    public static final int NO_STATUS = -1;
+
+    @NonNull public final String method;
+    @NonNull public final String endpoint;
+    /**
+     * The HTTP status code, or {@link #NO_STATUS} if the call failed without a response (see {@link #error}).
+     */
+    public final int statusCode;
+    /**
+     * The class name of the exception the call failed with, if any.
+     */
+    @Nullable public final String error;
+    /**
+     * 0 for the first attempt, and the retry number for retries made by the request's Volley retry policy.
+     */
+    public final int attempt;
+    public final long dnsMs;
+    public final long connectMs;
+    public final long tlsMs;
+    /**
+     * Time to first byte: from the start of the call to the start of the response headers.
+     */
+    public final long ttfbMs;
+    public final long totalMs;
+    public final long requestBytes;
+    public final long responseBytes;
+
+    public RequestMetrics(@NonNull String method, @NonNull String endpoint, int statusCode, @Nullable String error,
+                          int attempt, long dnsMs, long connectMs, long tlsMs, long ttfbMs, long totalMs,
+                          long requestBytes, long responseBytes) {
+        this.method = method;
+        this.endpoint = endpoint;
+        this.statusCode = statusCode;
+        this.error = error;
+        this.attempt = attempt;
+        this.dnsMs = dnsMs;
+        this.connectMs = connectMs;
+        this.tlsMs = tlsMs;
+        this.ttfbMs = ttfbMs;
+        this.totalMs = totalMs;
+        this.requestBytes = requestBytes;
+        this.responseBytes = responseBytes;
+    }
+
+    /**
+     * The key metrics are aggregated by, e.g. 'GET /sites/$site/posts/'.
+     */
+    @NonNull
+    public String getEndpointKey() {
+        return method + " " + endpoint;
+    }
+}
@@ -17,6 +17,7 @@ import java.io.UnsupportedEncodingException;
 import java.lang.reflect.Type;
 import java.nio.charset.Charset;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public abstract class GsonRequest<T> extends BaseRequest<T> {
@@ -30,6 +31,10 @@ public abstract class GsonRequest<T> extends BaseRequest<T> {
     private final Map<String, String> mParams;
     private final Map<String, Object> mBody;
 
+    private volatile boolean mNotModified;
+    // Kept to parse a separate copy of the response for each duplicate request (see InFlightRequestDeduplicator)
+    private volatile String mResponseJson;
+
     protected GsonRequest(int method, Map<String, String> params, Map<String, Object> body, String url, Class<T> clazz,
                        Type type, Listener<T> listener, BaseErrorListener errorListener) {
         super(method, url, errorListener);
@@ -49,8 +54,44 @@ public abstract class GsonRequest<T> extends BaseRequest<T> {
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     protected void deliverResponse(T response) {
+        if (mNotModified) {
+            deliverNotModified();
+            return;
+        }
+        List<BaseRequest<?>> duplicates = takeDuplicateRequests();
         mListener.onResponse(response);
+        for (BaseRequest<?> duplicate : duplicates) {
+            if (!duplicate.isCanceled()) {
+                // Duplicates share the deduplication key, and so the request class and the response type
+                ((GsonRequest<T>) duplicate).deliverDuplicateResponse(mResponseJson);
+            }
+        }
+    }
+
+    /**
+     * Delivers the response of the identical request this one was attached to. Only the listener is called: the side
+     * effects of the response already happened for that request. The response is parsed again, so listeners don't
+     * share (and can't alter) each other's response.
+     */
+    private void deliverDuplicateResponse(String json) {
+        try {
+            mListener.onResponse(parseJson(json));
+        } catch (JsonSyntaxException e) {
+            // Can't happen, the same JSON was already parsed to the same type
+            deliverError(new ParseError(e));
+        }
+    }
+
+    @Nullable
+    @Override
+    public String getDeduplicationKey() {
+        String key = super.getDeduplicationKey();
+        if (key == null) {
+            return null;
+        }
+        return key + " " + (mClass == null ? mType : mClass);
     }
 
     @Override
@@ -83,14 +124,15 @@ public abstract class GsonRequest<T> extends BaseRequest<T> {
 
     @Override
     protected Response<T> parseNetworkResponse(NetworkResponse response) {
+        if (isNotModifiedResponse(response)) {
+            mNotModified = true;
+            return Response.success(null, null);
+        }
         try {
             String json = new String(response.data, HttpHeaderParser.parseCharset(response.headers));
-            T res;
-            if (mClass == null) {
-                res = mGson.fromJson(json, mType);
-            } else {
-                res = mGson.fromJson(json, mClass);
-            }
+            T res = parseJson(json);
+            mResponseJson = json;
+            storeResponseValidators(response);
             return Response.success(res, createCacheEntry(response));
         } catch (UnsupportedEncodingException e) {
             return Response.error(new ParseError(e));
@@ -99,6 +141,14 @@ public abstract class GsonRequest<T> extends BaseRequest<T> {
         }
     }
 
+    private T parseJson(String json) {
+        if (mClass == null) {
+            return mGson.fromJson(json, mType);
+        } else {
+            return mGson.fromJson(json, mClass);
+        }
+    }
+
     private GsonBuilder setupGsonBuilder() {
         GsonBuilder gsonBuilder = new GsonBuilder();
         gsonBuilder.setLenient();
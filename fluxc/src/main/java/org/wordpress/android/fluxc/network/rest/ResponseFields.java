@@ -0,0 +1,84 @@
+package org.wordpress.android.fluxc.network.rest;
+
+import android.text.TextUtils;
+
+import androidx.annotation.NonNull;
+
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.annotations.SerializedName;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Builds the field projection of a response class, i.e. the JSON names of the fields Gson reads from it, to be sent
+ * as the `fields` parameter of the WP.com REST API. List endpoints apply it to each item (sites, posts, media,
+ * comments, themes...), so the properties the response class would drop anyway aren't downloaded and parsed.
+ */
+public class ResponseFields {
+    private static final Map<Class<?>, String> FIELDS_BY_CLASS = new ConcurrentHashMap<>();
+
+    private ResponseFields() {}
+
+    /**
+     * Returns the comma separated JSON names of the fields of {@code responseClass}, including the alternate names
+     * of {@link SerializedName}. Nested objects are requested whole, the projection only applies to the top level
+     * properties.
+     *
+     * The names can't be read from classes parsed by a custom deserializer: they have to be listed with
+     * {@link #of(Class, String...)}. An {@link IllegalArgumentException} is thrown for classes annotated with
+     * {@link JsonAdapter}, deserializers registered on a Gson instance can't be detected.
+     */
+    public static @NonNull String of(@NonNull Class<?> responseClass) {
+        String fields = FIELDS_BY_CLASS.get(responseClass);
+        if (fields == null) {
+            if (responseClass.isAnnotationPresent(JsonAdapter.class)) {
+                throw new IllegalArgumentException(responseClass.getSimpleName() + " is parsed by a custom "
+                                                   + "deserializer, its fields have to be listed");
+            }
+            fields = TextUtils.join(",", getFieldNames(responseClass));
+            FIELDS_BY_CLASS.put(responseClass, fields);
+        }
+        return fields;
+    }
+
+    /**
+     * Returns the given JSON names, read by the custom deserializer of {@code responseClass}, as a projection. The
+     * names are kept for the class, {@link #of(Class)} then returns them too.
+     */
+    public static @NonNull String of(@NonNull Class<?> responseClass, @NonNull String... names) {
+        String fields = FIELDS_BY_CLASS.get(responseClass);
+        if (fields == null) {
+            fields = TextUtils.join(",", names);
+            FIELDS_BY_CLASS.put(responseClass, fields);
+        }
+        return fields;
+    }
+
+    private static List<String> getFieldNames(Class<?> responseClass) {
+        List<String> names = new ArrayList<>();
+        for (Class<?> clazz = responseClass; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+            for (Field field : clazz.getDeclaredFields()) {
+                // Skip what Gson skips, plus the reference to the outer class of inner classes
+                int modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()) {
+                    continue;
+                }
+                SerializedName serializedName = field.getAnnotation(SerializedName.class);
+                if (serializedName != null) {
+                    names.add(serializedName.value());
+                    // Gson reads the field from any of its names
+                    names.addAll(Arrays.asList(serializedName.alternate()));
+                } else {
+                    names.add(field.getName());
+                }
+            }
+        }
+        return names;
+    }
+}
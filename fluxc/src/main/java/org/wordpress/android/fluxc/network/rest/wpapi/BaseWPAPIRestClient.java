@@ -7,16 +7,20 @@ import org.wordpress.android.fluxc.Dispatcher;
 import org.wordpress.android.fluxc.generated.AuthenticationActionBuilder;
 import org.wordpress.android.fluxc.network.BaseRequest;
 import org.wordpress.android.fluxc.network.BaseRequest.OnAuthFailedListener;
+import org.wordpress.android.fluxc.network.InFlightRequestDeduplicator;
 import org.wordpress.android.fluxc.network.UserAgent;
 import org.wordpress.android.fluxc.network.discovery.WPAPIHeadRequest;
 import org.wordpress.android.fluxc.store.AccountStore.AuthenticateErrorPayload;
 
+import javax.inject.Inject;
+
 public abstract class BaseWPAPIRestClient {
     private final RequestQueue mRequestQueue;
-    private final Dispatcher mDispatcher;
+    protected final Dispatcher mDispatcher;
     private UserAgent mUserAgent;
 
     private OnAuthFailedListener mOnAuthFailedListener;
+    private InFlightRequestDeduplicator mRequestDeduplicator;
 
     public BaseWPAPIRestClient(Dispatcher dispatcher, RequestQueue requestQueue,
                                UserAgent userAgent) {
@@ -31,8 +35,20 @@ public abstract class BaseWPAPIRestClient {
         };
     }
 
+    /**
+     * Injected by Dagger. Without it (e.g. in unit tests), identical requests in flight are not deduplicated.
+     */
+    @Inject
+    public void setRequestDeduplicator(InFlightRequestDeduplicator requestDeduplicator) {
+        mRequestDeduplicator = requestDeduplicator;
+    }
+
     protected Request add(WPAPIGsonRequest request) {
-        return mRequestQueue.add(setRequestAuthParams(request));
+        setRequestAuthParams(request);
+        if (mRequestDeduplicator != null && mRequestDeduplicator.attachIfDuplicate(mRequestQueue, request)) {
+            return request;
+        }
+        return mRequestQueue.add(request);
     }
 
     protected Request add(WPAPIHeadRequest request) {
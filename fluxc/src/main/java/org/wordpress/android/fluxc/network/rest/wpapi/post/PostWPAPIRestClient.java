@@ -0,0 +1,281 @@
+package org.wordpress.android.fluxc.network.rest.wpapi.post;
+
+import android.text.TextUtils;
+import android.util.Base64;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.android.volley.Request.Method;
+import com.android.volley.RequestQueue;
+import com.android.volley.Response.Listener;
+import com.google.gson.JsonObject;
+
+import org.wordpress.android.fluxc.Dispatcher;
+import org.wordpress.android.fluxc.generated.PostActionBuilder;
+import org.wordpress.android.fluxc.generated.SiteActionBuilder;
+import org.wordpress.android.fluxc.generated.endpoint.WPAPI;
+import org.wordpress.android.fluxc.model.PostModel;
+import org.wordpress.android.fluxc.model.PostsModel;
+import org.wordpress.android.fluxc.model.SiteModel;
+import org.wordpress.android.fluxc.model.post.PostStatus;
+import org.wordpress.android.fluxc.network.BaseRequest.BaseErrorListener;
+import org.wordpress.android.fluxc.network.BaseRequest.BaseNetworkError;
+import org.wordpress.android.fluxc.network.UserAgent;
+import org.wordpress.android.fluxc.network.rest.wpapi.BaseWPAPIRestClient;
+import org.wordpress.android.fluxc.network.rest.wpapi.WPAPIGsonRequest;
+import org.wordpress.android.fluxc.network.rest.wpapi.post.PostWPAPIRestResponse.Term;
+import org.wordpress.android.fluxc.store.PostStore;
+import org.wordpress.android.fluxc.store.PostStore.FetchPostResponsePayload;
+import org.wordpress.android.fluxc.store.PostStore.FetchPostsResponsePayload;
+import org.wordpress.android.fluxc.store.PostStore.PostError;
+import org.wordpress.android.fluxc.store.PostStore.PostErrorType;
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.AppLog.T;
+
+import java.net.HttpURLConnection;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.inject.Singleton;
+
+/**
+ * Fetches the posts and pages of self-hosted sites through the WP REST API, for sites where discovery found the
+ * wp/v2 namespace (see {@link SiteModel#getWpApiRestUrl()}). Only posts and pages are fetched through it, media and
+ * terms are still synced through XML-RPC.
+ *
+ * The requests are authenticated with HTTP Basic auth using the username and password of the site. WordPress core
+ * only accepts application passwords with Basic auth, which aren't created here: the account password is only
+ * accepted by sites with a Basic auth plugin. {@link #checkAuthentication} has to succeed before the site is synced
+ * through the WP REST API, other sites keep using XML-RPC. Credentials are only ever sent over https.
+ *
+ * When the site refuses the credentials of a fetch, the site is marked as not authenticated and the given fallback
+ * is run instead of dispatching the error, so the fetch can be made through XML-RPC.
+ */
+@Singleton
+public class PostWPAPIRestClient extends BaseWPAPIRestClient {
+    // Only the fields read by postResponseToPostModel, the embedded terms are used for the tag names
+    private static final String POST_FIELDS = "id,date_gmt,modified_gmt,slug,status,type,link,title,content,excerpt,"
+                                               + "password,parent,featured_media,format,categories,_links,_embedded";
+
+    public PostWPAPIRestClient(Dispatcher dispatcher, RequestQueue requestQueue, UserAgent userAgent) {
+        super(dispatcher, requestQueue, userAgent);
+    }
+
+    /**
+     * Makes an authenticated request to `/wp/v2/users/me` and stores whether the site accepted the credentials
+     * with {@link SiteModel#setIsWpApiAuthenticated}, through a SiteAction.UPDATE_SITE action.
+     */
+    public void checkAuthentication(final SiteModel site) {
+        if (!isSecure(site)) {
+            AppLog.w(T.API, "Not sending the credentials of " + site.getUrl() + " to a WP REST API without https");
+            return;
+        }
+        Map<String, String> params = new HashMap<>();
+        params.put("context", "edit");
+        params.put("_fields", "id");
+
+        final WPAPIGsonRequest<JsonObject> request = new WPAPIGsonRequest<>(Method.GET,
+                getUrl(site, WPAPI.users.me.getUrlV2()), params, null, JsonObject.class,
+                new Listener<JsonObject>() {
+                    @Override
+                    public void onResponse(JsonObject response) {
+                        AppLog.i(T.API, "The WP REST API of " + site.getUrl() + " accepted the credentials");
+                        setAuthenticated(site, true);
+                    }
+                },
+                new BaseErrorListener() {
+                    @Override
+                    public void onErrorResponse(@NonNull BaseNetworkError error) {
+                        // The site keeps being synced through XML-RPC
+                        AppLog.i(T.API, "The WP REST API of " + site.getUrl() + " can't be used: " + error.message);
+                    }
+                });
+        add(authenticate(request, site));
+    }
+
+    public void fetchPost(final PostModel post, final SiteModel site, final Runnable onAuthenticationRefused) {
+        if (!isSecure(site)) {
+            onAuthenticationRefused.run();
+            return;
+        }
+        String endpoint = post.isPage() ? WPAPI.pages.id(post.getRemotePostId()).getUrlV2()
+                : WPAPI.posts.id(post.getRemotePostId()).getUrlV2();
+        Map<String, String> params = new HashMap<>();
+        params.put("context", "edit");
+        params.put("_fields", POST_FIELDS);
+        params.put("_embed", "wp:term");
+
+        final WPAPIGsonRequest<PostWPAPIRestResponse> request = new WPAPIGsonRequest<>(Method.GET,
+                getUrl(site, endpoint), params, null, PostWPAPIRestResponse.class,
+                new Listener<PostWPAPIRestResponse>() {
+                    @Override
+                    public void onResponse(PostWPAPIRestResponse response) {
+                        PostModel postModel = postResponseToPostModel(response, site);
+                        FetchPostResponsePayload payload = new FetchPostResponsePayload(postModel, site);
+                        mDispatcher.dispatch(PostActionBuilder.newFetchedPostAction(payload));
+                    }
+                },
+                new BaseErrorListener() {
+                    @Override
+                    public void onErrorResponse(@NonNull BaseNetworkError error) {
+                        if (isAuthenticationRefused(error)) {
+                            setAuthenticated(site, false);
+                            onAuthenticationRefused.run();
+                            return;
+                        }
+                        FetchPostResponsePayload payload = new FetchPostResponsePayload(post, site);
+                        payload.error = networkErrorToPostError(error);
+                        mDispatcher.dispatch(PostActionBuilder.newFetchedPostAction(payload));
+                    }
+                });
+        add(authenticate(request, site));
+    }
+
+    public void fetchPosts(final SiteModel site, final boolean getPages, @Nullable List<PostStatus> statusList,
+                           final int offset, final Runnable onAuthenticationRefused) {
+        if (!isSecure(site)) {
+            onAuthenticationRefused.run();
+            return;
+        }
+        String endpoint = getPages ? WPAPI.pages.getUrlV2() : WPAPI.posts.getUrlV2();
+        Map<String, String> params = new HashMap<>();
+        params.put("context", "edit");
+        params.put("per_page", String.valueOf(PostStore.NUM_POSTS_PER_FETCH));
+        params.put("offset", String.valueOf(offset));
+        // Unlike XML-RPC, the WP REST API only returns published posts by default
+        params.put("status", statusList != null && !statusList.isEmpty()
+                ? PostStatus.postStatusListToString(statusList) : "any");
+        params.put("_fields", POST_FIELDS);
+        params.put("_embed", "wp:term");
+
+        final WPAPIGsonRequest<PostWPAPIRestResponse[]> request = new WPAPIGsonRequest<>(Method.GET,
+                getUrl(site, endpoint), params, null, PostWPAPIRestResponse[].class,
+                new Listener<PostWPAPIRestResponse[]>() {
+                    @Override
+                    public void onResponse(PostWPAPIRestResponse[] response) {
+                        List<PostModel> postArray = new ArrayList<>(response.length);
+                        for (PostWPAPIRestResponse postResponse : response) {
+                            postArray.add(postResponseToPostModel(postResponse, site));
+                        }
+                        boolean canLoadMore = response.length == PostStore.NUM_POSTS_PER_FETCH;
+                        FetchPostsResponsePayload payload = new FetchPostsResponsePayload(new PostsModel(postArray),
+                                site, getPages, offset > 0, canLoadMore);
+                        mDispatcher.dispatch(PostActionBuilder.newFetchedPostsAction(payload));
+                    }
+                },
+                new BaseErrorListener() {
+                    @Override
+                    public void onErrorResponse(@NonNull BaseNetworkError error) {
+                        if (isAuthenticationRefused(error)) {
+                            setAuthenticated(site, false);
+                            onAuthenticationRefused.run();
+                            return;
+                        }
+                        FetchPostsResponsePayload payload =
+                                new FetchPostsResponsePayload(networkErrorToPostError(error), getPages);
+                        mDispatcher.dispatch(PostActionBuilder.newFetchedPostsAction(payload));
+                    }
+                });
+        add(authenticate(request, site));
+    }
+
+    private static String getUrl(SiteModel site, String endpoint) {
+        String rootUrl = site.getWpApiRestUrl();
+        return rootUrl.endsWith("/") ? rootUrl + endpoint : rootUrl + "/" + endpoint;
+    }
+
+    /**
+     * Whether the WP REST API of the site is served over https, the credentials are never sent otherwise.
+     */
+    public static boolean isSecure(SiteModel site) {
+        String rootUrl = site.getWpApiRestUrl();
+        return rootUrl != null && rootUrl.toLowerCase(Locale.ROOT).startsWith("https://");
+    }
+
+    private void setAuthenticated(SiteModel site, boolean authenticated) {
+        site.setIsWpApiAuthenticated(authenticated);
+        mDispatcher.dispatch(SiteActionBuilder.newUpdateSiteAction(site));
+    }
+
+    private static boolean isAuthenticationRefused(BaseNetworkError error) {
+        if (error.volleyError == null || error.volleyError.networkResponse == null) {
+            return false;
+        }
+        int statusCode = error.volleyError.networkResponse.statusCode;
+        return statusCode == HttpURLConnection.HTTP_UNAUTHORIZED || statusCode == HttpURLConnection.HTTP_FORBIDDEN;
+    }
+
+    private static <T> WPAPIGsonRequest<T> authenticate(WPAPIGsonRequest<T> request, SiteModel site) {
+        String credentials = site.getUsername() + ":" + site.getPassword();
+        request.addHeader("Authorization", "Basic "
+                + Base64.encodeToString(credentials.getBytes(Charset.forName("UTF-8")), Base64.NO_WRAP));
+        return request;
+    }
+
+    /**
+     * Maps a WP REST API post to a {@link PostModel}, the same way the XML-RPC client maps the `wp.getPost` structs.
+     */
+    static PostModel postResponseToPostModel(@NonNull PostWPAPIRestResponse response, SiteModel site) {
+        PostModel post = new PostModel();
+        post.setLocalSiteId(site.getId());
+        post.setRemotePostId(response.getId());
+        post.setTitle(response.getTitle() != null ? response.getTitle().getRaw() : null);
+        post.setContent(response.getContent() != null ? response.getContent().getRaw() : null);
+        post.setExcerpt(response.getExcerpt() != null ? response.getExcerpt().getRaw() : null);
+        post.setLink(response.getLink());
+
+        // The GMT dates have no offset in the response
+        if (!TextUtils.isEmpty(response.getDateGmt())) {
+            post.setDateCreated(response.getDateGmt() + "+00:00");
+        }
+        if (!TextUtils.isEmpty(response.getModifiedGmt())) {
+            post.setLastModified(response.getModifiedGmt() + "+00:00");
+            post.setRemoteLastModified(response.getModifiedGmt() + "+00:00");
+        }
+
+        post.setPassword(response.getPassword());
+        post.setStatus(response.getStatus());
+
+        if ("page".equals(response.getType())) {
+            post.setIsPage(true);
+            post.setParentId(response.getParent());
+            post.setSlug(response.getSlug());
+        } else {
+            post.setFeaturedImageId(response.getFeaturedMedia());
+            post.setPostFormat(response.getFormat());
+            post.setCategoryIdList(response.getCategories() != null ? response.getCategories()
+                    : new ArrayList<Long>());
+
+            List<String> tagNames = new ArrayList<>();
+            if (response.getEmbedded() != null && response.getEmbedded().getTerms() != null) {
+                for (List<Term> taxonomyTerms : response.getEmbedded().getTerms()) {
+                    for (Term term : taxonomyTerms) {
+                        if ("post_tag".equals(term.getTaxonomy())) {
+                            tagNames.add(term.getName());
+                        }
+                    }
+                }
+            }
+            post.setTagNameList(tagNames);
+        }
+
+        return post;
+    }
+
+    private static PostError networkErrorToPostError(BaseNetworkError error) {
+        switch (error.type) {
+            case AUTHORIZATION_REQUIRED:
+            case NOT_AUTHENTICATED:
+                return new PostError(PostErrorType.UNAUTHORIZED, error.message);
+            case NOT_FOUND:
+                return new PostError(PostErrorType.UNKNOWN_POST, error.message);
+            default:
+                return new PostError(PostErrorType.GENERIC_ERROR, error.message);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package org.wordpress.android.fluxc.network.rest.wpapi.post
+
+import com.google.gson.annotations.SerializedName
+
+/**
+ * A post or page returned by the `wp/v2/posts` and `wp/v2/pages` endpoints with `context=edit`.
+ */
+data class PostWPAPIRestResponse(
+    @SerializedName("id") val id: Long = 0,
+    @SerializedName("date_gmt") val dateGmt: String? = null,
+    @SerializedName("modified_gmt") val modifiedGmt: String? = null,
+    @SerializedName("slug") val slug: String? = null,
+    @SerializedName("status") val status: String? = null,
+    @SerializedName("type") val type: String? = null,
+    @SerializedName("link") val link: String? = null,
+    @SerializedName("title") val title: Content? = null,
+    @SerializedName("content") val content: Content? = null,
+    @SerializedName("excerpt") val excerpt: Content? = null,
+    @SerializedName("password") val password: String? = null,
+    @SerializedName("parent") val parent: Long = 0,
+    @SerializedName("featured_media") val featuredMedia: Long = 0,
+    @SerializedName("format") val format: String? = null,
+    @SerializedName("categories") val categories: List<Long>? = null,
+    @SerializedName("_embedded") val embedded: Embedded? = null
+) {
+    data class Content(
+        @SerializedName("raw") val raw: String? = null
+    )
+
+    data class Embedded(
+        // One list of terms per taxonomy
+        @SerializedName("wp:term") val terms: List<List<Term>>? = null
+    )
+
+    data class Term(
+        @SerializedName("id") val id: Long = 0,
+        @SerializedName("name") val name: String? = null,
+        @SerializedName("taxonomy") val taxonomy: String? = null
+    )
+}
@@ -1,6 +1,10 @@
 package org.wordpress.android.fluxc.network.rest.wpcom;
 
 import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
 
 import com.android.volley.Request;
 import com.android.volley.RequestQueue;
@@ -10,15 +14,19 @@ import org.wordpress.android.fluxc.generated.AuthenticationActionBuilder;
 import org.wordpress.android.fluxc.network.BaseRequest;
 import org.wordpress.android.fluxc.network.BaseRequest.OnAuthFailedListener;
 import org.wordpress.android.fluxc.network.BaseRequest.OnParseErrorListener;
+import org.wordpress.android.fluxc.network.InFlightRequestDeduplicator;
 import org.wordpress.android.fluxc.network.UserAgent;
 import org.wordpress.android.fluxc.network.rest.wpcom.WPComGsonRequest.OnJetpackTimeoutError;
 import org.wordpress.android.fluxc.network.rest.wpcom.WPComGsonRequest.OnJetpackTunnelTimeoutListener;
 import org.wordpress.android.fluxc.network.rest.wpcom.account.AccountSocialRequest;
 import org.wordpress.android.fluxc.network.rest.wpcom.auth.AccessToken;
+import org.wordpress.android.fluxc.network.rest.wpcom.jetpacktunnel.JetpackSiteHealthTracker;
 import org.wordpress.android.fluxc.store.AccountStore.AuthenticateErrorPayload;
 import org.wordpress.android.fluxc.utils.ErrorUtils.OnUnexpectedError;
 import org.wordpress.android.util.LanguageUtils;
 
+import javax.inject.Inject;
+
 public abstract class BaseWPComRestClient {
     private static final String WPCOM_V2_PREFIX = "/wpcom/v2";
     private static final String LOCALE_PARAM_NAME_FOR_V1 = "locale";
@@ -35,6 +43,12 @@ public abstract class BaseWPComRestClient {
     private OnParseErrorListener mOnParseErrorListener;
     private OnJetpackTunnelTimeoutListener mOnJetpackTunnelTimeoutListener;
 
+    private WPComBatchRequestCombiner mBatchRequestCombiner;
+    private InFlightRequestDeduplicator mRequestDeduplicator;
+    private JetpackSiteHealthTracker mSiteHealthTracker;
+
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+
     public BaseWPComRestClient(Context appContext, Dispatcher dispatcher, RequestQueue requestQueue,
                                AccessToken accessToken, UserAgent userAgent) {
         mRequestQueue = requestQueue;
@@ -62,6 +76,22 @@ public abstract class BaseWPComRestClient {
         };
     }
 
+    /**
+     * Injected by Dagger. Without it (e.g. in unit tests), identical requests in flight are not deduplicated.
+     */
+    @Inject
+    public void setRequestDeduplicator(InFlightRequestDeduplicator requestDeduplicator) {
+        mRequestDeduplicator = requestDeduplicator;
+    }
+
+    /**
+     * Injected by Dagger. Without it (e.g. in unit tests), requests to unresponsive Jetpack sites don't fail fast.
+     */
+    @Inject
+    public void setSiteHealthTracker(JetpackSiteHealthTracker siteHealthTracker) {
+        mSiteHealthTracker = siteHealthTracker;
+    }
+
     protected Request add(WPComGsonRequest request) {
         // Add "locale=xx_XX" query parameter to all request by default
         return add(request, true);
@@ -72,7 +102,40 @@ public abstract class BaseWPComRestClient {
             addLocaleToRequest(request);
         }
         // TODO: If !mAccountToken.exists() then trigger the mOnAuthFailedListener
-        return addRequest(setRequestAuthParams(request, true));
+        setRequestAuthParams(request, true);
+        if (mSiteHealthTracker != null && !mSiteHealthTracker.allowRequest(request.getUrl())) {
+            request.setSiteHealthTracker(null);
+            failFast(request);
+            return request;
+        }
+        request.setSiteHealthTracker(mSiteHealthTracker);
+        if (isAttachedToDuplicate(request)) {
+            return request;
+        }
+        if (mBatchRequestCombiner != null && mBatchRequestCombiner.enqueue(request)) {
+            return request;
+        }
+        return addRequest(request);
+    }
+
+    /**
+     * Enables or disables batching mode for this client. When enabled, eligible GET requests issued within a short
+     * window are combined into a single call to the WordPress.com /batch endpoint (see
+     * {@link WPComBatchRequestCombiner}), falling back to individual requests if the batch call fails.
+     *
+     * Batching is disabled by default.
+     */
+    public void setBatchingEnabled(boolean enabled) {
+        if (enabled && mBatchRequestCombiner == null) {
+            mBatchRequestCombiner = new WPComBatchRequestCombiner(new WPComBatchRequestCombiner.RequestSender() {
+                @Override
+                public void send(@NonNull BaseRequest request) {
+                    addRequest(request);
+                }
+            });
+        } else if (!enabled) {
+            mBatchRequestCombiner = null;
+        }
     }
 
     protected Request addUnauthedRequest(AccountSocialRequest request) {
@@ -98,7 +161,11 @@ public abstract class BaseWPComRestClient {
         if (addLocaleParameter) {
             addLocaleToRequest(request);
         }
-        return addRequest(setRequestAuthParams(request, false));
+        setRequestAuthParams(request, false);
+        if (isAttachedToDuplicate(request)) {
+            return request;
+        }
+        return addRequest(request);
     }
 
     protected AccessToken getAccessToken() {
@@ -114,6 +181,10 @@ public abstract class BaseWPComRestClient {
         return request;
     }
 
+    private boolean isAttachedToDuplicate(BaseRequest request) {
+        return mRequestDeduplicator != null && mRequestDeduplicator.attachIfDuplicate(mRequestQueue, request);
+    }
+
     private Request addRequest(BaseRequest request) {
         if (request.shouldCache() && request.shouldForceUpdate()) {
             mRequestQueue.getCache().invalidate(request.mUri.toString(), true);
@@ -121,6 +192,16 @@ public abstract class BaseWPComRestClient {
         return mRequestQueue.add(request);
     }
 
+    private void failFast(final WPComGsonRequest request) {
+        // Deliver on the main thread, like Volley would
+        mMainHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                request.deliverJetpackSiteUnavailableError();
+            }
+        });
+    }
+
     private void addLocaleToRequest(BaseRequest request) {
         String url = request.getUrl();
         // Sanity check
@@ -0,0 +1,145 @@
+package org.wordpress.android.fluxc.network.rest.wpcom;
+
+import androidx.annotation.NonNull;
+
+import com.android.volley.NetworkResponse;
+import com.android.volley.Response;
+import com.android.volley.VolleyError;
+import com.android.volley.toolbox.HttpHeaderParser;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import org.wordpress.android.fluxc.network.BaseRequest;
+
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A single GET request to the WordPress.com /batch endpoint, combining several {@link WPComGsonRequest} GETs.
+ *
+ * The endpoint expects each sub-request as a `urls[]` parameter, relative to the API version of the batch call:
+ * https://public-api.wordpress.com/rest/v1.1/batch/?urls[]=/sites/123/post-formats/&urls[]=/sites/123/roles/
+ *
+ * The response is a JSON object keyed by those same relative URLs, each value being the body the sub-request would
+ * have received on its own, or an error object (`{"error": "...", "message": "..."}`). Each body is parsed on the
+ * network thread into the original request's Gson type, and delivered to the original request's listeners.
+ *
+ * Sub-requests missing from the response, and all sub-requests if the batch call itself fails, are handed to the
+ * {@link BatchFallbackListener} to be sent individually.
+ */
+class WPComBatchRequest extends BaseRequest<List<Response<?>>> {
+    interface BatchFallbackListener {
+        void onBatchFallback(List<WPComGsonRequest<?>> requests);
+    }
+
+    static final String URLS_PARAM = "urls[]";
+
+    // The /batch endpoint doesn't return status codes for failed sub-requests
+    private static final int DEFAULT_SUB_REQUEST_ERROR_CODE = 400;
+    private static final String SUB_REQUEST_ERROR_KEY = "error";
+    private static final String SUB_REQUEST_STATUS_CODE_KEY = "status_code";
+
+    private final List<WPComGsonRequest<?>> mRequests;
+    private final List<String> mRelativeUrls;
+    private final BatchFallbackListener mFallbackListener;
+
+    WPComBatchRequest(@NonNull String batchUrl, @NonNull List<WPComGsonRequest<?>> requests,
+                      @NonNull List<String> relativeUrls, @NonNull BatchFallbackListener fallbackListener) {
+        super(Method.GET, batchUrl, buildFallbackErrorListener(requests, fallbackListener));
+        mRequests = requests;
+        mRelativeUrls = relativeUrls;
+        mFallbackListener = fallbackListener;
+
+        for (String relativeUrl : relativeUrls) {
+            addQueryParameter(URLS_PARAM, relativeUrl);
+        }
+        // All requests in a batch share the same auth and user agent headers
+        mHeaders.putAll(requests.get(0).getHeaders());
+        // A failed batch falls back to individual requests, which have their own retry policy
+        disableRetries();
+    }
+
+    private static BaseErrorListener buildFallbackErrorListener(final List<WPComGsonRequest<?>> requests,
+                                                                final BatchFallbackListener fallbackListener) {
+        return new BaseErrorListener() {
+            @Override
+            public void onErrorResponse(@NonNull BaseNetworkError error) {
+                fallbackListener.onBatchFallback(requests);
+            }
+        };
+    }
+
+    List<WPComGsonRequest<?>> getRequests() {
+        return mRequests;
+    }
+
+    @Override
+    protected Response<List<Response<?>>> parseNetworkResponse(NetworkResponse response) {
+        JsonObject responses;
+        try {
+            String json = new String(response.data, HttpHeaderParser.parseCharset(response.headers));
+            responses = new JsonParser().parse(json).getAsJsonObject();
+        } catch (UnsupportedEncodingException | JsonParseException | IllegalStateException e) {
+            // Not a parse error from the point of view of the original requests - they'll be sent individually
+            return Response.error(new VolleyError(e));
+        }
+
+        List<Response<?>> results = new ArrayList<>(mRequests.size());
+        for (int i = 0; i < mRequests.size(); i++) {
+            JsonElement subResponse = responses.get(mRelativeUrls.get(i));
+            if (subResponse == null || subResponse.isJsonNull()) {
+                // Null entries are sent individually
+                results.add(null);
+                continue;
+            }
+
+            byte[] data = subResponse.toString().getBytes(Charset.forName("UTF-8"));
+            if (isSubRequestError(subResponse)) {
+                NetworkResponse errorResponse = new NetworkResponse(getSubRequestErrorCode(subResponse), data,
+                        response.headers, false);
+                results.add(Response.error(new VolleyError(errorResponse)));
+            } else {
+                NetworkResponse subNetworkResponse = new NetworkResponse(200, data, response.headers, false);
+                results.add(mRequests.get(i).parseBatchedResponse(subNetworkResponse));
+            }
+        }
+        return Response.success(results, null);
+    }
+
+    @Override
+    protected void deliverResponse(List<Response<?>> results) {
+        List<WPComGsonRequest<?>> missingRequests = new ArrayList<>();
+        for (int i = 0; i < mRequests.size(); i++) {
+            Response<?> result = results.get(i);
+            if (result == null) {
+                missingRequests.add(mRequests.get(i));
+            } else {
+                mRequests.get(i).deliverBatchedResponse(result);
+            }
+        }
+        if (!missingRequests.isEmpty()) {
+            mFallbackListener.onBatchFallback(missingRequests);
+        }
+    }
+
+    @Override
+    public BaseNetworkError deliverBaseNetworkError(@NonNull BaseNetworkError error) {
+        return error;
+    }
+
+    private static boolean isSubRequestError(JsonElement subResponse) {
+        return subResponse.isJsonObject() && subResponse.getAsJsonObject().has(SUB_REQUEST_ERROR_KEY);
+    }
+
+    private static int getSubRequestErrorCode(JsonElement subResponse) {
+        JsonElement statusCode = subResponse.getAsJsonObject().get(SUB_REQUEST_STATUS_CODE_KEY);
+        if (statusCode != null && statusCode.isJsonPrimitive() && statusCode.getAsJsonPrimitive().isNumber()) {
+            return statusCode.getAsInt();
+        }
+        return DEFAULT_SUB_REQUEST_ERROR_CODE;
+    }
+}
@@ -0,0 +1,204 @@
+package org.wordpress.android.fluxc.network.rest.wpcom;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.android.volley.Request.Method;
+
+import org.wordpress.android.fluxc.generated.endpoint.WPCOMREST;
+import org.wordpress.android.fluxc.network.BaseRequest;
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.AppLog.T;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Collects {@link WPComGsonRequest} GETs issued within a short window and sends them through a single
+ * {@link WPComBatchRequest}.
+ *
+ * Requests are grouped by API version and access token, since sub-requests of a batch are relative to the batch
+ * call's version and are all made with its credentials. A group is sent as soon as it reaches {@link #MAX_BATCH_SIZE}
+ * requests, or when the window expires. A group containing a single request is sent as a regular request.
+ *
+ * Requests that aren't eligible for batching (non-GETs, cached and conditional requests, requests with custom
+ * headers, WP.com v2 and Jetpack tunnel requests) are never held back: {@link #enqueue(WPComGsonRequest)} returns
+ * false for them.
+ *
+ * Batches, and the requests sent on their own, go through the {@link RequestSender} of the client, so they're added to
+ * the queue the same way as the client's other requests.
+ */
+public class WPComBatchRequestCombiner {
+    public static final long DEFAULT_BATCH_WINDOW_MS = 50;
+    public static final int MAX_BATCH_SIZE = 10;
+
+    private static final Pattern WPCOM_V1_URL_PATTERN =
+            Pattern.compile("^(https://public-api\\.wordpress\\.com/rest/v1(?:\\.\\d)?)(/.*)$");
+    private static final String BATCH_ENDPOINT = WPCOMREST.batch.getEndpoint();
+    // Tunnel requests can take a long time to time out, holding the whole batch back with them
+    private static final String JETPACK_TUNNEL_PREFIX = "/jetpack-blogs/";
+
+    /**
+     * Adds a request to the request queue of the client.
+     */
+    public interface RequestSender {
+        void send(@NonNull BaseRequest request);
+    }
+
+    private final RequestSender mRequestSender;
+    private final Handler mHandler;
+    private final long mBatchWindowMs;
+
+    private final Map<BatchKey, List<WPComGsonRequest<?>>> mPendingBatches = new HashMap<>();
+
+    private final WPComBatchRequest.BatchFallbackListener mFallbackListener =
+            new WPComBatchRequest.BatchFallbackListener() {
+                @Override
+                public void onBatchFallback(List<WPComGsonRequest<?>> requests) {
+                    AppLog.w(T.API, "Batch request failed, sending " + requests.size() + " requests individually");
+                    for (WPComGsonRequest<?> request : requests) {
+                        if (!request.isCanceled()) {
+                            mRequestSender.send(request);
+                        }
+                    }
+                }
+            };
+
+    public WPComBatchRequestCombiner(@NonNull RequestSender requestSender) {
+        this(requestSender, new Handler(Looper.getMainLooper()), DEFAULT_BATCH_WINDOW_MS);
+    }
+
+    WPComBatchRequestCombiner(@NonNull RequestSender requestSender, @NonNull Handler handler, long batchWindowMs) {
+        mRequestSender = requestSender;
+        mHandler = handler;
+        mBatchWindowMs = batchWindowMs;
+    }
+
+    /**
+     * Holds the request back to be sent as part of a batch, if it's eligible.
+     *
+     * @return true if the request was added to a pending batch, false if it should be sent on its own
+     */
+    public boolean enqueue(@NonNull WPComGsonRequest<?> request) {
+        final BatchKey key = getBatchKey(request);
+        if (key == null) {
+            return false;
+        }
+
+        List<WPComGsonRequest<?>> readyBatch = null;
+        synchronized (mPendingBatches) {
+            List<WPComGsonRequest<?>> pending = mPendingBatches.get(key);
+            if (pending == null) {
+                pending = new ArrayList<>();
+                mPendingBatches.put(key, pending);
+                mHandler.postDelayed(new Runnable() {
+                    @Override
+                    public void run() {
+                        flush(key);
+                    }
+                }, mBatchWindowMs);
+            }
+            pending.add(request);
+            if (pending.size() >= MAX_BATCH_SIZE) {
+                readyBatch = mPendingBatches.remove(key);
+            }
+        }
+
+        if (readyBatch != null) {
+            send(key, readyBatch);
+        }
+        return true;
+    }
+
+    private void flush(BatchKey key) {
+        List<WPComGsonRequest<?>> batch;
+        synchronized (mPendingBatches) {
+            batch = mPendingBatches.remove(key);
+        }
+        if (batch != null) {
+            send(key, batch);
+        }
+    }
+
+    private void send(BatchKey key, List<WPComGsonRequest<?>> batch) {
+        List<WPComGsonRequest<?>> requests = new ArrayList<>(batch.size());
+        List<String> relativeUrls = new ArrayList<>(batch.size());
+        for (WPComGsonRequest<?> request : batch) {
+            if (!request.isCanceled()) {
+                requests.add(request);
+                relativeUrls.add(getRelativeUrl(key, request));
+            }
+        }
+
+        if (requests.isEmpty()) {
+            return;
+        }
+
+        if (requests.size() == 1) {
+            mRequestSender.send(requests.get(0));
+            return;
+        }
+
+        AppLog.d(T.API, "Combining " + requests.size() + " requests into a single batch request");
+        mRequestSender.send(new WPComBatchRequest(key.mUrlPrefix + BATCH_ENDPOINT, requests, relativeUrls,
+                mFallbackListener));
+    }
+
+    private static String getRelativeUrl(BatchKey key, WPComGsonRequest<?> request) {
+        return request.getUrl().substring(key.mUrlPrefix.length());
+    }
+
+    @Nullable
+    static BatchKey getBatchKey(WPComGsonRequest<?> request) {
+        if (request.getMethod() != Method.GET || request.shouldCache() || request.isConditionalRequest()) {
+            return null;
+        }
+
+        Map<String, String> headers = request.getHeaders();
+        for (String header : headers.keySet()) {
+            if (!header.equals(WPComGsonRequest.REST_AUTHORIZATION_HEADER) && !header.equals("User-Agent")) {
+                return null;
+            }
+        }
+
+        Matcher matcher = WPCOM_V1_URL_PATTERN.matcher(request.getUrl());
+        if (!matcher.matches() || matcher.group(2).startsWith(JETPACK_TUNNEL_PREFIX)
+                || matcher.group(2).startsWith(BATCH_ENDPOINT)) {
+            return null;
+        }
+
+        return new BatchKey(matcher.group(1), headers.get(WPComGsonRequest.REST_AUTHORIZATION_HEADER));
+    }
+
+    static class BatchKey {
+        private final String mUrlPrefix;
+        private final String mAuthorization;
+
+        BatchKey(@NonNull String urlPrefix, @Nullable String authorization) {
+            mUrlPrefix = urlPrefix;
+            mAuthorization = authorization;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) return true;
+            if (!(other instanceof BatchKey)) return false;
+            BatchKey otherKey = (BatchKey) other;
+            return mUrlPrefix.equals(otherKey.mUrlPrefix)
+                   && (mAuthorization == null ? otherKey.mAuthorization == null
+                           : mAuthorization.equals(otherKey.mAuthorization));
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * mUrlPrefix.hashCode() + (mAuthorization == null ? 0 : mAuthorization.hashCode());
+        }
+    }
+}
@@ -3,20 +3,27 @@ package org.wordpress.android.fluxc.network.rest.wpcom;
 import android.text.TextUtils;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
+import com.android.volley.NetworkResponse;
+import com.android.volley.Response;
 import com.android.volley.Response.Listener;
+import com.android.volley.VolleyError;
 import com.android.volley.toolbox.HttpHeaderParser;
 
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.wordpress.android.fluxc.network.rest.GsonRequest;
 import org.wordpress.android.fluxc.network.rest.wpcom.auth.Authenticator;
+import org.wordpress.android.fluxc.network.rest.wpcom.jetpacktunnel.JetpackSiteHealthTracker;
 import org.wordpress.android.fluxc.network.rest.wpcom.jetpacktunnel.JetpackTimeoutRequestHandler;
 import org.wordpress.android.fluxc.store.AccountStore.AuthenticateErrorPayload;
 import org.wordpress.android.fluxc.store.AccountStore.AuthenticationError;
 
 import java.io.UnsupportedEncodingException;
 import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.util.Collections;
 import java.util.Map;
 
 public class WPComGsonRequest<T> extends GsonRequest<T> {
@@ -39,6 +46,7 @@ public class WPComGsonRequest<T> extends GsonRequest<T> {
     }
 
     private OnJetpackTunnelTimeoutListener mOnJetpackTunnelTimeoutListener;
+    private JetpackSiteHealthTracker mSiteHealthTracker;
 
     private int mNumManualRetries = 0;
 
@@ -127,6 +135,73 @@ public class WPComGsonRequest<T> extends GsonRequest<T> {
         mOnJetpackTunnelTimeoutListener = onJetpackTunnelTimeoutListener;
     }
 
+    /**
+     * Sets the tracker to report the outcome of this request to, if it targets a Jetpack site through the tunnel.
+     * Only set on requests that are actually sent (see {@link JetpackSiteHealthTracker#allowRequest(String)}).
+     */
+    void setSiteHealthTracker(@Nullable JetpackSiteHealthTracker siteHealthTracker) {
+        mSiteHealthTracker = siteHealthTracker;
+    }
+
+    @Nullable
+    public JetpackSiteHealthTracker getSiteHealthTracker() {
+        return mSiteHealthTracker;
+    }
+
+    /**
+     * Parses a sub-response extracted from a WordPress.com /batch response, as if it had been received directly.
+     * Called on the network thread by {@link WPComBatchRequest}.
+     */
+    Response<T> parseBatchedResponse(NetworkResponse response) {
+        return parseNetworkResponse(response);
+    }
+
+    /**
+     * Delivers a result previously obtained from {@link #parseBatchedResponse(NetworkResponse)} to this request's
+     * listeners. Called on the main thread by {@link WPComBatchRequest}.
+     */
+    @SuppressWarnings("unchecked")
+    void deliverBatchedResponse(Response<?> response) {
+        if (isCanceled()) {
+            return;
+        }
+        markDelivered();
+        if (response.isSuccess()) {
+            deliverResponse((T) response.result);
+        } else {
+            deliverError(response.error);
+        }
+    }
+
+    /**
+     * Fails this Jetpack tunnel request without sending it, because its Jetpack site's circuit is open
+     * (see {@link JetpackSiteHealthTracker}). Must be called on the main thread.
+     */
+    void deliverJetpackSiteUnavailableError() {
+        String body = "{\"error\":\"" + JetpackSiteHealthTracker.SITE_UNAVAILABLE_ERROR + "\","
+                      + "\"message\":\"The Jetpack site is not responding, try again later.\"}";
+        NetworkResponse response = new NetworkResponse(503, body.getBytes(Charset.forName("UTF-8")),
+                Collections.<String, String>emptyMap(), false);
+        deliverError(new VolleyError(response));
+    }
+
+    @Override
+    protected void deliverResponse(T response) {
+        if (mSiteHealthTracker != null) {
+            mSiteHealthTracker.onResponse(getUrl());
+        }
+        super.deliverResponse(response);
+    }
+
+    @Override
+    public void cancel() {
+        if (mSiteHealthTracker != null && !isCanceled() && !hasHadResponseDelivered()) {
+            // The request won't tell if the Jetpack site is reachable, e.g. a canceled probe must not block the site
+            mSiteHealthTracker.onFailure(getUrl());
+        }
+        super.cancel();
+    }
+
     /**
      * Mark that this request has been retried manually (by duplicating and re-enqueuing it).
      */
@@ -186,6 +261,15 @@ public class WPComGsonRequest<T> extends GsonRequest<T> {
                 mOnAuthFailedListener.onAuthFailed(payload);
             }
 
+            if (mSiteHealthTracker != null) {
+                if (JetpackTimeoutRequestHandler.isJetpackTimeoutError(returnedError)) {
+                    mSiteHealthTracker.onTimeout(getUrl());
+                } else if (!apiError.equals(JetpackSiteHealthTracker.SITE_UNAVAILABLE_ERROR)) {
+                    // Any other HTTP error means the Jetpack site (if this is a tunnel request) did respond
+                    mSiteHealthTracker.onResponse(getUrl());
+                }
+            }
+
             if (JetpackTimeoutRequestHandler.isJetpackTimeoutError(returnedError)) {
                 OnJetpackTimeoutError onJetpackTimeoutError = null;
                 if (getMethod() == Method.GET && getParams() != null) {
@@ -200,6 +284,9 @@ public class WPComGsonRequest<T> extends GsonRequest<T> {
                     mOnJetpackTunnelTimeoutListener.onJetpackTunnelTimeout(onJetpackTimeoutError);
                 }
             }
+        } else if (mSiteHealthTracker != null) {
+            // No connection, network timeout, parse error...: nothing tells if the Jetpack site is reachable
+            mSiteHealthTracker.onFailure(getUrl());
         }
 
         return returnedError;
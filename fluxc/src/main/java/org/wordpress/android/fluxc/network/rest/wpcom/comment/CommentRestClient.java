@@ -17,6 +17,7 @@ import org.wordpress.android.fluxc.model.CommentStatus;
 import org.wordpress.android.fluxc.model.PostModel;
 import org.wordpress.android.fluxc.model.SiteModel;
 import org.wordpress.android.fluxc.network.UserAgent;
+import org.wordpress.android.fluxc.network.rest.ResponseFields;
 import org.wordpress.android.fluxc.network.rest.wpcom.BaseWPComRestClient;
 import org.wordpress.android.fluxc.network.rest.wpcom.WPComGsonRequest;
 import org.wordpress.android.fluxc.network.rest.wpcom.WPComGsonRequest.WPComErrorListener;
@@ -42,12 +43,13 @@ public class CommentRestClient extends BaseWPComRestClient {
     }
 
     public void fetchComments(final SiteModel site, final int number, final int offset, CommentStatus status) {
-        String url = WPCOMREST.sites.site(site.getSiteId()).comments.getUrlV1_1();
+        String url = WPCOMREST.sitesSiteComments(site.getSiteId()).getUrlV1_1();
         Map<String, String> params = new HashMap<>();
         params.put("status", status.toString());
         params.put("offset", String.valueOf(offset));
         params.put("number", String.valueOf(number));
         params.put("force", "wpcom");
+        params.put("fields", ResponseFields.of(CommentWPComRestResponse.class));
         final WPComGsonRequest<CommentsWPComRestResponse> request = WPComGsonRequest.buildGetRequest(
                 url, params, CommentsWPComRestResponse.class,
                 new Listener<CommentsWPComRestResponse>() {
@@ -106,7 +108,7 @@ public class CommentRestClient extends BaseWPComRestClient {
             remoteCommentId = comment.getRemoteCommentId();
         }
 
-        String url = WPCOMREST.sites.site(site.getSiteId()).comments.comment(remoteCommentId).getUrlV1_1();
+        String url = WPCOMREST.sitesSiteCommentsComment(site.getSiteId(), remoteCommentId).getUrlV1_1();
         final WPComGsonRequest<CommentWPComRestResponse> request = WPComGsonRequest.buildGetRequest(
                 url, null, CommentWPComRestResponse.class,
                 new Listener<CommentWPComRestResponse>() {
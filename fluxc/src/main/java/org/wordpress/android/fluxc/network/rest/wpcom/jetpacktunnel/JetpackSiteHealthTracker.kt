@@ -0,0 +1,243 @@
+package org.wordpress.android.fluxc.network.rest.wpcom.jetpacktunnel
+
+import android.os.SystemClock
+import org.wordpress.android.fluxc.network.rest.wpcom.jetpacktunnel.JetpackSiteHealthTracker.CircuitState.CLOSED
+import org.wordpress.android.fluxc.network.rest.wpcom.jetpacktunnel.JetpackSiteHealthTracker.CircuitState.HALF_OPEN
+import org.wordpress.android.fluxc.network.rest.wpcom.jetpacktunnel.JetpackSiteHealthTracker.CircuitState.OPEN
+import org.wordpress.android.util.AppLog
+import org.wordpress.android.util.AppLog.T
+import javax.inject.Inject
+import javax.inject.Singleton
+import kotlin.math.min
+import kotlin.random.Random
+
+/**
+ * Tracks the health of Jetpack sites reached through the WordPress.com /jetpack-blogs/$site/rest-api/ tunnel, based
+ * on the Jetpack timeout errors ("cURL error 28") their requests receive.
+ *
+ * Each site has a circuit breaker:
+ * - [CLOSED]: requests go through. After [failureThreshold] consecutive timeouts, the circuit opens.
+ * - [OPEN]: requests fail fast, without going to the network, until the cooldown expires.
+ * - [HALF_OPEN]: a single probe request is let through. If it succeeds the circuit closes, and if it times out or
+ * fails in any other way (no connection, parse error, canceled...) the circuit opens again, with a doubled cooldown
+ * (up to [maxCooldownMs]).
+ *
+ * Also computes the delay before retrying a timed out request, using exponential backoff with jitter.
+ */
+@Singleton
+class JetpackSiteHealthTracker(
+    private val failureThreshold: Int = DEFAULT_FAILURE_THRESHOLD,
+    private val baseCooldownMs: Long = DEFAULT_BASE_COOLDOWN_MS,
+    private val maxCooldownMs: Long = DEFAULT_MAX_COOLDOWN_MS,
+    private val baseRetryDelayMs: Long = DEFAULT_BASE_RETRY_DELAY_MS,
+    private val maxRetryDelayMs: Long = DEFAULT_MAX_RETRY_DELAY_MS,
+    private val random: Random = Random.Default,
+    private val currentTimeMs: () -> Long = { SystemClock.elapsedRealtime() }
+) {
+    @Inject constructor() : this(DEFAULT_FAILURE_THRESHOLD)
+
+    companion object {
+        const val DEFAULT_FAILURE_THRESHOLD = 5
+        const val DEFAULT_BASE_COOLDOWN_MS = 30_000L
+        const val DEFAULT_MAX_COOLDOWN_MS = 5 * 60_000L
+        const val DEFAULT_BASE_RETRY_DELAY_MS = 1000L
+        const val DEFAULT_MAX_RETRY_DELAY_MS = 16_000L
+
+        /**
+         * The API error of requests failed fast because their Jetpack site's circuit is open.
+         */
+        const val SITE_UNAVAILABLE_ERROR = "jetpack_site_unavailable"
+
+        private val TUNNEL_SITE_ID_REGEX = Regex("/jetpack-blogs/(\\d+)/rest-api/")
+
+        /**
+         * Returns the WordPress.com site ID targeted by the given Jetpack tunnel URL, or null if it's not a tunnel URL.
+         */
+        @JvmStatic
+        fun getTunnelSiteId(url: String): Long? {
+            return TUNNEL_SITE_ID_REGEX.find(url)?.groupValues?.get(1)?.toLongOrNull()
+        }
+    }
+
+    enum class CircuitState { CLOSED, OPEN, HALF_OPEN }
+
+    /**
+     * A snapshot of a site's circuit state, and of the counters tracked for it.
+     */
+    data class SiteHealth(
+        val siteId: Long,
+        val state: CircuitState,
+        val consecutiveTimeouts: Int,
+        val totalTimeouts: Int,
+        val totalFailures: Int,
+        val totalSuccesses: Int,
+        val failedFastCount: Int,
+        val timesOpened: Int,
+        val lastTimeoutTimeMs: Long,
+        val openedAtTimeMs: Long,
+        val cooldownMs: Long
+    )
+
+    private class SiteState {
+        var state = CLOSED
+        var consecutiveTimeouts = 0
+        var totalTimeouts = 0
+        var totalFailures = 0
+        var totalSuccesses = 0
+        var failedFastCount = 0
+        var timesOpened = 0
+        var lastTimeoutTimeMs = 0L
+        var openedAtTimeMs = 0L
+        var cooldownMs = 0L
+        var probeInFlight = false
+    }
+
+    private val sites = mutableMapOf<Long, SiteState>()
+
+    /**
+     * Returns true if a request to the given URL can be sent, or false if it should fail fast because the target
+     * Jetpack site's circuit is open. Always returns true for URLs that aren't Jetpack tunnel URLs.
+     *
+     * If the site's cooldown has expired, the circuit goes to [HALF_OPEN] and this request is let through as a probe.
+     */
+    fun allowRequest(url: String): Boolean {
+        val siteId = getTunnelSiteId(url) ?: return true
+        synchronized(sites) {
+            val site = sites[siteId] ?: return true
+            return when (site.state) {
+                CLOSED -> true
+                OPEN -> {
+                    if (currentTimeMs() - site.openedAtTimeMs >= site.cooldownMs) {
+                        AppLog.i(T.API, "Jetpack site $siteId cooldown expired, probing")
+                        site.state = HALF_OPEN
+                        site.probeInFlight = true
+                        true
+                    } else {
+                        site.failedFastCount++
+                        false
+                    }
+                }
+                HALF_OPEN -> {
+                    if (site.probeInFlight) {
+                        site.failedFastCount++
+                        false
+                    } else {
+                        site.probeInFlight = true
+                        true
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Records a Jetpack timeout for a request to the given URL.
+     */
+    fun onTimeout(url: String) {
+        val siteId = getTunnelSiteId(url) ?: return
+        synchronized(sites) {
+            val site = sites.getOrPut(siteId) { SiteState() }
+            site.consecutiveTimeouts++
+            site.totalTimeouts++
+            site.lastTimeoutTimeMs = currentTimeMs()
+            when (site.state) {
+                CLOSED -> if (site.consecutiveTimeouts >= failureThreshold) {
+                    open(siteId, site, baseCooldownMs)
+                }
+                HALF_OPEN -> open(siteId, site, min(site.cooldownMs * 2, maxCooldownMs))
+                OPEN -> {} // A request sent before the circuit opened, nothing to change
+            }
+        }
+    }
+
+    /**
+     * Records a request to the given URL that ended without a response from the Jetpack site, and without a Jetpack
+     * timeout: no connection, network timeout, unparseable response, or canceled request.
+     *
+     * The site's health is unknown, so this doesn't count towards opening a closed circuit (the device may just be
+     * offline). But if this was the [HALF_OPEN] probe, the circuit opens again, so another probe can be sent later.
+     */
+    fun onFailure(url: String) {
+        val siteId = getTunnelSiteId(url) ?: return
+        synchronized(sites) {
+            val site = sites.getOrPut(siteId) { SiteState() }
+            site.totalFailures++
+            if (site.state == HALF_OPEN) {
+                open(siteId, site, min(site.cooldownMs * 2, maxCooldownMs))
+            }
+        }
+    }
+
+    /**
+     * Records a response (successful or not) that isn't a Jetpack timeout for a request to the given URL:
+     * the site is reachable.
+     */
+    fun onResponse(url: String) {
+        val siteId = getTunnelSiteId(url) ?: return
+        synchronized(sites) {
+            val site = sites.getOrPut(siteId) { SiteState() }
+            site.totalSuccesses++
+            site.consecutiveTimeouts = 0
+            if (site.state != CLOSED) {
+                AppLog.i(T.API, "Jetpack site $siteId is reachable again, closing circuit")
+            }
+            site.state = CLOSED
+            site.probeInFlight = false
+            site.cooldownMs = 0
+        }
+    }
+
+    /**
+     * Returns true if the circuit for the site targeted by the given URL is currently not closed, in which case
+     * timed out requests to it shouldn't be retried.
+     */
+    fun isCircuitOpen(url: String): Boolean {
+        val siteId = getTunnelSiteId(url) ?: return false
+        synchronized(sites) {
+            return sites[siteId]?.state?.let { it != CLOSED } ?: false
+        }
+    }
+
+    /**
+     * Returns the delay before making the given retry attempt (starting at 0) of a timed out request:
+     * [baseRetryDelayMs] doubled for each previous attempt, capped at [maxRetryDelayMs], with random jitter
+     * between half and all of that value so retries from several requests don't hit the site at the same time.
+     */
+    fun getRetryDelayMs(attempt: Int): Long {
+        val exponentialDelay = baseRetryDelayMs shl min(attempt, 30)
+        val delay = if (exponentialDelay <= 0) maxRetryDelayMs else min(exponentialDelay, maxRetryDelayMs)
+        return delay / 2 + random.nextLong(delay / 2 + 1)
+    }
+
+    fun getSiteHealth(siteId: Long): SiteHealth? {
+        synchronized(sites) {
+            return sites[siteId]?.toSiteHealth(siteId)
+        }
+    }
+
+    fun getAllSiteHealth(): List<SiteHealth> {
+        synchronized(sites) {
+            return sites.map { (siteId, site) -> site.toSiteHealth(siteId) }
+        }
+    }
+
+    fun reset() {
+        synchronized(sites) {
+            sites.clear()
+        }
+    }
+
+    private fun open(siteId: Long, site: SiteState, cooldownMs: Long) {
+        AppLog.w(T.API, "Jetpack site $siteId is not responding (${site.consecutiveTimeouts} timeouts in a row), " +
+                "failing requests to it for ${cooldownMs}ms")
+        site.state = OPEN
+        site.probeInFlight = false
+        site.openedAtTimeMs = currentTimeMs()
+        site.cooldownMs = cooldownMs
+        site.timesOpened++
+    }
+
+    private fun SiteState.toSiteHealth(siteId: Long) = SiteHealth(siteId, state, consecutiveTimeouts,
+            totalTimeouts, totalFailures, totalSuccesses, failedFastCount, timesOpened, lastTimeoutTimeMs,
+            openedAtTimeMs, cooldownMs)
+}
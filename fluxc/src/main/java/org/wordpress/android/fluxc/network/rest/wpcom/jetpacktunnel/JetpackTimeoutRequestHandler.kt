@@ -12,7 +12,11 @@ import java.lang.reflect.Type
  * Wraps a [WPComGsonRequest] with a custom error handler for Jetpack timeout errors (which occur when the overall
  * request to the Jetpack site takes longer than 5 seconds).
  *
- * Will retry up to [maxRetries] times, and finally trigger the normal error handler for the request.
+ * Will retry up to [maxRetries] times, with exponential backoff and jitter (see
+ * [JetpackSiteHealthTracker.getRetryDelayMs]), and finally trigger the normal error handler for the request.
+ * Retries stop early if the site's circuit opens, since further requests to it would fail fast anyway.
+ *
+ * The [siteHealthTracker] defaults to the one the request was sent with (see [WPComGsonRequest.getSiteHealthTracker]).
  */
 class JetpackTimeoutRequestHandler<T>(
     url: String,
@@ -21,7 +25,8 @@ class JetpackTimeoutRequestHandler<T>(
     listener: Listener<T>,
     errorListener: WPComErrorListener,
     retryListener: (WPComGsonRequest<*>) -> Unit,
-    private val maxRetries: Int = DEFAULT_MAX_RETRIES
+    private val maxRetries: Int = DEFAULT_MAX_RETRIES,
+    private val siteHealthTracker: JetpackSiteHealthTracker? = null
 ) {
     private val gsonRequest: WPComGsonRequest<T>
     private var numRetries = 0
@@ -33,7 +38,6 @@ class JetpackTimeoutRequestHandler<T>(
 
     companion object {
         const val DEFAULT_MAX_RETRIES = 2
-        const val ADDITIONAL_RETRY_DELAY_MS = 5000L
 
         @JvmStatic
         fun WPComGsonNetworkError.isJetpackTimeoutError(): Boolean {
@@ -56,16 +60,23 @@ class JetpackTimeoutRequestHandler<T>(
     ): WPComErrorListener {
         return WPComErrorListener { error ->
             if (error.isJetpackTimeoutError()) {
-                if (numRetries < maxRetries) {
-                    AppLog.e(AppLog.T.API, "5-second timeout reached for endpoint $wpApiEndpoint, retrying...")
-                    if (numRetries > 0) {
-                        // Delay retries after the first by a bit
-                        with(Handler()) {
-                            postDelayed({ jpTimeoutListener(gsonRequest.apply { increaseManualRetryCount() }) },
-                                    ADDITIONAL_RETRY_DELAY_MS)
-                        }
-                    } else {
-                        jpTimeoutListener(gsonRequest.apply { increaseManualRetryCount() })
+                // Without a tracker, the request wasn't sent by a client with one: only use it for the retry delays
+                val siteHealthTracker = siteHealthTracker ?: gsonRequest.siteHealthTracker ?: JetpackSiteHealthTracker()
+                if (siteHealthTracker.isCircuitOpen(wpApiEndpoint)) {
+                    AppLog.e(
+                            AppLog.T.API,
+                            "5-second timeout reached for endpoint $wpApiEndpoint - site is not responding"
+                    )
+                    wpComErrorListener.onErrorResponse(error)
+                } else if (numRetries < maxRetries) {
+                    // Requests attached to this one wait for the retry, instead of getting the timeout error
+                    gsonRequest.setRetryPending()
+                    val delayMs = siteHealthTracker.getRetryDelayMs(numRetries)
+                    AppLog.e(AppLog.T.API, "5-second timeout reached for endpoint $wpApiEndpoint, " +
+                            "retrying in ${delayMs}ms...")
+                    with(Handler()) {
+                        postDelayed({ jpTimeoutListener(gsonRequest.apply { increaseManualRetryCount() }) },
+                                delayMs)
                     }
                     numRetries++
                 } else {
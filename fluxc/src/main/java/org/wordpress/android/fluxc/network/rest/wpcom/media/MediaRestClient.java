@@ -26,6 +26,7 @@ import org.wordpress.android.fluxc.model.SiteModel;
 import org.wordpress.android.fluxc.model.StockMediaModel;
 import org.wordpress.android.fluxc.network.BaseUploadRequestBody.ProgressListener;
 import org.wordpress.android.fluxc.network.UserAgent;
+import org.wordpress.android.fluxc.network.rest.ResponseFields;
 import org.wordpress.android.fluxc.network.rest.wpcom.BaseWPComRestClient;
 import org.wordpress.android.fluxc.network.rest.wpcom.WPComGsonRequest;
 import org.wordpress.android.fluxc.network.rest.wpcom.WPComGsonRequest.WPComErrorListener;
@@ -260,7 +261,8 @@ public class MediaRestClient extends BaseWPComRestClient implements ProgressList
         if (!TextUtils.isEmpty(mimeType)) {
             params.put("mime_type", mimeType);
         }
-        String url = WPCOMREST.sites.site(site.getSiteId()).media.getUrlV1_1();
+        params.put("fields", ResponseFields.of(MediaWPComRestResponse.class));
+        String url = WPCOMREST.sitesSiteMedia(site.getSiteId()).getUrlV1_1();
         add(WPComGsonRequest.buildGetRequest(url, params, MultipleMediaResponse.class,
                 new Listener<MultipleMediaResponse>() {
                     @Override
@@ -298,7 +300,7 @@ public class MediaRestClient extends BaseWPComRestClient implements ProgressList
             return;
         }
 
-        String url = WPCOMREST.sites.site(site.getSiteId()).media.item(media.getMediaId()).getUrlV1_1();
+        String url = WPCOMREST.sitesSiteMediaMedia(site.getSiteId(), media.getMediaId()).getUrlV1_1();
         add(WPComGsonRequest.buildGetRequest(url, null, MediaWPComRestResponse.class,
                 new Listener<MediaWPComRestResponse>() {
                     @Override
@@ -560,7 +562,7 @@ public class MediaRestClient extends BaseWPComRestClient implements ProgressList
 
         final MediaModel media = new MediaModel();
         media.setMediaId(from.ID);
-        media.setUploadDate(from.date);
+        media.setUploadDate(MediaUtils.getUtcUploadDate(from.date));
         media.setPostId(from.post_ID);
         media.setAuthorId(from.author_ID);
         media.setUrl(from.URL);
@@ -14,6 +14,8 @@ import org.wordpress.android.fluxc.generated.endpoint.WPCOMREST;
 import org.wordpress.android.fluxc.model.SiteModel;
 import org.wordpress.android.fluxc.model.plugin.PluginDirectoryType;
 import org.wordpress.android.fluxc.model.plugin.SitePluginModel;
+import org.wordpress.android.fluxc.network.BaseRequest.OnNotModifiedListener;
+import org.wordpress.android.fluxc.network.ResponseValidatorCache;
 import org.wordpress.android.fluxc.network.UserAgent;
 import org.wordpress.android.fluxc.network.rest.wpcom.BaseWPComRestClient;
 import org.wordpress.android.fluxc.network.rest.wpcom.WPComGsonRequest;
@@ -43,12 +45,23 @@ import javax.inject.Singleton;
 
 @Singleton
 public class PluginRestClient extends BaseWPComRestClient {
+    private final ResponseValidatorCache mValidatorCache;
+
     public PluginRestClient(Context appContext, Dispatcher dispatcher, RequestQueue requestQueue,
-                            AccessToken accessToken, UserAgent userAgent) {
+                            AccessToken accessToken, UserAgent userAgent, ResponseValidatorCache validatorCache) {
         super(appContext, dispatcher, requestQueue, accessToken, userAgent);
+        mValidatorCache = validatorCache;
     }
 
     public void fetchSitePlugins(@NonNull final SiteModel site) {
+        fetchSitePlugins(site, false);
+    }
+
+    /**
+     * The plugins are revalidated: if they didn't change since the last fetch, a not modified
+     * {@link FetchedPluginDirectoryPayload} is dispatched instead, unless {@code forced} is true.
+     */
+    public void fetchSitePlugins(@NonNull final SiteModel site, boolean forced) {
         String url = WPCOMREST.sites.site(site.getSiteId()).plugins.getUrlV1_2();
         final WPComGsonRequest<FetchPluginsResponse> request = WPComGsonRequest.buildGetRequest(url, null,
                 FetchPluginsResponse.class,
@@ -77,6 +90,18 @@ public class PluginRestClient extends BaseWPComRestClient {
                     }
                 }
         );
+        request.enableConditionalRequest(mValidatorCache, new OnNotModifiedListener() {
+            @Override
+            public void onNotModified() {
+                FetchedPluginDirectoryPayload payload =
+                        new FetchedPluginDirectoryPayload(site, new ArrayList<SitePluginModel>());
+                payload.notModified = true;
+                mDispatcher.dispatch(PluginActionBuilder.newFetchedPluginDirectoryAction(payload));
+            }
+        });
+        if (forced) {
+            request.setShouldForceUpdate();
+        }
         add(request);
     }
 
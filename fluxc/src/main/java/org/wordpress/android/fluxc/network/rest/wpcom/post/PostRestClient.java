@@ -19,7 +19,10 @@ import org.wordpress.android.fluxc.model.PostModel;
 import org.wordpress.android.fluxc.model.PostsModel;
 import org.wordpress.android.fluxc.model.SiteModel;
 import org.wordpress.android.fluxc.model.list.AuthorFilter;
+import org.wordpress.android.fluxc.model.list.ListOrder;
+import org.wordpress.android.fluxc.model.list.ListPageKey;
 import org.wordpress.android.fluxc.model.list.PostListDescriptor.PostListDescriptorForRestSite;
+import org.wordpress.android.fluxc.model.list.PostListOrderBy;
 import org.wordpress.android.fluxc.model.post.PostLocation;
 import org.wordpress.android.fluxc.model.post.PostStatus;
 import org.wordpress.android.fluxc.model.revisions.Diff;
@@ -27,6 +30,7 @@ import org.wordpress.android.fluxc.model.revisions.DiffOperations;
 import org.wordpress.android.fluxc.model.revisions.RevisionModel;
 import org.wordpress.android.fluxc.model.revisions.RevisionsModel;
 import org.wordpress.android.fluxc.network.UserAgent;
+import org.wordpress.android.fluxc.network.rest.ResponseFields;
 import org.wordpress.android.fluxc.network.rest.wpcom.BaseWPComRestClient;
 import org.wordpress.android.fluxc.network.rest.wpcom.WPComGsonRequest;
 import org.wordpress.android.fluxc.network.rest.wpcom.WPComGsonRequest.WPComErrorListener;
@@ -58,6 +62,8 @@ import java.util.Map;
 
 import javax.inject.Singleton;
 
+import kotlin.Pair;
+
 @Singleton
 public class PostRestClient extends BaseWPComRestClient {
     public PostRestClient(Context appContext, Dispatcher dispatcher, RequestQueue requestQueue, AccessToken accessToken,
@@ -66,7 +72,7 @@ public class PostRestClient extends BaseWPComRestClient {
     }
 
     public void fetchPost(final PostModel post, final SiteModel site) {
-        String url = WPCOMREST.sites.site(site.getSiteId()).posts.post(post.getRemotePostId()).getUrlV1_1();
+        String url = WPCOMREST.sitesSitePostsPost(site.getSiteId(), post.getRemotePostId()).getUrlV1_1();
 
         Map<String, String> params = new HashMap<>();
 
@@ -100,15 +106,31 @@ public class PostRestClient extends BaseWPComRestClient {
         add(request);
     }
 
-    public void fetchPostList(final PostListDescriptorForRestSite listDescriptor, final long offset) {
-        String url = WPCOMREST.sites.site(listDescriptor.getSite().getSiteId()).posts.getUrlV1_1();
+    /**
+     * Fetches a page of the post list described by the {@code listDescriptor}. Lists ordered by date are paged with
+     * the date of the last fetched post (see {@link ListPageKey}) when a {@code pageKey} is given, and by
+     * {@code offset} otherwise.
+     */
+    public void fetchPostList(final PostListDescriptorForRestSite listDescriptor, final long offset,
+                              @Nullable final ListPageKey pageKey) {
+        String url = WPCOMREST.sitesSitePosts(listDescriptor.getSite().getSiteId()).getUrlV1_1();
 
         final int pageSize = listDescriptor.getConfig().getNetworkPageSize();
-        String fields = TextUtils.join(",", Arrays.asList("ID", "modified", "status"));
+        final PostListOrderBy orderBy = listDescriptor.getOrderBy();
+        final boolean isKeysetPaged = orderBy == PostListOrderBy.DATE || orderBy == PostListOrderBy.LAST_MODIFIED;
+        String fields = TextUtils.join(",", Arrays.asList("ID", "date", "modified", "status"));
         Map<String, String> params =
-                createFetchPostListParameters(false, offset, pageSize, listDescriptor.getStatusList(),
-                        listDescriptor.getAuthor(), fields, listDescriptor.getOrder().getValue(),
-                        listDescriptor.getOrderBy().getValue(), listDescriptor.getSearchQuery());
+                createFetchPostListParameters(false, pageKey != null && isKeysetPaged ? 0 : offset, pageSize,
+                        listDescriptor.getStatusList(), listDescriptor.getAuthor(), fields,
+                        listDescriptor.getOrder().getValue(), orderBy.getValue(), listDescriptor.getSearchQuery());
+        if (pageKey != null && isKeysetPaged) {
+            String bound = listDescriptor.getOrder() == ListOrder.ASC ? "after" : "before";
+            params.put(orderBy == PostListOrderBy.DATE ? bound : "modified_" + bound,
+                    pageKey.getDateBound(listDescriptor.getOrder()));
+            if (!pageKey.getRemoteItemIds().isEmpty()) {
+                params.put("exclude", TextUtils.join(",", pageKey.getRemoteItemIds()));
+            }
+        }
 
         final boolean loadedMore = offset > 0;
 
@@ -118,15 +140,22 @@ public class PostRestClient extends BaseWPComRestClient {
                     @Override
                     public void onResponse(PostsResponse response) {
                         List<PostListItem> postListItems = new ArrayList<>(response.getPosts().size());
+                        List<Pair<Long, String>> sortDates = new ArrayList<>(response.getPosts().size());
                         for (PostWPComRestResponse postResponse : response.getPosts()) {
                             postListItems
                                     .add(new PostListItem(postResponse.getRemotePostId(), postResponse.getModified(),
                                             postResponse.getStatus()));
+                            sortDates.add(new Pair<>(postResponse.getRemotePostId(),
+                                    orderBy == PostListOrderBy.DATE ? postResponse.getDate()
+                                            : postResponse.getModified()));
                         }
                         boolean canLoadMore = postListItems.size() == pageSize;
                         FetchPostListResponsePayload responsePayload =
                                 new FetchPostListResponsePayload(listDescriptor, postListItems, loadedMore,
                                         canLoadMore, null);
+                        if (canLoadMore && isKeysetPaged) {
+                            responsePayload.nextPageKey = ListPageKey.afterItems(sortDates, pageKey);
+                        }
                         mDispatcher.dispatch(PostActionBuilder.newFetchedPostListAction(responsePayload));
                     }
                 },
@@ -145,10 +174,11 @@ public class PostRestClient extends BaseWPComRestClient {
 
     public void fetchPosts(final SiteModel site, final boolean getPages, final List<PostStatus> statusList,
                            final int offset, final int number) {
-        String url = WPCOMREST.sites.site(site.getSiteId()).posts.getUrlV1_1();
+        String url = WPCOMREST.sitesSitePosts(site.getSiteId()).getUrlV1_1();
 
         Map<String, String> params =
-                createFetchPostListParameters(getPages, offset, number, statusList, null, null, null, null, null);
+                createFetchPostListParameters(getPages, offset, number, statusList, null,
+                        ResponseFields.of(PostWPComRestResponse.class), null, null, null);
 
         final WPComGsonRequest<PostsResponse> request = WPComGsonRequest.buildGetRequest(url, params,
                 PostsResponse.class,
@@ -27,7 +27,10 @@ import org.wordpress.android.fluxc.model.SiteModel;
 import org.wordpress.android.fluxc.model.SitesModel;
 import org.wordpress.android.fluxc.network.BaseRequest.BaseNetworkError;
 import org.wordpress.android.fluxc.network.BaseRequest.GenericErrorType;
+import org.wordpress.android.fluxc.network.BaseRequest.OnNotModifiedListener;
+import org.wordpress.android.fluxc.network.ResponseValidatorCache;
 import org.wordpress.android.fluxc.network.UserAgent;
+import org.wordpress.android.fluxc.network.rest.ResponseFields;
 import org.wordpress.android.fluxc.network.rest.wpcom.BaseWPComRestClient;
 import org.wordpress.android.fluxc.network.rest.wpcom.WPComGsonRequest;
 import org.wordpress.android.fluxc.network.rest.wpcom.WPComGsonRequest.WPComErrorListener;
@@ -99,10 +102,9 @@ import javax.inject.Singleton;
 @Singleton
 public class SiteRestClient extends BaseWPComRestClient {
     public static final int NEW_SITE_TIMEOUT_MS = 90000;
-    private static final String SITE_FIELDS = "ID,URL,name,description,jetpack,visible,is_private,options,plan,"
-        + "capabilities,quota,icon,meta";
 
     private final AppSecrets mAppSecrets;
+    private final ResponseValidatorCache mValidatorCache;
 
     public static class NewSiteResponsePayload extends Payload<NewSiteError> {
         public NewSiteResponsePayload() {}
@@ -132,14 +134,23 @@ public class SiteRestClient extends BaseWPComRestClient {
     }
 
     public SiteRestClient(Context appContext, Dispatcher dispatcher, RequestQueue requestQueue, AppSecrets appSecrets,
-                          AccessToken accessToken, UserAgent userAgent) {
+                          AccessToken accessToken, UserAgent userAgent, ResponseValidatorCache validatorCache) {
         super(appContext, dispatcher, requestQueue, accessToken, userAgent);
         mAppSecrets = appSecrets;
+        mValidatorCache = validatorCache;
     }
 
     public void fetchSites() {
+        fetchSites(false);
+    }
+
+    /**
+     * The sites are revalidated: if they didn't change since the last fetch, a not modified {@link SitesModel} is
+     * dispatched instead, unless {@code forced} is true.
+     */
+    public void fetchSites(boolean forced) {
         Map<String, String> params = new HashMap<>();
-        params.put("fields", SITE_FIELDS);
+        params.put("fields", ResponseFields.of(SiteWPComRestResponse.class));
         String url = WPCOMREST.me.sites.getUrlV1_1();
         final WPComGsonRequest<SitesResponse> request = WPComGsonRequest.buildGetRequest(url, params,
                 SitesResponse.class,
@@ -170,12 +181,23 @@ public class SiteRestClient extends BaseWPComRestClient {
                     }
                 }
         );
+        request.enableConditionalRequest(mValidatorCache, new OnNotModifiedListener() {
+            @Override
+            public void onNotModified() {
+                SitesModel payload = new SitesModel();
+                payload.setNotModified(true);
+                mDispatcher.dispatch(SiteActionBuilder.newFetchedSitesAction(payload));
+            }
+        });
+        if (forced) {
+            request.setShouldForceUpdate();
+        }
         add(request);
     }
 
     public void fetchSite(final SiteModel site) {
         Map<String, String> params = new HashMap<>();
-        params.put("fields", SITE_FIELDS);
+        params.put("fields", ResponseFields.of(SiteWPComRestResponse.class));
         String url = WPCOMREST.sites.getUrlV1_1() + site.getSiteId();
         final WPComGsonRequest<SiteWPComRestResponse> request = WPComGsonRequest.buildGetRequest(url, params,
                 SiteWPComRestResponse.class,
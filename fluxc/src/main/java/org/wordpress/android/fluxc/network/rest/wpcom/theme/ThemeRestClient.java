@@ -13,7 +13,10 @@ import org.wordpress.android.fluxc.generated.ThemeActionBuilder;
 import org.wordpress.android.fluxc.generated.endpoint.WPCOMREST;
 import org.wordpress.android.fluxc.model.SiteModel;
 import org.wordpress.android.fluxc.model.ThemeModel;
+import org.wordpress.android.fluxc.network.BaseRequest.OnNotModifiedListener;
+import org.wordpress.android.fluxc.network.ResponseValidatorCache;
 import org.wordpress.android.fluxc.network.UserAgent;
+import org.wordpress.android.fluxc.network.rest.ResponseFields;
 import org.wordpress.android.fluxc.network.rest.wpcom.BaseWPComRestClient;
 import org.wordpress.android.fluxc.network.rest.wpcom.WPComGsonRequest;
 import org.wordpress.android.fluxc.network.rest.wpcom.WPComGsonRequest.WPComErrorListener;
@@ -43,9 +46,12 @@ public class ThemeRestClient extends BaseWPComRestClient {
     private static final String WP_THEME_FETCH_NUMBER_PARAM = "number=500";
     private static final String WPCOM_MOBILE_FRIENDLY_TAXONOMY_SLUG = "mobile-friendly";
 
+    private final ResponseValidatorCache mValidatorCache;
+
     public ThemeRestClient(Context appContext, Dispatcher dispatcher, RequestQueue requestQueue,
-                           AccessToken accessToken, UserAgent userAgent) {
+                           AccessToken accessToken, UserAgent userAgent, ResponseValidatorCache validatorCache) {
         super(appContext, dispatcher, requestQueue, accessToken, userAgent);
+        mValidatorCache = validatorCache;
     }
 
     /** [Undocumented!] Endpoint: v1.1/sites/$siteId/themes/$themeId/delete */
@@ -130,8 +136,19 @@ public class ThemeRestClient extends BaseWPComRestClient {
      * @see <a href="https://developer.wordpress.com/docs/api/1.1/get/themes/">Previous version</a>
      */
     public void fetchWpComThemes() {
+        fetchWpComThemes(false);
+    }
+
+    /**
+     * The themes are revalidated: if they didn't change since the last fetch, a not modified
+     * {@link FetchedWpComThemesPayload} is dispatched instead, unless {@code forced} is true.
+     */
+    public void fetchWpComThemes(boolean forced) {
         String url = WPCOMREST.themes.getUrlV1_2() + "?" + WP_THEME_FETCH_NUMBER_PARAM;
-        add(WPComGsonRequest.buildGetRequest(url, null, WPComThemeListResponse.class,
+        Map<String, String> params = new HashMap<>();
+        params.put("fields", ResponseFields.of(WPComThemeResponse.class));
+        WPComGsonRequest<WPComThemeListResponse> request = WPComGsonRequest.buildGetRequest(url, params,
+                WPComThemeListResponse.class,
                 new Response.Listener<WPComThemeListResponse>() {
                     @Override
                     public void onResponse(WPComThemeListResponse response) {
@@ -149,7 +166,19 @@ public class ThemeRestClient extends BaseWPComRestClient {
                         FetchedWpComThemesPayload payload = new FetchedWpComThemesPayload(themeError);
                         mDispatcher.dispatch(ThemeActionBuilder.newFetchedWpComThemesAction(payload));
                     }
-                }));
+                });
+        request.enableConditionalRequest(mValidatorCache, new OnNotModifiedListener() {
+            @Override
+            public void onNotModified() {
+                FetchedWpComThemesPayload payload = new FetchedWpComThemesPayload(new ArrayList<ThemeModel>());
+                payload.notModified = true;
+                mDispatcher.dispatch(ThemeActionBuilder.newFetchedWpComThemesAction(payload));
+            }
+        });
+        if (forced) {
+            request.setShouldForceUpdate();
+        }
+        add(request);
     }
 
     /**
@@ -157,8 +186,19 @@ public class ThemeRestClient extends BaseWPComRestClient {
      * @see <a href="https://developer.wordpress.com/docs/api/1.1/get/sites/%24site/themes/">Similar endpoint</a>
      */
     public void fetchJetpackInstalledThemes(@NonNull final SiteModel site) {
+        fetchJetpackInstalledThemes(site, false);
+    }
+
+    /**
+     * The themes are revalidated: if they didn't change since the last fetch, a not modified
+     * {@link FetchedSiteThemesPayload} is dispatched instead, unless {@code forced} is true.
+     */
+    public void fetchJetpackInstalledThemes(@NonNull final SiteModel site, boolean forced) {
         String url = WPCOMREST.sites.site(site.getSiteId()).themes.getUrlV1();
-        add(WPComGsonRequest.buildGetRequest(url, null, JetpackThemeListResponse.class,
+        Map<String, String> params = new HashMap<>();
+        params.put("fields", ResponseFields.of(JetpackThemeResponse.class));
+        WPComGsonRequest<JetpackThemeListResponse> request = WPComGsonRequest.buildGetRequest(url, params,
+                JetpackThemeListResponse.class,
                 new Response.Listener<JetpackThemeListResponse>() {
                     @Override
                     public void onResponse(JetpackThemeListResponse response) {
@@ -175,7 +215,19 @@ public class ThemeRestClient extends BaseWPComRestClient {
                         FetchedSiteThemesPayload payload = new FetchedSiteThemesPayload(site, themeError);
                         mDispatcher.dispatch(ThemeActionBuilder.newFetchedInstalledThemesAction(payload));
                     }
-                }));
+                });
+        request.enableConditionalRequest(mValidatorCache, new OnNotModifiedListener() {
+            @Override
+            public void onNotModified() {
+                FetchedSiteThemesPayload payload = new FetchedSiteThemesPayload(site, new ArrayList<ThemeModel>());
+                payload.notModified = true;
+                mDispatcher.dispatch(ThemeActionBuilder.newFetchedInstalledThemesAction(payload));
+            }
+        });
+        if (forced) {
+            request.setShouldForceUpdate();
+        }
+        add(request);
     }
 
     /**
@@ -0,0 +1,94 @@
+package org.wordpress.android.fluxc.persistence
+
+import android.database.DatabaseUtils
+import com.yarolegovich.wellsql.WellSql
+import org.wordpress.android.util.AppLog
+import org.wordpress.android.util.AppLog.T
+import java.io.File
+import java.util.concurrent.Executors
+import java.util.concurrent.atomic.AtomicBoolean
+
+/**
+ * Returns the space freed by deleted rows to the file system. SQLite keeps freed pages in the database file to reuse
+ * them, so without compaction the file never shrinks after pruning.
+ */
+object DatabaseCompactionUtils {
+    const val DEFAULT_MAX_PAGES = 1024
+    const val DEFAULT_MAX_FULL_VACUUM_SIZE = 64L * 1024 * 1024
+
+    private const val AUTO_VACUUM_INCREMENTAL = 2L
+
+    private val fullVacuumExecutor = Executors.newSingleThreadExecutor()
+    private val fullVacuumScheduled = AtomicBoolean()
+
+    /**
+     * Releases up to [maxPages] free pages, using incremental vacuum so the database is only locked for the time it
+     * takes to move those pages.
+     *
+     * Databases are created with incremental vacuum enabled (see [WellSqlConfig.onConfigure]). Databases created
+     * before that need a full `VACUUM` to enable it, which rewrites the whole file: it's run once, on a background
+     * thread, and only if the database isn't larger than [maxFullVacuumSize]. Nothing is reclaimed by that call.
+     * This must not be called inside a transaction.
+     *
+     * @return the number of bytes the database file shrunk by
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun compact(maxPages: Int = DEFAULT_MAX_PAGES, maxFullVacuumSize: Long = DEFAULT_MAX_FULL_VACUUM_SIZE): Long {
+        val db = WellSql.giveMeWritableDb()
+        if (DatabaseUtils.longForQuery(db, "PRAGMA auto_vacuum", null) != AUTO_VACUUM_INCREMENTAL) {
+            scheduleFullVacuum(maxFullVacuumSize)
+            return 0
+        }
+
+        val pageSize = DatabaseUtils.longForQuery(db, "PRAGMA page_size", null)
+        val pageCountBefore = DatabaseUtils.longForQuery(db, "PRAGMA page_count", null)
+        // The pragma frees one page per step, so the statement has to be stepped through rather than executed
+        db.rawQuery("PRAGMA incremental_vacuum($maxPages)", null).use { cursor ->
+            while (cursor.moveToNext()) {
+                // Nothing to read
+            }
+        }
+
+        val reclaimedBytes = (pageCountBefore - DatabaseUtils.longForQuery(db, "PRAGMA page_count", null)) * pageSize
+        AppLog.d(T.DB, "Database compacted, $reclaimedBytes bytes reclaimed")
+        return reclaimedBytes
+    }
+
+    /**
+     * Enables incremental vacuum on a database created without it, with a full `VACUUM`. This rewrites the whole
+     * database, which is locked meanwhile, and needs as much free space as its size.
+     *
+     * @return whether incremental vacuum is enabled
+     */
+    @JvmStatic
+    fun enableIncrementalVacuum(): Boolean {
+        val db = WellSql.giveMeWritableDb()
+        if (DatabaseUtils.longForQuery(db, "PRAGMA auto_vacuum", null) != AUTO_VACUUM_INCREMENTAL) {
+            val start = System.currentTimeMillis()
+            db.execSQL("PRAGMA auto_vacuum = INCREMENTAL")
+            db.execSQL("VACUUM")
+            AppLog.i(T.DB, "Enabled incremental vacuum in ${System.currentTimeMillis() - start} ms")
+        }
+        return DatabaseUtils.longForQuery(db, "PRAGMA auto_vacuum", null) == AUTO_VACUUM_INCREMENTAL
+    }
+
+    private fun scheduleFullVacuum(maxFullVacuumSize: Long) {
+        val databaseFile = File(WellSql.giveMeWritableDb().path)
+        val size = databaseFile.length()
+        if (size > maxFullVacuumSize || size > databaseFile.usableSpace) {
+            AppLog.i(T.DB, "Not enabling incremental vacuum on a database of $size bytes")
+            return
+        }
+        if (fullVacuumScheduled.compareAndSet(false, true)) {
+            fullVacuumExecutor.execute {
+                try {
+                    enableIncrementalVacuum()
+                } catch (e: RuntimeException) {
+                    AppLog.e(T.DB, "Failed to enable incremental vacuum", e)
+                    fullVacuumScheduled.set(false)
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package org.wordpress.android.fluxc.persistence;
+
+import androidx.annotation.Nullable;
+
+import com.wellsql.generated.DiscoveryResultModelTable;
+import com.yarolegovich.wellsql.WellSql;
+
+import org.wordpress.android.fluxc.model.DiscoveryResultModel;
+
+import java.util.List;
+
+public class DiscoveryResultSqlUtils {
+    public static void insertOrReplaceDiscoveryResult(DiscoveryResultModel model) {
+        // The SITE_URL column is unique, an existing result is replaced
+        WellSql.insert(model).asSingleTransaction(true).execute();
+    }
+
+    @Nullable
+    public static DiscoveryResultModel getDiscoveryResult(String siteUrl) {
+        List<DiscoveryResultModel> results = WellSql.select(DiscoveryResultModel.class)
+                .where().equals(DiscoveryResultModelTable.SITE_URL, siteUrl).endWhere()
+                .getAsModel();
+        return results.isEmpty() ? null : results.get(0);
+    }
+
+    @Nullable
+    public static DiscoveryResultModel getDiscoveryResultForXmlRpcEndpoint(String xmlRpcEndpoint) {
+        List<DiscoveryResultModel> results = WellSql.select(DiscoveryResultModel.class)
+                .where().equals(DiscoveryResultModelTable.XML_RPC_ENDPOINT, xmlRpcEndpoint).endWhere()
+                .getAsModel();
+        return results.isEmpty() ? null : results.get(0);
+    }
+
+    public static int deleteDiscoveryResult(String siteUrl) {
+        return WellSql.delete(DiscoveryResultModel.class)
+                .where().equals(DiscoveryResultModelTable.SITE_URL, siteUrl).endWhere()
+                .execute();
+    }
+
+    /**
+     * Deletes the stored results which are errors requiring user interaction, e.g. once the user entered HTTP auth
+     * credentials or accepted a certificate, which they may not require anymore.
+     */
+    public static int deleteDiscoveryErrors() {
+        return WellSql.giveMeWritableDb().delete("DiscoveryResultModel",
+                DiscoveryResultModelTable.DISCOVERY_ERROR + " IS NOT NULL", null);
+    }
+}
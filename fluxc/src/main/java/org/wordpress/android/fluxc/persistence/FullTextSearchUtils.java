@@ -0,0 +1,153 @@
+package org.wordpress.android.fluxc.persistence;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.text.TextUtils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Helpers for creating and querying the SQLite FTS4 search indexes (e.g. {@link PostSearchIndex}).
+ *
+ * Indexes use the default 'simple' tokenizer (available on all supported API levels): tokens are runs of ASCII
+ * letters and digits or non-ASCII characters, and only ASCII characters are case folded - the same case sensitivity
+ * as the LIKE queries the indexes replace.
+ */
+public class FullTextSearchUtils {
+    /**
+     * Only the first terms of very long queries are used, as each term adds a lookup.
+     */
+    public static final int MAX_QUERY_TERMS = 8;
+
+    public static final String DOC_ID = "docid";
+
+    private static final String ID = "_id";
+
+    private FullTextSearchUtils() {
+    }
+
+    /**
+     * Creates an FTS4 index over the given columns of a table, dropping any previous version, and fills it.
+     *
+     * The index shares its row ids ({@link #DOC_ID}) with the table's {@code _id}, and is kept in sync by triggers
+     * on the table, so every insert, update and delete (whether from the SqlUtils or a cascade) is reflected without
+     * extra queries.
+     */
+    public static void recreateIndex(@NonNull SQLiteDatabase db, @NonNull String indexTable,
+                                     @NonNull String contentTable, @NonNull String... columns) {
+        dropIndex(db, indexTable);
+        createIndex(db, indexTable, contentTable, columns);
+        String columnList = TextUtils.join(",", columns);
+        db.execSQL("CREATE TRIGGER " + indexTable + "_insert AFTER INSERT ON " + contentTable + " BEGIN "
+                   + insertStatement(indexTable, "new", columns) + " END");
+        db.execSQL("CREATE TRIGGER " + indexTable + "_update AFTER UPDATE OF " + columnList + " ON " + contentTable
+                   + " BEGIN " + deleteStatement(indexTable, "old") + insertStatement(indexTable, "new", columns)
+                   + " END");
+        db.execSQL("INSERT INTO " + indexTable + "(" + DOC_ID + "," + columnList + ") SELECT " + ID + ","
+                   + columnList + " FROM " + contentTable);
+    }
+
+    /**
+     * Creates an empty FTS4 index with the given columns, whose rows are removed along with the rows of the table
+     * sharing their row ids. Used for indexes of derived text, which is written by the SqlUtils.
+     */
+    public static void createIndex(@NonNull SQLiteDatabase db, @NonNull String indexTable,
+                                   @NonNull String contentTable, @NonNull String... columns) {
+        db.execSQL("CREATE VIRTUAL TABLE " + indexTable + " USING fts4(" + TextUtils.join(",", columns) + ")");
+        db.execSQL("CREATE TRIGGER " + indexTable + "_delete AFTER DELETE ON " + contentTable + " BEGIN "
+                   + deleteStatement(indexTable, "old") + " END");
+    }
+
+    public static void dropIndex(@NonNull SQLiteDatabase db, @NonNull String indexTable) {
+        db.execSQL("DROP TRIGGER IF EXISTS " + indexTable + "_insert");
+        db.execSQL("DROP TRIGGER IF EXISTS " + indexTable + "_update");
+        db.execSQL("DROP TRIGGER IF EXISTS " + indexTable + "_delete");
+        db.execSQL("DROP TABLE IF EXISTS " + indexTable);
+    }
+
+    /**
+     * Builds an FTS MATCH expression from free text typed by the user: every term must match the start of a token
+     * (e.g. 'word pres' matches 'WordPress press'). Characters the tokenizer ignores, and with them any FTS query
+     * syntax, are dropped.
+     *
+     * @return the MATCH expression, or null if the text doesn't contain any searchable term
+     */
+    @Nullable
+    public static String buildPrefixMatchQuery(@Nullable String text) {
+        if (text == null) {
+            return null;
+        }
+
+        List<String> terms = new ArrayList<>();
+        StringBuilder term = new StringBuilder();
+        for (int i = 0; i <= text.length() && terms.size() < MAX_QUERY_TERMS; i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (isTokenChar(c)) {
+                term.append(c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c);
+            } else if (term.length() > 0) {
+                terms.add(term.toString());
+                term.setLength(0);
+            }
+        }
+
+        if (terms.isEmpty()) {
+            return null;
+        }
+
+        StringBuilder matchQuery = new StringBuilder();
+        for (String queryTerm : terms) {
+            if (matchQuery.length() > 0) {
+                matchQuery.append(' ');
+            }
+            matchQuery.append(queryTerm).append('*');
+        }
+        return matchQuery.toString();
+    }
+
+    /**
+     * Scores a row from the {@code matchinfo(<table>, 'pcx')} blob returned with it: for each query term and column,
+     * the share of the term's hits (across all matching rows) that are in this row, multiplied by the column's weight.
+     *
+     * @param columnWeights the weight of each indexed column, in the order they were declared
+     */
+    public static double getRank(@NonNull byte[] matchInfo, @NonNull double[] columnWeights) {
+        ByteBuffer buffer = ByteBuffer.wrap(matchInfo).order(ByteOrder.nativeOrder());
+        int phraseCount = buffer.getInt(0);
+        int columnCount = buffer.getInt(4);
+
+        double rank = 0;
+        for (int phrase = 0; phrase < phraseCount; phrase++) {
+            for (int column = 0; column < columnCount && column < columnWeights.length; column++) {
+                int offset = 8 + 12 * (phrase * columnCount + column);
+                int hitsThisRow = buffer.getInt(offset);
+                int hitsAllRows = buffer.getInt(offset + 4);
+                if (hitsThisRow > 0 && hitsAllRows > 0) {
+                    rank += columnWeights[column] * hitsThisRow / hitsAllRows;
+                }
+            }
+        }
+        return rank;
+    }
+
+    private static String insertStatement(String indexTable, String row, String... columns) {
+        StringBuilder values = new StringBuilder(row).append('.').append(ID);
+        for (String column : columns) {
+            values.append(',').append(row).append('.').append(column);
+        }
+        return "INSERT INTO " + indexTable + "(" + DOC_ID + "," + TextUtils.join(",", columns) + ") VALUES ("
+               + values + ");";
+    }
+
+    private static String deleteStatement(String indexTable, String row) {
+        return "DELETE FROM " + indexTable + " WHERE " + DOC_ID + " = " + row + "." + ID + ";";
+    }
+
+    private static boolean isTokenChar(char c) {
+        return c >= 128 || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+    }
+}
@@ -0,0 +1,195 @@
+package org.wordpress.android.fluxc.persistence;
+
+import android.util.LruCache;
+import android.util.SparseArray;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.yarolegovich.wellsql.SelectQuery;
+import com.yarolegovich.wellsql.WellCursor;
+import com.yarolegovich.wellsql.WellSql;
+import com.yarolegovich.wellsql.core.Identifiable;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Read-only list of the rows matched by a query, loading the models by windows when they're accessed.
+ *
+ * Only the ids of the rows are read when the list is created, so listing a large media library or a large number of
+ * sites doesn't build every model at once. Models are then loaded {@link #DEFAULT_WINDOW_SIZE} at a time, and only
+ * the last few windows are kept, the models of the others can be garbage collected.
+ *
+ * The models are read from the database by {@link #get(int)}, on the calling thread: lists shouldn't be read on the
+ * main thread.
+ *
+ * The rows are the ones matched when the list was created. Rows deleted since then are skipped when their window is
+ * loaded, which shortens the list: {@link #size()} can decrease, and an iteration running meanwhile can skip rows.
+ *
+ * With recycling, the models of the windows which are dropped are reused for the windows loaded next, instead of
+ * creating new ones. A model must then be used or copied before the next {@code CACHED_WINDOWS * windowSize} rows
+ * are read, e.g. when binding an adapter item.
+ */
+public class LazyModelList<T extends Identifiable> extends AbstractList<T> implements RandomAccess {
+    public static final int DEFAULT_WINDOW_SIZE = 100;
+    private static final int CACHED_WINDOWS = 3;
+
+    private final Class<T> mModelClass;
+    private final String mIdColumn;
+    private final int[] mIds;
+    private int mSize;
+    private final int mWindowSize;
+    private final LruCache<Integer, List<T>> mWindows;
+    private final @Nullable ModelFiller<T> mFiller;
+    private final ArrayDeque<T> mRecycledModels = new ArrayDeque<>();
+
+    /**
+     * @param query the query selecting the rows, in the order of the list
+     * @param idColumn the id column of the table of {@code modelClass}, e.g. {@code MediaModelTable.ID}
+     */
+    public LazyModelList(@NonNull Class<T> modelClass, @NonNull SelectQuery<T> query, @NonNull String idColumn) {
+        this(modelClass, query, idColumn, DEFAULT_WINDOW_SIZE, false);
+    }
+
+    public LazyModelList(@NonNull Class<T> modelClass, @NonNull SelectQuery<T> query, @NonNull String idColumn,
+                         int windowSize) {
+        this(modelClass, query, idColumn, windowSize, false);
+    }
+
+    /**
+     * @param recycleModels whether to reuse the models of dropped windows, if {@code modelClass} allows it
+     */
+    public LazyModelList(@NonNull Class<T> modelClass, @NonNull SelectQuery<T> query, @NonNull String idColumn,
+                         int windowSize, boolean recycleModels) {
+        mModelClass = modelClass;
+        mIdColumn = idColumn;
+        mIds = readIds(query.columns(idColumn).getAsCursor());
+        mSize = mIds.length;
+        mWindowSize = windowSize;
+        mFiller = recycleModels ? ModelFiller.create(modelClass) : null;
+        mWindows = new LruCache<Integer, List<T>>(CACHED_WINDOWS) {
+            @Override
+            protected void entryRemoved(boolean evicted, Integer key, List<T> oldValue, List<T> newValue) {
+                if (mFiller != null) {
+                    mRecycledModels.addAll(oldValue);
+                }
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        synchronized (mWindows) {
+            return mSize;
+        }
+    }
+
+    @Override
+    public @NonNull T get(int index) {
+        synchronized (mWindows) {
+            while (true) {
+                if (index < 0 || index >= mSize) {
+                    throw new IndexOutOfBoundsException("Index: " + index + ", size: " + mSize);
+                }
+                int window = index / mWindowSize;
+                List<T> models = mWindows.get(window);
+                if (models == null) {
+                    models = loadWindow(window);
+                    if (models == null) {
+                        removeWindowsAfter(window);
+                        // Rows were deleted, and the next ones moved into this window
+                        continue;
+                    }
+                    mWindows.put(window, models);
+                }
+                return models.get(index - window * mWindowSize);
+            }
+        }
+    }
+
+    /**
+     * @return the models of the window, or null if some of its rows were deleted: they're then removed from the list
+     */
+    private @Nullable List<T> loadWindow(int window) {
+        int start = window * mWindowSize;
+        int end = Math.min(start + mWindowSize, mSize);
+        List<Integer> ids = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            ids.add(mIds[i]);
+        }
+
+        SparseArray<T> modelsById = new SparseArray<>(ids.size());
+        SelectQuery<T> query = WellSql.select(mModelClass).where().isIn(mIdColumn, ids).endWhere();
+        if (mFiller != null) {
+            WellCursor<T> cursor = query.getAsCursor();
+            try {
+                while (cursor.moveToNext()) {
+                    T model = mRecycledModels.isEmpty() ? mFiller.newModel() : mRecycledModels.poll();
+                    mFiller.fill(model, cursor);
+                    modelsById.put(model.getId(), model);
+                }
+            } finally {
+                cursor.close();
+            }
+        } else {
+            for (T model : query.getAsModel()) {
+                modelsById.put(model.getId(), model);
+            }
+        }
+
+        if (modelsById.size() < ids.size()) {
+            removeDeletedIds(start, end, modelsById);
+            return null;
+        }
+
+        // Put back in the order of the query
+        List<T> models = new ArrayList<>(ids.size());
+        for (int id : ids) {
+            models.add(modelsById.get(id));
+        }
+        return models;
+    }
+
+    private void removeDeletedIds(int start, int end, SparseArray<T> existingModelsById) {
+        int kept = start;
+        for (int i = start; i < end; i++) {
+            if (existingModelsById.get(mIds[i]) != null) {
+                mIds[kept++] = mIds[i];
+            }
+        }
+        System.arraycopy(mIds, end, mIds, kept, mSize - end);
+        mSize -= end - kept;
+
+        if (mFiller != null) {
+            for (int i = 0; i < existingModelsById.size(); i++) {
+                mRecycledModels.add(existingModelsById.valueAt(i));
+            }
+        }
+    }
+
+    private void removeWindowsAfter(int window) {
+        // Their rows moved back
+        for (Integer cachedWindow : mWindows.snapshot().keySet()) {
+            if (cachedWindow > window) {
+                mWindows.remove(cachedWindow);
+            }
+        }
+    }
+
+    private static int[] readIds(WellCursor<?> cursor) {
+        try {
+            int[] ids = new int[cursor.getCount()];
+            int i = 0;
+            while (cursor.moveToNext()) {
+                ids[i++] = cursor.getInt(0);
+            }
+            return ids;
+        } finally {
+            cursor.close();
+        }
+    }
+}
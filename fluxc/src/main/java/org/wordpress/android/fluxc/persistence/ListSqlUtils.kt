@@ -6,6 +6,7 @@ import com.yarolegovich.wellsql.WellSql
 import org.wordpress.android.fluxc.model.list.ListDescriptor
 import org.wordpress.android.fluxc.model.list.ListDescriptorTypeIdentifier
 import org.wordpress.android.fluxc.model.list.ListModel
+import org.wordpress.android.fluxc.model.list.ListPageKey
 import org.wordpress.android.fluxc.model.list.ListState
 import org.wordpress.android.util.DateTimeUtils
 import java.util.Date
@@ -46,6 +47,22 @@ class ListSqlUtils @Inject constructor() {
         }
     }
 
+    /**
+     * This function saves the [ListPageKey] of the next page to be fetched for the [listDescriptor], or clears it if
+     * [nextPageKey] is null. The list needs to be inserted with [insertOrUpdateList] beforehand.
+     */
+    fun updateNextPageKey(listDescriptor: ListDescriptor, nextPageKey: ListPageKey?) {
+        val existing = getList(listDescriptor) ?: return
+        existing.nextPageKeyDbValue = nextPageKey?.toDbValue()
+        WellSql.update<ListModel>(ListModel::class.java)
+                .whereId(existing.id)
+                .put(existing) { item ->
+                    val cv = ContentValues()
+                    cv.put(ListModelTable.NEXT_PAGE_KEY_DB_VALUE, item.nextPageKeyDbValue)
+                    cv
+                }.execute()
+    }
+
     /**
      * This function returns the [ListModel] record for the given [listDescriptor] if there is one.
      */
@@ -0,0 +1,42 @@
+package org.wordpress.android.fluxc.persistence;
+
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.annotation.NonNull;
+
+import com.wellsql.generated.MediaModelTable;
+
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.AppLog.T;
+
+/**
+ * FTS4 index over the title, caption, description and file name of the media in the MediaModel table, used by
+ * {@link MediaSqlUtils} to search a site's media library without scanning the whole table.
+ *
+ * The MIME type isn't indexed: searches by media type filter on the MIME_TYPE column of MediaModel instead, so words
+ * of the query don't match types (e.g. "image" matching every image).
+ *
+ * The index shares its row ids (docid) with MediaModel and is kept in sync by triggers on MediaModel (see
+ * {@link FullTextSearchUtils#recreateIndex}).
+ */
+public class MediaSearchIndex {
+    public static final String TABLE_NAME = "MediaModelFts";
+    public static final String DOC_ID = FullTextSearchUtils.DOC_ID;
+
+    private MediaSearchIndex() {
+    }
+
+    /**
+     * Creates the index and its triggers, dropping any previous version, and fills it from the MediaModel table.
+     * Must be called whenever the MediaModel table is (re)created.
+     */
+    public static void recreate(@NonNull SQLiteDatabase db) {
+        AppLog.d(T.DB, "Rebuilding media search index");
+        FullTextSearchUtils.recreateIndex(db, TABLE_NAME, "MediaModel", MediaModelTable.TITLE,
+                MediaModelTable.CAPTION, MediaModelTable.DESCRIPTION, MediaModelTable.FILE_NAME);
+    }
+
+    public static void drop(@NonNull SQLiteDatabase db) {
+        FullTextSearchUtils.dropIndex(db, TABLE_NAME);
+    }
+}
@@ -1,7 +1,11 @@
 package org.wordpress.android.fluxc.persistence;
 
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
 import android.text.TextUtils;
 
+import androidx.annotation.Nullable;
+
 import com.wellsql.generated.MediaModelTable;
 import com.yarolegovich.wellsql.ConditionClauseBuilder;
 import com.yarolegovich.wellsql.DeleteQuery;
@@ -15,13 +19,28 @@ import org.wordpress.android.fluxc.model.SiteModel;
 import org.wordpress.android.fluxc.utils.MediaUtils;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class MediaSqlUtils {
+    /**
+     * Maximum number of arguments bound to a single statement (SQLite's limit is 999 on older versions).
+     */
+    private static final int MAX_SQL_VARIABLES = 900;
+
+    private static final String[] SEARCH_MIME_TYPES = {MediaUtils.MIME_TYPE_IMAGE, MediaUtils.MIME_TYPE_VIDEO,
+            MediaUtils.MIME_TYPE_AUDIO, MediaUtils.MIME_TYPE_APPLICATION};
+
     public static List<MediaModel> getAllSiteMedia(SiteModel siteModel) {
         return getAllSiteMediaQuery(siteModel).getAsModel();
     }
 
+    public static List<MediaModel> getAllSiteMediaAsLazyList(SiteModel siteModel, boolean recycleModels) {
+        return new LazyModelList<>(MediaModel.class, getAllSiteMediaQuery(siteModel), MediaModelTable.ID,
+                LazyModelList.DEFAULT_WINDOW_SIZE, recycleModels);
+    }
+
     public static WellCursor<MediaModel> getAllSiteMediaAsCursor(SiteModel siteModel) {
         return getAllSiteMediaQuery(siteModel).getAsCursor();
     }
@@ -122,29 +141,166 @@ public class MediaSqlUtils {
         }
     }
 
+    /**
+     * Searches the title, caption, description and file name of the site's media, using {@link MediaSearchIndex}:
+     * every term of the query must match the start of a word. Most recent media first.
+     */
     public static List<MediaModel> searchSiteMedia(SiteModel siteModel, String searchTerm) {
-        return searchSiteMediaQuery(siteModel, searchTerm).getAsModel();
+        return searchSiteMediaByMimeType(siteModel, searchTerm, null);
     }
 
     public static List<MediaModel> searchSiteImages(SiteModel siteModel, String searchTerm) {
-        return searchSiteMediaByMimeTypeQuery(siteModel, searchTerm, MediaUtils.MIME_TYPE_IMAGE).getAsModel();
+        return searchSiteMediaByMimeType(siteModel, searchTerm, MediaUtils.MIME_TYPE_IMAGE);
     }
 
     public static List<MediaModel> searchSiteAudio(SiteModel siteModel, String searchTerm) {
-        return searchSiteMediaByMimeTypeQuery(siteModel, searchTerm, MediaUtils.MIME_TYPE_AUDIO).getAsModel();
+        return searchSiteMediaByMimeType(siteModel, searchTerm, MediaUtils.MIME_TYPE_AUDIO);
     }
 
     public static List<MediaModel> searchSiteVideos(SiteModel siteModel, String searchTerm) {
-        return searchSiteMediaByMimeTypeQuery(siteModel, searchTerm, MediaUtils.MIME_TYPE_VIDEO).getAsModel();
+        return searchSiteMediaByMimeType(siteModel, searchTerm, MediaUtils.MIME_TYPE_VIDEO);
     }
 
     public static List<MediaModel> searchSiteDocuments(SiteModel siteModel, String searchTerm) {
-        return searchSiteMediaByMimeTypeQuery(siteModel, searchTerm, MediaUtils.MIME_TYPE_APPLICATION).getAsModel();
+        return searchSiteMediaByMimeType(siteModel, searchTerm, MediaUtils.MIME_TYPE_APPLICATION);
     }
 
+    /**
+     * Cursor over the results of {@link #searchSiteMedia}. The matching rows are selected by a subquery on the search
+     * index, so there's no limit on the number of results.
+     */
     public static WellCursor<MediaModel> searchSiteMediaAsCursor(SiteModel siteModel,
                                                                  String searchTerm) {
-        return searchSiteMediaQuery(siteModel, searchTerm).getAsCursor();
+        String matchQuery = FullTextSearchUtils.buildPrefixMatchQuery(searchTerm);
+        if (matchQuery == null) {
+            return searchSiteMediaQuery(siteModel, searchTerm).getAsCursor();
+        }
+        Cursor cursor = WellSql.giveMeReadableDb().rawQuery(
+                "SELECT * FROM MediaModel WHERE " + MediaModelTable.ID + " IN (SELECT " + MediaSearchIndex.DOC_ID
+                + " FROM " + MediaSearchIndex.TABLE_NAME + " WHERE " + MediaSearchIndex.TABLE_NAME + " MATCH ?)"
+                + " AND " + MediaModelTable.LOCAL_SITE_ID + " = ?"
+                + " ORDER BY " + MediaModelTable.UPLOAD_DATE + " DESC, " + MediaModelTable.ID + " ASC",
+                new String[]{matchQuery, String.valueOf(siteModel.getId())});
+        return new WellCursor<>(cursor, WellSql.mapperFor(MediaModel.class));
+    }
+
+    /**
+     * Counts the results of {@link #searchSiteMedia} for each media type, e.g. to show the number of matching
+     * images, videos, audio files and documents without running each search.
+     *
+     * @return the number of results keyed by {@link MediaUtils#MIME_TYPE_IMAGE}, {@link MediaUtils#MIME_TYPE_VIDEO},
+     * {@link MediaUtils#MIME_TYPE_AUDIO} and {@link MediaUtils#MIME_TYPE_APPLICATION}
+     */
+    public static Map<String, Integer> getSiteMediaSearchCountsByMimeType(SiteModel siteModel, String searchTerm) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (String mimeType : SEARCH_MIME_TYPES) {
+            counts.put(mimeType, 0);
+        }
+
+        String matchQuery = FullTextSearchUtils.buildPrefixMatchQuery(searchTerm);
+        if (matchQuery == null) {
+            for (MediaModel media : searchSiteMediaQuery(siteModel, searchTerm).getAsModel()) {
+                addToMimeTypeCount(counts, media.getMimeType(), 1);
+            }
+            return counts;
+        }
+
+        Cursor cursor = WellSql.giveMeReadableDb().rawQuery(
+                "SELECT m." + MediaModelTable.MIME_TYPE + ", COUNT(*) FROM " + MediaSearchIndex.TABLE_NAME
+                + " JOIN MediaModel m ON m." + MediaModelTable.ID + " = " + MediaSearchIndex.TABLE_NAME + "."
+                + MediaSearchIndex.DOC_ID
+                + " WHERE " + MediaSearchIndex.TABLE_NAME + " MATCH ? AND m." + MediaModelTable.LOCAL_SITE_ID + " = ?"
+                + " GROUP BY m." + MediaModelTable.MIME_TYPE,
+                new String[]{matchQuery, String.valueOf(siteModel.getId())});
+        try {
+            while (cursor.moveToNext()) {
+                addToMimeTypeCount(counts, cursor.getString(0), cursor.getInt(1));
+            }
+        } finally {
+            cursor.close();
+        }
+        return counts;
+    }
+
+    private static void addToMimeTypeCount(Map<String, Integer> counts, String mimeType, int count) {
+        for (String searchMimeType : SEARCH_MIME_TYPES) {
+            if (mimeType != null && mimeType.startsWith(searchMimeType)) {
+                counts.put(searchMimeType, counts.get(searchMimeType) + count);
+                return;
+            }
+        }
+    }
+
+    private static List<MediaModel> searchSiteMediaByMimeType(SiteModel siteModel, String searchTerm,
+                                                              @Nullable String mimeTypePrefix) {
+        String matchQuery = FullTextSearchUtils.buildPrefixMatchQuery(searchTerm);
+        if (matchQuery == null) {
+            // The search term doesn't contain any word the search index can match (e.g. only punctuation)
+            if (mimeTypePrefix == null) {
+                return searchSiteMediaQuery(siteModel, searchTerm).getAsModel();
+            }
+            return searchSiteMediaByMimeTypeQuery(siteModel, searchTerm, mimeTypePrefix).getAsModel();
+        }
+        return getMediaWithLocalIds(searchSiteMediaLocalIds(siteModel, matchQuery, mimeTypePrefix));
+    }
+
+    private static List<Integer> searchSiteMediaLocalIds(SiteModel siteModel, String matchQuery,
+                                                         @Nullable String mimeTypePrefix) {
+        List<String> args = new ArrayList<>();
+        args.add(matchQuery);
+        args.add(String.valueOf(siteModel.getId()));
+        String mimeTypeClause = "";
+        if (mimeTypePrefix != null) {
+            mimeTypeClause = " AND m." + MediaModelTable.MIME_TYPE + " LIKE ?";
+            args.add(mimeTypePrefix + "%");
+        }
+
+        Cursor cursor = WellSql.giveMeReadableDb().rawQuery(
+                "SELECT m." + MediaModelTable.ID + " FROM " + MediaSearchIndex.TABLE_NAME
+                + " JOIN MediaModel m ON m." + MediaModelTable.ID + " = " + MediaSearchIndex.TABLE_NAME + "."
+                + MediaSearchIndex.DOC_ID
+                + " WHERE " + MediaSearchIndex.TABLE_NAME + " MATCH ? AND m." + MediaModelTable.LOCAL_SITE_ID + " = ?"
+                + mimeTypeClause
+                + " ORDER BY m." + MediaModelTable.UPLOAD_DATE + " DESC, m." + MediaModelTable.ID + " ASC",
+                args.toArray(new String[0]));
+        List<Integer> localIds = new ArrayList<>();
+        try {
+            while (cursor.moveToNext()) {
+                localIds.add(cursor.getInt(0));
+            }
+        } finally {
+            cursor.close();
+        }
+        return localIds;
+    }
+
+    /**
+     * Loads the media with the given local ids, keeping their order. The ids are queried in chunks to stay under
+     * SQLite's limit on the number of arguments of a statement.
+     */
+    private static List<MediaModel> getMediaWithLocalIds(List<Integer> localIds) {
+        Map<Integer, MediaModel> mediaById = new HashMap<>();
+        for (int start = 0; start < localIds.size(); start += MAX_SQL_VARIABLES) {
+            List<Integer> chunk = localIds.subList(start, Math.min(localIds.size(), start + MAX_SQL_VARIABLES));
+            for (MediaModel media : getMediaWithLocalIdsQuery(chunk).getAsModel()) {
+                mediaById.put(media.getId(), media);
+            }
+        }
+
+        List<MediaModel> media = new ArrayList<>(localIds.size());
+        for (Integer localId : localIds) {
+            MediaModel mediaModel = mediaById.get(localId);
+            if (mediaModel != null) {
+                media.add(mediaModel);
+            }
+        }
+        return media;
+    }
+
+    private static SelectQuery<MediaModel> getMediaWithLocalIdsQuery(List<Integer> localIds) {
+        return WellSql.select(MediaModel.class)
+                .where().isIn(MediaModelTable.ID, localIds).endWhere()
+                .orderBy(MediaModelTable.UPLOAD_DATE, SelectQuery.ORDER_DESCENDING);
     }
 
     private static SelectQuery<MediaModel> searchSiteMediaQuery(SiteModel siteModel,
@@ -423,6 +579,112 @@ public class MediaSqlUtils {
         return builder.endGroup().endWhere().execute();
     }
 
+    /**
+     * Stores a page of the media library fetched from the server, in a single transaction. The stored media is looked
+     * up by remote id in one query, and only the new or modified media is written.
+     *
+     * On the first page, the uploaded media that's missing from the page but newer than its oldest upload date was
+     * deleted from the server, and is removed. Media as old as that, or older, can be on the next pages and is kept,
+     * unless the page is also the last one.
+     *
+     * @return the media that was inserted or updated
+     */
+    public static List<MediaModel> updateFetchedSiteMedia(SiteModel site, List<MediaModel> fetchedMedia,
+                                                          boolean isFirstPage, boolean isLastPage, String mimeType) {
+        Map<Long, MediaModel> storedMediaById = new HashMap<>();
+        List<Long> remoteIds = new ArrayList<>(fetchedMedia.size());
+        for (MediaModel media : fetchedMedia) {
+            remoteIds.add(media.getMediaId());
+        }
+        for (int start = 0; start < remoteIds.size(); start += MAX_SQL_VARIABLES) {
+            List<Long> chunk = remoteIds.subList(start, Math.min(remoteIds.size(), start + MAX_SQL_VARIABLES));
+            for (MediaModel media : getSiteMediaWithIds(site, chunk)) {
+                storedMediaById.put(media.getMediaId(), media);
+            }
+        }
+
+        List<MediaModel> newMedia = new ArrayList<>();
+        List<MediaModel> updatedMedia = new ArrayList<>();
+        for (MediaModel media : fetchedMedia) {
+            MediaModel storedMedia = storedMediaById.get(media.getMediaId());
+            if (storedMedia == null) {
+                newMedia.add(media);
+            } else {
+                // retain the local ID, then only update the media if it changed
+                media.setId(storedMedia.getId());
+                if (!media.equals(storedMedia)) {
+                    updatedMedia.add(media);
+                }
+            }
+        }
+
+        SQLiteDatabase db = WellSql.giveMeWritableDb();
+        db.beginTransaction();
+        try {
+            // Without upload dates, the range covered by a partial page is unknown
+            String oldestUploadDate = getOldestUploadDate(fetchedMedia);
+            if (isFirstPage && (isLastPage || oldestUploadDate != null)) {
+                deleteUploadedSiteMediaAbsentFromPage(site, remoteIds, isLastPage ? null : oldestUploadDate, mimeType);
+            }
+            for (MediaModel media : updatedMedia) {
+                WellSql.update(MediaModel.class).whereId(media.getId())
+                        .put(media, new UpdateAllExceptId<>(MediaModel.class)).execute();
+            }
+            if (!newMedia.isEmpty()) {
+                WellSql.insert(newMedia).execute();
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+
+        updatedMedia.addAll(newMedia);
+        return updatedMedia;
+    }
+
+    /**
+     * Deletes the uploaded media of the site that isn't in {@code remoteIds}, only if it was uploaded after
+     * {@code oldestUploadDate} when it's given (in UTC, as stored).
+     */
+    private static int deleteUploadedSiteMediaAbsentFromPage(SiteModel site, List<Long> remoteIds,
+                                                             @Nullable String oldestUploadDate, String mimeType) {
+        if (remoteIds.size() > MAX_SQL_VARIABLES) {
+            // Not expected from a single page, keep everything rather than going over the limit
+            return 0;
+        }
+
+        ConditionClauseBuilder<DeleteQuery<MediaModel>> builder = WellSql.delete(MediaModel.class)
+                .where().beginGroup()
+                .equals(MediaModelTable.LOCAL_SITE_ID, site.getId())
+                .equals(MediaModelTable.UPLOAD_STATE, MediaUploadState.UPLOADED.toString());
+
+        if (!remoteIds.isEmpty()) {
+            builder.isNotIn(MediaModelTable.MEDIA_ID, remoteIds);
+        }
+        if (oldestUploadDate != null) {
+            builder.greaterThen(MediaModelTable.UPLOAD_DATE, oldestUploadDate);
+        }
+        if (!TextUtils.isEmpty(mimeType)) {
+            builder.contains(MediaModelTable.MIME_TYPE, mimeType);
+        }
+
+        return builder.endGroup().endWhere().execute();
+    }
+
+    /**
+     * Returns the oldest upload date of the media, in UTC to be compared with the stored upload dates.
+     */
+    private static @Nullable String getOldestUploadDate(List<MediaModel> mediaList) {
+        String oldestUploadDate = null;
+        for (MediaModel media : mediaList) {
+            String uploadDate = MediaUtils.getUtcUploadDate(media.getUploadDate());
+            if (uploadDate != null && (oldestUploadDate == null || uploadDate.compareTo(oldestUploadDate) < 0)) {
+                oldestUploadDate = uploadDate;
+            }
+        }
+        return oldestUploadDate;
+    }
+
     private static SelectQuery<MediaModel> getSiteMediaExcludingQuery(SiteModel site, String column, Object value) {
         return WellSql.select(MediaModel.class)
                 .where().beginGroup()
@@ -0,0 +1,175 @@
+package org.wordpress.android.fluxc.persistence;
+
+import android.database.Cursor;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.AppLog.T;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Fills existing model instances with the rows of a cursor, so models can be recycled instead of created by row.
+ *
+ * WellSql's mappers only create new models, and its column annotations aren't available at runtime. The columns are
+ * read instead from the constants of the table class WellSql generates for the model, and matched to the fields by
+ * name, e.g. {@code LOCAL_SITE_ID} to {@code mLocalSiteId}. The other fields are reset to their value on a new model.
+ */
+class ModelFiller<T> {
+    private static final String TABLE_CLASS_FORMAT = "com.wellsql.generated.%sTable";
+
+    private final Class<T> mModelClass;
+    private final T mNewModel;
+    private final Map<String, Field> mFieldsByColumn;
+    private final List<Field> mOtherFields;
+
+    private ModelFiller(Class<T> modelClass, T newModel, Map<String, Field> fieldsByColumn, List<Field> otherFields) {
+        mModelClass = modelClass;
+        mNewModel = newModel;
+        mFieldsByColumn = fieldsByColumn;
+        mOtherFields = otherFields;
+    }
+
+    /**
+     * Columns must be of a primitive type, its boxed type, String or byte[].
+     *
+     * @return a filler for the models of {@code modelClass}, or null if they can't be recycled, because a field which
+     * isn't a column is initialized with a mutable object, or a column isn't matched to a field
+     */
+    static @Nullable <T> ModelFiller<T> create(@NonNull Class<T> modelClass) {
+        try {
+            Map<String, String> columnsByKey = getColumnsByKey(modelClass);
+            T model = modelClass.newInstance();
+            Map<String, Field> fieldsByColumn = new HashMap<>();
+            List<Field> otherFields = new ArrayList<>();
+            for (Class<?> clazz = modelClass; clazz != Object.class; clazz = clazz.getSuperclass()) {
+                for (Field field : clazz.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) {
+                        continue;
+                    }
+                    field.setAccessible(true);
+                    String column = columnsByKey.remove(getKey(field.getName()));
+                    if (column != null && isColumnType(field.getType())) {
+                        fieldsByColumn.put(column, field);
+                    } else if (column == null && isImmutable(field.get(model))) {
+                        otherFields.add(field);
+                    } else {
+                        AppLog.d(T.DB, "Can't recycle " + modelClass.getSimpleName() + ", " + field.getName()
+                                       + (column != null ? " isn't of a column type" : " isn't immutable"));
+                        return null;
+                    }
+                }
+            }
+            if (!columnsByKey.isEmpty()) {
+                // Named differently from their field, they couldn't be filled
+                AppLog.d(T.DB, "Can't recycle " + modelClass.getSimpleName() + ", no field for the columns "
+                               + columnsByKey.values());
+                return null;
+            }
+            return new ModelFiller<>(modelClass, model, fieldsByColumn, otherFields);
+        } catch (ClassNotFoundException | IllegalAccessException | InstantiationException | RuntimeException e) {
+            AppLog.e(T.DB, "Can't recycle " + modelClass.getSimpleName(), e);
+            return null;
+        }
+    }
+
+    T newModel() {
+        try {
+            return mModelClass.newInstance();
+        } catch (IllegalAccessException | InstantiationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Replaces the values of {@code model} by those of the current row of {@code cursor}.
+     */
+    void fill(@NonNull T model, @NonNull Cursor cursor) {
+        try {
+            for (int i = 0; i < cursor.getColumnCount(); i++) {
+                Field field = mFieldsByColumn.get(cursor.getColumnName(i));
+                if (field != null) {
+                    field.set(model, readValue(cursor, i, field.getType()));
+                }
+            }
+            for (Field field : mOtherFields) {
+                field.set(model, field.get(mNewModel));
+            }
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns the columns of the table generated for {@code modelClass}, i.e. the values of its String constants, by
+     * the {@link #getKey} of the constant names.
+     */
+    private static Map<String, String> getColumnsByKey(Class<?> modelClass)
+            throws ClassNotFoundException, IllegalAccessException {
+        Class<?> tableClass = Class.forName(String.format(TABLE_CLASS_FORMAT, modelClass.getSimpleName()));
+        Map<String, String> columnsByKey = new HashMap<>();
+        for (Field constant : tableClass.getFields()) {
+            int modifiers = constant.getModifiers();
+            if (Modifier.isStatic(modifiers) && Modifier.isFinal(modifiers) && constant.getType() == String.class
+                && columnsByKey.put(getKey(constant.getName()), (String) constant.get(null)) != null) {
+                throw new IllegalStateException("Ambiguous column " + constant.getName());
+            }
+        }
+        return columnsByKey;
+    }
+
+    /**
+     * Returns the name of a field or column constant without the {@code m} prefix of fields, underscores and case,
+     * so {@code mXmlRpcUrl} matches both {@code XML_RPC_URL} and {@code XMLRPC_URL}.
+     */
+    private static String getKey(String name) {
+        if (name.length() > 1 && name.charAt(0) == 'm' && Character.isUpperCase(name.charAt(1))) {
+            name = name.substring(1);
+        }
+        return name.replace("_", "").toUpperCase(Locale.ROOT);
+    }
+
+    private static boolean isColumnType(Class<?> type) {
+        return (type.isPrimitive() && type != char.class) || type == String.class || type == byte[].class
+               || type == Boolean.class || type == Integer.class || type == Long.class || type == Short.class
+               || type == Byte.class || type == Double.class || type == Float.class;
+    }
+
+    private static boolean isImmutable(@Nullable Object value) {
+        return value == null || value instanceof String || value instanceof Number || value instanceof Boolean
+               || value instanceof Character || value instanceof Enum;
+    }
+
+    private static @Nullable Object readValue(Cursor cursor, int column, Class<?> type) {
+        // Null numbers are read as 0 for primitive fields
+        if (cursor.isNull(column) && !type.isPrimitive()) {
+            return null;
+        } else if (type == String.class) {
+            return cursor.getString(column);
+        } else if (type == byte[].class) {
+            return cursor.getBlob(column);
+        } else if (type == boolean.class || type == Boolean.class) {
+            return cursor.getInt(column) != 0;
+        } else if (type == int.class || type == Integer.class) {
+            return cursor.getInt(column);
+        } else if (type == long.class || type == Long.class) {
+            return cursor.getLong(column);
+        } else if (type == short.class || type == Short.class) {
+            return cursor.getShort(column);
+        } else if (type == byte.class || type == Byte.class) {
+            return (byte) cursor.getInt(column);
+        } else if (type == double.class || type == Double.class) {
+            return cursor.getDouble(column);
+        } else {
+            return cursor.getFloat(column);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package org.wordpress.android.fluxc.persistence;
+
+import android.content.ContentValues;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.annotation.NonNull;
+
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.AppLog.T;
+
+/**
+ * FTS4 index over the WooCommerce orders stored in the WCOrderModel table (WooCommerce add-on), used to search
+ * orders locally, without a network request.
+ *
+ * Part of the indexed text is derived from the order (e.g. the line item names, stored as JSON), so rows are written
+ * by the order SqlUtils with {@link #replace}. They share their row ids (docid) with WCOrderModel, and are removed
+ * by a trigger along with the order.
+ */
+public class OrderSearchIndex {
+    public static final String TABLE_NAME = "WCOrderModelFts";
+    public static final String DOC_ID = FullTextSearchUtils.DOC_ID;
+
+    public static final String NUMBER = "NUMBER";
+    public static final String CUSTOMER = "CUSTOMER"; // Billing and shipping names and companies
+    public static final String CONTACT = "CONTACT"; // Billing email and phone
+    public static final String ADDRESS = "ADDRESS"; // Billing and shipping addresses
+    public static final String LINE_ITEMS = "LINE_ITEMS"; // Product names
+
+    private static final String ORDER_TABLE = "WCOrderModel";
+
+    private OrderSearchIndex() {
+    }
+
+    /**
+     * Creates the index and its trigger, dropping any previous version, and fills it from the WCOrderModel table.
+     * Line item names are only indexed once the orders are written again.
+     */
+    public static void recreate(@NonNull SQLiteDatabase db) {
+        AppLog.d(T.DB, "Rebuilding order search index");
+        drop(db);
+        FullTextSearchUtils.createIndex(db, TABLE_NAME, ORDER_TABLE, NUMBER, CUSTOMER, CONTACT, ADDRESS, LINE_ITEMS);
+        db.execSQL("INSERT INTO " + TABLE_NAME + "(" + DOC_ID + "," + NUMBER + "," + CUSTOMER + "," + CONTACT + ","
+                   + ADDRESS + ") SELECT _id,NUMBER,"
+                   + concat("BILLING_FIRST_NAME", "BILLING_LAST_NAME", "BILLING_COMPANY", "SHIPPING_FIRST_NAME",
+                           "SHIPPING_LAST_NAME", "SHIPPING_COMPANY") + ","
+                   + concat("BILLING_EMAIL", "BILLING_PHONE") + ","
+                   + concat("BILLING_ADDRESS1", "BILLING_ADDRESS2", "BILLING_CITY", "BILLING_STATE",
+                           "BILLING_POSTCODE", "BILLING_COUNTRY", "SHIPPING_ADDRESS1", "SHIPPING_ADDRESS2",
+                           "SHIPPING_CITY", "SHIPPING_STATE", "SHIPPING_POSTCODE", "SHIPPING_COUNTRY")
+                   + " FROM " + ORDER_TABLE);
+    }
+
+    public static void drop(@NonNull SQLiteDatabase db) {
+        FullTextSearchUtils.dropIndex(db, TABLE_NAME);
+    }
+
+    /**
+     * Replaces the indexed text of an order.
+     *
+     * @param values the text of each indexed column ({@link #NUMBER}, {@link #CUSTOMER}...)
+     */
+    public static void replace(@NonNull SQLiteDatabase db, int localOrderId, @NonNull ContentValues values) {
+        String docId = String.valueOf(localOrderId);
+        db.delete(TABLE_NAME, DOC_ID + " = ?", new String[]{docId});
+        ContentValues row = new ContentValues(values);
+        row.put(DOC_ID, localOrderId);
+        db.insert(TABLE_NAME, null, row);
+    }
+
+    private static String concat(String... columns) {
+        StringBuilder sql = new StringBuilder();
+        for (String column : columns) {
+            if (sql.length() > 0) {
+                sql.append(" || ' ' || ");
+            }
+            sql.append(column);
+        }
+        return sql.toString();
+    }
+}
@@ -0,0 +1,44 @@
+package org.wordpress.android.fluxc.persistence;
+
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.annotation.NonNull;
+
+import com.wellsql.generated.PostModelTable;
+
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.AppLog.T;
+
+/**
+ * FTS4 index over the title and content of the posts and pages in the PostModel table, used by
+ * {@link PostSqlUtils} to search them without scanning the whole table.
+ *
+ * The index shares its row ids (docid) with PostModel and is kept in sync by triggers on PostModel (see
+ * {@link FullTextSearchUtils#recreateIndex}).
+ */
+public class PostSearchIndex {
+    public static final String TABLE_NAME = "PostModelFts";
+    public static final String DOC_ID = FullTextSearchUtils.DOC_ID;
+
+    /**
+     * Weights of the indexed columns when ranking results (see {@link FullTextSearchUtils#getRank}):
+     * title matches count more than content matches.
+     */
+    static final double[] COLUMN_WEIGHTS = {4.0, 1.0};
+
+    private PostSearchIndex() {
+    }
+
+    /**
+     * Creates the index and its triggers, dropping any previous version, and fills it from the PostModel table.
+     * Must be called whenever the PostModel table is (re)created.
+     */
+    public static void recreate(@NonNull SQLiteDatabase db) {
+        AppLog.d(T.DB, "Rebuilding post search index");
+        FullTextSearchUtils.recreateIndex(db, TABLE_NAME, "PostModel", PostModelTable.TITLE, PostModelTable.CONTENT);
+    }
+
+    public static void drop(@NonNull SQLiteDatabase db) {
+        FullTextSearchUtils.dropIndex(db, TABLE_NAME);
+    }
+}
@@ -1,5 +1,6 @@
 package org.wordpress.android.fluxc.persistence;
 
+import android.database.Cursor;
 import android.text.TextUtils;
 
 import androidx.annotation.NonNull;
@@ -23,6 +24,7 @@ import org.wordpress.android.fluxc.model.revisions.LocalRevisionModel;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 
 import javax.inject.Inject;
@@ -93,14 +95,28 @@ public class PostSqlUtils {
             return Collections.emptyList();
         }
 
+        return getPostsForSiteQuery(site, getPages).getAsModel();
+    }
+
+    /**
+     * Same as {@link #getPostsForSite(SiteModel, boolean)}, as a read-only list loading the posts as they're accessed.
+     */
+    public List<PostModel> getPostsForSiteAsLazyList(SiteModel site, boolean getPages) {
+        if (site == null) {
+            return Collections.emptyList();
+        }
+
+        return new LazyModelList<>(PostModel.class, getPostsForSiteQuery(site, getPages), PostModelTable.ID);
+    }
+
+    private SelectQuery<PostModel> getPostsForSiteQuery(SiteModel site, boolean getPages) {
         return WellSql.select(PostModel.class)
                 .where().beginGroup()
                 .equals(PostModelTable.LOCAL_SITE_ID, site.getId())
                 .equals(PostModelTable.IS_PAGE, getPages)
                 .endGroup().endWhere()
                 .orderBy(PostModelTable.IS_LOCAL_DRAFT, SelectQuery.ORDER_DESCENDING)
-                .orderBy(PostModelTable.DATE_CREATED, SelectQuery.ORDER_DESCENDING)
-                .getAsModel();
+                .orderBy(PostModelTable.DATE_CREATED, SelectQuery.ORDER_DESCENDING);
     }
 
     public List<PostModel> getPostsForSiteWithFormat(SiteModel site, List<String> postFormat, boolean getPages) {
@@ -342,6 +358,11 @@ public class PostSqlUtils {
 
     public List<LocalId> getLocalPostIdsForFilter(SiteModel site, boolean isPage, String searchQuery,
                                                          String orderBy, @Order int order) {
+        String matchQuery = FullTextSearchUtils.buildPrefixMatchQuery(searchQuery);
+        if (matchQuery != null) {
+            return getLocalPostIdsForFilterFromIndex(site, isPage, matchQuery, orderBy, order);
+        }
+
         ConditionClauseBuilder<SelectQuery<PostModel>> clauseBuilder =
                 WellSql.select(PostModel.class)
                        // We only need the local ids
@@ -352,6 +373,7 @@ public class PostSqlUtils {
                        .equals(PostModelTable.IS_PAGE, isPage)
                        .endGroup();
         if (!TextUtils.isEmpty(searchQuery)) {
+            // The query doesn't contain any term the search index can match (e.g. only punctuation)
             clauseBuilder = clauseBuilder.beginGroup().contains(PostModelTable.TITLE, searchQuery).or()
                                          .contains(PostModelTable.CONTENT, searchQuery).endGroup();
         }
@@ -366,4 +388,74 @@ public class PostSqlUtils {
         }
         return localPostIds;
     }
+
+    /**
+     * Searches the title and content of all the posts (or pages) of the site, using {@link PostSearchIndex}: every
+     * term of the query must match the start of a word. Results are ranked by relevance, title matches first.
+     */
+    public List<LocalId> searchLocalPostIds(SiteModel site, boolean isPage, String searchQuery) {
+        String matchQuery = FullTextSearchUtils.buildPrefixMatchQuery(searchQuery);
+        if (site == null || matchQuery == null) {
+            return Collections.emptyList();
+        }
+
+        final List<LocalId> localPostIds = new ArrayList<>();
+        final List<Double> ranks = new ArrayList<>();
+        Cursor cursor = WellSql.giveMeReadableDb().rawQuery(
+                "SELECT p." + PostModelTable.ID + ", matchinfo(" + PostSearchIndex.TABLE_NAME + ", 'pcx')"
+                + " FROM " + PostSearchIndex.TABLE_NAME
+                + " JOIN PostModel p ON p." + PostModelTable.ID + " = " + PostSearchIndex.TABLE_NAME + "."
+                + PostSearchIndex.DOC_ID
+                + " WHERE " + PostSearchIndex.TABLE_NAME + " MATCH ?"
+                + " AND p." + PostModelTable.LOCAL_SITE_ID + " = ? AND p." + PostModelTable.IS_PAGE + " = ?"
+                + " ORDER BY p." + PostModelTable.DATE_CREATED + " DESC",
+                new String[]{matchQuery, String.valueOf(site.getId()), isPage ? "1" : "0"});
+        try {
+            while (cursor.moveToNext()) {
+                localPostIds.add(new LocalId(cursor.getInt(0)));
+                ranks.add(FullTextSearchUtils.getRank(cursor.getBlob(1), PostSearchIndex.COLUMN_WEIGHTS));
+            }
+        } finally {
+            cursor.close();
+        }
+
+        // Most relevant first, keeping the most recent first among equally relevant ones
+        List<Integer> positions = new ArrayList<>(localPostIds.size());
+        for (int i = 0; i < localPostIds.size(); i++) {
+            positions.add(i);
+        }
+        Collections.sort(positions, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer first, Integer second) {
+                int byRank = Double.compare(ranks.get(second), ranks.get(first));
+                return byRank != 0 ? byRank : first - second;
+            }
+        });
+        List<LocalId> rankedLocalPostIds = new ArrayList<>(localPostIds.size());
+        for (int position : positions) {
+            rankedLocalPostIds.add(localPostIds.get(position));
+        }
+        return rankedLocalPostIds;
+    }
+
+    private List<LocalId> getLocalPostIdsForFilterFromIndex(SiteModel site, boolean isPage, String matchQuery,
+                                                            String orderBy, @Order int order) {
+        Cursor cursor = WellSql.giveMeReadableDb().rawQuery(
+                "SELECT " + PostModelTable.ID + " FROM PostModel"
+                + " WHERE " + PostModelTable.IS_LOCAL_DRAFT + " = 1"
+                + " AND " + PostModelTable.LOCAL_SITE_ID + " = ? AND " + PostModelTable.IS_PAGE + " = ?"
+                + " AND " + PostModelTable.ID + " IN (SELECT " + PostSearchIndex.DOC_ID + " FROM "
+                + PostSearchIndex.TABLE_NAME + " WHERE " + PostSearchIndex.TABLE_NAME + " MATCH ?)"
+                + " ORDER BY " + orderBy + (order == SelectQuery.ORDER_ASCENDING ? " ASC" : " DESC"),
+                new String[]{String.valueOf(site.getId()), isPage ? "1" : "0", matchQuery});
+        List<LocalId> localPostIds = new ArrayList<>();
+        try {
+            while (cursor.moveToNext()) {
+                localPostIds.add(new LocalId(cursor.getInt(0)));
+            }
+        } finally {
+            cursor.close();
+        }
+        return localPostIds;
+    }
 }
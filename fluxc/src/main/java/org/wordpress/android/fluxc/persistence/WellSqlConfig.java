@@ -2,6 +2,7 @@ package org.wordpress.android.fluxc.persistence;
 
 import android.content.Context;
 import android.content.SharedPreferences;
+import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.os.Build;
 import android.preference.PreferenceManager;
@@ -15,6 +16,7 @@ import com.yarolegovich.wellsql.core.Identifiable;
 import com.yarolegovich.wellsql.core.TableClass;
 import com.yarolegovich.wellsql.mapper.SQLiteMapper;
 
+import org.wordpress.android.fluxc.utils.MediaUtils;
 import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.AppLog.T;
 
@@ -23,7 +25,9 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.Target;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
 
 import static java.lang.annotation.RetentionPolicy.SOURCE;
 
@@ -34,6 +38,12 @@ public class WellSqlConfig extends DefaultWellConfig {
     public @interface AddOn {}
     public static final String ADDON_WOOCOMMERCE = "WC";
 
+    // Search indexes to rebuild once the upgrade steps are done, see rebuildSearchIndexLater
+    private final Set<String> mPendingSearchIndexes = new LinkedHashSet<>();
+
+    // The database being opened, or last opened, see reset(WellTableManager)
+    private SQLiteDatabase mConfiguredDb;
+
     public WellSqlConfig(Context context) {
         super(context);
     }
@@ -44,7 +54,7 @@ public class WellSqlConfig extends DefaultWellConfig {
 
     @Override
     public int getDbVersion() {
-        return 82;
+        return 98;
     }
 
     @Override
@@ -52,19 +62,45 @@ public class WellSqlConfig extends DefaultWellConfig {
         return "wp-fluxc";
     }
 
+    /**
+     * Fresh installs get the current schema directly from the table classes: none of the upgrade steps below are
+     * replayed.
+     */
     @Override
     public void onCreate(SQLiteDatabase db, WellTableManager helper) {
+        long start = System.currentTimeMillis();
         for (Class<? extends Identifiable> table : mTables) {
             helper.createTable(table);
         }
+        recreateSearchIndexes(db);
+        createIndexes(db);
+        AppLog.d(T.DB, "Created database version " + getDbVersion() + " in "
+                       + (System.currentTimeMillis() - start) + " ms");
     }
 
-    @SuppressWarnings({"FallThrough", "MethodLength"})
     @Override
     public void onUpgrade(SQLiteDatabase db, WellTableManager helper, int oldVersion, int newVersion) {
         AppLog.d(T.DB, "Upgrading database from version " + oldVersion + " to " + newVersion);
+        long start = System.currentTimeMillis();
 
         db.beginTransaction();
+        try {
+            upgradeTables(db, oldVersion);
+            rebuildPendingSearchIndexes(db);
+            db.setTransactionSuccessful();
+        } finally {
+            mPendingSearchIndexes.clear();
+            db.endTransaction();
+        }
+        AppLog.d(T.DB, "Upgraded database from version " + oldVersion + " to " + newVersion + " in "
+                       + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    /**
+     * Runs the upgrade steps from {@code oldVersion}, in a single transaction opened by the caller.
+     */
+    @SuppressWarnings({"FallThrough", "MethodLength"})
+    private void upgradeTables(SQLiteDatabase db, int oldVersion) {
         switch (oldVersion) {
             case 1:
                 AppLog.d(T.DB, "Migrating to version " + (oldVersion + 1));
@@ -589,13 +625,126 @@ public class WellSqlConfig extends DefaultWellConfig {
                 AppLog.d(T.DB, "Migrating to version " + (oldVersion + 1));
                 migrateAddOn(ADDON_WOOCOMMERCE, db, oldVersion);
                 oldVersion++;
+            case 82:
+                AppLog.d(T.DB, "Migrating to version " + (oldVersion + 1));
+                rebuildSearchIndexLater(PostSearchIndex.TABLE_NAME);
+                oldVersion++;
+            case 83:
+                AppLog.d(T.DB, "Migrating to version " + (oldVersion + 1));
+                rebuildSearchIndexLater(MediaSearchIndex.TABLE_NAME);
+                oldVersion++;
+            case 84:
+                AppLog.d(T.DB, "Migrating to version " + (oldVersion + 1));
+                migrateAddOn(ADDON_WOOCOMMERCE, db, oldVersion);
+                oldVersion++;
+            case 85:
+                AppLog.d(T.DB, "Migrating to version " + (oldVersion + 1));
+                migrateAddOn(ADDON_WOOCOMMERCE, db, oldVersion);
+                oldVersion++;
+            case 86:
+                AppLog.d(T.DB, "Migrating to version " + (oldVersion + 1));
+                migrateAddOn(ADDON_WOOCOMMERCE, db, oldVersion);
+                oldVersion++;
+            case 87:
+                AppLog.d(T.DB, "Migrating to version " + (oldVersion + 1));
+                db.execSQL("ALTER TABLE ListModel ADD NEXT_PAGE_KEY_DB_VALUE TEXT");
+                oldVersion++;
+            case 88:
+                AppLog.d(T.DB, "Migrating to version " + (oldVersion + 1));
+                migrateAddOn(ADDON_WOOCOMMERCE, db, oldVersion);
+                oldVersion++;
+            case 89:
+                AppLog.d(T.DB, "Migrating to version " + (oldVersion + 1));
+                migrateAddOn(ADDON_WOOCOMMERCE, db, oldVersion);
+                oldVersion++;
+            case 90:
+                AppLog.d(T.DB, "Migrating to version " + (oldVersion + 1));
+                db.execSQL("CREATE TABLE DiscoveryResultModel (_id INTEGER PRIMARY KEY AUTOINCREMENT,SITE_URL TEXT,"
+                           + "XML_RPC_ENDPOINT TEXT,WP_REST_ENDPOINT TEXT,UNIQUE (SITE_URL) ON CONFLICT REPLACE)");
+                oldVersion++;
+            case 91:
+                AppLog.d(T.DB, "Migrating to version " + (oldVersion + 1));
+                db.execSQL("ALTER TABLE SiteModel ADD WP_API_REST_URL TEXT");
+                oldVersion++;
+            case 92:
+                AppLog.d(T.DB, "Migrating to version " + (oldVersion + 1));
+                migrateAddOn(ADDON_WOOCOMMERCE, db, oldVersion);
+                oldVersion++;
+            case 93:
+                AppLog.d(T.DB, "Migrating to version " + (oldVersion + 1));
+                db.execSQL("ALTER TABLE SiteModel ADD IS_WP_API_AUTHENTICATED INTEGER");
+                oldVersion++;
+            case 94:
+                AppLog.d(T.DB, "Migrating to version " + (oldVersion + 1));
+                convertMediaUploadDatesToUtc(db);
+                oldVersion++;
+            case 95:
+                AppLog.d(T.DB, "Migrating to version " + (oldVersion + 1));
+                // The MIME type is no longer indexed
+                rebuildSearchIndexLater(MediaSearchIndex.TABLE_NAME);
+                oldVersion++;
+            case 96:
+                AppLog.d(T.DB, "Migrating to version " + (oldVersion + 1));
+                migrateAddOn(ADDON_WOOCOMMERCE, db, oldVersion);
+                oldVersion++;
+            case 97:
+                AppLog.d(T.DB, "Migrating to version " + (oldVersion + 1));
+                db.execSQL("ALTER TABLE DiscoveryResultModel ADD DISCOVERY_ERROR TEXT");
+                db.execSQL("ALTER TABLE DiscoveryResultModel ADD FAILED_ENDPOINT TEXT");
+                oldVersion++;
         }
-        db.setTransactionSuccessful();
-        db.endTransaction();
     }
 
+    /**
+     * Search indexes are filled from their whole table, so they're rebuilt once after the last upgrade step, against
+     * the final columns of the table, rather than by each step which needs them.
+     */
+    private void rebuildSearchIndexLater(String indexTable) {
+        mPendingSearchIndexes.add(indexTable);
+    }
+
+    /**
+     * Upload dates fetched from the REST API used to be stored with the offset of the site, so they couldn't be
+     * compared as text with the others.
+     */
+    private void convertMediaUploadDatesToUtc(SQLiteDatabase db) {
+        Cursor cursor = db.rawQuery("SELECT _id, UPLOAD_DATE FROM MediaModel "
+                                    + "WHERE UPLOAD_DATE IS NOT NULL AND UPLOAD_DATE NOT LIKE '%+00:00'", null);
+        try {
+            while (cursor.moveToNext()) {
+                String uploadDate = cursor.getString(1);
+                String utcUploadDate = MediaUtils.getUtcUploadDate(uploadDate);
+                if (!uploadDate.equals(utcUploadDate)) {
+                    db.execSQL("UPDATE MediaModel SET UPLOAD_DATE = ? WHERE _id = ?",
+                            new Object[]{utcUploadDate, cursor.getInt(0)});
+                }
+            }
+        } finally {
+            cursor.close();
+        }
+    }
+
+    private void rebuildPendingSearchIndexes(SQLiteDatabase db) {
+        if (mPendingSearchIndexes.contains(PostSearchIndex.TABLE_NAME)) {
+            PostSearchIndex.recreate(db);
+        }
+        if (mPendingSearchIndexes.contains(MediaSearchIndex.TABLE_NAME)) {
+            MediaSearchIndex.recreate(db);
+        }
+        if (mPendingSearchIndexes.contains(OrderSearchIndex.TABLE_NAME)) {
+            OrderSearchIndex.recreate(db);
+        }
+    }
+
+    /**
+     * Incremental vacuum can only be enabled before the first table is created without rewriting the database, so
+     * it's requested on every open: it takes effect when a new database is created, and is a no-op otherwise
+     * (see {@link DatabaseCompactionUtils#enableIncrementalVacuum()} for existing databases).
+     */
     @Override
     public void onConfigure(SQLiteDatabase db, WellTableManager helper) {
+        mConfiguredDb = db;
+        db.execSQL("PRAGMA auto_vacuum = INCREMENTAL");
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
             db.setForeignKeyConstraintsEnabled(true);
         } else {
@@ -618,6 +767,17 @@ public class WellSqlConfig extends DefaultWellConfig {
             db.execSQL("DROP TABLE IF EXISTS " + table.getTableName());
             db.execSQL(table.createStatement());
         }
+        recreateSearchIndexes(db);
+        createIndexes(db);
+    }
+
+    /**
+     * Same as {@link #reset(SQLiteDatabase, WellTableManager)}, on the database being opened (e.g. from onDowngrade)
+     * or last opened.
+     */
+    @SuppressWarnings("unused")
+    public void reset(WellTableManager helper) {
+        reset(mConfiguredDb, helper);
     }
 
     /**
@@ -625,7 +785,7 @@ public class WellSqlConfig extends DefaultWellConfig {
      * call giveMeWritableDb (attempting to do so results in "IllegalStateException: getDatabase called recursively")
      */
     @SuppressWarnings("unused")
-    public void reset(WellTableManager helper) {
+    public void reset(SQLiteDatabase db, WellTableManager helper) {
         AppLog.d(T.DB, "resetting tables");
         for (Class<? extends Identifiable> table : mTables) {
             AppLog.d(T.DB, "dropping table " + table.getSimpleName());
@@ -633,8 +793,42 @@ public class WellSqlConfig extends DefaultWellConfig {
             AppLog.d(T.DB, "creating table " + table.getSimpleName());
             helper.createTable(table);
         }
+        // The triggers filling the search indexes, and the indexes, were dropped with their tables
+        recreateSearchIndexes(db);
+        createIndexes(db);
     }
 
+    /**
+     * Creates (or recreates) the full-text search indexes and their triggers, filled from the current rows.
+     */
+    private void recreateSearchIndexes(SQLiteDatabase db) {
+        PostSearchIndex.recreate(db);
+        MediaSearchIndex.recreate(db);
+        if (mActiveAddOns.contains(ADDON_WOOCOMMERCE)) {
+            OrderSearchIndex.recreate(db);
+        }
+    }
+
+    /**
+     * Creates the indexes of the tables, which WellSql doesn't declare. Tables are created without them, so this
+     * runs after the tables are (re)created, as well as in the upgrade step adding each index.
+     */
+    private void createIndexes(SQLiteDatabase db) {
+        if (mActiveAddOns.contains(ADDON_WOOCOMMERCE)) {
+            createProductIndexes(db);
+        }
+    }
+
+    /**
+     * Products are looked up by remote id, and filtered by status or stock status, within the site's catalog.
+     */
+    private void createProductIndexes(SQLiteDatabase db) {
+        db.execSQL("CREATE INDEX IF NOT EXISTS WCProductModel_REMOTE_PRODUCT_ID "
+                   + "ON WCProductModel (LOCAL_SITE_ID, REMOTE_PRODUCT_ID)");
+        db.execSQL("CREATE INDEX IF NOT EXISTS WCProductModel_STATUS ON WCProductModel (LOCAL_SITE_ID, STATUS)");
+        db.execSQL("CREATE INDEX IF NOT EXISTS WCProductModel_STOCK_STATUS "
+                   + "ON WCProductModel (LOCAL_SITE_ID, STOCK_STATUS)");
+    }
 
     private void migrateAddOn(@AddOn String addOnName, SQLiteDatabase db, int oldDbVersion) {
         if (mActiveAddOns.contains(addOnName)) {
@@ -922,6 +1116,56 @@ public class WellSqlConfig extends DefaultWellConfig {
                                + "UNIQUE (REMOTE_PRODUCT_REVIEW_ID, REMOTE_PRODUCT_ID, LOCAL_SITE_ID) "
                                + "ON CONFLICT REPLACE)");
                     break;
+                case 84:
+                    AppLog.d(T.DB, "Migrating addon " + addOnName + " to version " + (oldDbVersion + 1));
+                    rebuildSearchIndexLater(OrderSearchIndex.TABLE_NAME);
+                    break;
+                case 85:
+                    AppLog.d(T.DB, "Migrating addon " + addOnName + " to version " + (oldDbVersion + 1));
+                    db.execSQL("ALTER TABLE WCOrderModel ADD LINE_ITEMS_SUBTOTAL REAL");
+                    db.execSQL("ALTER TABLE WCOrderModel ADD LINE_ITEMS_COUNT INTEGER");
+                    db.execSQL("ALTER TABLE WCOrderModel ADD LINE_ITEMS_HASH INTEGER");
+                    break;
+                case 86:
+                    AppLog.d(T.DB, "Migrating addon " + addOnName + " to version " + (oldDbVersion + 1));
+                    db.execSQL("ALTER TABLE WCOrderSummaryModel ADD DATE_MODIFIED TEXT");
+                    break;
+                case 88:
+                    AppLog.d(T.DB, "Migrating addon " + addOnName + " to version " + (oldDbVersion + 1));
+                    db.execSQL("CREATE TABLE WCRevenueStatsDayModel ("
+                               + "LOCAL_SITE_ID INTEGER,"
+                               + "DAY TEXT NOT NULL,"
+                               + "ORDERS_COUNT INTEGER,"
+                               + "GROSS_REVENUE REAL,"
+                               + "_id INTEGER PRIMARY KEY AUTOINCREMENT,"
+                               + "UNIQUE (LOCAL_SITE_ID, DAY) ON CONFLICT REPLACE)");
+                    break;
+                case 89:
+                    AppLog.d(T.DB, "Migrating addon " + addOnName + " to version " + (oldDbVersion + 1));
+                    db.execSQL("CREATE TABLE WCStatsIntervalModel ("
+                               + "LOCAL_SITE_ID INTEGER,"
+                               + "STATS_TYPE TEXT NOT NULL,"
+                               + "STATS_ID INTEGER,"
+                               + "INTERVAL_INDEX INTEGER,"
+                               + "PERIOD TEXT NOT NULL,"
+                               + "FIELD TEXT NOT NULL,"
+                               + "VALUE REAL,"
+                               + "_id INTEGER PRIMARY KEY AUTOINCREMENT,"
+                               + "UNIQUE (STATS_TYPE, STATS_ID, FIELD, INTERVAL_INDEX) ON CONFLICT REPLACE)");
+                    // The intervals are only built when stats are stored: drop the cached stats so they're refetched
+                    db.execSQL("DELETE FROM WCOrderStatsModel");
+                    db.execSQL("DELETE FROM WCRevenueStatsModel");
+                    db.execSQL("DELETE FROM WCVisitorStatsModel");
+                    db.execSQL("DELETE FROM WCNewVisitorStatsModel");
+                    break;
+                case 92:
+                    AppLog.d(T.DB, "Migrating addon " + addOnName + " to version " + (oldDbVersion + 1));
+                    db.execSQL("ALTER TABLE WCRevenueStatsDayModel ADD FETCHED_AT TEXT");
+                    break;
+                case 96:
+                    AppLog.d(T.DB, "Migrating addon " + addOnName + " to version " + (oldDbVersion + 1));
+                    createProductIndexes(db);
+                    break;
             }
         }
     }
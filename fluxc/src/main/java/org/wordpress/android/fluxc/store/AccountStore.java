@@ -8,12 +8,11 @@ import androidx.annotation.Nullable;
 import com.android.volley.VolleyError;
 import com.yarolegovich.wellsql.WellSql;
 
-import org.greenrobot.eventbus.Subscribe;
-import org.greenrobot.eventbus.ThreadMode;
 import org.wordpress.android.fluxc.Dispatcher;
 import org.wordpress.android.fluxc.Payload;
 import org.wordpress.android.fluxc.action.AccountAction;
 import org.wordpress.android.fluxc.action.AuthenticationAction;
+import org.wordpress.android.fluxc.annotations.HandlesActions;
 import org.wordpress.android.fluxc.annotations.action.Action;
 import org.wordpress.android.fluxc.annotations.action.IAction;
 import org.wordpress.android.fluxc.model.AccountModel;
@@ -21,6 +20,7 @@ import org.wordpress.android.fluxc.model.DomainContactModel;
 import org.wordpress.android.fluxc.model.SubscriptionModel;
 import org.wordpress.android.fluxc.model.SubscriptionsModel;
 import org.wordpress.android.fluxc.network.BaseRequest.BaseNetworkError;
+import org.wordpress.android.fluxc.network.ResponseValidatorCache;
 import org.wordpress.android.fluxc.network.discovery.SelfHostedEndpointFinder;
 import org.wordpress.android.fluxc.network.discovery.SelfHostedEndpointFinder.DiscoveryError;
 import org.wordpress.android.fluxc.network.discovery.SelfHostedEndpointFinder.DiscoveryResultPayload;
@@ -52,6 +52,7 @@ import javax.inject.Singleton;
  * In-memory based and persisted in SQLite.
  */
 @Singleton
+@HandlesActions({AccountAction.class, AuthenticationAction.class})
 public class AccountStore extends Store {
     // Payloads
     public static class AuthenticatePayload extends Payload<BaseNetworkError> {
@@ -743,18 +744,20 @@ public class AccountStore extends Store {
     private Authenticator mAuthenticator;
     private AccountModel mAccount;
     private AccessToken mAccessToken;
+    private final ResponseValidatorCache mResponseValidatorCache;
     private SelfHostedEndpointFinder mSelfHostedEndpointFinder;
 
     @Inject
     public AccountStore(Dispatcher dispatcher, AccountRestClient accountRestClient,
                         SelfHostedEndpointFinder selfHostedEndpointFinder, Authenticator authenticator,
-                        AccessToken accessToken) {
+                        AccessToken accessToken, ResponseValidatorCache responseValidatorCache) {
         super(dispatcher);
         mAuthenticator = authenticator;
         mAccountRestClient = accountRestClient;
         mSelfHostedEndpointFinder = selfHostedEndpointFinder;
         mAccount = loadAccount();
         mAccessToken = accessToken;
+        mResponseValidatorCache = responseValidatorCache;
     }
 
     @Override
@@ -762,7 +765,6 @@ public class AccountStore extends Store {
         AppLog.d(T.API, "AccountStore onRegister");
     }
 
-    @Subscribe(threadMode = ThreadMode.ASYNC)
     @Override
     public void onAction(Action action) {
         IAction actionType = action.getType();
@@ -1118,6 +1120,8 @@ public class AccountStore extends Store {
         emitChange(accountChanged);
         // Remove authentication token
         mAccessToken.set(null);
+        // The data the stored validators refer to is removed along with the account
+        mResponseValidatorCache.clear();
         emitChange(new OnAuthenticationChanged());
     }
 
@@ -4,14 +4,13 @@ import android.annotation.SuppressLint
 import com.yarolegovich.wellsql.SelectQuery
 import kotlinx.coroutines.GlobalScope
 import kotlinx.coroutines.launch
-import org.greenrobot.eventbus.Subscribe
-import org.greenrobot.eventbus.ThreadMode
 import org.wordpress.android.fluxc.Dispatcher
 import org.wordpress.android.fluxc.Payload
 import org.wordpress.android.fluxc.action.ActivityLogAction
 import org.wordpress.android.fluxc.action.ActivityLogAction.FETCH_ACTIVITIES
 import org.wordpress.android.fluxc.action.ActivityLogAction.FETCH_REWIND_STATE
 import org.wordpress.android.fluxc.action.ActivityLogAction.REWIND
+import org.wordpress.android.fluxc.annotations.HandlesActions
 import org.wordpress.android.fluxc.annotations.action.Action
 import org.wordpress.android.fluxc.model.SiteModel
 import org.wordpress.android.fluxc.model.activity.ActivityLogModel
@@ -27,6 +26,7 @@ import kotlin.coroutines.CoroutineContext
 private const val ACTIVITY_LOG_PAGE_SIZE = 10
 
 @Singleton
+@HandlesActions(ActivityLogAction::class)
 class ActivityLogStore
 @Inject constructor(
     private val activityLogRestClient: ActivityLogRestClient,
@@ -34,7 +34,6 @@ class ActivityLogStore
     private val coroutineContext: CoroutineContext,
     dispatcher: Dispatcher
 ) : Store(dispatcher) {
-    @Subscribe(threadMode = ThreadMode.ASYNC)
     override fun onAction(action: Action<*>) {
         val actionType = action.type as? ActivityLogAction ?: return
         when (actionType) {
@@ -8,11 +8,10 @@ import androidx.annotation.Nullable;
 import com.yarolegovich.wellsql.SelectQuery;
 import com.yarolegovich.wellsql.SelectQuery.Order;
 
-import org.greenrobot.eventbus.Subscribe;
-import org.greenrobot.eventbus.ThreadMode;
 import org.wordpress.android.fluxc.Dispatcher;
 import org.wordpress.android.fluxc.Payload;
 import org.wordpress.android.fluxc.action.CommentAction;
+import org.wordpress.android.fluxc.annotations.HandlesActions;
 import org.wordpress.android.fluxc.annotations.action.Action;
 import org.wordpress.android.fluxc.annotations.action.IAction;
 import org.wordpress.android.fluxc.model.CommentModel;
@@ -35,6 +34,7 @@ import javax.inject.Inject;
 import javax.inject.Singleton;
 
 @Singleton
+@HandlesActions(CommentAction.class)
 public class CommentStore extends Store {
     private final CommentRestClient mCommentRestClient;
     private final CommentXMLRPCClient mCommentXMLRPCClient;
@@ -212,7 +212,6 @@ public class CommentStore extends Store {
     // Store Methods
 
     @Override
-    @Subscribe(threadMode = ThreadMode.ASYNC)
     public void onAction(Action action) {
         IAction actionType = action.getType();
         if (!(actionType instanceof CommentAction)) {
@@ -10,6 +10,7 @@ import org.wordpress.android.fluxc.Dispatcher
 import org.wordpress.android.fluxc.Payload
 import org.wordpress.android.fluxc.action.JetpackAction
 import org.wordpress.android.fluxc.action.JetpackAction.INSTALL_JETPACK
+import org.wordpress.android.fluxc.annotations.HandlesActions
 import org.wordpress.android.fluxc.annotations.action.Action
 import org.wordpress.android.fluxc.generated.SiteActionBuilder
 import org.wordpress.android.fluxc.model.SiteModel
@@ -25,6 +26,7 @@ import kotlin.coroutines.resume
 import kotlin.coroutines.suspendCoroutine
 
 @Singleton
+@HandlesActions(JetpackAction::class)
 class JetpackStore
 @Inject constructor(
     private val jetpackRestClient: JetpackRestClient,
@@ -33,7 +35,6 @@ class JetpackStore
     dispatcher: Dispatcher
 ) : Store(dispatcher) {
     private var siteContinuation: Continuation<Unit>? = null
-    @Subscribe(threadMode = ThreadMode.ASYNC)
     override fun onAction(action: Action<*>) {
         val actionType = action.type as? JetpackAction ?: return
         when (actionType) {
@@ -7,8 +7,6 @@ import androidx.paging.PagedList
 import androidx.paging.PagedList.BoundaryCallback
 import kotlinx.coroutines.GlobalScope
 import kotlinx.coroutines.launch
-import org.greenrobot.eventbus.Subscribe
-import org.greenrobot.eventbus.ThreadMode
 import org.wordpress.android.fluxc.Dispatcher
 import org.wordpress.android.fluxc.Payload
 import org.wordpress.android.fluxc.action.ListAction
@@ -19,6 +17,7 @@ import org.wordpress.android.fluxc.action.ListAction.LIST_ITEMS_REMOVED
 import org.wordpress.android.fluxc.action.ListAction.LIST_REQUIRES_REFRESH
 import org.wordpress.android.fluxc.action.ListAction.REMOVE_ALL_LISTS
 import org.wordpress.android.fluxc.action.ListAction.REMOVE_EXPIRED_LISTS
+import org.wordpress.android.fluxc.annotations.HandlesActions
 import org.wordpress.android.fluxc.annotations.action.Action
 import org.wordpress.android.fluxc.model.LocalOrRemoteId.RemoteId
 import org.wordpress.android.fluxc.model.list.LIST_STATE_TIMEOUT
@@ -26,6 +25,7 @@ import org.wordpress.android.fluxc.model.list.ListDescriptor
 import org.wordpress.android.fluxc.model.list.ListDescriptorTypeIdentifier
 import org.wordpress.android.fluxc.model.list.ListItemModel
 import org.wordpress.android.fluxc.model.list.ListModel
+import org.wordpress.android.fluxc.model.list.ListPageKey
 import org.wordpress.android.fluxc.model.list.ListState
 import org.wordpress.android.fluxc.model.list.ListState.FETCHED
 import org.wordpress.android.fluxc.model.list.PagedListFactory
@@ -51,13 +51,13 @@ const val DEFAULT_EXPIRATION_DURATION = 1000L * 60 * 60 * 24 * 7
  * responsibility of mutation to the Store but also makes it much easier to use the exposed data.
  */
 @Singleton
+@HandlesActions(ListAction::class)
 class ListStore @Inject constructor(
     private val listSqlUtils: ListSqlUtils,
     private val listItemSqlUtils: ListItemSqlUtils,
     private val coroutineContext: CoroutineContext,
     dispatcher: Dispatcher
 ) : Store(dispatcher) {
-    @Subscribe(threadMode = ThreadMode.ASYNC)
     override fun onAction(action: Action<*>) {
         val actionType = action.type as? ListAction ?: return
 
@@ -104,8 +104,8 @@ class ListStore @Inject constructor(
                 listDescriptor = listDescriptor,
                 lifecycle = lifecycle,
                 refresh = {
-                    handleFetchList(listDescriptor, loadMore = false) { offset ->
-                        dataSource.fetchList(listDescriptor, offset)
+                    handleFetchList(listDescriptor, loadMore = false) { offset, pageKey ->
+                        dataSource.fetchList(listDescriptor, offset, pageKey)
                     }
                 },
                 invalidate = factory::invalidate,
@@ -131,8 +131,8 @@ class ListStore @Inject constructor(
             override fun onItemAtEndLoaded(itemAtEnd: LIST_ITEM) {
                 // Load more items if we are near the end of list
                 GlobalScope.launch(coroutineContext) {
-                    handleFetchList(listDescriptor, loadMore = true) { offset ->
-                        dataSource.fetchList(listDescriptor, offset)
+                    handleFetchList(listDescriptor, loadMore = true) { offset, pageKey ->
+                        dataSource.fetchList(listDescriptor, offset, pageKey)
                     }
                 }
                 super.onItemAtEndLoaded(itemAtEnd)
@@ -176,13 +176,14 @@ class ListStore @Inject constructor(
      * A helper function that initiates the fetch from remote for the given [ListDescriptor].
      *
      * Before fetching the list, it'll first check if this is a valid fetch depending on the list's state. Then, it'll
-     * update the list's state and emit that change. Finally, it'll calculate the offset and initiate the fetch with
-     * the given [fetchList] function.
+     * update the list's state and emit that change. Finally, it'll calculate the offset, look up the [ListPageKey]
+     * saved with the previous page if the list supports keyset pagination and initiate the fetch with the given
+     * [fetchList] function.
      */
     private fun handleFetchList(
         listDescriptor: ListDescriptor,
         loadMore: Boolean,
-        fetchList: (Long) -> Unit
+        fetchList: (Long, ListPageKey?) -> Unit
     ) {
         val currentState = getListState(listDescriptor)
         if (!loadMore && currentState.isFetchingFirstPage()) {
@@ -201,7 +202,8 @@ class ListStore @Inject constructor(
             "The `ListModel` can never be `null` here since either a new list is inserted or existing one updated"
         }
         val offset = if (loadMore) listItemSqlUtils.getListItemsCount(listModel.id) else 0L
-        fetchList(offset)
+        val pageKey = if (loadMore) ListPageKey.fromDbValue(listModel.nextPageKeyDbValue) else null
+        fetchList(offset, pageKey)
     }
 
     /**
@@ -217,7 +219,8 @@ class ListStore @Inject constructor(
      * Here is how it works:
      * 1. If there was an error, update the list's state and emit the change. Otherwise:
      * 2. If the first page is fetched, delete the existing [ListItemModel]s.
-     * 3. Update the [ListModel]'s state depending on whether there is more data to be fetched
+     * 3. Update the [ListModel]'s state depending on whether there is more data to be fetched, and save the
+     * [ListPageKey] of the next page
      * 4. Insert the [ListItemModel]s and emit the change
      *
      * See [handleFetchList] to see how items are fetched.
@@ -231,6 +234,8 @@ class ListStore @Inject constructor(
         listSqlUtils.insertOrUpdateList(payload.listDescriptor, newState)
 
         if (!payload.isError) {
+            // The key is cleared if the page was fetched by offset, so the next one is fetched the same way
+            listSqlUtils.updateNextPageKey(payload.listDescriptor, payload.nextPageKey)
             if (!payload.loadedMore) {
                 deleteListItems(payload.listDescriptor)
             }
@@ -430,13 +435,15 @@ class ListStore @Inject constructor(
      * @property remoteItemIds Fetched item ids
      * @property loadedMore Indicates whether the first page is fetched or we loaded more data
      * @property canLoadMore Indicates whether there is more data to be loaded from the server.
+     * @property nextPageKey The key to fetch the next page with, for lists that support keyset pagination.
      */
-    class FetchedListItemsPayload(
+    class FetchedListItemsPayload @JvmOverloads constructor(
         val listDescriptor: ListDescriptor,
         val remoteItemIds: List<Long>,
         val loadedMore: Boolean,
         val canLoadMore: Boolean,
-        error: ListError?
+        error: ListError?,
+        val nextPageKey: ListPageKey? = null
     ) : Payload<ListError>() {
         init {
             this.error = error
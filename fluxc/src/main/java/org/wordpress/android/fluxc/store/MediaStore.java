@@ -8,11 +8,10 @@ import androidx.annotation.Nullable;
 import com.wellsql.generated.MediaModelTable;
 import com.yarolegovich.wellsql.WellCursor;
 
-import org.greenrobot.eventbus.Subscribe;
-import org.greenrobot.eventbus.ThreadMode;
 import org.wordpress.android.fluxc.Dispatcher;
 import org.wordpress.android.fluxc.Payload;
 import org.wordpress.android.fluxc.action.MediaAction;
+import org.wordpress.android.fluxc.annotations.HandlesActions;
 import org.wordpress.android.fluxc.annotations.action.Action;
 import org.wordpress.android.fluxc.annotations.action.IAction;
 import org.wordpress.android.fluxc.model.MediaModel;
@@ -25,6 +24,7 @@ import org.wordpress.android.fluxc.network.BaseRequest.BaseNetworkError;
 import org.wordpress.android.fluxc.network.rest.wpcom.WPComGsonRequest.WPComGsonNetworkError;
 import org.wordpress.android.fluxc.network.rest.wpcom.media.MediaRestClient;
 import org.wordpress.android.fluxc.network.xmlrpc.media.MediaXMLRPCClient;
+import org.wordpress.android.fluxc.persistence.LazyModelList;
 import org.wordpress.android.fluxc.persistence.MediaSqlUtils;
 import org.wordpress.android.fluxc.utils.MediaUtils;
 import org.wordpress.android.util.AppLog;
@@ -36,11 +36,13 @@ import java.net.UnknownHostException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
 @Singleton
+@HandlesActions(MediaAction.class)
 public class MediaStore extends Store {
     public static final int DEFAULT_NUM_MEDIA_PER_FETCH = 50;
 
@@ -432,7 +434,6 @@ public class MediaStore extends Store {
         mMediaXmlrpcClient = xmlrpcClient;
     }
 
-    @Subscribe(threadMode = ThreadMode.ASYNC)
     @Override
     public void onAction(Action action) {
         IAction actionType = action.getType();
@@ -520,6 +521,22 @@ public class MediaStore extends Store {
         return MediaSqlUtils.getAllSiteMedia(siteModel);
     }
 
+    /**
+     * Returns all media of the site as a read-only {@link LazyModelList}, loading the media as they're accessed.
+     * The media are read from the database by {@link List#get(int)}, which shouldn't be called on the main thread.
+     */
+    public List<MediaModel> getAllSiteMediaAsLazyList(SiteModel siteModel) {
+        return MediaSqlUtils.getAllSiteMediaAsLazyList(siteModel, false);
+    }
+
+    /**
+     * Same as {@link #getAllSiteMediaAsLazyList(SiteModel)}, reusing the models of the media no longer cached if
+     * {@code recycleModels} is true: a model must then be used or copied right away, e.g. when binding a view.
+     */
+    public List<MediaModel> getAllSiteMediaAsLazyList(SiteModel siteModel, boolean recycleModels) {
+        return MediaSqlUtils.getAllSiteMediaAsLazyList(siteModel, recycleModels);
+    }
+
     public WellCursor<MediaModel> getAllSiteMediaAsCursor(SiteModel siteModel) {
         return MediaSqlUtils.getAllSiteMediaAsCursor(siteModel);
     }
@@ -658,6 +675,14 @@ public class MediaStore extends Store {
         return MediaSqlUtils.searchSiteMediaAsCursor(siteModel, searchTerm);
     }
 
+    /**
+     * @return the number of results of {@link #searchSiteMedia} for each media type, keyed by MIME type prefix
+     * (see {@link MediaUtils#MIME_TYPE_IMAGE})
+     */
+    public Map<String, Integer> getSearchSiteMediaCountsByMimeType(SiteModel siteModel, String searchTerm) {
+        return MediaSqlUtils.getSiteMediaSearchCountsByMimeType(siteModel, searchTerm);
+    }
+
     public MediaModel getMediaForPostWithPath(PostModel postModel, String filePath) {
         List<MediaModel> media = MediaSqlUtils.matchPostMedia(postModel.getId(), MediaModelTable.FILE_PATH, filePath);
         return media.size() > 0 ? media.get(0) : null;
@@ -867,37 +892,10 @@ public class MediaStore extends Store {
     }
 
     private void updateFetchedMediaList(@NonNull FetchMediaListResponsePayload payload) {
-        // if we loaded another page, simply add the fetched media and be done
-        if (payload.loadedMore) {
-            for (MediaModel media : payload.mediaList) {
-                updateMedia(media, false);
-            }
-            return;
-        }
-
-        // build separate lists of existing and new media
-        List<MediaModel> existingMediaList = new ArrayList<>();
-        List<MediaModel> newMediaList = new ArrayList<>();
-        for (MediaModel fetchedMedia : payload.mediaList) {
-            MediaModel media = getSiteMediaWithId(payload.site, fetchedMedia.getMediaId());
-            if (media != null) {
-                // retain the local ID, then update this media item
-                fetchedMedia.setId(media.getId());
-                existingMediaList.add(fetchedMedia);
-                updateMedia(fetchedMedia, false);
-            } else {
-                newMediaList.add(fetchedMedia);
-            }
-        }
-
-        // remove media that is NOT in the existing list
-        MediaSqlUtils.deleteUploadedSiteMediaNotInList(
-                payload.site, existingMediaList, payload.mimeType);
-
-        // add new media
-        for (MediaModel media : newMediaList) {
-            updateMedia(media, false);
-        }
+        // only the first page replaces the media it covers, other pages simply add the fetched media
+        List<MediaModel> updatedMedia = MediaSqlUtils.updateFetchedSiteMedia(payload.site, payload.mediaList,
+                !payload.loadedMore, !payload.canLoadMore, payload.mimeType);
+        AppLog.d(AppLog.T.MEDIA, "Fetched " + payload.mediaList.size() + " media, " + updatedMedia.size() + " changed");
     }
 
     private void handleMediaListFetched(@NonNull FetchMediaListResponsePayload payload) {
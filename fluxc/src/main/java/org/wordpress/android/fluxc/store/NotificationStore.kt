@@ -3,11 +3,10 @@ package org.wordpress.android.fluxc.store
 import android.annotation.SuppressLint
 import android.content.Context
 import com.yarolegovich.wellsql.SelectQuery.ORDER_DESCENDING
-import org.greenrobot.eventbus.Subscribe
-import org.greenrobot.eventbus.ThreadMode
 import org.wordpress.android.fluxc.Dispatcher
 import org.wordpress.android.fluxc.Payload
 import org.wordpress.android.fluxc.action.NotificationAction
+import org.wordpress.android.fluxc.annotations.HandlesActions
 import org.wordpress.android.fluxc.annotations.action.Action
 import org.wordpress.android.fluxc.model.notification.NotificationModel
 import org.wordpress.android.fluxc.model.SiteModel
@@ -25,6 +24,7 @@ import javax.inject.Inject
 import javax.inject.Singleton
 
 @Singleton
+@HandlesActions(NotificationAction::class)
 class NotificationStore @Inject
 constructor(
     dispatcher: Dispatcher,
@@ -162,7 +162,6 @@ constructor(
         val changedNotificationLocalIds = mutableListOf<Int>()
     }
 
-    @Subscribe(threadMode = ThreadMode.ASYNC)
     override fun onAction(action: Action<*>) {
         val actionType = action.type as? NotificationAction ?: return
         when (actionType) {
@@ -73,8 +73,19 @@ class PageStore @Inject constructor(
         }
     }
 
+    /**
+     * Returns the pages whose title or content contain words starting with each term of the query, most relevant
+     * first (see [PostSqlUtils.searchLocalPostIds]).
+     *
+     * This is a word prefix match on the full-text search index, not a substring match on the title: "que" matches
+     * "query" and "Queue" in the title or the content, but not "unique". Queries without any letter or digit match no
+     * page.
+     */
     suspend fun search(site: SiteModel, searchQuery: String): List<PageModel> = withContext(coroutineContext) {
-        getPagesFromDb(site).filter { it.title.toLowerCase().contains(searchQuery.toLowerCase()) }
+        val ranks = postSqlUtils.searchLocalPostIds(site, true, searchQuery)
+                .withIndex()
+                .associate { it.value.value to it.index }
+        getPagesFromDb(site).filter { ranks.containsKey(it.pageId) }.sortedBy { ranks[it.pageId] }
     }
 
     suspend fun updatePageInDb(page: PageModel): OnPostChanged = suspendCoroutine { cont ->
@@ -2,12 +2,11 @@ package org.wordpress.android.fluxc.store
 
 import kotlinx.coroutines.GlobalScope
 import kotlinx.coroutines.launch
-import org.greenrobot.eventbus.Subscribe
-import org.greenrobot.eventbus.ThreadMode
 import org.wordpress.android.fluxc.Dispatcher
 import org.wordpress.android.fluxc.Payload
 import org.wordpress.android.fluxc.action.PlanOffersAction
 import org.wordpress.android.fluxc.action.PlanOffersAction.FETCH_PLAN_OFFERS
+import org.wordpress.android.fluxc.annotations.HandlesActions
 import org.wordpress.android.fluxc.annotations.action.Action
 import org.wordpress.android.fluxc.model.plans.PlanOffersModel
 import org.wordpress.android.fluxc.network.BaseRequest
@@ -20,13 +19,13 @@ import javax.inject.Singleton
 import kotlin.coroutines.CoroutineContext
 
 @Singleton
+@HandlesActions(PlanOffersAction::class)
 class PlanOffersStore @Inject constructor(
     private val planOffersRestClient: PlanOffersRestClient,
     private val planOffersSqlUtils: PlanOffersSqlUtils,
     private val coroutineContext: CoroutineContext,
     dispatcher: Dispatcher
 ) : Store(dispatcher) {
-    @Subscribe(threadMode = ThreadMode.ASYNC)
     override fun onAction(action: Action<*>) {
         val actionType = action.type as? PlanOffersAction ?: return
         when (actionType) {
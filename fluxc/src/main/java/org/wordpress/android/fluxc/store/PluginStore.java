@@ -3,11 +3,10 @@ package org.wordpress.android.fluxc.store;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
-import org.greenrobot.eventbus.Subscribe;
-import org.greenrobot.eventbus.ThreadMode;
 import org.wordpress.android.fluxc.Dispatcher;
 import org.wordpress.android.fluxc.Payload;
 import org.wordpress.android.fluxc.action.PluginAction;
+import org.wordpress.android.fluxc.annotations.HandlesActions;
 import org.wordpress.android.fluxc.annotations.action.Action;
 import org.wordpress.android.fluxc.annotations.action.IAction;
 import org.wordpress.android.fluxc.generated.PluginActionBuilder;
@@ -30,6 +29,7 @@ import javax.inject.Inject;
 import javax.inject.Singleton;
 
 @Singleton
+@HandlesActions(PluginAction.class)
 public class PluginStore extends Store {
     // Request payloads
     @SuppressWarnings("WeakerAccess")
@@ -164,6 +164,8 @@ public class PluginStore extends Store {
         // Used for PluginDirectoryType.SITE
         public SiteModel site;
         public List<SitePluginModel> sitePlugins;
+        // The site plugins didn't change since they were last fetched, sitePlugins is then empty
+        public boolean notModified;
 
         public FetchedPluginDirectoryPayload(PluginDirectoryType type, List<WPOrgPluginModel> wpOrgPlugins,
                                              boolean loadMore, boolean canLoadMore, int page) {
@@ -558,7 +560,6 @@ public class PluginStore extends Store {
         AppLog.d(AppLog.T.API, "PluginStore onRegister");
     }
 
-    @Subscribe(threadMode = ThreadMode.ASYNC)
     @Override
     public void onAction(Action action) {
         IAction actionType = action.getType();
@@ -770,13 +771,21 @@ public class PluginStore extends Store {
     }
 
     private void fetchedPluginDirectory(FetchedPluginDirectoryPayload payload) {
+        if (payload.notModified && PluginSqlUtils.getSitePlugins(payload.site).isEmpty()) {
+            // The plugins were removed since their validators were stored, they have to be fetched again
+            mPluginRestClient.fetchSitePlugins(payload.site, true);
+            return;
+        }
+
         OnPluginDirectoryFetched event = new OnPluginDirectoryFetched(payload.type, payload.loadMore);
         if (payload.isError()) {
             event.error = payload.error;
         } else {
             event.canLoadMore = payload.canLoadMore;
             if (event.type == PluginDirectoryType.SITE) {
-                PluginSqlUtils.insertOrReplaceSitePlugins(payload.site, payload.sitePlugins);
+                if (!payload.notModified) {
+                    PluginSqlUtils.insertOrReplaceSitePlugins(payload.site, payload.sitePlugins);
+                }
             } else {
                 if (!payload.loadMore) {
                     // This is a fresh list, we need to remove the directory records for the fetched type
@@ -9,12 +9,12 @@ import com.wellsql.generated.PostModelTable;
 import com.yarolegovich.wellsql.SelectQuery;
 import com.yarolegovich.wellsql.WellSql;
 
-import org.greenrobot.eventbus.Subscribe;
-import org.greenrobot.eventbus.ThreadMode;
 import org.jetbrains.annotations.NotNull;
+import org.wordpress.android.fluxc.BuildConfig;
 import org.wordpress.android.fluxc.Dispatcher;
 import org.wordpress.android.fluxc.Payload;
 import org.wordpress.android.fluxc.action.PostAction;
+import org.wordpress.android.fluxc.annotations.HandlesActions;
 import org.wordpress.android.fluxc.annotations.action.Action;
 import org.wordpress.android.fluxc.annotations.action.IAction;
 import org.wordpress.android.fluxc.generated.ListActionBuilder;
@@ -29,6 +29,7 @@ import org.wordpress.android.fluxc.model.PostModel;
 import org.wordpress.android.fluxc.model.PostsModel;
 import org.wordpress.android.fluxc.model.SiteModel;
 import org.wordpress.android.fluxc.model.list.ListOrder;
+import org.wordpress.android.fluxc.model.list.ListPageKey;
 import org.wordpress.android.fluxc.model.list.PostListDescriptor;
 import org.wordpress.android.fluxc.model.list.PostListDescriptor.PostListDescriptorForRestSite;
 import org.wordpress.android.fluxc.model.list.PostListDescriptor.PostListDescriptorForXmlRpcSite;
@@ -40,8 +41,10 @@ import org.wordpress.android.fluxc.model.revisions.LocalRevisionModel;
 import org.wordpress.android.fluxc.model.revisions.RevisionModel;
 import org.wordpress.android.fluxc.model.revisions.RevisionsModel;
 import org.wordpress.android.fluxc.network.BaseRequest.BaseNetworkError;
+import org.wordpress.android.fluxc.network.rest.wpapi.post.PostWPAPIRestClient;
 import org.wordpress.android.fluxc.network.rest.wpcom.post.PostRestClient;
 import org.wordpress.android.fluxc.network.xmlrpc.post.PostXMLRPCClient;
+import org.wordpress.android.fluxc.persistence.LazyModelList;
 import org.wordpress.android.fluxc.persistence.PostSqlUtils;
 import org.wordpress.android.fluxc.store.ListStore.FetchedListItemsPayload;
 import org.wordpress.android.fluxc.store.ListStore.ListError;
@@ -56,13 +59,16 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
 @Singleton
+@HandlesActions(PostAction.class)
 public class PostStore extends Store {
     public static final int NUM_POSTS_PER_FETCH = 20;
 
@@ -76,10 +82,16 @@ public class PostStore extends Store {
     public static class FetchPostListPayload extends Payload<BaseNetworkError> {
         public PostListDescriptor listDescriptor;
         public long offset;
+        @Nullable public ListPageKey pageKey;
 
         public FetchPostListPayload(PostListDescriptor listDescriptor, long offset) {
+            this(listDescriptor, offset, null);
+        }
+
+        public FetchPostListPayload(PostListDescriptor listDescriptor, long offset, @Nullable ListPageKey pageKey) {
             this.listDescriptor = listDescriptor;
             this.offset = offset;
+            this.pageKey = pageKey;
         }
     }
 
@@ -101,6 +113,7 @@ public class PostStore extends Store {
         @NotNull public List<PostListItem> postListItems;
         public boolean loadedMore;
         public boolean canLoadMore;
+        @Nullable public ListPageKey nextPageKey;
 
         public FetchPostListResponsePayload(@NonNull PostListDescriptor listDescriptor,
                                             @NonNull List<PostListItem> postListItems,
@@ -319,7 +332,9 @@ public class PostStore extends Store {
 
     private final PostRestClient mPostRestClient;
     private final PostXMLRPCClient mPostXMLRPCClient;
+    private final PostWPAPIRestClient mPostWPAPIRestClient;
     private final PostSqlUtils mPostSqlUtils;
+    private final Set<Integer> mWpApiCheckedSiteIds = Collections.synchronizedSet(new HashSet<Integer>());
     // Ensures that the UploadStore is initialized whenever the PostStore is,
     // to ensure actions are shadowed and repeated by the UploadStore
     @SuppressWarnings("unused")
@@ -327,10 +342,11 @@ public class PostStore extends Store {
 
     @Inject
     public PostStore(Dispatcher dispatcher, PostRestClient postRestClient, PostXMLRPCClient postXMLRPCClient,
-                     PostSqlUtils postSqlUtils) {
+                     PostWPAPIRestClient postWPAPIRestClient, PostSqlUtils postSqlUtils) {
         super(dispatcher);
         mPostRestClient = postRestClient;
         mPostXMLRPCClient = postXMLRPCClient;
+        mPostWPAPIRestClient = postWPAPIRestClient;
         mPostSqlUtils = postSqlUtils;
     }
 
@@ -371,6 +387,15 @@ public class PostStore extends Store {
         return mPostSqlUtils.getPostsForSite(site, false);
     }
 
+    /**
+     * Returns all posts in the store for the given site as a read-only {@link LazyModelList}, loading the posts as
+     * they're accessed. The posts are read from the database by {@link List#get(int)}, which shouldn't be called on
+     * the main thread.
+     */
+    public List<PostModel> getPostsForSiteAsLazyList(SiteModel site) {
+        return mPostSqlUtils.getPostsForSiteAsLazyList(site, false);
+    }
+
     /**
      * Returns posts with given format in the store for the given site as a {@link PostModel} list.
      */
@@ -385,6 +410,15 @@ public class PostStore extends Store {
         return mPostSqlUtils.getPostsForSite(site, true);
     }
 
+    /**
+     * Returns all pages in the store for the given site as a read-only {@link LazyModelList}, loading the pages as
+     * they're accessed. The pages are read from the database by {@link List#get(int)}, which shouldn't be called on
+     * the main thread.
+     */
+    public List<PostModel> getPagesForSiteAsLazyList(SiteModel site) {
+        return mPostSqlUtils.getPostsForSiteAsLazyList(site, true);
+    }
+
     /**
      * Returns the number of posts in the store for the given site.
      */
@@ -544,7 +578,6 @@ public class PostStore extends Store {
         return mPostSqlUtils.getNumLocalChanges();
     }
 
-    @Subscribe(threadMode = ThreadMode.ASYNC)
     @Override
     public void onAction(Action action) {
         IAction actionType = action.getType();
@@ -634,11 +667,18 @@ public class PostStore extends Store {
         }
     }
 
-    private void fetchPost(RemotePostPayload payload) {
+    private void fetchPost(final RemotePostPayload payload) {
         if (payload.site.isUsingWpComRestApi()) {
             mPostRestClient.fetchPost(payload.post, payload.site);
+        } else if (isUsingWpApi(payload.site)) {
+            mPostWPAPIRestClient.fetchPost(payload.post, payload.site, new Runnable() {
+                @Override
+                public void run() {
+                    mPostXMLRPCClient.fetchPost(payload.post, payload.site);
+                }
+            });
         } else {
-            // TODO: check for WP-REST-API plugin and use it here
+            checkWpApiAuthentication(payload.site);
             mPostXMLRPCClient.fetchPost(payload.post, payload.site);
         }
     }
@@ -646,7 +686,7 @@ public class PostStore extends Store {
     private void handleFetchPostList(FetchPostListPayload payload) {
         if (payload.listDescriptor instanceof PostListDescriptorForRestSite) {
             PostListDescriptorForRestSite descriptor = (PostListDescriptorForRestSite) payload.listDescriptor;
-            mPostRestClient.fetchPostList(descriptor, payload.offset);
+            mPostRestClient.fetchPostList(descriptor, payload.offset, payload.pageKey);
         } else if (payload.listDescriptor instanceof PostListDescriptorForXmlRpcSite) {
             PostListDescriptorForXmlRpcSite descriptor = (PostListDescriptorForXmlRpcSite) payload.listDescriptor;
             mPostXMLRPCClient.fetchPostList(descriptor, payload.offset);
@@ -696,24 +736,52 @@ public class PostStore extends Store {
 
         FetchedListItemsPayload fetchedListItemsPayload =
                 new FetchedListItemsPayload(payload.listDescriptor, postIds,
-                        payload.loadedMore, payload.canLoadMore, fetchedListItemsError);
+                        payload.loadedMore, payload.canLoadMore, fetchedListItemsError, payload.nextPageKey);
         mDispatcher.dispatch(ListActionBuilder.newFetchedListItemsAction(fetchedListItemsPayload));
     }
 
-    private void fetchPosts(FetchPostsPayload payload, boolean pages) {
-        int offset = 0;
-        if (payload.loadMore) {
-            offset = mPostSqlUtils.getUploadedPostsForSite(payload.site, pages).size();
-        }
+    private void fetchPosts(final FetchPostsPayload payload, final boolean pages) {
+        final int offset = payload.loadMore ? mPostSqlUtils.getUploadedPostsForSite(payload.site, pages).size() : 0;
 
         if (payload.site.isUsingWpComRestApi()) {
             mPostRestClient.fetchPosts(payload.site, pages, payload.statusTypes, offset, NUM_POSTS_PER_FETCH);
+        } else if (isUsingWpApi(payload.site)) {
+            mPostWPAPIRestClient.fetchPosts(payload.site, pages, payload.statusTypes, offset, new Runnable() {
+                @Override
+                public void run() {
+                    mPostXMLRPCClient.fetchPosts(payload.site, pages, payload.statusTypes, offset);
+                }
+            });
         } else {
-            // TODO: check for WP-REST-API plugin and use it here
+            checkWpApiAuthentication(payload.site);
             mPostXMLRPCClient.fetchPosts(payload.site, pages, payload.statusTypes, offset);
         }
     }
 
+    /**
+     * Self-hosted sites where discovery found the WP REST API, served over https, fetch their posts and pages through
+     * it instead of XML-RPC once it accepted their credentials. Core only accepts application passwords, so in
+     * practice these are the sites with a Basic auth plugin, see {@link PostWPAPIRestClient}.
+     */
+    private boolean isUsingWpApi(SiteModel site) {
+        return canUseWpApi(site) && site.isWpApiAuthenticated();
+    }
+
+    private boolean canUseWpApi(SiteModel site) {
+        return BuildConfig.ENABLE_WPAPI && !TextUtils.isEmpty(site.getWpApiRestUrl())
+               && PostWPAPIRestClient.isSecure(site);
+    }
+
+    /**
+     * Checks once per session whether the WP REST API of the site accepts its credentials, the next fetches go
+     * through it if it does.
+     */
+    private void checkWpApiAuthentication(SiteModel site) {
+        if (canUseWpApi(site) && mWpApiCheckedSiteIds.add(site.getId())) {
+            mPostWPAPIRestClient.checkAuthentication(site);
+        }
+    }
+
     private void fetchRevisions(FetchRevisionsPayload payload) {
         mPostRestClient.fetchRevisions(payload.post, payload.site);
     }
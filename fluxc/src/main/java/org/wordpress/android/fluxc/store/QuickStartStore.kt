@@ -1,8 +1,7 @@
 package org.wordpress.android.fluxc.store
 
-import org.greenrobot.eventbus.Subscribe
-import org.greenrobot.eventbus.ThreadMode
 import org.wordpress.android.fluxc.Dispatcher
+import org.wordpress.android.fluxc.annotations.HandlesActions
 import org.wordpress.android.fluxc.annotations.action.Action
 import org.wordpress.android.fluxc.persistence.QuickStartSqlUtils
 import org.wordpress.android.fluxc.store.QuickStartStore.QuickStartTaskType.CUSTOMIZE
@@ -12,6 +11,7 @@ import javax.inject.Inject
 import javax.inject.Singleton
 
 @Singleton
+@HandlesActions
 class QuickStartStore @Inject
 constructor(private val quickStartSqlUtils: QuickStartSqlUtils, dispatcher: Dispatcher) : Store(dispatcher) {
     enum class QuickStartTask constructor(
@@ -74,7 +74,6 @@ constructor(private val quickStartSqlUtils: QuickStartSqlUtils, dispatcher: Disp
         }
     }
 
-    @Subscribe(threadMode = ThreadMode.ASYNC)
     override fun onAction(action: Action<*>) {
     }
 
@@ -2,11 +2,10 @@ package org.wordpress.android.fluxc.store;
 
 import androidx.annotation.NonNull;
 
-import org.greenrobot.eventbus.Subscribe;
-import org.greenrobot.eventbus.ThreadMode;
 import org.wordpress.android.fluxc.Dispatcher;
 import org.wordpress.android.fluxc.Payload;
 import org.wordpress.android.fluxc.action.ReaderAction;
+import org.wordpress.android.fluxc.annotations.HandlesActions;
 import org.wordpress.android.fluxc.annotations.action.Action;
 import org.wordpress.android.fluxc.annotations.action.IAction;
 import org.wordpress.android.fluxc.model.ReaderSiteModel;
@@ -22,6 +21,7 @@ import javax.inject.Inject;
 import javax.inject.Singleton;
 
 @Singleton
+@HandlesActions(ReaderAction.class)
 public class ReaderStore extends Store {
     private ReaderRestClient mReaderRestClient;
 
@@ -36,7 +36,6 @@ public class ReaderStore extends Store {
         AppLog.d(T.API, "ReaderStore onRegister");
     }
 
-    @Subscribe(threadMode = ThreadMode.ASYNC)
     @Override
     public void onAction(Action action) {
         IAction actionType = action.getType();
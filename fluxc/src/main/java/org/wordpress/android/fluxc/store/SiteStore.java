@@ -10,13 +10,13 @@ import com.wellsql.generated.SiteModelTable;
 import com.yarolegovich.wellsql.WellSql;
 import com.yarolegovich.wellsql.mapper.SelectMapper;
 
-import org.greenrobot.eventbus.Subscribe;
-import org.greenrobot.eventbus.ThreadMode;
 import org.wordpress.android.fluxc.Dispatcher;
 import org.wordpress.android.fluxc.Payload;
 import org.wordpress.android.fluxc.action.SiteAction;
+import org.wordpress.android.fluxc.annotations.HandlesActions;
 import org.wordpress.android.fluxc.annotations.action.Action;
 import org.wordpress.android.fluxc.annotations.action.IAction;
+import org.wordpress.android.fluxc.model.DiscoveryResultModel;
 import org.wordpress.android.fluxc.model.PlanModel;
 import org.wordpress.android.fluxc.model.PostFormatModel;
 import org.wordpress.android.fluxc.model.RoleModel;
@@ -33,6 +33,8 @@ import org.wordpress.android.fluxc.network.rest.wpcom.site.SiteRestClient.NewSit
 import org.wordpress.android.fluxc.network.rest.wpcom.site.SupportedCountryResponse;
 import org.wordpress.android.fluxc.network.rest.wpcom.site.SupportedStateResponse;
 import org.wordpress.android.fluxc.network.xmlrpc.site.SiteXMLRPCClient;
+import org.wordpress.android.fluxc.persistence.DiscoveryResultSqlUtils;
+import org.wordpress.android.fluxc.persistence.LazyModelList;
 import org.wordpress.android.fluxc.persistence.PostSqlUtils;
 import org.wordpress.android.fluxc.persistence.SiteSqlUtils;
 import org.wordpress.android.fluxc.persistence.SiteSqlUtils.DuplicateSiteException;
@@ -52,6 +54,7 @@ import javax.inject.Singleton;
  * SQLite based only. There is no in memory copy of mapped data, everything is queried from the DB.
  */
 @Singleton
+@HandlesActions(SiteAction.class)
 public class SiteStore extends Store {
     // Payloads
     public static class CompleteQuickStartPayload extends Payload<BaseNetworkError> {
@@ -1072,6 +1075,14 @@ public class SiteStore extends Store {
         return WellSql.select(SiteModel.class).getAsModel();
     }
 
+    /**
+     * Returns all sites in the store as a read-only {@link LazyModelList}, loading the sites as they're accessed.
+     * The sites are read from the database by {@link List#get(int)}, which shouldn't be called on the main thread.
+     */
+    public List<SiteModel> getSitesAsLazyList() {
+        return new LazyModelList<>(SiteModel.class, WellSql.select(SiteModel.class), SiteModelTable.ID);
+    }
+
     /**
      * Returns all sites in the store as a {@link Cursor}.
      */
@@ -1339,7 +1350,6 @@ public class SiteStore extends Store {
         return SiteSqlUtils.getUserRoles(site);
     }
 
-    @Subscribe(threadMode = ThreadMode.ASYNC)
     @Override
     public void onAction(Action action) {
         IAction actionType = action.getType();
@@ -1367,7 +1377,7 @@ public class SiteStore extends Store {
                 fetchSitesXmlRpc((RefreshSitesXMLRPCPayload) action.getPayload());
                 break;
             case FETCHED_SITES_XML_RPC:
-                updateSites((SitesModel) action.getPayload());
+                handleFetchedSitesXmlRpc((SitesModel) action.getPayload());
                 break;
             case UPDATE_SITE:
                 updateSite((SiteModel) action.getPayload());
@@ -1588,12 +1598,38 @@ public class SiteStore extends Store {
         emitChange(event);
     }
 
+    private void handleFetchedSitesXmlRpc(SitesModel fetchedSites) {
+        if (!fetchedSites.isError()) {
+            for (SiteModel site : fetchedSites.getSites()) {
+                // Keep the WP REST API root found by the discovery of the site, to sync it with the WP REST API
+                DiscoveryResultModel discoveryResult =
+                        DiscoveryResultSqlUtils.getDiscoveryResultForXmlRpcEndpoint(site.getXmlRpcUrl());
+                if (discoveryResult != null && !TextUtils.isEmpty(discoveryResult.getWpRestEndpoint())) {
+                    site.setWpApiRestUrl(discoveryResult.getWpRestEndpoint());
+                    // Whether the WP REST API accepts the credentials is only known once it was checked
+                    List<SiteModel> storedSites = SiteSqlUtils.getSitesWith(SiteModelTable.XMLRPC_URL,
+                            site.getXmlRpcUrl()).getAsModel();
+                    site.setIsWpApiAuthenticated(!storedSites.isEmpty()
+                            && storedSites.get(0).isWpApiAuthenticated()
+                            && site.getWpApiRestUrl().equals(storedSites.get(0).getWpApiRestUrl()));
+                }
+            }
+        }
+        updateSites(fetchedSites);
+    }
+
     private void handleFetchedSitesWPComRest(SitesModel fetchedSites) {
+        if (fetchedSites.isNotModified() && getSitesAccessedViaWPComRestCount() == 0) {
+            // The sites were removed since their validators were stored, they have to be fetched again
+            mSiteRestClient.fetchSites(true);
+            return;
+        }
+
         OnSiteChanged event = new OnSiteChanged(0);
         if (fetchedSites.isError()) {
             // TODO: what kind of error could we get here?
             event.error = SiteErrorUtils.genericToSiteError(fetchedSites.error);
-        } else {
+        } else if (!fetchedSites.isNotModified()) {
             UpdateSitesResult res = createOrUpdateSites(fetchedSites);
             event.rowsAffected = res.rowsAffected;
             if (res.duplicateSiteFound) {
@@ -2,11 +2,10 @@ package org.wordpress.android.fluxc.store;
 
 import androidx.annotation.NonNull;
 
-import org.greenrobot.eventbus.Subscribe;
-import org.greenrobot.eventbus.ThreadMode;
 import org.wordpress.android.fluxc.Dispatcher;
 import org.wordpress.android.fluxc.Payload;
 import org.wordpress.android.fluxc.action.StockMediaAction;
+import org.wordpress.android.fluxc.annotations.HandlesActions;
 import org.wordpress.android.fluxc.annotations.action.Action;
 import org.wordpress.android.fluxc.annotations.action.IAction;
 import org.wordpress.android.fluxc.model.StockMediaModel;
@@ -21,6 +20,7 @@ import javax.inject.Inject;
 import javax.inject.Singleton;
 
 @Singleton
+@HandlesActions(StockMediaAction.class)
 public class StockMediaStore extends Store {
     private final StockMediaRestClient mStockMediaRestClient;
 
@@ -113,7 +113,6 @@ public class StockMediaStore extends Store {
         }
     }
 
-    @Subscribe(threadMode = ThreadMode.ASYNC)
     @Override
     public void onAction(Action action) {
         IAction actionType = action.getType();
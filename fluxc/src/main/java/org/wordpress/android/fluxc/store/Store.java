@@ -23,7 +23,10 @@ public abstract class Store {
     }
 
     /**
-     * onAction should {@link org.greenrobot.eventbus.Subscribe} with ASYNC {@link org.greenrobot.eventbus.ThreadMode}.
+     * Called on a background thread for the actions the store declares with
+     * {@link org.wordpress.android.fluxc.annotations.HandlesActions}. Stores without the annotation receive every
+     * action through the event bus instead: onAction should then {@link org.greenrobot.eventbus.Subscribe} with ASYNC
+     * {@link org.greenrobot.eventbus.ThreadMode}.
      */
     public abstract void onAction(Action action);
     public abstract void onRegister();
@@ -4,11 +4,10 @@ import android.text.TextUtils;
 
 import androidx.annotation.NonNull;
 
-import org.greenrobot.eventbus.Subscribe;
-import org.greenrobot.eventbus.ThreadMode;
 import org.wordpress.android.fluxc.Dispatcher;
 import org.wordpress.android.fluxc.Payload;
 import org.wordpress.android.fluxc.action.ThemeAction;
+import org.wordpress.android.fluxc.annotations.HandlesActions;
 import org.wordpress.android.fluxc.annotations.action.Action;
 import org.wordpress.android.fluxc.annotations.action.IAction;
 import org.wordpress.android.fluxc.model.SiteModel;
@@ -23,6 +22,7 @@ import javax.inject.Inject;
 import javax.inject.Singleton;
 
 @Singleton
+@HandlesActions(ThemeAction.class)
 public class ThemeStore extends Store {
     public static final String MOBILE_FRIENDLY_CATEGORY_BLOG = "starting-blog";
     public static final String MOBILE_FRIENDLY_CATEGORY_WEBSITE = "starting-website";
@@ -47,6 +47,8 @@ public class ThemeStore extends Store {
     public static class FetchedSiteThemesPayload extends Payload<ThemesError> {
         public SiteModel site;
         public List<ThemeModel> themes;
+        // The themes didn't change since they were last fetched, themes is then empty
+        public boolean notModified;
 
         public FetchedSiteThemesPayload(@NonNull SiteModel site, @NonNull ThemesError error) {
             this.site = site;
@@ -61,6 +63,8 @@ public class ThemeStore extends Store {
 
     public static class FetchedWpComThemesPayload extends Payload<ThemesError> {
         public List<ThemeModel> themes;
+        // The themes didn't change since they were last fetched, themes is then empty
+        public boolean notModified;
 
         public FetchedWpComThemesPayload(@NonNull ThemesError error) {
             this.error = error;
@@ -195,7 +199,6 @@ public class ThemeStore extends Store {
         mThemeRestClient = themeRestClient;
     }
 
-    @Subscribe(threadMode = ThreadMode.ASYNC)
     @Override
     public void onAction(Action action) {
         IAction actionType = action.getType();
@@ -291,10 +294,16 @@ public class ThemeStore extends Store {
     }
 
     private void handleWpComThemesFetched(@NonNull FetchedWpComThemesPayload payload) {
+        if (payload.notModified && ThemeSqlUtils.getWpComThemes().isEmpty()) {
+            // The themes were removed since their validators were stored, they have to be fetched again
+            mThemeRestClient.fetchWpComThemes(true);
+            return;
+        }
+
         OnWpComThemesChanged event = new OnWpComThemesChanged();
         if (payload.isError()) {
             event.error = payload.error;
-        } else {
+        } else if (!payload.notModified) {
             ThemeSqlUtils.insertOrReplaceWpComThemes(payload.themes);
         }
         emitChange(event);
@@ -311,10 +320,16 @@ public class ThemeStore extends Store {
     }
 
     private void handleInstalledThemesFetched(@NonNull FetchedSiteThemesPayload payload) {
+        if (payload.notModified && ThemeSqlUtils.getThemesForSite(payload.site).isEmpty()) {
+            // The themes were removed since their validators were stored, they have to be fetched again
+            mThemeRestClient.fetchJetpackInstalledThemes(payload.site, true);
+            return;
+        }
+
         OnSiteThemesChanged event = new OnSiteThemesChanged(payload.site, ThemeAction.FETCH_INSTALLED_THEMES);
         if (payload.isError()) {
             event.error = payload.error;
-        } else {
+        } else if (!payload.notModified) {
             ThemeSqlUtils.insertOrReplaceInstalledThemes(payload.site, payload.themes);
         }
         emitChange(event);
@@ -3,14 +3,13 @@ package org.wordpress.android.fluxc.store
 import android.text.TextUtils
 import kotlinx.coroutines.GlobalScope
 import kotlinx.coroutines.launch
-import org.greenrobot.eventbus.Subscribe
-import org.greenrobot.eventbus.ThreadMode
 import org.wordpress.android.fluxc.Dispatcher
 import org.wordpress.android.fluxc.Payload
 import org.wordpress.android.fluxc.action.TransactionAction
 import org.wordpress.android.fluxc.action.TransactionAction.CREATE_SHOPPING_CART
 import org.wordpress.android.fluxc.action.TransactionAction.FETCH_SUPPORTED_COUNTRIES
 import org.wordpress.android.fluxc.action.TransactionAction.REDEEM_CART_WITH_CREDITS
+import org.wordpress.android.fluxc.annotations.HandlesActions
 import org.wordpress.android.fluxc.annotations.action.Action
 import org.wordpress.android.fluxc.model.DomainContactModel
 import org.wordpress.android.fluxc.model.SiteModel
@@ -25,12 +24,12 @@ import javax.inject.Singleton
 import kotlin.coroutines.CoroutineContext
 
 @Singleton
+@HandlesActions(TransactionAction::class)
 class TransactionsStore @Inject constructor(
     private val transactionsRestClient: TransactionsRestClient,
     private val coroutineContext: CoroutineContext,
     dispatcher: Dispatcher
 ) : Store(dispatcher) {
-    @Subscribe(threadMode = ThreadMode.ASYNC)
     override fun onAction(action: Action<*>) {
         when (action.type as? TransactionAction ?: return) {
             FETCH_SUPPORTED_COUNTRIES -> {
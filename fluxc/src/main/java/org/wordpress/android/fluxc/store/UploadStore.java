@@ -3,12 +3,11 @@ package org.wordpress.android.fluxc.store;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
-import org.greenrobot.eventbus.Subscribe;
-import org.greenrobot.eventbus.ThreadMode;
 import org.wordpress.android.fluxc.Dispatcher;
 import org.wordpress.android.fluxc.Payload;
 import org.wordpress.android.fluxc.action.MediaAction;
 import org.wordpress.android.fluxc.action.UploadAction;
+import org.wordpress.android.fluxc.annotations.HandlesActions;
 import org.wordpress.android.fluxc.annotations.action.Action;
 import org.wordpress.android.fluxc.annotations.action.IAction;
 import org.wordpress.android.fluxc.generated.MediaActionBuilder;
@@ -41,6 +40,8 @@ import javax.inject.Inject;
 import javax.inject.Singleton;
 
 @Singleton
+// Ensure that events reach the UploadStore before their main stores (MediaStore, PostStore)
+@HandlesActions(value = {MediaAction.class, UploadAction.class}, priority = 1)
 public class UploadStore extends Store {
     public static class ClearMediaPayload extends Payload<BaseNetworkError> {
         public PostModel post;
@@ -87,8 +88,6 @@ public class UploadStore extends Store {
         AppLog.d(T.API, "UploadStore onRegister");
     }
 
-    // Ensure that events reach the UploadStore before their main stores (MediaStore, PostStore)
-    @Subscribe(threadMode = ThreadMode.ASYNC, priority = 1)
     @Override
     public void onAction(Action action) {
         IAction actionType = action.getType();
@@ -9,9 +9,11 @@ import org.wordpress.android.fluxc.model.MediaModel;
 import org.wordpress.android.fluxc.network.BaseUploadRequestBody;
 import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.AppLog.T;
+import org.wordpress.android.util.DateTimeUtils;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Date;
 
 public class MediaUtils {
     public static final double MEMORY_LIMIT_FILESIZE_MULTIPLIER = 0.75D;
@@ -108,6 +110,25 @@ public class MediaUtils {
         return false;
     }
 
+    //
+    // Upload dates
+    //
+
+    /**
+     * Converts an ISO 8601 upload date to UTC. Upload dates are stored in UTC, so they can be sorted and compared
+     * as text in the database.
+     *
+     * @return the upload date in UTC, or {@code uploadDate} as is if it isn't an ISO 8601 date
+     */
+    public static String getUtcUploadDate(String uploadDate) {
+        if (uploadDate == null || uploadDate.isEmpty()) {
+            return uploadDate;
+        }
+        // The offsets are parsed without colon, e.g. +0200
+        Date date = DateTimeUtils.dateUTCFromIso8601(uploadDate.replaceFirst("([+-]\\d{2}):(\\d{2})$", "$1$2"));
+        return date != null ? DateTimeUtils.iso8601UTCFromDate(date) : uploadDate;
+    }
+
     //
     // File operations
     //
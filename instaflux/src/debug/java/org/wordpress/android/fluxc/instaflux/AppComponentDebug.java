@@ -4,6 +4,7 @@ import org.wordpress.android.fluxc.module.AppContextModule;
 import org.wordpress.android.fluxc.module.DebugOkHttpClientModule;
 import org.wordpress.android.fluxc.module.ReleaseBaseModule;
 import org.wordpress.android.fluxc.module.ReleaseNetworkModule;
+import org.wordpress.android.fluxc.module.ReleaseStoreModule;
 
 import javax.inject.Singleton;
 
@@ -16,6 +17,7 @@ import dagger.Component;
         DebugOkHttpClientModule.class,
         InterceptorModule.class,
         ReleaseBaseModule.class,
-        ReleaseNetworkModule.class
+        ReleaseNetworkModule.class,
+        ReleaseStoreModule.class
 })
 public interface AppComponentDebug extends AppComponent {}
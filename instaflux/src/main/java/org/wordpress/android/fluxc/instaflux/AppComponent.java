@@ -3,6 +3,7 @@ package org.wordpress.android.fluxc.instaflux;
 import org.wordpress.android.fluxc.module.AppContextModule;
 import org.wordpress.android.fluxc.module.ReleaseBaseModule;
 import org.wordpress.android.fluxc.module.ReleaseNetworkModule;
+import org.wordpress.android.fluxc.module.ReleaseStoreModule;
 import org.wordpress.android.fluxc.module.ReleaseOkHttpClientModule;
 
 import javax.inject.Singleton;
@@ -15,7 +16,8 @@ import dagger.Component;
         AppConfigModule.class,
         ReleaseOkHttpClientModule.class,
         ReleaseBaseModule.class,
-        ReleaseNetworkModule.class
+        ReleaseNetworkModule.class,
+        ReleaseStoreModule.class
 })
 public interface AppComponent {
     void inject(InstafluxApp application);
@@ -27,6 +27,7 @@ import org.wordpress.android.fluxc.store.WCOrderStore.FetchOrdersPayload;
 import org.wordpress.android.fluxc.store.WCOrderStore.FetchOrdersResponsePayload;
 import org.wordpress.android.fluxc.store.WCOrderStore.FetchSingleOrderPayload;
 import org.wordpress.android.fluxc.store.WCOrderStore.PostOrderNotePayload;
+import org.wordpress.android.fluxc.store.WCOrderStore.PruneOrdersPayload;
 import org.wordpress.android.fluxc.store.WCOrderStore.RemoteOrderNotePayload;
 import org.wordpress.android.fluxc.store.WCOrderStore.RemoteOrderPayload;
 import org.wordpress.android.fluxc.store.WCOrderStore.SearchOrdersPayload;
@@ -97,5 +98,9 @@ public enum WCOrderAction implements IAction {
     @Action(payloadType = DeleteOrderShipmentTrackingResponsePayload.class)
     DELETED_ORDER_SHIPMENT_TRACKING,
     @Action(payloadType = FetchOrderShipmentProvidersResponsePayload.class)
-    FETCHED_ORDER_SHIPMENT_PROVIDERS
+    FETCHED_ORDER_SHIPMENT_PROVIDERS,
+
+    // Local actions
+    @Action(payloadType = PruneOrdersPayload.class)
+    PRUNE_ORDERS
 }
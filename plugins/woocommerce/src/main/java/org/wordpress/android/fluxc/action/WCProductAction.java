@@ -5,9 +5,13 @@ import org.wordpress.android.fluxc.annotations.ActionEnum;
 import org.wordpress.android.fluxc.annotations.action.IAction;
 import org.wordpress.android.fluxc.store.WCProductStore.FetchProductReviewsPayload;
 import org.wordpress.android.fluxc.store.WCProductStore.FetchProductReviewsResponsePayload;
+import org.wordpress.android.fluxc.store.WCProductStore.FetchProductIdsPayload;
 import org.wordpress.android.fluxc.store.WCProductStore.FetchProductVariationsPayload;
+import org.wordpress.android.fluxc.store.WCProductStore.FetchProductsPayload;
 import org.wordpress.android.fluxc.store.WCProductStore.FetchSingleProductPayload;
 import org.wordpress.android.fluxc.store.WCProductStore.FetchSingleProductReviewPayload;
+import org.wordpress.android.fluxc.store.WCProductStore.RemoteProductIdsPayload;
+import org.wordpress.android.fluxc.store.WCProductStore.RemoteProductListPayload;
 import org.wordpress.android.fluxc.store.WCProductStore.RemoteProductPayload;
 import org.wordpress.android.fluxc.store.WCProductStore.RemoteProductReviewPayload;
 import org.wordpress.android.fluxc.store.WCProductStore.RemoteProductVariationsPayload;
@@ -18,6 +22,10 @@ public enum WCProductAction implements IAction {
     // Remote actions
     @Action(payloadType = FetchSingleProductPayload.class)
     FETCH_SINGLE_PRODUCT,
+    @Action(payloadType = FetchProductsPayload.class)
+    FETCH_PRODUCTS,
+    @Action(payloadType = FetchProductIdsPayload.class)
+    FETCH_PRODUCT_IDS,
     @Action(payloadType = FetchProductVariationsPayload.class)
     FETCH_PRODUCT_VARIATIONS,
     @Action(payloadType = FetchProductReviewsPayload.class)
@@ -30,6 +38,10 @@ public enum WCProductAction implements IAction {
     // Remote responses
     @Action(payloadType = RemoteProductPayload.class)
     FETCHED_SINGLE_PRODUCT,
+    @Action(payloadType = RemoteProductListPayload.class)
+    FETCHED_PRODUCTS,
+    @Action(payloadType = RemoteProductIdsPayload.class)
+    FETCHED_PRODUCT_IDS,
     @Action(payloadType = RemoteProductVariationsPayload.class)
     FETCHED_PRODUCT_VARIATIONS,
     @Action(payloadType = FetchProductReviewsResponsePayload.class)
@@ -9,6 +9,8 @@ import org.wordpress.android.fluxc.store.WCStatsStore.FetchOrderStatsPayload;
 import org.wordpress.android.fluxc.store.WCStatsStore.FetchOrderStatsResponsePayload;
 import org.wordpress.android.fluxc.store.WCStatsStore.FetchRevenueStatsAvailabilityPayload;
 import org.wordpress.android.fluxc.store.WCStatsStore.FetchRevenueStatsAvailabilityResponsePayload;
+import org.wordpress.android.fluxc.store.WCStatsStore.FetchRevenueStatsDaysPayload;
+import org.wordpress.android.fluxc.store.WCStatsStore.FetchRevenueStatsDaysResponsePayload;
 import org.wordpress.android.fluxc.store.WCStatsStore.FetchRevenueStatsPayload;
 import org.wordpress.android.fluxc.store.WCStatsStore.FetchRevenueStatsResponsePayload;
 import org.wordpress.android.fluxc.store.WCStatsStore.FetchTopEarnersStatsPayload;
@@ -28,6 +30,9 @@ public enum WCStatsAction implements IAction {
     @Action(payloadType = FetchRevenueStatsAvailabilityPayload.class)
     FETCH_REVENUE_STATS_AVAILABILITY,
 
+    @Action(payloadType = FetchRevenueStatsDaysPayload.class)
+    FETCH_REVENUE_STATS_DAYS,
+
     @Action(payloadType = FetchVisitorStatsPayload.class)
     FETCH_VISITOR_STATS,
 
@@ -47,6 +52,9 @@ public enum WCStatsAction implements IAction {
     @Action(payloadType = FetchRevenueStatsAvailabilityResponsePayload.class)
     FETCHED_REVENUE_STATS_AVAILABILITY,
 
+    @Action(payloadType = FetchRevenueStatsDaysResponsePayload.class)
+    FETCHED_REVENUE_STATS_DAYS,
+
     @Action(payloadType = FetchVisitorStatsResponsePayload.class)
     FETCHED_VISITOR_STATS,
 
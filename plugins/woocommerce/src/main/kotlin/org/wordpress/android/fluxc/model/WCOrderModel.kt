@@ -11,6 +11,8 @@ import org.wordpress.android.fluxc.model.order.OrderAddress
 import org.wordpress.android.fluxc.model.order.OrderAddress.AddressType
 import org.wordpress.android.fluxc.model.order.OrderIdentifier
 import org.wordpress.android.fluxc.persistence.WellSqlConfig
+import java.nio.ByteBuffer
+import java.security.MessageDigest
 
 @Table(addOn = WellSqlConfig.ADDON_WOOCOMMERCE)
 data class WCOrderModel(@PrimaryKey @Column private var id: Int = 0) : Identifiable {
@@ -58,10 +60,31 @@ data class WCOrderModel(@PrimaryKey @Column private var id: Int = 0) : Identifia
     @Column var shippingPostcode = ""
     @Column var shippingCountry = ""
 
-    @Column var lineItems = ""
+    @Column var lineItems = "" // JSON array of line items, see [getLineItemList]
+        set(value) {
+            field = value
+            parsedLineItems = null
+            // The summary was computed from the previous line items
+            lineItemsHash = 0L
+        }
+
+    // Summary of [lineItems], stored when the order is saved so lists of orders can be displayed without parsing
+    // the line items of each order. [lineItemsHash] is the first 64 bits of the SHA-256 digest of the line items it
+    // was computed from, or 0 if there's no summary. It's set after [lineItems] when an order is read from the
+    // database, so a stored summary is used as is, and it's cleared whenever [lineItems] changes.
+    @Column var lineItemsSubtotal = 0.0
+    @Column var lineItemsCount = 0
+    @Column var lineItemsHash = 0L
+
+    @Transient private var parsedLineItems: List<LineItem>? = null
 
     companion object {
         private val gson by lazy { Gson() }
+
+        private fun digestOf(text: String): Long {
+            val digest = MessageDigest.getInstance("SHA-256").digest(text.toByteArray(Charsets.UTF_8))
+            return ByteBuffer.wrap(digest).long
+        }
     }
 
     class LineItem {
@@ -112,16 +135,43 @@ data class WCOrderModel(@PrimaryKey @Column private var id: Int = 0) : Identifia
 
     /**
      * Deserializes the JSON contained in [lineItems] into a list of [LineItem] objects.
+     * The list is kept until [lineItems] changes.
      */
     fun getLineItemList(): List<LineItem> {
-        val responseType = object : TypeToken<List<LineItem>>() {}.type
-        return gson.fromJson(lineItems, responseType) as? List<LineItem> ?: emptyList()
+        return parsedLineItems ?: parseLineItems().also { parsedLineItems = it }
+    }
+
+    /**
+     * Returns the number of line items in the order.
+     */
+    fun getLineItemCount(): Int {
+        return if (hasLineItemsSummary()) lineItemsCount else getLineItemList().size
     }
 
     /**
      * Returns the order subtotal (the sum of the subtotals of each line item in the order).
      */
     fun getOrderSubtotal(): Double {
-        return getLineItemList().sumByDouble { it.subtotal?.toDoubleOrNull() ?: 0.0 }
+        return if (hasLineItemsSummary()) lineItemsSubtotal else computeSubtotal()
+    }
+
+    /**
+     * Updates the stored summary of the line items ([lineItemsSubtotal], [lineItemsCount]) before saving the order.
+     */
+    fun updateLineItemsSummary() {
+        if (!hasLineItemsSummary()) {
+            lineItemsSubtotal = computeSubtotal()
+            lineItemsCount = getLineItemList().size
+            lineItemsHash = digestOf(lineItems).takeIf { it != 0L } ?: 1L
+        }
+    }
+
+    private fun hasLineItemsSummary() = lineItemsHash != 0L
+
+    private fun computeSubtotal() = getLineItemList().sumByDouble { it.subtotal?.toDoubleOrNull() ?: 0.0 }
+
+    private fun parseLineItems(): List<LineItem> {
+        val responseType = object : TypeToken<List<LineItem>>() {}.type
+        return gson.fromJson(lineItems, responseType) as? List<LineItem> ?: emptyList()
     }
 }
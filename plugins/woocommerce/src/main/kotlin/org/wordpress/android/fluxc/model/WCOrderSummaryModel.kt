@@ -16,7 +16,7 @@ data class WCOrderSummaryModel(@PrimaryKey @Column private var id: Int = 0) : Id
     @Column var localSiteId = 0
     @Column var remoteOrderId = 0L // The unique identifier for this order on the server
     @Column var dateCreated = "" // ISO 8601-formatted date in UTC, e.g. 1955-11-05T14:15:00Z
-    var dateModified = "" // ISO 8601-formatted date in UTC, e.g. 1955-11-05T14:15:00Z
+    @Column var dateModified = "" // ISO 8601-formatted date in UTC, e.g. 1955-11-05T14:15:00Z
 
     override fun getId() = id
 
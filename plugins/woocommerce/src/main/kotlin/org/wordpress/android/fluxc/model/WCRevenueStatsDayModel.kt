@@ -0,0 +1,43 @@
+package org.wordpress.android.fluxc.model
+
+import com.yarolegovich.wellsql.core.Identifiable
+import com.yarolegovich.wellsql.core.annotation.Column
+import com.yarolegovich.wellsql.core.annotation.PrimaryKey
+import com.yarolegovich.wellsql.core.annotation.RawConstraints
+import com.yarolegovich.wellsql.core.annotation.Table
+import org.wordpress.android.fluxc.persistence.WellSqlConfig
+
+/**
+ * The revenue stats of a single day, stored once and rolled up locally into weekly, monthly, yearly and custom range
+ * totals (see [WCRevenueStatsRollup]).
+ */
+@Table(addOn = WellSqlConfig.ADDON_WOOCOMMERCE)
+@RawConstraints("UNIQUE (LOCAL_SITE_ID, DAY) ON CONFLICT REPLACE")
+data class WCRevenueStatsDayModel(@PrimaryKey @Column private var id: Int = 0) : Identifiable {
+    @Column var localSiteId = 0
+    @Column var day = "" // The day, in the site's timezone, in the format yyyy-MM-dd
+    @Column var ordersCount = 0L
+    @Column var grossRevenue = 0.0
+    // When the stats were fetched, in the site's timezone, in the format yyyy-MM-dd'T'HH:mm:ss. The stats of a day
+    // fetched before it ended can still change
+    @Column var fetchedAt = ""
+
+    override fun getId() = id
+
+    override fun setId(id: Int) {
+        this.id = id
+    }
+}
+
+/**
+ * The revenue stats of a period, summed up from the stored [WCRevenueStatsDayModel] rows.
+ *
+ * @property period The first day of the period (yyyy-MM-dd) for days and weeks, yyyy-MM for months and yyyy for years
+ * @property days The number of stored days the totals were summed up from
+ */
+data class WCRevenueStatsRollup(
+    val period: String,
+    val ordersCount: Long,
+    val grossRevenue: Double,
+    val days: Int
+)
@@ -19,6 +19,9 @@ data class WCRevenueStatsModel(@PrimaryKey @Column private var id: Int = 0) : Id
     @Column var total = "" // JSON - A map of total stats for a given time period
 
     companion object {
+        const val FIELD_ORDERS_COUNT = "orders_count"
+        const val FIELD_GROSS_REVENUE = "gross_revenue"
+
         private val gson by lazy { Gson() }
     }
 
@@ -0,0 +1,64 @@
+package org.wordpress.android.fluxc.model
+
+import com.yarolegovich.wellsql.core.Identifiable
+import com.yarolegovich.wellsql.core.annotation.Column
+import com.yarolegovich.wellsql.core.annotation.PrimaryKey
+import com.yarolegovich.wellsql.core.annotation.RawConstraints
+import com.yarolegovich.wellsql.core.annotation.Table
+import org.wordpress.android.fluxc.persistence.WellSqlConfig
+
+/**
+ * A single numeric value of a stats interval, parsed from the JSON of a [WCOrderStatsModel], [WCRevenueStatsModel],
+ * [WCVisitorStatsModel] or [WCNewVisitorStatsModel] when it's stored, so the values of a field can be read in order
+ * with an indexed range scan instead of parsing the JSON again (see [WCStatsSeries]).
+ */
+@Table(addOn = WellSqlConfig.ADDON_WOOCOMMERCE)
+@RawConstraints("UNIQUE (STATS_TYPE, STATS_ID, FIELD, INTERVAL_INDEX) ON CONFLICT REPLACE")
+data class WCStatsIntervalModel(@PrimaryKey @Column private var id: Int = 0) : Identifiable {
+    @Column var localSiteId = 0
+    @Column var statsType = "" // The stats model the value belongs to, see [StatsType]
+    @Column var statsId = 0 // The id of the stats model the value belongs to
+    @Column var intervalIndex = 0 // The position of the interval in the stats, in chronological order
+    @Column var period = "" // The date key of the interval, e.g. "2018-05-01", "2018-W16", "2018-05" or "2018"
+    @Column var field = "" // The name of the stats field, e.g. "orders" or "gross_revenue"
+    @Column var value = 0.0
+
+    enum class StatsType {
+        ORDER_STATS,
+        REVENUE_STATS,
+        VISITOR_STATS,
+        NEW_VISITOR_STATS
+    }
+
+    override fun getId() = id
+
+    override fun setId(id: Int) {
+        this.id = id
+    }
+}
+
+/**
+ * The values of a stats field, in chronological order, with the date key of each interval at the same index.
+ */
+class WCStatsSeries(val periods: Array<String>, val values: DoubleArray) {
+    val size
+        get() = periods.size
+
+    fun isEmpty() = periods.isEmpty()
+
+    /**
+     * Returns the values by date key, in chronological order, converted with [transform].
+     */
+    fun <T> toMap(transform: (Double) -> T): Map<String, T> {
+        val map = LinkedHashMap<String, T>(periods.size)
+        for (i in periods.indices) {
+            map[periods[i]] = transform(values[i])
+        }
+        return map
+    }
+
+    companion object {
+        @JvmStatic
+        val EMPTY = WCStatsSeries(emptyArray(), DoubleArray(0))
+    }
+}
@@ -2,10 +2,13 @@ package org.wordpress.android.fluxc.module
 
 import android.content.Context
 import com.android.volley.RequestQueue
+import dagger.MembersInjector
 import dagger.Module
 import dagger.Provides
 import org.wordpress.android.fluxc.Dispatcher
+import org.wordpress.android.fluxc.network.ResponseValidatorCache
 import org.wordpress.android.fluxc.network.UserAgent
+import org.wordpress.android.fluxc.network.rest.wpcom.BaseWPComRestClient
 import org.wordpress.android.fluxc.network.rest.wpcom.auth.AccessToken
 import org.wordpress.android.fluxc.network.rest.wpcom.wc.WooCommerceRestClient
 import org.wordpress.android.fluxc.network.rest.wpcom.wc.order.OrderRestClient
@@ -23,8 +26,11 @@ class ReleaseWCNetworkModule {
         dispatcher: Dispatcher,
         @Named("regular") requestQueue: RequestQueue,
         token: AccessToken,
-        userAgent: UserAgent
-    ) = WooCommerceRestClient(appContext, dispatcher, requestQueue, token, userAgent)
+        userAgent: UserAgent,
+        injector: MembersInjector<BaseWPComRestClient>
+    ) = WooCommerceRestClient(appContext, dispatcher, requestQueue, token, userAgent).also {
+        injector.injectMembers(it)
+    }
 
     @Singleton
     @Provides
@@ -33,8 +39,11 @@ class ReleaseWCNetworkModule {
         dispatcher: Dispatcher,
         @Named("regular") requestQueue: RequestQueue,
         token: AccessToken,
-        userAgent: UserAgent
-    ) = OrderRestClient(appContext, dispatcher, requestQueue, token, userAgent)
+        userAgent: UserAgent,
+        injector: MembersInjector<BaseWPComRestClient>
+    ) = OrderRestClient(appContext, dispatcher, requestQueue, token, userAgent).also {
+        injector.injectMembers(it)
+    }
 
     @Singleton
     @Provides
@@ -43,8 +52,11 @@ class ReleaseWCNetworkModule {
         dispatcher: Dispatcher,
         @Named("regular") requestQueue: RequestQueue,
         token: AccessToken,
-        userAgent: UserAgent
-    ) = ProductRestClient(appContext, dispatcher, requestQueue, token, userAgent)
+        userAgent: UserAgent,
+        injector: MembersInjector<BaseWPComRestClient>
+    ) = ProductRestClient(appContext, dispatcher, requestQueue, token, userAgent).also {
+        injector.injectMembers(it)
+    }
 
     @Singleton
     @Provides
@@ -53,6 +65,10 @@ class ReleaseWCNetworkModule {
         dispatcher: Dispatcher,
         @Named("regular") requestQueue: RequestQueue,
         token: AccessToken,
-        userAgent: UserAgent
-    ) = OrderStatsRestClient(appContext, dispatcher, requestQueue, token, userAgent)
+        userAgent: UserAgent,
+        validatorCache: ResponseValidatorCache,
+        injector: MembersInjector<BaseWPComRestClient>
+    ) = OrderStatsRestClient(appContext, dispatcher, requestQueue, token, userAgent, validatorCache).also {
+        injector.injectMembers(it)
+    }
 }
@@ -0,0 +1,29 @@
+package org.wordpress.android.fluxc.module
+
+import dagger.Binds
+import dagger.Module
+import dagger.multibindings.ClassKey
+import dagger.multibindings.IntoMap
+import org.wordpress.android.fluxc.store.Store
+import org.wordpress.android.fluxc.store.WCOrderStore
+import org.wordpress.android.fluxc.store.WCProductStore
+import org.wordpress.android.fluxc.store.WCStatsStore
+import org.wordpress.android.fluxc.store.WooCommerceStore
+
+/**
+ * Lazy-store mode for the WooCommerce stores, see [ReleaseStoreModule].
+ */
+@Module
+abstract class ReleaseWCStoreModule {
+    @Binds @IntoMap @ClassKey(WCOrderStore::class)
+    abstract fun bindWCOrderStore(store: WCOrderStore): Store
+
+    @Binds @IntoMap @ClassKey(WCProductStore::class)
+    abstract fun bindWCProductStore(store: WCProductStore): Store
+
+    @Binds @IntoMap @ClassKey(WCStatsStore::class)
+    abstract fun bindWCStatsStore(store: WCStatsStore): Store
+
+    @Binds @IntoMap @ClassKey(WooCommerceStore::class)
+    abstract fun bindWooCommerceStore(store: WooCommerceStore): Store
+}
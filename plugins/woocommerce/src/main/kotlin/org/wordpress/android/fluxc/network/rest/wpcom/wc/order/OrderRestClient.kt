@@ -17,6 +17,8 @@ import org.wordpress.android.fluxc.model.WCOrderShipmentProviderModel
 import org.wordpress.android.fluxc.model.WCOrderShipmentTrackingModel
 import org.wordpress.android.fluxc.model.WCOrderStatusModel
 import org.wordpress.android.fluxc.model.WCOrderSummaryModel
+import org.wordpress.android.fluxc.model.list.ListOrder
+import org.wordpress.android.fluxc.model.list.ListPageKey
 import org.wordpress.android.fluxc.network.UserAgent
 import org.wordpress.android.fluxc.network.rest.wpcom.BaseWPComRestClient
 import org.wordpress.android.fluxc.network.rest.wpcom.WPComGsonRequest
@@ -114,11 +116,20 @@ class OrderRestClient(
      *
      * Dispatches a [WCOrderAction.FETCHED_ORDER_LIST] action with the resulting list of order summaries.
      *
+     * Orders are listed newest first, so when a [pageKey] is given the older orders are requested by the creation
+     * date of the last fetched order, which costs the same however deep the page is and isn't thrown off by orders
+     * created while the list is being scrolled. The [offset] is only used when there is no [pageKey].
+     *
+     * The page key holds the creation date in UTC, from `date_created_gmt`, and `before` is sent in UTC with
+     * `dates_are_gmt`, so it's compared with the same date whatever the site's timezone (WooCommerce 5.8 and later,
+     * older versions compare it with the creation date in the site's timezone).
+     *
      * @param listDescriptor The [WCOrderListDescriptor] that describes the type of list being fetched and
      * the optional parameters in effect.
      * @param offset Used to retrieve older orders
+     * @param pageKey Used to retrieve the orders older than the previous page, see [ListPageKey]
      */
-    fun fetchOrderListSummaries(listDescriptor: WCOrderListDescriptor, offset: Long) {
+    fun fetchOrderListSummaries(listDescriptor: WCOrderListDescriptor, offset: Long, pageKey: ListPageKey? = null) {
         // If null, set the filter to the api default value of "any", which will not apply any order status filters.
         val statusFilter = listDescriptor.statusFilter.takeUnless { it.isNullOrBlank() }
                 ?: WCOrderStore.DEFAULT_ORDER_STATUS
@@ -126,12 +137,21 @@ class OrderRestClient(
         val url = WOOCOMMERCE.orders.pathV3
         val responseType = object : TypeToken<List<OrderSummaryApiResponse>>() {}.type
         val networkPageSize = listDescriptor.config.networkPageSize
+        val pageParams = if (pageKey != null) {
+            val bound = mapOf("before" to pageKey.getDateBound(ListOrder.DESC), "dates_are_gmt" to "true")
+            if (pageKey.remoteItemIds.isEmpty()) {
+                bound
+            } else {
+                bound + ("exclude" to pageKey.remoteItemIds.joinToString(","))
+            }
+        } else {
+            mapOf("offset" to offset.toString())
+        }
         val params = mapOf(
                 "per_page" to networkPageSize.toString(),
-                "offset" to offset.toString(),
                 "status" to statusFilter,
                 "_fields" to "id,date_created_gmt,date_modified_gmt",
-                "search" to listDescriptor.searchQuery.orEmpty())
+                "search" to listDescriptor.searchQuery.orEmpty()) + pageParams
         val request = JetpackTunnelGsonRequest.buildGetRequest(url, listDescriptor.site.siteId, params, responseType,
                 { response: List<OrderSummaryApiResponse>? ->
                     val orderSummaries = response?.map {
@@ -139,12 +159,14 @@ class OrderRestClient(
                     }.orEmpty()
 
                     val canLoadMore = orderSummaries.size == networkPageSize
+                    val nextPageKey = if (canLoadMore) getPageKey(response.orEmpty(), pageKey) else null
 
                     val payload = FetchOrderListResponsePayload(
                             listDescriptor = listDescriptor,
                             orderSummaries = orderSummaries,
                             loadedMore = offset > 0,
-                            canLoadMore = canLoadMore
+                            canLoadMore = canLoadMore,
+                            nextPageKey = nextPageKey
                     )
                     dispatcher.dispatch(WCOrderActionBuilder.newFetchedOrderListAction(payload))
                 },
@@ -161,12 +183,19 @@ class OrderRestClient(
      * Requests orders from the API that match the provided list of [remoteOrderIds] by making a GET call to
      * `/wc/v3/orders` via the Jetpack tunnel (see [JetpackTunnelGsonRequest]).
      *
-     * Dispatches a [WCOrderAction.FETCHED_ORDERS_BY_IDS] action with the resulting list of orders.
+     * The orders are requested in chunks of [WCOrderStore.NUM_ORDERS_PER_FETCH], which the request queue sends
+     * concurrently, so a long list of ids doesn't result in a single slow request.
+     *
+     * Dispatches a [WCOrderAction.FETCHED_ORDERS_BY_IDS] action with the resulting list of orders, for each chunk.
      *
      * @param site The WooCommerce [SiteModel] the orders belong to
      * @param remoteOrderIds A list of remote order identifiers to fetch from the API
      */
     fun fetchOrdersByIds(site: SiteModel, remoteOrderIds: List<RemoteId>) {
+        remoteOrderIds.chunked(WCOrderStore.NUM_ORDERS_PER_FETCH).forEach { fetchOrdersByIdsChunk(site, it) }
+    }
+
+    private fun fetchOrdersByIdsChunk(site: SiteModel, remoteOrderIds: List<RemoteId>) {
         val url = WOOCOMMERCE.orders.pathV3
         val responseType = object : TypeToken<List<OrderApiResponse>>() {}.type
         val params = mapOf(
@@ -248,12 +277,13 @@ class OrderRestClient(
 
                     val canLoadMore = orderModels.size == WCOrderStore.NUM_ORDERS_PER_FETCH
                     val nextOffset = offset + orderModels.size
-                    val payload = SearchOrdersResponsePayload(site, searchQuery, canLoadMore, nextOffset, orderModels)
+                    val payload = SearchOrdersResponsePayload(site, searchQuery, canLoadMore, nextOffset, orderModels,
+                            requestedOffset = offset)
                     dispatcher.dispatch(WCOrderActionBuilder.newSearchedOrdersAction(payload))
                 },
                 WPComErrorListener { networkError ->
                     val orderError = networkErrorToOrderError(networkError)
-                    val payload = SearchOrdersResponsePayload(orderError, site, searchQuery)
+                    val payload = SearchOrdersResponsePayload(orderError, site, searchQuery, offset)
                     dispatcher.dispatch(WCOrderActionBuilder.newSearchedOrdersAction(payload))
                 },
                 { request: WPComGsonRequest<*> -> add(request) })
@@ -729,6 +759,15 @@ class OrderRestClient(
         }
     }
 
+    /**
+     * Returns the key of the page following the given orders, built from their creation date in UTC
+     * (`date_created_gmt`, which has no timezone designator).
+     */
+    private fun getPageKey(orders: List<OrderSummaryApiResponse>, previousKey: ListPageKey?): ListPageKey? {
+        val sortDates = orders.map { (it.id ?: 0) to it.dateCreatedGmt?.let { date -> convertDateToUTCString(date) } }
+        return ListPageKey.afterItems(sortDates, previousKey)
+    }
+
     private fun convertDateToUTCString(date: String?): String =
             date?.let { DateUtils.formatGmtAsUtcDateString(it) } ?: "" // Store the date in UTC format
 
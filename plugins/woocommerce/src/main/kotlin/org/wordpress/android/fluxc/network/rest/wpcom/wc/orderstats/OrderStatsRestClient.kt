@@ -15,6 +15,7 @@ import org.wordpress.android.fluxc.model.WCRevenueStatsModel
 import org.wordpress.android.fluxc.model.WCTopEarnerModel
 import org.wordpress.android.fluxc.model.WCVisitorStatsModel
 import org.wordpress.android.fluxc.network.BaseRequest
+import org.wordpress.android.fluxc.network.ResponseValidatorCache
 import org.wordpress.android.fluxc.network.UserAgent
 import org.wordpress.android.fluxc.network.rest.wpcom.BaseWPComRestClient
 import org.wordpress.android.fluxc.network.rest.wpcom.WPComGsonRequest
@@ -25,6 +26,7 @@ import org.wordpress.android.fluxc.network.rest.wpcom.jetpacktunnel.JetpackTunne
 import org.wordpress.android.fluxc.store.WCStatsStore.FetchNewVisitorStatsResponsePayload
 import org.wordpress.android.fluxc.store.WCStatsStore.FetchOrderStatsResponsePayload
 import org.wordpress.android.fluxc.store.WCStatsStore.FetchRevenueStatsAvailabilityResponsePayload
+import org.wordpress.android.fluxc.store.WCStatsStore.FetchRevenueStatsDaysResponsePayload
 import org.wordpress.android.fluxc.store.WCStatsStore.FetchRevenueStatsResponsePayload
 import org.wordpress.android.fluxc.store.WCStatsStore.FetchTopEarnersStatsResponsePayload
 import org.wordpress.android.fluxc.store.WCStatsStore.FetchVisitorStatsResponsePayload
@@ -33,6 +35,7 @@ import org.wordpress.android.fluxc.store.WCStatsStore.OrderStatsErrorType
 import org.wordpress.android.fluxc.store.WCStatsStore.StatsGranularity
 import org.wordpress.android.util.AppLog
 import org.wordpress.android.util.AppLog.T
+import java.util.Date
 import javax.inject.Singleton
 
 @Singleton
@@ -41,7 +44,8 @@ class OrderStatsRestClient(
     dispatcher: Dispatcher,
     requestQueue: RequestQueue,
     accessToken: AccessToken,
-    userAgent: UserAgent
+    userAgent: UserAgent,
+    private val validatorCache: ResponseValidatorCache
 ) : BaseWPComRestClient(appContext, dispatcher, requestQueue, accessToken, userAgent) {
     enum class OrderStatsApiUnit {
         HOUR, DAY, WEEK, MONTH, YEAR;
@@ -189,6 +193,7 @@ class OrderStatsRestClient(
                 "before" to endDate,
                 "per_page" to perPage.toString(),
                 "order" to STATS_DEFAULT_ORDER)
+        val requestedAt = Date()
 
         val request = JetpackTunnelGsonRequest.buildGetRequest(url, site.siteId, params, responseType,
                 { response: RevenueStatsApiResponse? ->
@@ -201,7 +206,8 @@ class OrderStatsRestClient(
                             this.startDate = startDate
                             this.endDate = endDate
                         }
-                        val payload = FetchRevenueStatsResponsePayload(site, granularity, model)
+                        val payload = FetchRevenueStatsResponsePayload(site, granularity, model,
+                                fetchedAt = requestedAt)
                         mDispatcher.dispatch(WCStatsActionBuilder.newFetchedRevenueStatsAction(payload))
                     } ?: run {
                         AppLog.e(T.API, "Response for url $url with param $params is null: $response")
@@ -217,12 +223,74 @@ class OrderStatsRestClient(
                 },
                 { request: WPComGsonRequest<*> -> add(request) })
 
-        request?.enableCaching(BaseRequest.DEFAULT_CACHE_LIFETIME)
+        // Revalidate instead of caching, so unchanged stats cost a 304 and newly completed orders show up right away
+        request?.enableConditionalRequest(validatorCache) {
+            val payload = FetchRevenueStatsResponsePayload(site, granularity, startDate = startDate,
+                    endDate = endDate, notModified = true)
+            mDispatcher.dispatch(WCStatsActionBuilder.newFetchedRevenueStatsAction(payload))
+        }
         if (force) request?.setShouldForceUpdate()
 
         add(request)
     }
 
+    /**
+     * Makes a GET call to `/wc/v4/reports/revenue/stats`, retrieving the revenue stats of each day between
+     * [startDate] and [endDate], which are stored one row per day and rolled up locally.
+     *
+     * The resulting stats are dispatched in a FETCHED_REVENUE_STATS_DAYS action, and aren't stored as a
+     * [WCRevenueStatsModel].
+     *
+     * @param[startDate] the start of the first day to fetch, in the site's timezone (yyyy-MM-dd'T'00:00:00)
+     * @param[endDate] the end of the last day to fetch, in the site's timezone (yyyy-MM-dd'T'23:59:59)
+     * @param[perPage] the maximum number of days returned, which should cover the whole range
+     */
+    fun fetchRevenueStatsDays(
+        site: SiteModel,
+        startDate: String,
+        endDate: String,
+        perPage: Int
+    ) {
+        val url = WOOCOMMERCE.reports.revenue.stats.pathV4
+        val responseType = object : TypeToken<RevenueStatsApiResponse>() {}.type
+        val params = mapOf(
+                "interval" to OrderStatsApiUnit.DAY.toString(),
+                "after" to startDate,
+                "before" to endDate,
+                "per_page" to perPage.toString(),
+                "order" to STATS_DEFAULT_ORDER,
+                "_fields" to "intervals")
+        val requestedAt = Date()
+
+        val request = JetpackTunnelGsonRequest.buildGetRequest(url, site.siteId, params, responseType,
+                { response: RevenueStatsApiResponse? ->
+                    response?.let {
+                        val model = WCRevenueStatsModel().apply {
+                            this.localSiteId = site.id
+                            this.interval = StatsGranularity.DAYS.toString()
+                            this.data = response.intervals.toString()
+                            this.startDate = startDate
+                            this.endDate = endDate
+                        }
+                        val payload = FetchRevenueStatsDaysResponsePayload(site, startDate, endDate, model,
+                                requestedAt)
+                        mDispatcher.dispatch(WCStatsActionBuilder.newFetchedRevenueStatsDaysAction(payload))
+                    } ?: run {
+                        AppLog.e(T.API, "Response for url $url with param $params is null: $response")
+                        val orderError = OrderStatsError(OrderStatsErrorType.RESPONSE_NULL, "Response object is null")
+                        val payload = FetchRevenueStatsDaysResponsePayload(orderError, site, startDate, endDate)
+                        mDispatcher.dispatch(WCStatsActionBuilder.newFetchedRevenueStatsDaysAction(payload))
+                    }
+                },
+                WPComErrorListener { networkError ->
+                    val orderError = networkErrorToOrderError(networkError)
+                    val payload = FetchRevenueStatsDaysResponsePayload(orderError, site, startDate, endDate)
+                    mDispatcher.dispatch(WCStatsActionBuilder.newFetchedRevenueStatsDaysAction(payload))
+                },
+                { request: WPComGsonRequest<*> -> add(request) })
+        add(request)
+    }
+
     /**
      * Makes a GET call to `/wc/v4/reports/revenue/stats`, to check if the site supports the v4 stats api.
      * If v4 stats is not available for the site, returns [OrderStatsErrorType.PLUGIN_NOT_ACTIVE]
@@ -267,7 +335,7 @@ class OrderStatsRestClient(
         startDate: String? = null,
         endDate: String? = null
     ) {
-        val url = WPCOMREST.sites.site(site.siteId).stats.visits.urlV1_1
+        val url = WPCOMREST.sitesSiteStatsVisits(site.siteId).urlV1_1
         val params = mapOf(
                 "unit" to unit.toString(),
                 "date" to date,
@@ -314,7 +382,7 @@ class OrderStatsRestClient(
         startDate: String? = null,
         endDate: String? = null
     ) {
-        val url = WPCOMREST.sites.site(site.siteId).stats.visits.urlV1_1
+        val url = WPCOMREST.sitesSiteStatsVisits(site.siteId).urlV1_1
         val params = mapOf(
                 "unit" to unit.toString(),
                 "date" to date,
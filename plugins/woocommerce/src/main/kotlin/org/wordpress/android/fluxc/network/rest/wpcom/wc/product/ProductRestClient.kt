@@ -23,6 +23,8 @@ import org.wordpress.android.fluxc.store.WCProductStore
 import org.wordpress.android.fluxc.store.WCProductStore.FetchProductReviewsResponsePayload
 import org.wordpress.android.fluxc.store.WCProductStore.ProductError
 import org.wordpress.android.fluxc.store.WCProductStore.ProductErrorType
+import org.wordpress.android.fluxc.store.WCProductStore.RemoteProductIdsPayload
+import org.wordpress.android.fluxc.store.WCProductStore.RemoteProductListPayload
 import org.wordpress.android.fluxc.store.WCProductStore.RemoteProductPayload
 import org.wordpress.android.fluxc.store.WCProductStore.RemoteProductReviewPayload
 import org.wordpress.android.fluxc.store.WCProductStore.RemoteProductVariationsPayload
@@ -36,6 +38,16 @@ class ProductRestClient(
     accessToken: AccessToken,
     userAgent: UserAgent
 ) : BaseWPComRestClient(appContext, dispatcher, requestQueue, accessToken, userAgent) {
+    companion object {
+        private const val PRODUCT_FIELDS = "id,name,slug,permalink,date_created,date_modified,type,status," +
+                "featured,catalog_visibility,description,short_description,sku,price,regular_price,sale_price," +
+                "on_sale,total_sales,virtual,downloadable,download_limit,download_expiry,external_url,tax_status," +
+                "tax_class,manage_stock,stock_quantity,stock_status,backorders,backorders_allowed,backordered," +
+                "sold_individually,weight,dimensions,shipping_required,shipping_taxable,shipping_class," +
+                "shipping_class_id,reviews_allowed,average_rating,rating_count,parent_id,purchase_note," +
+                "categories,tags,images,attributes,variations,downloads,related_ids,cross_sell_ids,upsell_ids"
+    }
+
     /**
      * Makes a GET request to `/wp-json/wc/v3/products/[remoteProductId]` to fetch a single product
      *
@@ -70,6 +82,99 @@ class ProductRestClient(
         add(request)
     }
 
+    /**
+     * Makes a GET request to `/wp-json/wc/v3/products` to fetch a page of the site's products, ordered by id so
+     * the pages stay stable while the catalog is synced.
+     *
+     * Only the fields read by [productResponseToProductModel] are requested, which leaves out the meta data and
+     * links making up a large part of each product.
+     *
+     * Dispatches a WCProductAction.FETCHED_PRODUCTS action with the result
+     *
+     * @param [pageSize] The number of products to fetch, at most 100
+     * @param [offset] The number of products already fetched
+     * @param [modifiedAfter] Optional. Only products modified after this ISO 8601 date are fetched
+     */
+    fun fetchProducts(
+        site: SiteModel,
+        pageSize: Int = WCProductStore.NUM_PRODUCTS_PER_FETCH,
+        offset: Int = 0,
+        modifiedAfter: String? = null
+    ) {
+        val url = WOOCOMMERCE.products.pathV3
+        val responseType = object : TypeToken<List<ProductApiResponse>>() {}.type
+        val params = mutableMapOf(
+                "per_page" to pageSize.toString(),
+                "offset" to offset.toString(),
+                "orderby" to "id",
+                "order" to "asc",
+                "_fields" to PRODUCT_FIELDS)
+        modifiedAfter?.let { params["modified_after"] = it }
+        val request = JetpackTunnelGsonRequest.buildGetRequest(url, site.siteId, params, responseType,
+                { response: List<ProductApiResponse>? ->
+                    val products = response?.map {
+                        productResponseToProductModel(it).apply { localSiteId = site.id }
+                    }.orEmpty()
+                    val canLoadMore = products.size == pageSize
+                    val payload = RemoteProductListPayload(site, products, offset, modifiedAfter, canLoadMore)
+                    dispatcher.dispatch(WCProductActionBuilder.newFetchedProductsAction(payload))
+                },
+                WPComErrorListener { networkError ->
+                    val productError = networkErrorToProductError(networkError)
+                    val payload = RemoteProductListPayload(productError, site, offset, modifiedAfter)
+                    dispatcher.dispatch(WCProductActionBuilder.newFetchedProductsAction(payload))
+                },
+                { request: WPComGsonRequest<*> -> add(request) })
+        add(request)
+    }
+
+    /**
+     * Makes GET requests to `/wp-json/wc/v3/products` to list the ids of all the site's products, one page after
+     * the other. Trashed products aren't listed, so the stored products missing from the list are the ones deleted
+     * or trashed since they were synced.
+     *
+     * The API only pages by offset, so each page starts with the last id of the previous one: if it doesn't, products
+     * were deleted or restored meanwhile and the pages shifted, the list is then dispatched as changed rather than
+     * with ids that could be missing.
+     *
+     * Dispatches a WCProductAction.FETCHED_PRODUCT_IDS action once the last page is fetched, or on the first error
+     *
+     * @param [fetchedIds] The ids already fetched, in order
+     */
+    fun fetchProductIds(site: SiteModel, fetchedIds: List<Long> = emptyList()) {
+        val url = WOOCOMMERCE.products.pathV3
+        val responseType = object : TypeToken<List<ProductApiResponse>>() {}.type
+        val pageSize = WCProductStore.NUM_PRODUCTS_PER_FETCH
+        val lastId = fetchedIds.lastOrNull()
+        val params = mapOf(
+                "per_page" to pageSize.toString(),
+                "offset" to (if (lastId != null) fetchedIds.size - 1 else 0).toString(),
+                "orderby" to "id",
+                "order" to "asc",
+                "_fields" to "id")
+        val request = JetpackTunnelGsonRequest.buildGetRequest(url, site.siteId, params, responseType,
+                { response: List<ProductApiResponse>? ->
+                    val ids = response?.mapNotNull { it.id }.orEmpty()
+                    val newIds = if (lastId != null) ids.drop(1) else ids
+                    if (lastId != null && ids.firstOrNull() != lastId) {
+                        val payload = RemoteProductIdsPayload(site, listChanged = true)
+                        dispatcher.dispatch(WCProductActionBuilder.newFetchedProductIdsAction(payload))
+                    } else if (ids.size == pageSize) {
+                        fetchProductIds(site, fetchedIds + newIds)
+                    } else {
+                        val payload = RemoteProductIdsPayload(site, fetchedIds + newIds)
+                        dispatcher.dispatch(WCProductActionBuilder.newFetchedProductIdsAction(payload))
+                    }
+                },
+                WPComErrorListener { networkError ->
+                    val productError = networkErrorToProductError(networkError)
+                    val payload = RemoteProductIdsPayload(productError, site)
+                    dispatcher.dispatch(WCProductActionBuilder.newFetchedProductIdsAction(payload))
+                },
+                { request: WPComGsonRequest<*> -> add(request) })
+        add(request)
+    }
+
     /**
      * Makes a GET request to `POST /wp-json/wc/v3/products/[productId]/variations` to fetch
      * variations for a product
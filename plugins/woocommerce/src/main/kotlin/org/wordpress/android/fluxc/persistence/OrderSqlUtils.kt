@@ -1,5 +1,9 @@
 package org.wordpress.android.fluxc.persistence
 
+import android.content.ContentValues
+import android.database.sqlite.SQLiteDatabase
+import com.wellsql.generated.ListItemModelTable
+import com.wellsql.generated.ListModelTable
 import com.wellsql.generated.WCOrderModelTable
 import com.wellsql.generated.WCOrderNoteModelTable
 import com.wellsql.generated.WCOrderShipmentProviderModelTable
@@ -16,9 +20,15 @@ import org.wordpress.android.fluxc.model.WCOrderShipmentProviderModel
 import org.wordpress.android.fluxc.model.WCOrderShipmentTrackingModel
 import org.wordpress.android.fluxc.model.WCOrderStatusModel
 import org.wordpress.android.fluxc.model.WCOrderSummaryModel
+import org.wordpress.android.fluxc.model.list.ListDescriptorTypeIdentifier
+import org.wordpress.android.fluxc.model.list.ListModel
 import org.wordpress.android.fluxc.model.order.OrderIdSet
+import org.wordpress.android.util.DateTimeUtils
+import java.util.Date
 
 object OrderSqlUtils {
+    private const val MAX_SQL_VARIABLES = 900
+
     fun insertOrUpdateOrderSummaries(orderSummaries: List<WCOrderSummaryModel>) {
         WellSql.insert(orderSummaries).asSingleTransaction(true).execute()
     }
@@ -35,6 +45,113 @@ object OrderSqlUtils {
                 .asModel
     }
 
+    /**
+     * Compares the given order summaries with the orders stored for the site, in SQL, without loading the orders.
+     *
+     * @return the remote ids of the orders which are stored locally, but were modified since
+     */
+    fun getOutdatedOrderRemoteIds(site: SiteModel, remoteOrderIds: List<RemoteId>): List<RemoteId> {
+        val siteId = WCOrderSummaryModelTable.LOCAL_SITE_ID
+        val remoteOrderId = WCOrderSummaryModelTable.REMOTE_ORDER_ID
+        val outdatedRemoteIds = mutableListOf<RemoteId>()
+        // One variable is taken by the site id
+        remoteOrderIds.chunked(MAX_SQL_VARIABLES - 1).forEach { ids ->
+            val cursor = WellSql.giveMeReadableDb().rawQuery(
+                    "SELECT s.$remoteOrderId FROM WCOrderSummaryModel s" +
+                            " JOIN WCOrderModel o" +
+                            " ON o.${WCOrderModelTable.LOCAL_SITE_ID} = s.$siteId" +
+                            " AND o.${WCOrderModelTable.REMOTE_ORDER_ID} = s.$remoteOrderId" +
+                            " WHERE s.$siteId = ? AND s.$remoteOrderId IN (${ids.joinToString { "?" }})" +
+                            " AND IFNULL(o.${WCOrderModelTable.DATE_MODIFIED}, '')" +
+                            " != s.${WCOrderSummaryModelTable.DATE_MODIFIED}",
+                    arrayOf(site.id.toString()) + ids.map { it.value.toString() })
+            cursor.use {
+                while (it.moveToNext()) {
+                    outdatedRemoteIds.add(RemoteId(it.getLong(0)))
+                }
+            }
+        }
+        return outdatedRemoteIds
+    }
+
+    /**
+     * Deletes the order data of the [site] that no list can show anymore:
+     *
+     * - the site's order lists (see [listTypeIdentifier]) last updated before [listsModifiedBefore], if given, and
+     * their items
+     * - orders created before [createdBefore] which aren't in any of the remaining order lists of the site
+     * - order summaries which aren't in any of the site's order lists
+     * - notes and shipment trackings of orders which aren't stored anymore
+     *
+     * Orders opened directly (e.g. from a notification) are fetched again when needed.
+     *
+     * @param createdBefore ISO 8601-formatted date in UTC, e.g. 1955-11-05T14:15:00Z
+     * @return the number of rows deleted from each table, by table name
+     */
+    fun deleteUnlistedOrdersForSite(
+        site: SiteModel,
+        listTypeIdentifier: ListDescriptorTypeIdentifier,
+        createdBefore: String,
+        listsModifiedBefore: Date? = null
+    ): Map<String, Int> {
+        val db = WellSql.giveMeWritableDb()
+        val siteId = site.id.toString()
+        val listedRemoteIds = "SELECT i.${ListItemModelTable.REMOTE_ITEM_ID} FROM ListItemModel i" +
+                " JOIN ListModel l ON l.${ListModelTable.ID} = i.${ListItemModelTable.LIST_ID}" +
+                " WHERE l.${ListModelTable.DESCRIPTOR_TYPE_IDENTIFIER_DB_VALUE} = ${listTypeIdentifier.value}"
+        val orderIds = "SELECT ${WCOrderModelTable.ID} FROM WCOrderModel"
+
+        val deletedRows = linkedMapOf<String, Int>()
+        db.beginTransaction()
+        try {
+            listsModifiedBefore?.let { deletedRows.putAll(deleteExpiredLists(db, listTypeIdentifier, it)) }
+            deletedRows["WCOrderModel"] = db.delete("WCOrderModel",
+                    "${WCOrderModelTable.LOCAL_SITE_ID} = ? AND ${WCOrderModelTable.DATE_CREATED} < ?" +
+                            " AND ${WCOrderModelTable.REMOTE_ORDER_ID} NOT IN ($listedRemoteIds)",
+                    arrayOf(siteId, createdBefore))
+            deletedRows["WCOrderSummaryModel"] = db.delete("WCOrderSummaryModel",
+                    "${WCOrderSummaryModelTable.LOCAL_SITE_ID} = ?" +
+                            " AND ${WCOrderSummaryModelTable.REMOTE_ORDER_ID} NOT IN ($listedRemoteIds)",
+                    arrayOf(siteId))
+            deletedRows["WCOrderNoteModel"] = db.delete("WCOrderNoteModel",
+                    "${WCOrderNoteModelTable.LOCAL_SITE_ID} = ?" +
+                            " AND ${WCOrderNoteModelTable.LOCAL_ORDER_ID} NOT IN ($orderIds)",
+                    arrayOf(siteId))
+            deletedRows["WCOrderShipmentTrackingModel"] = db.delete("WCOrderShipmentTrackingModel",
+                    "${WCOrderShipmentTrackingModelTable.LOCAL_SITE_ID} = ?" +
+                            " AND ${WCOrderShipmentTrackingModelTable.LOCAL_ORDER_ID} NOT IN ($orderIds)",
+                    arrayOf(siteId))
+            db.setTransactionSuccessful()
+        } finally {
+            db.endTransaction()
+        }
+        return deletedRows
+    }
+
+    private fun deleteExpiredLists(
+        db: SQLiteDatabase,
+        listTypeIdentifier: ListDescriptorTypeIdentifier,
+        modifiedBefore: Date
+    ): Map<String, Int> {
+        val expiredListIds = WellSql.select(ListModel::class.java)
+                .where()
+                .equals(ListModelTable.DESCRIPTOR_TYPE_IDENTIFIER_DB_VALUE, listTypeIdentifier.value)
+                .endWhere()
+                .asModel
+                .filter { DateTimeUtils.dateFromIso8601(it.lastModified)?.before(modifiedBefore) ?: true }
+                .map { it.id.toString() }
+        if (expiredListIds.isEmpty()) {
+            return mapOf("ListModel" to 0, "ListItemModel" to 0)
+        }
+        val placeholders = expiredListIds.joinToString(",") { "?" }
+        // The items would be deleted with their list, but aren't counted then
+        val deletedItems = db.delete("ListItemModel", "${ListItemModelTable.LIST_ID} IN ($placeholders)",
+                expiredListIds.toTypedArray())
+        val deletedLists = db.delete("ListModel", "${ListModelTable.ID} IN ($placeholders)",
+                expiredListIds.toTypedArray())
+        return mapOf("ListModel" to deletedLists, "ListItemModel" to deletedItems)
+    }
+
     fun deleteOrderSummariesForSite(site: SiteModel) {
         WellSql.delete(WCOrderSummaryModel::class.java)
                 .where()
@@ -43,30 +160,113 @@ object OrderSqlUtils {
                 .execute()
     }
 
+    /**
+     * Inserts or updates the given orders, and their entries in [OrderSearchIndex], in a single transaction.
+     */
+    fun insertOrUpdateOrders(orders: List<WCOrderModel>): Int {
+        val db = WellSql.giveMeWritableDb()
+        db.beginTransaction()
+        try {
+            val rowsAffected = orders.sumBy { insertOrUpdateOrder(it) }
+            db.setTransactionSuccessful()
+            return rowsAffected
+        } finally {
+            db.endTransaction()
+        }
+    }
+
+    /**
+     * Inserts or updates the given order, and its entry in [OrderSearchIndex], in a single transaction so
+     * the search index never gets out of sync with the stored order.
+     */
     fun insertOrUpdateOrder(order: WCOrderModel): Int {
-        val orderResult = WellSql.select(WCOrderModel::class.java)
-                .where().beginGroup()
-                .equals(WCOrderModelTable.ID, order.id)
-                .or()
-                .beginGroup()
-                .equals(WCOrderModelTable.REMOTE_ORDER_ID, order.remoteOrderId)
-                .equals(WCOrderModelTable.LOCAL_SITE_ID, order.localSiteId)
-                .endGroup()
-                .endGroup().endWhere()
-                .asModel
+        order.updateLineItemsSummary()
+        val db = WellSql.giveMeWritableDb()
+        db.beginTransaction()
+        try {
+            val orderResult = WellSql.select(WCOrderModel::class.java)
+                    .where().beginGroup()
+                    .equals(WCOrderModelTable.ID, order.id)
+                    .or()
+                    .beginGroup()
+                    .equals(WCOrderModelTable.REMOTE_ORDER_ID, order.remoteOrderId)
+                    .equals(WCOrderModelTable.LOCAL_SITE_ID, order.localSiteId)
+                    .endGroup()
+                    .endGroup().endWhere()
+                    .asModel
 
-        if (orderResult.isEmpty()) {
-            // Insert
-            WellSql.insert(order).asSingleTransaction(true).execute()
-            return 1
-        } else {
-            // Update
-            val oldId = orderResult[0].id
-            return WellSql.update(WCOrderModel::class.java).whereId(oldId)
-                    .put(order, UpdateAllExceptId(WCOrderModel::class.java)).execute()
+            val rowsAffected = if (orderResult.isEmpty()) {
+                // Insert
+                WellSql.insert(order).asSingleTransaction(true).execute()
+                updateOrderSearchIndex(db, order.id, order)
+                1
+            } else {
+                // Update
+                val oldId = orderResult[0].id
+                WellSql.update(WCOrderModel::class.java).whereId(oldId)
+                        .put(order, UpdateAllExceptId(WCOrderModel::class.java)).execute().also {
+                            updateOrderSearchIndex(db, oldId, order)
+                        }
+            }
+            db.setTransactionSuccessful()
+            return rowsAffected
+        } finally {
+            db.endTransaction()
         }
     }
 
+    private fun updateOrderSearchIndex(db: SQLiteDatabase, localOrderId: Int, order: WCOrderModel) {
+        val values = ContentValues().apply {
+            put(OrderSearchIndex.NUMBER, order.number)
+            put(OrderSearchIndex.CUSTOMER, with(order) {
+                joinText(billingFirstName, billingLastName, billingCompany,
+                        shippingFirstName, shippingLastName, shippingCompany)
+            })
+            put(OrderSearchIndex.CONTACT, joinText(order.billingEmail, order.billingPhone))
+            put(OrderSearchIndex.ADDRESS, with(order) {
+                joinText(billingAddress1, billingAddress2, billingCity, billingState, billingPostcode, billingCountry,
+                        shippingAddress1, shippingAddress2, shippingCity, shippingState, shippingPostcode,
+                        shippingCountry)
+            })
+            put(OrderSearchIndex.LINE_ITEMS, joinText(*order.getLineItemList().mapNotNull { it.name }.toTypedArray()))
+        }
+        OrderSearchIndex.replace(db, localOrderId, values)
+    }
+
+    private fun joinText(vararg parts: String) = parts.filter { it.isNotEmpty() }.joinToString(" ")
+
+    /**
+     * Searches the orders of the site stored locally, using [OrderSearchIndex]: every term of the query must match
+     * the start of a word in the order number, customer names, email, phone, addresses or product names.
+     *
+     * @return at most [limit] orders, most recent first
+     */
+    fun searchOrdersForSite(site: SiteModel, searchQuery: String, limit: Int): List<WCOrderModel> {
+        val matchQuery = FullTextSearchUtils.buildPrefixMatchQuery(searchQuery) ?: return emptyList()
+        val cursor = WellSql.giveMeReadableDb().rawQuery(
+                "SELECT o.${WCOrderModelTable.ID} FROM ${OrderSearchIndex.TABLE_NAME}" +
+                        " JOIN WCOrderModel o" +
+                        " ON o.${WCOrderModelTable.ID} = ${OrderSearchIndex.TABLE_NAME}.${OrderSearchIndex.DOC_ID}" +
+                        " WHERE ${OrderSearchIndex.TABLE_NAME} MATCH ? AND o.${WCOrderModelTable.LOCAL_SITE_ID} = ?" +
+                        " ORDER BY o.${WCOrderModelTable.DATE_CREATED} DESC LIMIT $limit",
+                arrayOf(matchQuery, site.id.toString()))
+        val localOrderIds = mutableListOf<Int>()
+        cursor.use {
+            while (it.moveToNext()) {
+                localOrderIds.add(it.getInt(0))
+            }
+        }
+        if (localOrderIds.isEmpty()) {
+            return emptyList()
+        }
+        return WellSql.select(WCOrderModel::class.java)
+                .where()
+                .isIn(WCOrderModelTable.ID, localOrderIds)
+                .endWhere()
+                .orderBy(WCOrderModelTable.DATE_CREATED, SelectQuery.ORDER_DESCENDING)
+                .asModel
+    }
+
     fun getOrderForIdSet(orderIdSet: OrderIdSet): WCOrderModel? {
         val (id, remoteOrderId, localSiteId) = orderIdSet
         return WellSql.select(WCOrderModel::class.java)
@@ -3,14 +3,26 @@ package org.wordpress.android.fluxc.persistence
 import com.wellsql.generated.WCProductModelTable
 import com.wellsql.generated.WCProductReviewModelTable
 import com.wellsql.generated.WCProductVariationModelTable
+import com.yarolegovich.wellsql.ConditionClauseBuilder
 import com.yarolegovich.wellsql.SelectQuery
 import com.yarolegovich.wellsql.WellSql
 import org.wordpress.android.fluxc.model.SiteModel
 import org.wordpress.android.fluxc.model.WCProductModel
 import org.wordpress.android.fluxc.model.WCProductReviewModel
 import org.wordpress.android.fluxc.model.WCProductVariationModel
+import org.wordpress.android.fluxc.store.WCProductStore.ProductFilterOption
+import org.wordpress.android.fluxc.store.WCProductStore.ProductSorting
+import org.wordpress.android.fluxc.store.WCProductStore.ProductSorting.DATE_ASC
+import org.wordpress.android.fluxc.store.WCProductStore.ProductSorting.DATE_DESC
+import org.wordpress.android.fluxc.store.WCProductStore.ProductSorting.TITLE_ASC
+import org.wordpress.android.fluxc.store.WCProductStore.ProductSorting.TITLE_DESC
 
 object ProductSqlUtils {
+    /**
+     * Maximum number of arguments bound to a single statement (SQLite's limit is 999 on older versions).
+     */
+    private const val MAX_SQL_VARIABLES = 900
+
     fun insertOrUpdateProduct(product: WCProductModel): Int {
         val productResult = WellSql.select(WCProductModel::class.java)
                 .where().beginGroup()
@@ -35,6 +47,103 @@ object ProductSqlUtils {
         }
     }
 
+    /**
+     * Inserts or updates a page of products in a single transaction, looking up the stored products of the page with
+     * one query instead of one per product.
+     */
+    fun insertOrUpdateProducts(products: List<WCProductModel>): Int {
+        if (products.isEmpty()) {
+            return 0
+        }
+
+        var rowsAffected = 0
+        val db = WellSql.giveMeWritableDb()
+        db.beginTransaction()
+        try {
+            products.groupBy { it.localSiteId }.forEach { (localSiteId, siteProducts) ->
+                val existingIds = WellSql.select(WCProductModel::class.java)
+                        .where().beginGroup()
+                        .equals(WCProductModelTable.LOCAL_SITE_ID, localSiteId)
+                        .isIn(WCProductModelTable.REMOTE_PRODUCT_ID, siteProducts.map { it.remoteProductId })
+                        .endGroup().endWhere()
+                        .asModel.associateBy({ it.remoteProductId }, { it.id })
+
+                val (storedProducts, newProducts) = siteProducts.partition {
+                    existingIds.containsKey(it.remoteProductId)
+                }
+                storedProducts.forEach { product ->
+                    rowsAffected += WellSql.update(WCProductModel::class.java)
+                            .whereId(existingIds.getValue(product.remoteProductId))
+                            .put(product, UpdateAllExceptId(WCProductModel::class.java)).execute()
+                }
+                if (newProducts.isNotEmpty()) {
+                    WellSql.insert(newProducts).execute()
+                    rowsAffected += newProducts.size
+                }
+            }
+            db.setTransactionSuccessful()
+        } finally {
+            db.endTransaction()
+        }
+        return rowsAffected
+    }
+
+    /**
+     * Returns the stored products of the [site] matching all the [filterOptions] and, if given, whose name or SKU
+     * contains the [searchQuery], sorted by [sortType].
+     */
+    fun getProductsForSite(
+        site: SiteModel,
+        sortType: ProductSorting = TITLE_ASC,
+        filterOptions: Map<ProductFilterOption, String> = emptyMap(),
+        searchQuery: String? = null
+    ): List<WCProductModel> {
+        val queryBuilder: ConditionClauseBuilder<SelectQuery<WCProductModel>> =
+                WellSql.select(WCProductModel::class.java)
+                        .where().beginGroup()
+                        .equals(WCProductModelTable.LOCAL_SITE_ID, site.id)
+
+        filterOptions.forEach { (option, value) ->
+            val column = when (option) {
+                ProductFilterOption.STATUS -> WCProductModelTable.STATUS
+                ProductFilterOption.STOCK_STATUS -> WCProductModelTable.STOCK_STATUS
+                ProductFilterOption.TYPE -> WCProductModelTable.TYPE
+            }
+            queryBuilder.equals(column, value)
+        }
+
+        if (!searchQuery.isNullOrEmpty()) {
+            queryBuilder.beginGroup()
+                    .contains(WCProductModelTable.NAME, searchQuery)
+                    .or()
+                    .contains(WCProductModelTable.SKU, searchQuery)
+                    .endGroup()
+        }
+
+        val (column, order) = when (sortType) {
+            TITLE_ASC -> "${WCProductModelTable.NAME} COLLATE NOCASE" to SelectQuery.ORDER_ASCENDING
+            TITLE_DESC -> "${WCProductModelTable.NAME} COLLATE NOCASE" to SelectQuery.ORDER_DESCENDING
+            DATE_ASC -> WCProductModelTable.DATE_CREATED to SelectQuery.ORDER_ASCENDING
+            DATE_DESC -> WCProductModelTable.DATE_CREATED to SelectQuery.ORDER_DESCENDING
+        }
+        return queryBuilder.endGroup().endWhere()
+                .orderBy(column, order)
+                .asModel
+    }
+
+    /**
+     * Returns the latest modification date of the stored products of the [site], or null if there aren't any.
+     */
+    fun getLastProductModifiedDate(site: SiteModel): String? {
+        val cursor = WellSql.giveMeReadableDb().rawQuery(
+                "SELECT MAX(${WCProductModelTable.DATE_MODIFIED}) FROM WCProductModel" +
+                        " WHERE ${WCProductModelTable.LOCAL_SITE_ID} = ?",
+                arrayOf(site.id.toString()))
+        return cursor.use {
+            if (it.moveToFirst() && !it.isNull(0)) it.getString(0).takeIf { date -> date.isNotEmpty() } else null
+        }
+    }
+
     fun getProductByRemoteId(site: SiteModel, remoteProductId: Long): WCProductModel? {
         return WellSql.select(WCProductModel::class.java)
                 .where().beginGroup()
@@ -71,6 +180,46 @@ object ProductSqlUtils {
                 .execute()
     }
 
+    /**
+     * Deletes the stored products of the [site] whose remote id isn't in [remoteProductIds], with their variations:
+     * the products deleted or trashed on the site since they were synced.
+     */
+    fun deleteProductsAbsentFromRemoteIds(site: SiteModel, remoteProductIds: Collection<Long>): Int {
+        val remoteIds = remoteProductIds.toHashSet()
+        var rowsAffected = 0
+        val db = WellSql.giveMeWritableDb()
+        db.beginTransaction()
+        try {
+            val cursor = db.rawQuery("SELECT ${WCProductModelTable.REMOTE_PRODUCT_ID} FROM WCProductModel" +
+                    " WHERE ${WCProductModelTable.LOCAL_SITE_ID} = ?", arrayOf(site.id.toString()))
+            val absentIds = cursor.use {
+                val ids = mutableListOf<Long>()
+                while (it.moveToNext()) {
+                    ids.add(it.getLong(0))
+                }
+                ids.filterNot { id -> remoteIds.contains(id) }
+            }
+            absentIds.chunked(MAX_SQL_VARIABLES).forEach { ids ->
+                rowsAffected += WellSql.delete(WCProductModel::class.java)
+                        .where().beginGroup()
+                        .equals(WCProductModelTable.LOCAL_SITE_ID, site.id)
+                        .isIn(WCProductModelTable.REMOTE_PRODUCT_ID, ids)
+                        .endGroup().endWhere()
+                        .execute()
+                WellSql.delete(WCProductVariationModel::class.java)
+                        .where().beginGroup()
+                        .equals(WCProductVariationModelTable.LOCAL_SITE_ID, site.id)
+                        .isIn(WCProductVariationModelTable.REMOTE_PRODUCT_ID, ids)
+                        .endGroup().endWhere()
+                        .execute()
+            }
+            db.setTransactionSuccessful()
+        } finally {
+            db.endTransaction()
+        }
+        return rowsAffected
+    }
+
     fun insertOrUpdateProductVariation(variation: WCProductVariationModel): Int {
         val result = WellSql.select(WCProductVariationModel::class.java)
                 .where().beginGroup()
@@ -0,0 +1,158 @@
+package org.wordpress.android.fluxc.persistence
+
+import com.wellsql.generated.WCStatsIntervalModelTable
+import com.yarolegovich.wellsql.WellSql
+import org.wordpress.android.fluxc.model.WCNewVisitorStatsModel
+import org.wordpress.android.fluxc.model.WCOrderStatsModel
+import org.wordpress.android.fluxc.model.WCRevenueStatsModel
+import org.wordpress.android.fluxc.model.WCStatsIntervalModel
+import org.wordpress.android.fluxc.model.WCStatsIntervalModel.StatsType
+import org.wordpress.android.fluxc.model.WCStatsSeries
+import org.wordpress.android.fluxc.model.WCVisitorStatsModel
+
+/**
+ * Stores the numeric interval values of the stats models as [WCStatsIntervalModel] rows, and reads them back as
+ * [WCStatsSeries].
+ *
+ * The rows are replaced whenever their stats model is inserted or updated, and deleted with it, so reading a series
+ * never parses the stored JSON nor writes to the database.
+ */
+object WCStatsIntervalSqlUtils {
+    private const val PERIOD_FIELD = "period"
+
+    fun replaceOrderStatsIntervals(stats: WCOrderStatsModel) {
+        replaceIntervals(StatsType.ORDER_STATS, stats.id, stats.localSiteId,
+                getIntervalValues(stats.fieldsList, stats.dataList))
+    }
+
+    fun replaceRevenueStatsIntervals(stats: WCRevenueStatsModel) {
+        val values = mutableListOf<IntervalValue>()
+        stats.getIntervalList().forEachIndexed { index, interval ->
+            val period = interval.interval ?: return@forEachIndexed
+            interval.subtotals?.ordersCount?.let {
+                values.add(IntervalValue(index, period, WCRevenueStatsModel.FIELD_ORDERS_COUNT, it.toDouble()))
+            }
+            interval.subtotals?.grossRevenue?.let {
+                values.add(IntervalValue(index, period, WCRevenueStatsModel.FIELD_GROSS_REVENUE, it))
+            }
+        }
+        replaceIntervals(StatsType.REVENUE_STATS, stats.id, stats.localSiteId, values)
+    }
+
+    fun replaceVisitorStatsIntervals(stats: WCVisitorStatsModel) {
+        replaceIntervals(StatsType.VISITOR_STATS, stats.id, stats.localSiteId,
+                getIntervalValues(stats.fieldsList, stats.dataList))
+    }
+
+    fun replaceNewVisitorStatsIntervals(stats: WCNewVisitorStatsModel) {
+        replaceIntervals(StatsType.NEW_VISITOR_STATS, stats.id, stats.localSiteId,
+                getIntervalValues(stats.fieldsList, stats.dataList))
+    }
+
+    fun getOrderStatsSeries(stats: WCOrderStatsModel, field: String): WCStatsSeries {
+        return querySeries(StatsType.ORDER_STATS, stats.id, field)
+    }
+
+    fun getRevenueStatsSeries(stats: WCRevenueStatsModel, field: String): WCStatsSeries {
+        return querySeries(StatsType.REVENUE_STATS, stats.id, field)
+    }
+
+    fun getVisitorStatsSeries(stats: WCVisitorStatsModel, field: String): WCStatsSeries {
+        return querySeries(StatsType.VISITOR_STATS, stats.id, field)
+    }
+
+    fun getNewVisitorStatsSeries(stats: WCNewVisitorStatsModel, field: String): WCStatsSeries {
+        return querySeries(StatsType.NEW_VISITOR_STATS, stats.id, field)
+    }
+
+    /**
+     * Deletes the rows of the stats of [statsType] which aren't stored in [statsTable] anymore.
+     */
+    fun deleteOrphanIntervals(statsType: StatsType, statsTable: String): Int {
+        return WellSql.giveMeWritableDb().delete("WCStatsIntervalModel",
+                "${WCStatsIntervalModelTable.STATS_TYPE} = ?" +
+                        " AND ${WCStatsIntervalModelTable.STATS_ID} NOT IN (SELECT _id FROM $statsTable)",
+                arrayOf(statsType.name))
+    }
+
+    /**
+     * Deletes the rows of all the stats of [statsType] of the site with the given [localSiteId].
+     */
+    fun deleteIntervalsForSite(statsType: StatsType, localSiteId: Int): Int {
+        return WellSql.giveMeWritableDb().delete("WCStatsIntervalModel",
+                "${WCStatsIntervalModelTable.STATS_TYPE} = ? AND ${WCStatsIntervalModelTable.LOCAL_SITE_ID} = ?",
+                arrayOf(statsType.name, localSiteId.toString()))
+    }
+
+    private fun replaceIntervals(statsType: StatsType, statsId: Int, localSiteId: Int, values: List<IntervalValue>) {
+        val db = WellSql.giveMeWritableDb()
+        db.beginTransaction()
+        try {
+            db.delete("WCStatsIntervalModel",
+                    "${WCStatsIntervalModelTable.STATS_TYPE} = ? AND ${WCStatsIntervalModelTable.STATS_ID} = ?",
+                    arrayOf(statsType.name, statsId.toString()))
+            val intervals = values.map { value ->
+                WCStatsIntervalModel().apply {
+                    this.localSiteId = localSiteId
+                    this.statsType = statsType.name
+                    this.statsId = statsId
+                    this.intervalIndex = value.intervalIndex
+                    this.period = value.period
+                    this.field = value.field
+                    this.value = value.value
+                }
+            }
+            if (intervals.isNotEmpty()) {
+                WellSql.insert(intervals).execute()
+            }
+            db.setTransactionSuccessful()
+        } finally {
+            db.endTransaction()
+        }
+    }
+
+    private fun querySeries(statsType: StatsType, statsId: Int, field: String): WCStatsSeries {
+        val cursor = WellSql.giveMeReadableDb().rawQuery(
+                "SELECT ${WCStatsIntervalModelTable.PERIOD}, ${WCStatsIntervalModelTable.VALUE}" +
+                        " FROM WCStatsIntervalModel WHERE ${WCStatsIntervalModelTable.STATS_TYPE} = ?" +
+                        " AND ${WCStatsIntervalModelTable.STATS_ID} = ? AND ${WCStatsIntervalModelTable.FIELD} = ?" +
+                        " ORDER BY ${WCStatsIntervalModelTable.INTERVAL_INDEX}",
+                arrayOf(statsType.name, statsId.toString(), field))
+        cursor.use {
+            if (it.count == 0) {
+                return WCStatsSeries.EMPTY
+            }
+            val periods = Array(it.count) { "" }
+            val values = DoubleArray(it.count)
+            while (it.moveToNext()) {
+                periods[it.position] = it.getString(0)
+                values[it.position] = it.getDouble(1)
+            }
+            return WCStatsSeries(periods, values)
+        }
+    }
+
+    /**
+     * Returns the numeric values of the `data` rows of the v1 stats endpoints, whose columns are named by `fields`.
+     */
+    private fun getIntervalValues(fieldsList: List<String>, dataList: List<List<Any>>): List<IntervalValue> {
+        val periodIndex = fieldsList.indexOf(PERIOD_FIELD)
+        if (periodIndex == -1) {
+            return emptyList()
+        }
+        val values = mutableListOf<IntervalValue>()
+        dataList.forEachIndexed { intervalIndex, row ->
+            // Years are returned as numbers by the API, and Gson interprets them as floats - clean up the decimal
+            val period = row.getOrNull(periodIndex)?.toString()?.removeSuffix(".0") ?: return@forEachIndexed
+            fieldsList.forEachIndexed { index, field ->
+                val value = row.getOrNull(index)
+                if (index != periodIndex && value is Number) {
+                    values.add(IntervalValue(intervalIndex, period, field, value.toDouble()))
+                }
+            }
+        }
+        return values
+    }
+
+    private class IntervalValue(val intervalIndex: Int, val period: String, val field: String, val value: Double)
+}
@@ -1,11 +1,15 @@
 package org.wordpress.android.fluxc.persistence
 
 import com.wellsql.generated.WCOrderStatsModelTable
+import com.wellsql.generated.WCRevenueStatsDayModelTable
 import com.wellsql.generated.WCRevenueStatsModelTable
 import com.yarolegovich.wellsql.WellSql
 import org.wordpress.android.fluxc.model.SiteModel
 import org.wordpress.android.fluxc.model.WCOrderStatsModel
+import org.wordpress.android.fluxc.model.WCRevenueStatsDayModel
 import org.wordpress.android.fluxc.model.WCRevenueStatsModel
+import org.wordpress.android.fluxc.model.WCRevenueStatsRollup
+import org.wordpress.android.fluxc.model.WCStatsIntervalModel.StatsType
 import org.wordpress.android.fluxc.network.rest.wpcom.wc.orderstats.OrderStatsRestClient.OrderStatsApiUnit
 import org.wordpress.android.fluxc.store.WCStatsStore.StatsGranularity
 
@@ -40,15 +44,20 @@ object WCStatsSqlUtils {
              */
             if (stats.isCustomField) {
                 deleteCustomStatsForSite(stats.localSiteId)
+                WCStatsIntervalSqlUtils.deleteOrphanIntervals(StatsType.ORDER_STATS, "WCOrderStatsModel")
             }
 
             WellSql.insert(stats).asSingleTransaction(true).execute()
+            WCStatsIntervalSqlUtils.replaceOrderStatsIntervals(stats)
             return 1
         } else {
             // Update
             val oldId = statsResult[0].id
-            return WellSql.update(WCOrderStatsModel::class.java).whereId(oldId)
+            val rowsAffected = WellSql.update(WCOrderStatsModel::class.java).whereId(oldId)
                     .put(stats, UpdateAllExceptId(WCOrderStatsModel::class.java)).execute()
+            stats.setId(oldId)
+            WCStatsIntervalSqlUtils.replaceOrderStatsIntervals(stats)
+            return rowsAffected
         }
     }
 
@@ -105,6 +114,31 @@ object WCStatsSqlUtils {
                 .asModel.firstOrNull()
     }
 
+    /**
+     * Deletes the order and revenue stats stored for the [site], along with their intervals and revenue stats days.
+     */
+    fun deleteStatsForSite(site: SiteModel): Int {
+        val db = WellSql.giveMeWritableDb()
+        db.beginTransaction()
+        try {
+            WCStatsIntervalSqlUtils.deleteIntervalsForSite(StatsType.ORDER_STATS, site.id)
+            WCStatsIntervalSqlUtils.deleteIntervalsForSite(StatsType.REVENUE_STATS, site.id)
+            val rowsAffected = WellSql.delete(WCOrderStatsModel::class.java)
+                    .where().equals(WCOrderStatsModelTable.LOCAL_SITE_ID, site.id).endWhere()
+                    .execute() +
+                    WellSql.delete(WCRevenueStatsModel::class.java)
+                            .where().equals(WCRevenueStatsModelTable.LOCAL_SITE_ID, site.id).endWhere()
+                            .execute() +
+                    WellSql.delete(WCRevenueStatsDayModel::class.java)
+                            .where().equals(WCRevenueStatsDayModelTable.LOCAL_SITE_ID, site.id).endWhere()
+                            .execute()
+            db.setTransactionSuccessful()
+            return rowsAffected
+        } finally {
+            db.endTransaction()
+        }
+    }
+
     private fun deleteCustomStatsForSite(siteId: Int): Int {
         return WellSql.delete(WCOrderStatsModel::class.java)
                 .where()
@@ -130,12 +164,16 @@ object WCStatsSqlUtils {
         return if (statsResult.isEmpty()) {
             // insert
             WellSql.insert(stats).asSingleTransaction(true).execute()
+            WCStatsIntervalSqlUtils.replaceRevenueStatsIntervals(stats)
             1
         } else {
             // Update
             val oldId = statsResult[0].id
-            WellSql.update(WCRevenueStatsModel::class.java).whereId(oldId)
+            val rowsAffected = WellSql.update(WCRevenueStatsModel::class.java).whereId(oldId)
                     .put(stats, UpdateAllExceptId(WCRevenueStatsModel::class.java)).execute()
+            stats.setId(oldId)
+            WCStatsIntervalSqlUtils.replaceRevenueStatsIntervals(stats)
+            rowsAffected
         }
     }
 
@@ -155,4 +193,96 @@ object WCStatsSqlUtils {
                 .endGroup().endWhere()
                 .asModel.firstOrNull()
     }
+
+    /**
+     * Methods to support the local revenue stats rollups, summed up from the stored [WCRevenueStatsDayModel] rows
+     */
+    fun insertOrReplaceRevenueStatsDays(days: List<WCRevenueStatsDayModel>): Int {
+        if (days.isEmpty()) {
+            return 0
+        }
+        // Days which are already stored are replaced through the table's unique constraint
+        WellSql.insert(days).asSingleTransaction(true).execute()
+        return days.size
+    }
+
+    /**
+     * Returns the days between [startDay] and [endDay] (inclusive, in the format yyyy-MM-dd) stored for the [site]
+     * with stats fetched after the day ended, which can't change anymore.
+     */
+    fun getCompleteRevenueStatsDaysForSite(site: SiteModel, startDay: String, endDay: String): List<String> {
+        val day = WCRevenueStatsDayModelTable.DAY
+        // Both are in the site's timezone, so the day the stats were fetched on sorts after the day once it ended
+        val fetchedOn = "substr(${WCRevenueStatsDayModelTable.FETCHED_AT}, 1, 10)"
+        val cursor = WellSql.giveMeReadableDb().rawQuery(
+                "SELECT $day FROM WCRevenueStatsDayModel" +
+                        " WHERE ${WCRevenueStatsDayModelTable.LOCAL_SITE_ID} = ? AND $day BETWEEN ? AND ?" +
+                        " AND $fetchedOn > $day ORDER BY $day",
+                arrayOf(site.id.toString(), startDay, endDay))
+        val days = mutableListOf<String>()
+        cursor.use {
+            while (it.moveToNext()) {
+                days.add(it.getString(0))
+            }
+        }
+        return days
+    }
+
+    /**
+     * Sums up the stored days between [startDay] and [endDay] (inclusive, in the format yyyy-MM-dd) into one
+     * [WCRevenueStatsRollup] per period of the [granularity], in chronological order. Periods which only partially
+     * overlap the range only include the days in the range.
+     *
+     * Weeks start on Sunday, like [org.wordpress.android.fluxc.utils.DateUtils.getFirstDayOfCurrentWeek].
+     */
+    fun getRevenueStatsRollupsForSite(
+        site: SiteModel,
+        granularity: StatsGranularity,
+        startDay: String,
+        endDay: String
+    ): List<WCRevenueStatsRollup> {
+        val day = WCRevenueStatsDayModelTable.DAY
+        val period = when (granularity) {
+            StatsGranularity.DAYS -> day
+            StatsGranularity.WEEKS -> "date($day, '+1 day', 'weekday 0', '-7 days')"
+            StatsGranularity.MONTHS -> "substr($day, 1, 7)"
+            StatsGranularity.YEARS -> "substr($day, 1, 4)"
+        }
+        return queryRevenueStatsRollups(site, startDay, endDay, period)
+    }
+
+    /**
+     * Sums up the stored days between [startDay] and [endDay] (inclusive, in the format yyyy-MM-dd) into a single
+     * [WCRevenueStatsRollup] for the whole range, whose period is [startDay], or returns null if none is stored.
+     */
+    fun getRevenueStatsTotalForSite(site: SiteModel, startDay: String, endDay: String): WCRevenueStatsRollup? {
+        return queryRevenueStatsRollups(site, startDay, endDay, null).firstOrNull { it.days > 0 }
+                ?.copy(period = startDay)
+    }
+
+    /**
+     * @param period the SQL expression of the period each day belongs to, or null to sum up the whole range
+     */
+    private fun queryRevenueStatsRollups(
+        site: SiteModel,
+        startDay: String,
+        endDay: String,
+        period: String?
+    ): List<WCRevenueStatsRollup> {
+        val day = WCRevenueStatsDayModelTable.DAY
+        val cursor = WellSql.giveMeReadableDb().rawQuery(
+                "SELECT ${period ?: "MIN($day)"}, SUM(${WCRevenueStatsDayModelTable.ORDERS_COUNT})," +
+                        " SUM(${WCRevenueStatsDayModelTable.GROSS_REVENUE}), COUNT(*) FROM WCRevenueStatsDayModel" +
+                        " WHERE ${WCRevenueStatsDayModelTable.LOCAL_SITE_ID} = ? AND $day BETWEEN ? AND ?" +
+                        (period?.let { " GROUP BY 1 ORDER BY 1" } ?: ""),
+                arrayOf(site.id.toString(), startDay, endDay))
+        val rollups = mutableListOf<WCRevenueStatsRollup>()
+        cursor.use {
+            while (it.moveToNext()) {
+                rollups.add(WCRevenueStatsRollup(it.getString(0).orEmpty(), it.getLong(1), it.getDouble(2),
+                        it.getInt(3)))
+            }
+        }
+        return rollups
+    }
 }
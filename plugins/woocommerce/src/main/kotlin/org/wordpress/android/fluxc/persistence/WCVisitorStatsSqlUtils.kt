@@ -4,6 +4,7 @@ import com.wellsql.generated.WCNewVisitorStatsModelTable
 import com.wellsql.generated.WCVisitorStatsModelTable
 import com.yarolegovich.wellsql.WellSql
 import org.wordpress.android.fluxc.model.SiteModel
+import org.wordpress.android.fluxc.model.WCStatsIntervalModel.StatsType
 import org.wordpress.android.fluxc.model.WCVisitorStatsModel
 import org.wordpress.android.fluxc.model.WCNewVisitorStatsModel
 
@@ -41,15 +42,20 @@ object WCVisitorStatsSqlUtils {
              */
             if (stats.isCustomField) {
                 deleteCustomVisitorStatsForSite(stats.localSiteId)
+                WCStatsIntervalSqlUtils.deleteOrphanIntervals(StatsType.VISITOR_STATS, "WCVisitorStatsModel")
             }
 
             WellSql.insert(stats).asSingleTransaction(true).execute()
+            WCStatsIntervalSqlUtils.replaceVisitorStatsIntervals(stats)
             return 1
         } else {
             // Update
             val oldId = statsResult[0].id
-            return WellSql.update(WCVisitorStatsModel::class.java).whereId(oldId)
+            val rowsAffected = WellSql.update(WCVisitorStatsModel::class.java).whereId(oldId)
                     .put(stats, UpdateAllExceptId(WCVisitorStatsModel::class.java)).execute()
+            stats.setId(oldId)
+            WCStatsIntervalSqlUtils.replaceVisitorStatsIntervals(stats)
+            return rowsAffected
         }
     }
 
@@ -86,6 +92,28 @@ object WCVisitorStatsSqlUtils {
                 .asModel.firstOrNull()
     }
 
+    /**
+     * Deletes the visitor stats stored for the [site], for both the v1 and v4 stats, along with their intervals.
+     */
+    fun deleteStatsForSite(site: SiteModel): Int {
+        val db = WellSql.giveMeWritableDb()
+        db.beginTransaction()
+        try {
+            WCStatsIntervalSqlUtils.deleteIntervalsForSite(StatsType.VISITOR_STATS, site.id)
+            WCStatsIntervalSqlUtils.deleteIntervalsForSite(StatsType.NEW_VISITOR_STATS, site.id)
+            val rowsAffected = WellSql.delete(WCVisitorStatsModel::class.java)
+                    .where().equals(WCVisitorStatsModelTable.LOCAL_SITE_ID, site.id).endWhere()
+                    .execute() +
+                    WellSql.delete(WCNewVisitorStatsModel::class.java)
+                            .where().equals(WCNewVisitorStatsModelTable.LOCAL_SITE_ID, site.id).endWhere()
+                            .execute()
+            db.setTransactionSuccessful()
+            return rowsAffected
+        } finally {
+            db.endTransaction()
+        }
+    }
+
     private fun deleteCustomVisitorStatsForSite(siteId: Int): Int {
         return WellSql.delete(WCVisitorStatsModel::class.java)
                 .where()
@@ -128,15 +156,20 @@ object WCVisitorStatsSqlUtils {
              */
             if (stats.isCustomField) {
                 deleteNewCustomVisitorStatsForSite(stats.localSiteId)
+                WCStatsIntervalSqlUtils.deleteOrphanIntervals(StatsType.NEW_VISITOR_STATS, "WCNewVisitorStatsModel")
             }
 
             WellSql.insert(stats).asSingleTransaction(true).execute()
+            WCStatsIntervalSqlUtils.replaceNewVisitorStatsIntervals(stats)
             return 1
         } else {
             // Update
             val oldId = statsResult[0].id
-            return WellSql.update(WCNewVisitorStatsModel::class.java).whereId(oldId)
+            val rowsAffected = WellSql.update(WCNewVisitorStatsModel::class.java).whereId(oldId)
                     .put(stats, UpdateAllExceptId(WCNewVisitorStatsModel::class.java)).execute()
+            stats.setId(oldId)
+            WCStatsIntervalSqlUtils.replaceNewVisitorStatsIntervals(stats)
+            return rowsAffected
         }
     }
 
@@ -1,12 +1,11 @@
 package org.wordpress.android.fluxc.store
 
-import org.greenrobot.eventbus.Subscribe
-import org.greenrobot.eventbus.ThreadMode
 import org.wordpress.android.fluxc.Dispatcher
 import org.wordpress.android.fluxc.Payload
 import org.wordpress.android.fluxc.action.WCOrderAction
 import org.wordpress.android.fluxc.action.WCOrderAction.ADD_ORDER_SHIPMENT_TRACKING
 import org.wordpress.android.fluxc.action.WCOrderAction.DELETE_ORDER_SHIPMENT_TRACKING
+import org.wordpress.android.fluxc.annotations.HandlesActions
 import org.wordpress.android.fluxc.annotations.action.Action
 import org.wordpress.android.fluxc.generated.ListActionBuilder
 import org.wordpress.android.fluxc.generated.WCOrderActionBuilder
@@ -19,10 +18,12 @@ import org.wordpress.android.fluxc.model.WCOrderShipmentProviderModel
 import org.wordpress.android.fluxc.model.WCOrderShipmentTrackingModel
 import org.wordpress.android.fluxc.model.WCOrderStatusModel
 import org.wordpress.android.fluxc.model.WCOrderSummaryModel
+import org.wordpress.android.fluxc.model.list.ListPageKey
 import org.wordpress.android.fluxc.model.order.OrderIdentifier
 import org.wordpress.android.fluxc.model.order.toIdSet
 import org.wordpress.android.fluxc.network.BaseRequest.BaseNetworkError
 import org.wordpress.android.fluxc.network.rest.wpcom.wc.order.OrderRestClient
+import org.wordpress.android.fluxc.persistence.DatabaseCompactionUtils
 import org.wordpress.android.fluxc.persistence.OrderSqlUtils
 import org.wordpress.android.fluxc.store.ListStore.FetchedListItemsPayload
 import org.wordpress.android.fluxc.store.ListStore.ListError
@@ -30,16 +31,20 @@ import org.wordpress.android.fluxc.store.ListStore.ListErrorType
 import org.wordpress.android.fluxc.store.WCOrderStore.OrderErrorType.GENERIC_ERROR
 import org.wordpress.android.util.AppLog
 import org.wordpress.android.util.AppLog.T
+import org.wordpress.android.util.DateTimeUtils
+import java.util.Date
 import java.util.Locale
 import javax.inject.Inject
 import javax.inject.Singleton
 
 @Singleton
+@HandlesActions(WCOrderAction::class)
 class WCOrderStore @Inject constructor(dispatcher: Dispatcher, private val wcOrderRestClient: OrderRestClient) :
         Store(dispatcher) {
     companion object {
         const val NUM_ORDERS_PER_FETCH = 25
         const val DEFAULT_ORDER_STATUS = "any"
+        const val DEFAULT_ORDER_RETENTION_DURATION = 1000L * 60 * 60 * 24 * 30
     }
 
     class FetchOrdersPayload(
@@ -50,7 +55,8 @@ class WCOrderStore @Inject constructor(dispatcher: Dispatcher, private val wcOrd
 
     class FetchOrderListPayload(
         val listDescriptor: WCOrderListDescriptor,
-        val offset: Long
+        val offset: Long,
+        val pageKey: ListPageKey? = null
     ) : Payload<BaseNetworkError>()
 
     class FetchOrdersByIdsPayload(
@@ -72,7 +78,8 @@ class WCOrderStore @Inject constructor(dispatcher: Dispatcher, private val wcOrd
         val listDescriptor: WCOrderListDescriptor,
         var orderSummaries: List<WCOrderSummaryModel> = emptyList(),
         var loadedMore: Boolean = false,
-        var canLoadMore: Boolean = false
+        var canLoadMore: Boolean = false,
+        var nextPageKey: ListPageKey? = null
     ) : Payload<OrderError>() {
         constructor(error: OrderError, listDescriptor: WCOrderListDescriptor) : this(listDescriptor) {
             this.error = error
@@ -99,9 +106,11 @@ class WCOrderStore @Inject constructor(dispatcher: Dispatcher, private val wcOrd
         var searchQuery: String,
         var canLoadMore: Boolean = false,
         var offset: Int = 0,
-        var orders: List<WCOrderModel> = emptyList()
+        var orders: List<WCOrderModel> = emptyList(),
+        var requestedOffset: Int = 0
     ) : Payload<OrderError>() {
-        constructor(error: OrderError, site: SiteModel, query: String) : this(site, query) {
+        constructor(error: OrderError, site: SiteModel, query: String, offset: Int = 0) :
+                this(site, query, offset = offset, requestedOffset = offset) {
             this.error = error
         }
     }
@@ -241,6 +250,21 @@ class WCOrderStore @Inject constructor(dispatcher: Dispatcher, private val wcOrd
         ) : this(site, order, tracking) { this.error = error }
     }
 
+    /**
+     * Payload for [WCOrderAction.PRUNE_ORDERS]. Orders in the site's order lists are always kept, so the expired
+     * order lists of the site are removed first.
+     *
+     * @property maxOrderAge Orders created longer ago than this, in milliseconds, are deleted if they aren't listed
+     * @property maxListAge Order lists of the site not updated for this long, in milliseconds, are deleted
+     * @property compactDatabase Whether to return the freed space to the file system afterwards
+     */
+    class PruneOrdersPayload(
+        val site: SiteModel,
+        val maxOrderAge: Long = DEFAULT_ORDER_RETENTION_DURATION,
+        val maxListAge: Long = DEFAULT_EXPIRATION_DURATION,
+        val compactDatabase: Boolean = true
+    ) : Payload<BaseNetworkError>()
+
     class FetchOrderShipmentProvidersPayload(
         val site: SiteModel,
         val order: WCOrderModel
@@ -299,6 +323,18 @@ class WCOrderStore @Inject constructor(dispatcher: Dispatcher, private val wcOrd
         var rowsAffected: Int
     ) : OnChanged<OrderError>()
 
+    /**
+     * Emitted after [WCOrderAction.PRUNE_ORDERS].
+     *
+     * @property deletedRows The number of rows deleted from each table, by table name
+     * @property reclaimedBytes How much the database file shrunk by
+     */
+    class OnOrdersPruned(
+        val site: SiteModel,
+        val deletedRows: Map<String, Int>,
+        val reclaimedBytes: Long
+    ) : OnChanged<OrderError>()
+
     override fun onRegister() = AppLog.d(T.API, "WCOrderStore onRegister")
 
     /**
@@ -307,6 +343,16 @@ class WCOrderStore @Inject constructor(dispatcher: Dispatcher, private val wcOrd
     fun getOrdersForSite(site: SiteModel, vararg status: String): List<WCOrderModel> =
             OrderSqlUtils.getOrdersForSite(site, status = status.asList())
 
+    /**
+     * Returns the orders of the site stored locally that match [searchQuery], most recent first, so results can be
+     * shown instantly (and offline) while [WCOrderAction.SEARCH_ORDERS] searches the store remotely.
+     */
+    fun searchOrdersLocally(
+        site: SiteModel,
+        searchQuery: String,
+        limit: Int = NUM_ORDERS_PER_FETCH
+    ): List<WCOrderModel> = OrderSqlUtils.searchOrdersForSite(site, searchQuery, limit)
+
     fun getOrdersForDescriptor(
         orderListDescriptor: WCOrderListDescriptor,
         remoteOrderIds: List<RemoteId>
@@ -360,7 +406,6 @@ class WCOrderStore @Inject constructor(dispatcher: Dispatcher, private val wcOrd
     fun getShipmentProvidersForSite(site: SiteModel): List<WCOrderShipmentProviderModel> =
             OrderSqlUtils.getOrderShipmentProvidersForSite(site)
 
-    @Subscribe(threadMode = ThreadMode.ASYNC)
     override fun onAction(action: Action<*>) {
         val actionType = action.type as? WCOrderAction ?: return
         when (actionType) {
@@ -413,6 +458,9 @@ class WCOrderStore @Inject constructor(dispatcher: Dispatcher, private val wcOrd
             WCOrderAction.FETCHED_ORDER_SHIPMENT_PROVIDERS ->
                 handleFetchOrderShipmentProvidersCompleted(
                         action.payload as FetchOrderShipmentProvidersResponsePayload)
+
+            // local actions
+            WCOrderAction.PRUNE_ORDERS -> pruneOrders(action.payload as PruneOrdersPayload)
         }
     }
 
@@ -426,13 +474,11 @@ class WCOrderStore @Inject constructor(dispatcher: Dispatcher, private val wcOrd
     }
 
     private fun fetchOrderList(payload: FetchOrderListPayload) {
-        wcOrderRestClient.fetchOrderListSummaries(payload.listDescriptor, payload.offset)
+        wcOrderRestClient.fetchOrderListSummaries(payload.listDescriptor, payload.offset, payload.pageKey)
     }
 
     private fun fetchOrdersByIds(payload: FetchOrdersByIdsPayload) {
-        payload.remoteIds.chunked(NUM_ORDERS_PER_FETCH).forEach { idsToFetch ->
-            wcOrderRestClient.fetchOrdersByIds(payload.site, idsToFetch)
-        }
+        wcOrderRestClient.fetchOrdersByIds(payload.site, payload.remoteIds)
     }
 
     private fun searchOrders(payload: SearchOrdersPayload) {
@@ -498,7 +544,7 @@ class WCOrderStore @Inject constructor(dispatcher: Dispatcher, private val wcOrd
                 OrderSqlUtils.deleteOrderShipmentTrackingsForSite(payload.site)
             }
 
-            val rowsAffected = payload.orders.sumBy { OrderSqlUtils.insertOrUpdateOrder(it) }
+            val rowsAffected = OrderSqlUtils.insertOrUpdateOrders(payload.orders)
 
             onOrderChanged = OnOrderChanged(rowsAffected, payload.statusFilter, canLoadMore = payload.canLoadMore)
         }
@@ -508,13 +554,19 @@ class WCOrderStore @Inject constructor(dispatcher: Dispatcher, private val wcOrd
         emitChange(onOrderChanged)
     }
 
-    private fun handleFetchOrderListCompleted(payload: FetchOrderListResponsePayload) {
-        // TODO: Ideally we would have a separate process that prunes the following
-        // tables of defunct records:
-        // - WCOrderModel
-        // - WCOrderNoteModel
-        // - WCOrderShipmentTrackingModel
+    private fun pruneOrders(payload: PruneOrdersPayload) {
+        val now = System.currentTimeMillis()
+        val createdBefore = DateTimeUtils.iso8601UTCFromDate(Date(now - payload.maxOrderAge))
+        val deletedRows = OrderSqlUtils.deleteUnlistedOrdersForSite(payload.site,
+                WCOrderListDescriptor.calculateTypeIdentifier(payload.site.id), createdBefore,
+                Date(now - payload.maxListAge))
+        val reclaimedBytes = if (payload.compactDatabase) DatabaseCompactionUtils.compact() else 0L
+        AppLog.d(T.DB, "Pruned orders of site ${payload.site.id}: $deletedRows, $reclaimedBytes bytes reclaimed")
+        emitChange(OnOrdersPruned(payload.site, deletedRows, reclaimedBytes))
+    }
 
+    private fun handleFetchOrderListCompleted(payload: FetchOrderListResponsePayload) {
+        // Orders, notes and shipment trackings that drop out of the lists are deleted by [WCOrderAction.PRUNE_ORDERS]
         if (!payload.isError) {
             // Purge all WCOrderSummaryModel records on first fetch
             if (!payload.loadedMore) {
@@ -536,18 +588,19 @@ class WCOrderStore @Inject constructor(dispatcher: Dispatcher, private val wcOrd
                 error = payload.error?.let { fetchError ->
                     // TODO: Use the actual error type
                     ListError(type = ListErrorType.GENERIC_ERROR, message = fetchError.message)
-                }
+                },
+                nextPageKey = payload.nextPageKey
         )))
     }
 
     private fun fetchOutdatedOrders(site: SiteModel, orderSummaries: List<WCOrderSummaryModel>) {
-        val summaryModifiedDates = orderSummaries.associate { it.remoteOrderId to it.dateModified }
+        // The summaries were just saved, so the comparison with the stored orders can be done in SQL
         val remoteIds = orderSummaries.map { RemoteId(it.remoteOrderId) }
-        val remoteIdsToFetch = OrderSqlUtils.getOrdersForSiteByRemoteIds(site, remoteIds).filter {
-            it.dateModified != summaryModifiedDates[it.remoteOrderId]
-        }.map { RemoteId(it.remoteOrderId) }
-        val payload = FetchOrdersByIdsPayload(site = site, remoteIds = remoteIdsToFetch)
-        mDispatcher.dispatch(WCOrderActionBuilder.newFetchOrdersByIdsAction(payload))
+        val remoteIdsToFetch = OrderSqlUtils.getOutdatedOrderRemoteIds(site, remoteIds)
+        if (remoteIdsToFetch.isNotEmpty()) {
+            val payload = FetchOrdersByIdsPayload(site = site, remoteIds = remoteIdsToFetch)
+            mDispatcher.dispatch(WCOrderActionBuilder.newFetchOrdersByIdsAction(payload))
+        }
     }
 
     private fun handleFetchOrderByIdsCompleted(payload: FetchOrdersByIdsResponsePayload) {
@@ -555,7 +608,7 @@ class WCOrderStore @Inject constructor(dispatcher: Dispatcher, private val wcOrd
         if (payload.isError) {
             onOrdersFetchedByIds.error = payload.error
         } else {
-            payload.orders.forEach { OrderSqlUtils.insertOrUpdateOrder(it) }
+            OrderSqlUtils.insertOrUpdateOrders(payload.orders)
         }
         emitChange(onOrdersFetchedByIds)
         val listTypeIdentifier = WCOrderListDescriptor.calculateTypeIdentifier(
@@ -566,13 +619,36 @@ class WCOrderStore @Inject constructor(dispatcher: Dispatcher, private val wcOrd
 
     private fun handleSearchOrdersCompleted(payload: SearchOrdersResponsePayload) {
         val onOrdersSearched = if (payload.isError) {
-            OnOrdersSearched(payload.searchQuery)
+            // Fall back to the matching orders stored locally (e.g. when offline) for the first page of results
+            val localResults = if (payload.requestedOffset == 0) {
+                searchOrdersLocally(payload.site, payload.searchQuery)
+            } else {
+                emptyList()
+            }
+            OnOrdersSearched(payload.searchQuery, searchResults = localResults).apply { error = payload.error }
         } else {
-            OnOrdersSearched(payload.searchQuery, payload.canLoadMore, payload.offset, payload.orders)
+            val searchResults = if (payload.requestedOffset == 0 && !payload.canLoadMore) {
+                mergeSearchResults(payload.orders, searchOrdersLocally(payload.site, payload.searchQuery))
+            } else {
+                payload.orders
+            }
+            OnOrdersSearched(payload.searchQuery, payload.canLoadMore, payload.offset, searchResults)
         }
         emitChange(onOrdersSearched)
     }
 
+    /**
+     * Adds the local results missing from the (complete) remote results, e.g. orders matching on a field the
+     * remote search doesn't cover, keeping the remote order first.
+     */
+    private fun mergeSearchResults(
+        remoteResults: List<WCOrderModel>,
+        localResults: List<WCOrderModel>
+    ): List<WCOrderModel> {
+        val remoteOrderIds = remoteResults.map { it.remoteOrderId }.toSet()
+        return remoteResults + localResults.filterNot { remoteOrderIds.contains(it.remoteOrderId) }
+    }
+
     /**
      * This is a response to a request to retrieve only the count of orders matching a filter. These
      * results are not stored in the database.
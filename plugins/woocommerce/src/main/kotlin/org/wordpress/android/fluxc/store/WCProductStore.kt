@@ -1,10 +1,9 @@
 package org.wordpress.android.fluxc.store
 
-import org.greenrobot.eventbus.Subscribe
-import org.greenrobot.eventbus.ThreadMode
 import org.wordpress.android.fluxc.Dispatcher
 import org.wordpress.android.fluxc.Payload
 import org.wordpress.android.fluxc.action.WCProductAction
+import org.wordpress.android.fluxc.annotations.HandlesActions
 import org.wordpress.android.fluxc.annotations.action.Action
 import org.wordpress.android.fluxc.model.SiteModel
 import org.wordpress.android.fluxc.model.WCProductModel
@@ -21,10 +20,12 @@ import javax.inject.Inject
 import javax.inject.Singleton
 
 @Singleton
+@HandlesActions(WCProductAction::class)
 class WCProductStore @Inject constructor(dispatcher: Dispatcher, private val wcProductRestClient: ProductRestClient) :
         Store(dispatcher) {
     companion object {
         const val NUM_REVIEWS_PER_FETCH = 25
+        const val NUM_PRODUCTS_PER_FETCH = 100
     }
 
     class FetchSingleProductPayload(
@@ -32,6 +33,26 @@ class WCProductStore @Inject constructor(dispatcher: Dispatcher, private val wcP
         var remoteProductId: Long
     ) : Payload<BaseNetworkError>()
 
+    /**
+     * Fetches a page of the site's products. A catalog sync fetches pages with increasing [offset] until no more can
+     * be loaded, and can be resumed from the offset of the last stored page. Passing the result of
+     * [getLastProductModifiedDate] as [modifiedAfter] only syncs the products changed since the last sync.
+     */
+    class FetchProductsPayload(
+        var site: SiteModel,
+        var pageSize: Int = NUM_PRODUCTS_PER_FETCH,
+        var offset: Int = 0,
+        var modifiedAfter: String? = null
+    ) : Payload<BaseNetworkError>()
+
+    /**
+     * Lists the ids of all the site's products, to delete the stored products which were deleted or trashed on the
+     * site since they were synced: an incremental sync with [FetchProductsPayload.modifiedAfter] doesn't return them.
+     */
+    class FetchProductIdsPayload(
+        var site: SiteModel
+    ) : Payload<BaseNetworkError>()
+
     class FetchProductVariationsPayload(
         var site: SiteModel,
         var remoteProductId: Long
@@ -66,6 +87,19 @@ class WCProductStore @Inject constructor(dispatcher: Dispatcher, private val wcP
         }
     }
 
+    enum class ProductSorting {
+        TITLE_ASC,
+        TITLE_DESC,
+        DATE_ASC,
+        DATE_DESC
+    }
+
+    enum class ProductFilterOption {
+        STATUS,
+        STOCK_STATUS,
+        TYPE
+    }
+
     class ProductError(val type: ProductErrorType = GENERIC_ERROR, val message: String = "") : OnChangedError
 
     class RemoteProductPayload(
@@ -81,6 +115,35 @@ class WCProductStore @Inject constructor(dispatcher: Dispatcher, private val wcP
         }
     }
 
+    class RemoteProductListPayload(
+        val site: SiteModel,
+        val products: List<WCProductModel> = emptyList(),
+        val offset: Int = 0,
+        val modifiedAfter: String? = null,
+        val canLoadMore: Boolean = false
+    ) : Payload<ProductError>() {
+        constructor(
+            error: ProductError,
+            site: SiteModel,
+            offset: Int,
+            modifiedAfter: String?
+        ) : this(site, offset = offset, modifiedAfter = modifiedAfter) {
+            this.error = error
+        }
+    }
+
+    /**
+     * @property listChanged Whether products were deleted or restored while the ids were listed, so the list may be
+     * missing some of them
+     */
+    class RemoteProductIdsPayload(
+        val site: SiteModel,
+        val remoteProductIds: List<Long> = emptyList(),
+        val listChanged: Boolean = false
+    ) : Payload<ProductError>() {
+        constructor(error: ProductError, site: SiteModel) : this(site) { this.error = error }
+    }
+
     class RemoteProductVariationsPayload(
         val site: SiteModel,
         val remoteProductId: Long,
@@ -139,6 +202,23 @@ class WCProductStore @Inject constructor(dispatcher: Dispatcher, private val wcP
     fun geProductExistsByRemoteId(site: SiteModel, remoteProductId: Long) =
             ProductSqlUtils.geProductExistsByRemoteId(site, remoteProductId)
 
+    /**
+     * returns the products of the site stored in the database, filtered with [filterOptions] and [searchQuery]
+     * (matched against the name and SKU) and sorted by [sortType]
+     */
+    fun getProductsForSite(
+        site: SiteModel,
+        sortType: ProductSorting = ProductSorting.TITLE_ASC,
+        filterOptions: Map<ProductFilterOption, String> = emptyMap(),
+        searchQuery: String? = null
+    ): List<WCProductModel> = ProductSqlUtils.getProductsForSite(site, sortType, filterOptions, searchQuery)
+
+    /**
+     * returns the latest modification date of the products of the site stored in the database, to be passed to
+     * [FetchProductsPayload.modifiedAfter] for an incremental sync
+     */
+    fun getLastProductModifiedDate(site: SiteModel): String? = ProductSqlUtils.getLastProductModifiedDate(site)
+
     /**
      * returns a list of variations for a specific product in the database
      */
@@ -171,13 +251,16 @@ class WCProductStore @Inject constructor(dispatcher: Dispatcher, private val wcP
 
     fun deleteAllProductReviews() = ProductSqlUtils.deleteAllProductReviews()
 
-    @Subscribe(threadMode = ThreadMode.ASYNC)
     override fun onAction(action: Action<*>) {
         val actionType = action.type as? WCProductAction ?: return
         when (actionType) {
             // remote actions
             WCProductAction.FETCH_SINGLE_PRODUCT ->
                 fetchSingleProduct(action.payload as FetchSingleProductPayload)
+            WCProductAction.FETCH_PRODUCTS ->
+                fetchProducts(action.payload as FetchProductsPayload)
+            WCProductAction.FETCH_PRODUCT_IDS ->
+                fetchProductIds(action.payload as FetchProductIdsPayload)
             WCProductAction.FETCH_PRODUCT_VARIATIONS ->
                 fetchProductVariations(action.payload as FetchProductVariationsPayload)
             WCProductAction.FETCH_PRODUCT_REVIEWS ->
@@ -190,6 +273,10 @@ class WCProductStore @Inject constructor(dispatcher: Dispatcher, private val wcP
             // remote responses
             WCProductAction.FETCHED_SINGLE_PRODUCT ->
                 handleFetchSingleProductCompleted(action.payload as RemoteProductPayload)
+            WCProductAction.FETCHED_PRODUCTS ->
+                handleFetchProductsCompleted(action.payload as RemoteProductListPayload)
+            WCProductAction.FETCHED_PRODUCT_IDS ->
+                handleFetchProductIdsCompleted(action.payload as RemoteProductIdsPayload)
             WCProductAction.FETCHED_PRODUCT_VARIATIONS ->
                 handleFetchProductVariationsCompleted(action.payload as RemoteProductVariationsPayload)
             WCProductAction.FETCHED_PRODUCT_REVIEWS ->
@@ -207,6 +294,14 @@ class WCProductStore @Inject constructor(dispatcher: Dispatcher, private val wcP
         with(payload) { wcProductRestClient.fetchSingleProduct(site, remoteProductId) }
     }
 
+    private fun fetchProducts(payload: FetchProductsPayload) {
+        with(payload) { wcProductRestClient.fetchProducts(site, pageSize, offset, modifiedAfter) }
+    }
+
+    private fun fetchProductIds(payload: FetchProductIdsPayload) {
+        wcProductRestClient.fetchProductIds(payload.site)
+    }
+
     private fun fetchProductVariations(payload: FetchProductVariationsPayload) {
         with(payload) { wcProductRestClient.fetchProductVariations(site, remoteProductId) }
     }
@@ -237,6 +332,37 @@ class WCProductStore @Inject constructor(dispatcher: Dispatcher, private val wcP
         emitChange(onProductChanged)
     }
 
+    private fun handleFetchProductsCompleted(payload: RemoteProductListPayload) {
+        val onProductChanged: OnProductChanged
+
+        if (payload.isError) {
+            onProductChanged = OnProductChanged(0).also { it.error = payload.error }
+        } else {
+            val rowsAffected = ProductSqlUtils.insertOrUpdateProducts(payload.products)
+            onProductChanged = OnProductChanged(rowsAffected, payload.canLoadMore)
+        }
+
+        onProductChanged.causeOfChange = WCProductAction.FETCH_PRODUCTS
+        emitChange(onProductChanged)
+    }
+
+    private fun handleFetchProductIdsCompleted(payload: RemoteProductIdsPayload) {
+        val onProductChanged: OnProductChanged
+
+        if (payload.isError) {
+            onProductChanged = OnProductChanged(0).also { it.error = payload.error }
+        } else if (payload.listChanged) {
+            // Nothing is deleted, the next listing will catch up
+            onProductChanged = OnProductChanged(0)
+        } else {
+            val rowsAffected = ProductSqlUtils.deleteProductsAbsentFromRemoteIds(payload.site, payload.remoteProductIds)
+            onProductChanged = OnProductChanged(rowsAffected)
+        }
+
+        onProductChanged.causeOfChange = WCProductAction.FETCH_PRODUCT_IDS
+        emitChange(onProductChanged)
+    }
+
     private fun handleFetchProductVariationsCompleted(payload: RemoteProductVariationsPayload) {
         val onProductChanged: OnProductChanged
 
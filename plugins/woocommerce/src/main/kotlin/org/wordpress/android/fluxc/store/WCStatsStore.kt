@@ -1,23 +1,26 @@
 package org.wordpress.android.fluxc.store
 
 import android.content.Context
-import org.greenrobot.eventbus.Subscribe
-import org.greenrobot.eventbus.ThreadMode
 import org.wordpress.android.fluxc.Dispatcher
 import org.wordpress.android.fluxc.Payload
 import org.wordpress.android.fluxc.action.WCStatsAction
+import org.wordpress.android.fluxc.annotations.HandlesActions
 import org.wordpress.android.fluxc.annotations.action.Action
 import org.wordpress.android.fluxc.model.SiteModel
 import org.wordpress.android.fluxc.model.WCNewVisitorStatsModel
 import org.wordpress.android.fluxc.model.WCOrderStatsModel
 import org.wordpress.android.fluxc.model.WCOrderStatsModel.OrderStatsField
+import org.wordpress.android.fluxc.model.WCRevenueStatsDayModel
 import org.wordpress.android.fluxc.model.WCRevenueStatsModel
+import org.wordpress.android.fluxc.model.WCRevenueStatsRollup
+import org.wordpress.android.fluxc.model.WCStatsSeries
 import org.wordpress.android.fluxc.model.WCTopEarnerModel
 import org.wordpress.android.fluxc.model.WCVisitorStatsModel
 import org.wordpress.android.fluxc.model.WCVisitorStatsModel.VisitorStatsField
 import org.wordpress.android.fluxc.network.BaseRequest.BaseNetworkError
 import org.wordpress.android.fluxc.network.rest.wpcom.wc.orderstats.OrderStatsRestClient
 import org.wordpress.android.fluxc.network.rest.wpcom.wc.orderstats.OrderStatsRestClient.OrderStatsApiUnit
+import org.wordpress.android.fluxc.persistence.WCStatsIntervalSqlUtils
 import org.wordpress.android.fluxc.persistence.WCStatsSqlUtils
 import org.wordpress.android.fluxc.persistence.WCVisitorStatsSqlUtils
 import org.wordpress.android.fluxc.store.WCStatsStore.OrderStatsErrorType.GENERIC_ERROR
@@ -27,12 +30,15 @@ import org.wordpress.android.fluxc.utils.PreferenceUtils
 import org.wordpress.android.fluxc.utils.SiteUtils
 import org.wordpress.android.util.AppLog
 import org.wordpress.android.util.AppLog.T
+import java.util.Calendar
+import java.util.Date
 import java.util.Locale
 import javax.inject.Inject
 import javax.inject.Singleton
 import kotlin.random.Random
 
 @Singleton
+@HandlesActions(WCStatsAction::class)
 class WCStatsStore @Inject constructor(
     dispatcher: Dispatcher,
     private val context: Context,
@@ -44,10 +50,20 @@ class WCStatsStore @Inject constructor(
         const val STATS_QUANTITY_MONTHS = 12
 
         private const val DATE_FORMAT_DAY = "yyyy-MM-dd"
+        private const val DATE_FORMAT_FETCHED_AT = "yyyy-MM-dd'T'HH:mm:ss"
         private const val DATE_FORMAT_WEEK = "yyyy-'W'ww"
         private const val DATE_FORMAT_MONTH = "yyyy-MM"
         private const val DATE_FORMAT_YEAR = "yyyy"
 
+        private const val DAY_START_TIME = "T00:00:00"
+        private const val DAY_END_TIME = "T23:59:59"
+
+        /**
+         * The default data count in `v4 revenue stats api` is 10, so if we need to get data for an entire month
+         * without pagination, the per_page value should be at least 31.
+         */
+        const val STATS_REVENUE_API_PER_PAGE = 100
+
         const val STATS_REVENUE_API_PER_PAGE_PARAM = "STATS_REVENUE_API_PER_PAGE_PARAM_PREF_KEY"
         const val STATS_REVENUE_API_MIN_PER_PAGE_PARAM = 31
         const val STATS_REVENUE_API_MAX_PER_PAGE_PARAM = 100
@@ -125,13 +141,49 @@ class WCStatsStore @Inject constructor(
     class FetchRevenueStatsResponsePayload(
         val site: SiteModel,
         val granularity: StatsGranularity,
-        val stats: WCRevenueStatsModel? = null
+        val stats: WCRevenueStatsModel? = null,
+        val startDate: String? = null,
+        val endDate: String? = null,
+        val notModified: Boolean = false,
+        val fetchedAt: Date = Date()
     ) : Payload<OrderStatsError>() {
         constructor(error: OrderStatsError, site: SiteModel, granularity: StatsGranularity) : this(site, granularity) {
             this.error = error
         }
     }
 
+    /**
+     * Describes the parameters for fetching the revenue stats of each day between [startDay] and [endDay], which are
+     * stored one row per day and can be rolled up locally with [getRevenueStatsRollups] and [getRevenueStatsTotal].
+     *
+     * @param[startDay] the first day to fetch, in the site's timezone (yyyy-MM-dd)
+     * @param[endDay] the last day to fetch, in the site's timezone (yyyy-MM-dd)
+     * @param[forced] if true, fetches all the days, instead of only those returned by [getMissingRevenueStatsDays]
+     */
+    class FetchRevenueStatsDaysPayload(
+        val site: SiteModel,
+        val startDay: String,
+        val endDay: String,
+        val forced: Boolean = false
+    ) : Payload<BaseNetworkError>()
+
+    class FetchRevenueStatsDaysResponsePayload(
+        val site: SiteModel,
+        val startDate: String,
+        val endDate: String,
+        val stats: WCRevenueStatsModel? = null,
+        val fetchedAt: Date = Date()
+    ) : Payload<OrderStatsError>() {
+        constructor(
+            error: OrderStatsError,
+            site: SiteModel,
+            startDate: String,
+            endDate: String
+        ) : this(site, startDate, endDate) {
+            this.error = error
+        }
+    }
+
     /**
      * Describes the parameters for fetching checking if the v4 stats for [site] is supported
      */
@@ -247,7 +299,6 @@ class WCStatsStore @Inject constructor(
 
     override fun onRegister() = AppLog.d(T.API, "WCStatsStore onRegister")
 
-    @Subscribe(threadMode = ThreadMode.ASYNC)
     override fun onAction(action: Action<*>) {
         val actionType = action.type as? WCStatsAction ?: return
         when (actionType) {
@@ -255,6 +306,8 @@ class WCStatsStore @Inject constructor(
             WCStatsAction.FETCH_REVENUE_STATS -> fetchRevenueStats(action.payload as FetchRevenueStatsPayload)
             WCStatsAction.FETCH_REVENUE_STATS_AVAILABILITY ->
                 fetchRevenueStatsAvailability(action.payload as FetchRevenueStatsAvailabilityPayload)
+            WCStatsAction.FETCH_REVENUE_STATS_DAYS ->
+                fetchRevenueStatsDays(action.payload as FetchRevenueStatsDaysPayload)
             WCStatsAction.FETCH_VISITOR_STATS -> fetchVisitorStats(action.payload as FetchVisitorStatsPayload)
             WCStatsAction.FETCH_NEW_VISITOR_STATS -> fetchNewVisitorStats(action.payload as FetchNewVisitorStatsPayload)
             WCStatsAction.FETCH_TOP_EARNERS_STATS -> fetchTopEarnersStats(action.payload as FetchTopEarnersStatsPayload)
@@ -265,6 +318,8 @@ class WCStatsStore @Inject constructor(
             WCStatsAction.FETCHED_REVENUE_STATS_AVAILABILITY -> handleFetchRevenueStatsAvailabilityCompleted(
                     action.payload as FetchRevenueStatsAvailabilityResponsePayload
             )
+            WCStatsAction.FETCHED_REVENUE_STATS_DAYS ->
+                handleFetchRevenueStatsDaysCompleted(action.payload as FetchRevenueStatsDaysResponsePayload)
             WCStatsAction.FETCHED_VISITOR_STATS ->
                 handleFetchVisitorStatsCompleted(action.payload as FetchVisitorStatsResponsePayload)
             WCStatsAction.FETCHED_NEW_VISITOR_STATS ->
@@ -301,7 +356,8 @@ class WCStatsStore @Inject constructor(
         date: String? = null,
         isCustomField: Boolean = false
     ): Map<String, Double> {
-        return getStatsForField(site, OrderStatsField.GROSS_SALES, granularity, quantity, date, isCustomField)
+        return getOrderStatsSeries(site, OrderStatsField.GROSS_SALES, granularity, quantity, date, isCustomField)
+                .toMap { it }
     }
 
     /**
@@ -318,7 +374,34 @@ class WCStatsStore @Inject constructor(
         date: String? = null,
         isCustomField: Boolean = false
     ): Map<String, Int> {
-        return getStatsForField(site, OrderStatsField.ORDERS, granularity, quantity, date, isCustomField)
+        return getOrderStatsSeries(site, OrderStatsField.ORDERS, granularity, quantity, date, isCustomField)
+                .toMap { it.toInt() }
+    }
+
+    /**
+     * Returns the values of the [field] for the given [site], in units of [granularity], in chronological order.
+     *
+     * The values are read from their own table, without parsing the stored JSON, so this is the cheapest way to
+     * read stats for a chart. See [getRevenueStats] for detail on the date formatting of the periods.
+     */
+    fun getOrderStatsSeries(
+        site: SiteModel,
+        field: OrderStatsField,
+        granularity: StatsGranularity,
+        quantity: String? = null,
+        date: String? = null,
+        isCustomField: Boolean = false
+    ): WCStatsSeries {
+        val apiUnit = OrderStatsApiUnit.fromStatsGranularity(granularity)
+        val rawStats = WCStatsSqlUtils.getRawStatsForSiteUnitQuantityAndDate(
+                site, apiUnit, quantity, date, isCustomField) ?: return WCStatsSeries.EMPTY
+        val series = WCStatsIntervalSqlUtils.getOrderStatsSeries(rawStats, field.toString())
+        if (series.isEmpty() &&
+                (rawStats.getIndexForField(OrderStatsField.PERIOD) == -1 || rawStats.getIndexForField(field) == -1)) {
+            // One of the fields we need wasn't returned by the server
+            reportMissingFieldError(rawStats, field)
+        }
+        return series
     }
 
     fun getCustomStatsForSite(
@@ -338,21 +421,23 @@ class WCStatsStore @Inject constructor(
         date: String? = null,
         isCustomField: Boolean = false
     ): Map<String, Int> {
+        return getVisitorStatsSeries(site, granularity, quantity, date, isCustomField).toMap { it.toInt() }
+    }
+
+    /**
+     * Returns the visitor counts for the given [site], in units of [granularity], in chronological order.
+     */
+    fun getVisitorStatsSeries(
+        site: SiteModel,
+        granularity: StatsGranularity,
+        quantity: String? = null,
+        date: String? = null,
+        isCustomField: Boolean = false
+    ): WCStatsSeries {
         val apiUnit = OrderStatsApiUnit.fromStatsGranularity(granularity)
         val rawStats = WCVisitorStatsSqlUtils.getRawVisitorStatsForSiteUnitQuantityAndDate(
-                site, apiUnit, quantity, date, isCustomField)
-        rawStats?.let { visitorStatsModel ->
-            val periodIndex = visitorStatsModel.getIndexForField(VisitorStatsField.PERIOD)
-            val fieldIndex = visitorStatsModel.getIndexForField(VisitorStatsField.VISITORS)
-            if (periodIndex == -1 || fieldIndex == -1) {
-                return mapOf()
-            }
-
-            // Years are returned as numbers by the API, and Gson interprets them as floats - clean up the decimal
-            return visitorStatsModel.dataList.map {
-                it[periodIndex].toString().removeSuffix(".0") to (it[fieldIndex] as Number).toInt()
-            }.toMap()
-        } ?: return mapOf()
+                site, apiUnit, quantity, date, isCustomField) ?: return WCStatsSeries.EMPTY
+        return WCStatsIntervalSqlUtils.getVisitorStatsSeries(rawStats, VisitorStatsField.VISITORS.toString())
     }
 
     /**
@@ -366,20 +451,23 @@ class WCStatsStore @Inject constructor(
         date: String? = null,
         isCustomField: Boolean = false
     ): Map<String, Int> {
-        val rawStats = WCVisitorStatsSqlUtils.getNewRawVisitorStatsForSiteGranularityQuantityAndDate(
-                site, granularity, quantity, date, isCustomField)
-        rawStats?.let { visitorStatsModel ->
-            val periodIndex = visitorStatsModel.getIndexForField(WCNewVisitorStatsModel.VisitorStatsField.PERIOD)
-            val fieldIndex = visitorStatsModel.getIndexForField(WCNewVisitorStatsModel.VisitorStatsField.VISITORS)
-            if (periodIndex == -1 || fieldIndex == -1) {
-                return mapOf()
-            }
+        return getNewVisitorStatsSeries(site, granularity, quantity, date, isCustomField).toMap { it.toInt() }
+    }
 
-            // Years are returned as numbers by the API, and Gson interprets them as floats - clean up the decimal
-            return visitorStatsModel.dataList.map {
-                it[periodIndex].toString().removeSuffix(".0") to (it[fieldIndex] as Number).toInt()
-            }.toMap()
-        } ?: return mapOf()
+    /**
+     * Returns the visitor counts for the given [site] and [granularity], in chronological order.
+     */
+    fun getNewVisitorStatsSeries(
+        site: SiteModel,
+        granularity: StatsGranularity,
+        quantity: String? = null,
+        date: String? = null,
+        isCustomField: Boolean = false
+    ): WCStatsSeries {
+        val rawStats = WCVisitorStatsSqlUtils.getNewRawVisitorStatsForSiteGranularityQuantityAndDate(
+                site, granularity, quantity, date, isCustomField) ?: return WCStatsSeries.EMPTY
+        return WCStatsIntervalSqlUtils.getNewVisitorStatsSeries(
+                rawStats, WCNewVisitorStatsModel.VisitorStatsField.VISITORS.toString())
     }
 
     /**
@@ -400,6 +488,13 @@ class WCStatsStore @Inject constructor(
         } ?: return null
     }
 
+    /**
+     * Deletes all the stats stored for the [site].
+     */
+    fun deleteStatsForSite(site: SiteModel): Int {
+        return WCStatsSqlUtils.deleteStatsForSite(site) + WCVisitorStatsSqlUtils.deleteStatsForSite(site)
+    }
+
     /**
      * returns the quantity (how far back to go) to use when requesting stats for a specific granularity
      * and the date range
@@ -588,34 +683,6 @@ class WCStatsStore @Inject constructor(
         }
     }
 
-    // The type of the stats field relies on knowledge of the real value of the stored JSON for that field
-    // It's up to the function caller to be aware of the compatible types for any given field
-    @Suppress("UNCHECKED_CAST")
-    private fun <T> getStatsForField(
-        site: SiteModel,
-        field: OrderStatsField,
-        granularity: StatsGranularity,
-        quantity: String? = null,
-        date: String? = null,
-        isCustomField: Boolean = false
-    ): Map<String, T> {
-        val apiUnit = OrderStatsApiUnit.fromStatsGranularity(granularity)
-        val rawStats = WCStatsSqlUtils.getRawStatsForSiteUnitQuantityAndDate(
-                site, apiUnit, quantity, date, isCustomField)
-        rawStats?.let {
-            val periodIndex = it.getIndexForField(OrderStatsField.PERIOD)
-            val fieldIndex = it.getIndexForField(field)
-            if (periodIndex == -1 || fieldIndex == -1) {
-                // One of the fields we need wasn't returned by the server
-                reportMissingFieldError(it, field)
-                return mapOf()
-            }
-
-            // Years are returned as numbers by the API, and Gson interprets them as floats - clean up the decimal
-            return it.dataList.map { it[periodIndex].toString().removeSuffix(".0") to it[fieldIndex] as T }.toMap()
-        } ?: return mapOf()
-    }
-
     private fun reportMissingFieldError(orderStatsModel: WCOrderStatsModel, missingField: OrderStatsField) {
         AppLog.e(T.API, "Missing field from stats endpoint - missing field: $missingField, " +
                 "returned fields: ${orderStatsModel.fields}")
@@ -682,7 +749,8 @@ class WCStatsStore @Inject constructor(
      * when a new order is completed.
      * So this logic is added as a workaround and generates a random value between 31 to 100
      * only if the [forced] is set to true.
-     * And storing this value locally to be used when the [forced] flag is set to false.
+     * And storing this value locally to be used when the [forced] flag is set to false, so the unforced fetches
+     * keep the same url and can be revalidated.
      * */
     private fun getRandomPageIntForRevenueStats(forced: Boolean): Int {
         val randomInt = Random.nextInt(STATS_REVENUE_API_MIN_PER_PAGE_PARAM, STATS_REVENUE_API_MAX_PER_PAGE_PARAM)
@@ -701,12 +769,25 @@ class WCStatsStore @Inject constructor(
     }
 
     private fun handleFetchRevenueStatsCompleted(payload: FetchRevenueStatsResponsePayload) {
+        if (payload.notModified && payload.startDate != null && payload.endDate != null &&
+                getRawRevenueStats(payload.site, payload.granularity, payload.startDate, payload.endDate) == null) {
+            // The stats were deleted since their validators were stored, they have to be fetched again
+            wcOrderStatsClient.fetchRevenueStats(payload.site, payload.granularity, payload.startDate,
+                    payload.endDate, getRandomPageIntForRevenueStats(true), true)
+            return
+        }
+
         val onStatsChanged = with(payload) {
-            if (isError || stats == null) {
+            if (notModified) {
+                // The stored stats are still current, nothing to persist
+                return@with OnWCRevenueStatsChanged(0, granularity, startDate, endDate)
+            } else if (isError || stats == null) {
                 return@with OnWCRevenueStatsChanged(0, granularity)
                         .also { it.error = payload.error }
             } else {
                 val rowsAffected = WCStatsSqlUtils.insertOrUpdateRevenueStats(stats)
+                // Store the daily totals too, so they can be rolled up without fetching them again
+                WCStatsSqlUtils.insertOrReplaceRevenueStatsDays(getRevenueStatsDays(site, stats, fetchedAt))
                 return@with OnWCRevenueStatsChanged(rowsAffected, granularity, stats.startDate, stats.endDate)
             }
         }
@@ -750,10 +831,8 @@ class WCStatsStore @Inject constructor(
         startDate: String,
         endDate: String
     ): Map<String, Double> {
-        val rawStats = getRawRevenueStats(site, granularity, startDate, endDate)
-        return rawStats?.getIntervalList()?.map {
-            it.interval!! to it.subtotals?.grossRevenue!!
-        }?.toMap() ?: mapOf()
+        return getRevenueStatsSeries(site, granularity, startDate, endDate, WCRevenueStatsModel.FIELD_GROSS_REVENUE)
+                .toMap { it }
     }
 
     fun getOrderCountStats(
@@ -762,10 +841,23 @@ class WCStatsStore @Inject constructor(
         startDate: String,
         endDate: String
     ): Map<String, Long> {
-        val rawStats = getRawRevenueStats(site, granularity, startDate, endDate)
-        return rawStats?.getIntervalList()?.map {
-            it.interval!! to it.subtotals?.ordersCount!!
-        }?.toMap() ?: mapOf()
+        return getRevenueStatsSeries(site, granularity, startDate, endDate, WCRevenueStatsModel.FIELD_ORDERS_COUNT)
+                .toMap { it.toLong() }
+    }
+
+    /**
+     * Returns the values of the [field] ([WCRevenueStatsModel.FIELD_GROSS_REVENUE] or
+     * [WCRevenueStatsModel.FIELD_ORDERS_COUNT]) of the stored revenue stats, in chronological order.
+     */
+    fun getRevenueStatsSeries(
+        site: SiteModel,
+        granularity: StatsGranularity,
+        startDate: String,
+        endDate: String,
+        field: String
+    ): WCStatsSeries {
+        val rawStats = getRawRevenueStats(site, granularity, startDate, endDate) ?: return WCStatsSeries.EMPTY
+        return WCStatsIntervalSqlUtils.getRevenueStatsSeries(rawStats, field)
     }
 
     fun getRawRevenueStats(
@@ -777,4 +869,142 @@ class WCStatsStore @Inject constructor(
         return WCStatsSqlUtils.getRevenueStatsForSiteIntervalAndDate(
                 site, granularity, startDate, endDate)
     }
+
+    /**
+     * Methods to support the local revenue stats rollups, which are summed up from the revenue stats of each day.
+     *
+     * The daily stats are stored by [WCStatsAction.FETCH_REVENUE_STATS_DAYS], which only fetches the missing days, and
+     * along with every [WCStatsAction.FETCH_REVENUE_STATS] response with daily or hourly intervals (which keeps the
+     * current day up to date). Days are in the site's timezone, in the format yyyy-MM-dd.
+     */
+    private fun fetchRevenueStatsDays(payload: FetchRevenueStatsDaysPayload) {
+        val allDays = getDaysBetween(payload.startDay, payload.endDay)
+        val missingDays = if (payload.forced) {
+            allDays
+        } else {
+            getMissingRevenueStatsDays(payload.site, payload.startDay, payload.endDay)
+        }
+        if (missingDays.isEmpty()) {
+            val onStatsChanged = OnWCRevenueStatsChanged(0, StatsGranularity.DAYS, payload.startDay, payload.endDay)
+            onStatsChanged.causeOfChange = WCStatsAction.FETCH_REVENUE_STATS_DAYS
+            emitChange(onStatsChanged)
+            return
+        }
+
+        // Only the days from the first to the last missing one are fetched, in chunks that fit in a single page
+        val missingDaysSet = missingDays.toSet()
+        allDays.subList(allDays.indexOf(missingDays.first()), allDays.indexOf(missingDays.last()) + 1)
+                .chunked(STATS_REVENUE_API_PER_PAGE - 1)
+                .filter { chunk -> chunk.any { it in missingDaysSet } }
+                .forEach { chunk ->
+                    wcOrderStatsClient.fetchRevenueStatsDays(
+                            payload.site,
+                            chunk.first() + DAY_START_TIME,
+                            chunk.last() + DAY_END_TIME,
+                            STATS_REVENUE_API_PER_PAGE
+                    )
+                }
+    }
+
+    /**
+     * Emits an [OnWCRevenueStatsChanged] for each chunk of days fetched by [WCStatsAction.FETCH_REVENUE_STATS_DAYS].
+     */
+    private fun handleFetchRevenueStatsDaysCompleted(payload: FetchRevenueStatsDaysResponsePayload) {
+        val onStatsChanged = with(payload) {
+            if (isError || stats == null) {
+                return@with OnWCRevenueStatsChanged(0, StatsGranularity.DAYS)
+                        .also { it.error = payload.error }
+            } else {
+                val rowsAffected = WCStatsSqlUtils.insertOrReplaceRevenueStatsDays(
+                        getRevenueStatsDays(site, stats, fetchedAt))
+                return@with OnWCRevenueStatsChanged(
+                        rowsAffected,
+                        StatsGranularity.DAYS,
+                        startDate.substring(0, DATE_FORMAT_DAY.length),
+                        endDate.substring(0, DATE_FORMAT_DAY.length)
+                )
+            }
+        }
+
+        onStatsChanged.causeOfChange = WCStatsAction.FETCH_REVENUE_STATS_DAYS
+        emitChange(onStatsChanged)
+    }
+
+    /**
+     * Returns the daily totals of the [stats] intervals. Hourly intervals ("yyyy-MM-dd HH") are summed up into their
+     * day, and weekly, monthly and yearly ones are skipped. Responses which might have been cut off by paging are
+     * skipped altogether, as their last day could be incomplete.
+     *
+     * @param[fetchedAt] when the stats were requested, stored with each day to tell if it had ended by then
+     */
+    private fun getRevenueStatsDays(
+        site: SiteModel,
+        stats: WCRevenueStatsModel,
+        fetchedAt: Date
+    ): List<WCRevenueStatsDayModel> {
+        val intervals = stats.getIntervalList()
+        if (intervals.size >= STATS_REVENUE_API_PER_PAGE) {
+            return emptyList()
+        }
+        val fetchedAtForSite = SiteUtils.getDateTimeForSite(site, DATE_FORMAT_FETCHED_AT, fetchedAt)
+        return intervals.filter { it.interval.orEmpty().length >= DATE_FORMAT_DAY.length }
+                .groupBy { it.interval!!.substring(0, DATE_FORMAT_DAY.length) }
+                .map { (day, dayIntervals) ->
+                    WCRevenueStatsDayModel().apply {
+                        localSiteId = stats.localSiteId
+                        this.day = day
+                        ordersCount = dayIntervals.map { it.subtotals?.ordersCount ?: 0L }.sum()
+                        grossRevenue = dayIntervals.map { it.subtotals?.grossRevenue ?: 0.0 }.sum()
+                        this.fetchedAt = fetchedAtForSite
+                    }
+                }
+    }
+
+    /**
+     * Returns the days between [startDay] and [endDay] (inclusive) whose stats can still change: the days which
+     * haven't been stored for the [site] yet, or were fetched before they ended in the site's timezone. This includes
+     * the site's current day and any day after it.
+     */
+    fun getMissingRevenueStatsDays(site: SiteModel, startDay: String, endDay: String): List<String> {
+        val completeDays = WCStatsSqlUtils.getCompleteRevenueStatsDaysForSite(site, startDay, endDay).toSet()
+        return getDaysBetween(startDay, endDay).filter { it !in completeDays }
+    }
+
+    /**
+     * Returns the stored revenue stats between [startDay] and [endDay] (inclusive), summed up by [granularity].
+     *
+     * The period of each [WCRevenueStatsRollup] has the format:
+     * [StatsGranularity.DAYS]: "2018-05-01"
+     * [StatsGranularity.WEEKS]: "2018-04-29", the Sunday the week starts on
+     * [StatsGranularity.MONTHS]: "2018-05"
+     * [StatsGranularity.YEARS]: "2018"
+     */
+    fun getRevenueStatsRollups(
+        site: SiteModel,
+        granularity: StatsGranularity,
+        startDay: String,
+        endDay: String
+    ): List<WCRevenueStatsRollup> {
+        return WCStatsSqlUtils.getRevenueStatsRollupsForSite(site, granularity, startDay, endDay)
+    }
+
+    /**
+     * Returns the stored revenue stats between [startDay] and [endDay] (inclusive), summed up, or null if none of the
+     * days is stored. Comparing [WCRevenueStatsRollup.days] with the length of the range tells if any are missing.
+     */
+    fun getRevenueStatsTotal(site: SiteModel, startDay: String, endDay: String): WCRevenueStatsRollup? {
+        return WCStatsSqlUtils.getRevenueStatsTotalForSite(site, startDay, endDay)
+    }
+
+    private fun getDaysBetween(startDay: String, endDay: String): List<String> {
+        val days = mutableListOf<String>()
+        val calendar = DateUtils.getCalendarInstance(startDay)
+        var day = startDay
+        while (day <= endDay) {
+            days.add(day)
+            calendar.add(Calendar.DATE, 1)
+            day = DateUtils.formatDate(DATE_FORMAT_DAY, calendar.time)
+        }
+        return days
+    }
 }
@@ -2,11 +2,10 @@ package org.wordpress.android.fluxc.store
 
 import android.content.Context
 import com.wellsql.generated.SiteModelTable
-import org.greenrobot.eventbus.Subscribe
-import org.greenrobot.eventbus.ThreadMode
 import org.wordpress.android.fluxc.Dispatcher
 import org.wordpress.android.fluxc.Payload
 import org.wordpress.android.fluxc.action.WCCoreAction
+import org.wordpress.android.fluxc.annotations.HandlesActions
 import org.wordpress.android.fluxc.annotations.action.Action
 import org.wordpress.android.fluxc.model.SiteModel
 import org.wordpress.android.fluxc.model.WCProductSettingsModel
@@ -29,6 +28,7 @@ import javax.inject.Singleton
 import kotlin.math.absoluteValue
 
 @Singleton
+@HandlesActions(WCCoreAction::class)
 class WooCommerceStore @Inject constructor(
     private val appContext: Context,
     dispatcher: Dispatcher,
@@ -101,7 +101,6 @@ class WooCommerceStore @Inject constructor(
 
     override fun onRegister() = AppLog.d(T.API, "WooCommerceStore onRegister")
 
-    @Subscribe(threadMode = ThreadMode.ASYNC)
     override fun onAction(action: Action<*>) {
         val actionType = action.type as? WCCoreAction ?: return
         when (actionType) {